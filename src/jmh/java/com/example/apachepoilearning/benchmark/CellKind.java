@@ -0,0 +1,12 @@
+package com.example.apachepoilearning.benchmark;
+
+/**
+ * 벤치마크용 시트 XML에 채울 셀 타입
+ */
+public enum CellKind {
+    NUMERIC,
+    DATE,
+    SHARED_STRING,
+    INLINE_STRING,
+    BOOLEAN
+}
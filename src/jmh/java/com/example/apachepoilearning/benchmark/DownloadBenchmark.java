@@ -0,0 +1,78 @@
+package com.example.apachepoilearning.benchmark;
+
+import com.example.apachepoilearning.domain.download.service.DownloadService;
+import com.example.apachepoilearning.domain.memory.MemoryBudget;
+import com.example.apachepoilearning.domain.memory.MemoryEstimator;
+import com.example.apachepoilearning.excel.DelimitedFormat;
+import com.example.apachepoilearning.metrics.ExcelMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.unit.DataSize;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 다운로드 방식 비교: XSSFWorkbook (downloadXlsx) vs SXSSF 스트리밍 (writeXlsxStreaming) vs 시트 XML 직접 쓰기 (writeXlsxFast)
+ * vs 시트 병렬 생성 (writeXlsxParallel) vs CSV (writeDelimited, gzip 압축 여부)
+ * 사용자 데이터는 순회할 때마다 생성되므로 측정값에는 워크북 생성과 출력 비용만 포함됩니다.
+ * 메모리 예산은 기본값(최대 힙 크기의 절반)을 사용하므로, downloadXlsx는 예산에 들어가지 않는 행 수에서 SXSSF로 바뀝니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DownloadBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private DownloadService downloadService;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        ExcelMetrics metrics = new ExcelMetrics(new SimpleMeterRegistry());
+        downloadService = new DownloadService(100, metrics, executor,
+                new MemoryBudget(DataSize.ofBytes(0), 0.5, Duration.ofSeconds(30), metrics),
+                new MemoryEstimator(DataSize.ofMegabytes(8), 1024, 64, 4), true, true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int downloadXlsx() throws Exception {
+        return downloadService.downloadXlsx(SyntheticWorkbooks.users(rows)).length;
+    }
+
+    @Benchmark
+    public void writeXlsxStreaming() throws Exception {
+        downloadService.writeXlsxStreaming(SyntheticWorkbooks.users(rows), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void writeXlsxFast() throws Exception {
+        downloadService.writeXlsxFast(SyntheticWorkbooks.users(rows), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void writeXlsxParallel() throws Exception {
+        downloadService.writeXlsxParallel(SyntheticWorkbooks.users(rows), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void writeCsv() throws Exception {
+        downloadService.writeDelimited(SyntheticWorkbooks.users(rows), DelimitedFormat.CSV, false, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void writeCsvGzip() throws Exception {
+        downloadService.writeDelimited(SyntheticWorkbooks.users(rows), DelimitedFormat.CSV, true, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.apachepoilearning.benchmark;
+
+import com.example.apachepoilearning.domain.memory.MemoryBudget;
+import com.example.apachepoilearning.domain.memory.MemoryEstimator;
+import com.example.apachepoilearning.domain.upload.service.RowConsumer;
+import com.example.apachepoilearning.domain.upload.service.SheetParseResult;
+import com.example.apachepoilearning.domain.upload.service.UploadPlanner;
+import com.example.apachepoilearning.domain.upload.service.UploadService;
+import com.example.apachepoilearning.domain.upload.service.UploadStagingService;
+import com.example.apachepoilearning.metrics.ExcelMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 시트별 병렬 파싱(uploadSAXXlsxParallel): 시트 파싱 스레드 수에 따른 처리 시간
+ * threads가 1이면 시트를 하나씩 차례로 읽는 것과 같으므로, 4와 비교하면 시트 병렬화의 효과를 확인할 수 있습니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelSheetBenchmark {
+
+    private static final int SHEETS = 4;
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private Path file;
+    private UploadService uploadService;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() throws Exception {
+        file = Files.createTempFile("parallel-sheet-benchmark-", ".xlsx");
+        Files.write(file, SyntheticWorkbooks.userListXlsx(SHEETS, rows));
+
+        executor = Executors.newFixedThreadPool(threads);
+        // 파싱 경로만 측정하므로 저장(UserChunkWriter)과 업로드 파일 저장은 사용하지 않습니다.
+        ExcelMetrics metrics = new ExcelMetrics(new SimpleMeterRegistry());
+        uploadService = new UploadService(new UploadStagingService(file.getParent(), metrics), metrics, null, executor,
+                1000, DataSize.ofMegabytes(16), 1024, executor, 0, 1024,
+                new UploadPlanner(1000, 10000, 20000, 200000, DataSize.ofMegabytes(5), 100000),
+                true,
+                new MemoryBudget(DataSize.ofBytes(0), 0.5, Duration.ofSeconds(30), metrics),
+                new MemoryEstimator(DataSize.ofMegabytes(8), 1024, 64, 4));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        executor.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<SheetParseResult<RowConsumer>> uploadSAXXlsxParallel() throws Exception {
+        return uploadService.uploadSAXXlsxParallel(file, (sheetName, sst) -> new RowConsumer() {
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.apachepoilearning.benchmark;
+
+import com.example.apachepoilearning.entity.User;
+import com.example.apachepoilearning.excel.ExcelRowMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 셀 → 필드 매핑 비용 비교: 직접 작성한 setter 호출 vs ExcelRowMapper (LambdaMetafactory 접근자)
+ * 행 하나(이름, 이메일, 나이 세 셀)를 연산 하나로 계산합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RowMappingBenchmark {
+
+    private static final String[] NAMES = {"김철수", "이영희", "박민준", "최수정"};
+    private static final String[] EMAILS = {"kim@example.com", "lee@example.com", "park@example.com", "choi@example.com"};
+
+    private final ExcelRowMapper<User> mapper = ExcelRowMapper.of(User.class);
+    private int row;
+
+    @Benchmark
+    public User handWritten() {
+        int i = row++ & 3;
+        User user = new User();
+        user.setName(NAMES[i]);
+        user.setEmail(EMAILS[i]);
+        user.setAge((int) (20.0 + i));
+        return user;
+    }
+
+    @Benchmark
+    public User excelRowMapper() {
+        int i = row++ & 3;
+        User user = mapper.newInstance();
+        mapper.setString(user, 1, NAMES[i]);
+        mapper.setString(user, 2, EMAILS[i]);
+        mapper.setNumber(user, 3, 20.0 + i);
+        return user;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.apachepoilearning.benchmark;
+
+import com.example.apachepoilearning.domain.upload.service.RowConsumer;
+import com.example.apachepoilearning.domain.upload.service.SheetHandler;
+import com.example.apachepoilearning.domain.upload.service.SheetXmlScanner;
+import org.apache.poi.xssf.model.StylesTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.SAXParserFactory;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 셀 타입별 SheetHandler 처리량 (초당 셀 수): SAX 파서(parse) vs 바이트 단위 스캐너(scan)
+ * OperationsPerInvocation으로 셀 하나를 연산 하나로 계산하므로, gc.alloc.rate.norm은 셀당 할당 바이트입니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SheetHandlerBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int COLUMNS = 10;
+
+    @Param({"NUMERIC", "DATE", "SHARED_STRING", "INLINE_STRING", "BOOLEAN"})
+    public CellKind cellKind;
+
+    private byte[] sheetXml;
+    private StylesTable styles;
+    private XMLReader parser;
+
+    @Setup
+    public void setUp() throws Exception {
+        sheetXml = SyntheticWorkbooks.sheetXml(cellKind, ROWS, COLUMNS);
+        styles = SyntheticWorkbooks.dateStyles();
+        parser = SAXParserFactory.newInstance().newSAXParser().getXMLReader();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS * COLUMNS)
+    public long parse(Blackhole blackhole) throws Exception {
+        SheetHandler handler = new SheetHandler(new BlackholeRowConsumer(blackhole), styles);
+        parser.setContentHandler(handler);
+        parser.parse(new InputSource(new ByteArrayInputStream(sheetXml)));
+        return handler.getCellCount();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS * COLUMNS)
+    public long scan(Blackhole blackhole) throws Exception {
+        SheetHandler handler = new SheetHandler(new BlackholeRowConsumer(blackhole), styles);
+        SheetXmlScanner.forCurrentThread().scan(new ByteArrayInputStream(sheetXml), handler);
+        return handler.getCellCount();
+    }
+
+    /**
+     * 전달받은 값을 Blackhole로 넘겨 JIT가 변환 코드를 제거하지 못하게 하는 RowConsumer
+     */
+    private record BlackholeRowConsumer(Blackhole blackhole) implements RowConsumer {
+
+        @Override
+        public void numericCell(int columnIndex, double value) {
+            blackhole.consume(value);
+        }
+
+        @Override
+        public void dateCell(int columnIndex, double excelDate) {
+            blackhole.consume(excelDate);
+        }
+
+        @Override
+        public void sharedStringCell(int columnIndex, int sharedStringIndex) {
+            blackhole.consume(sharedStringIndex);
+        }
+
+        @Override
+        public void inlineStringCell(int columnIndex, CharSequence value) {
+            blackhole.consume(value);
+        }
+
+        @Override
+        public void booleanCell(int columnIndex, boolean value) {
+            blackhole.consume(value);
+        }
+    }
+}
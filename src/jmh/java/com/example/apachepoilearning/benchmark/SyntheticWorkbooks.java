@@ -0,0 +1,188 @@
+package com.example.apachepoilearning.benchmark;
+
+import com.example.apachepoilearning.entity.User;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * 벤치마크 입력 데이터를 만드는 생성기
+ * 고정된 시드의 Random을 사용하므로, 네트워크나 외부 파일 없이도 실행할 때마다 같은 데이터가 만들어집니다.
+ */
+public final class SyntheticWorkbooks {
+
+    private static final long SEED = 20250101L;
+
+    // 날짜 서식("m/d/yy", 내장 서식 14)이 적용된 스타일 인덱스
+    public static final int DATE_STYLE_INDEX = 1;
+
+    private static final String[] FAMILY_NAMES = {"김", "이", "박", "최", "정", "강", "조", "윤", "장", "임"};
+    private static final String[] GIVEN_NAMES = {"철수", "영희", "민준", "수정", "지훈", "서연", "도윤", "하은"};
+
+    private SyntheticWorkbooks() {
+    }
+
+    /**
+     * count 명의 사용자를 순회할 때마다 생성합니다. (목록 전체를 메모리에 두지 않음)
+     * 크기는 알 수 있도록 Collection으로 반환합니다. (DownloadService.downloadXlsx가 메모리 예산을 어림할 때 사용)
+     */
+    public static Collection<User> users(int count) {
+        return new AbstractCollection<>() {
+            @Override
+            public int size() {
+                return count;
+            }
+
+            @Override
+            public Iterator<User> iterator() {
+                return new Iterator<>() {
+                    private final Random random = new Random(SEED);
+                    private long id = 1;
+
+                    @Override
+                    public boolean hasNext() {
+                        return id <= count;
+                    }
+
+                    @Override
+                    public User next() {
+                        String name = FAMILY_NAMES[random.nextInt(FAMILY_NAMES.length)] + GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)];
+                        User user = new User(id, name, "user" + id + "@example.com", 20 + random.nextInt(40));
+                        id++;
+                        return user;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * 다운로드 파일의 "User List" 시트와 같은 형식(ID, 이름, 이메일, 나이)의 XLSX 파일을 만듭니다.
+     * 문자열은 업로드 경로와 같게 공유 문자열 테이블에 저장합니다.
+     *
+     * @param rows 데이터 행 수 (헤더 제외)
+     * @return XLSX 파일 바이트
+     */
+    public static byte[] userListXlsx(int rows) throws IOException {
+        return userListXlsx(1, rows);
+    }
+
+    /**
+     * userListXlsx와 같은 형식의 시트를 sheets 개 담은 XLSX 파일을 만듭니다. (시트 이름: "User List 1", "User List 2", ...)
+     * 한 개이면 시트 이름은 "User List"입니다.
+     *
+     * @param sheets 시트 수
+     * @param rows 시트마다의 데이터 행 수 (헤더 제외)
+     * @return XLSX 파일 바이트
+     */
+    public static byte[] userListXlsx(int sheets, int rows) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(null, 100, true, true);
+        try {
+            for (int s = 1; s <= sheets; s++) {
+                writeUserList(workbook.createSheet(sheets == 1 ? "User List" : "User List " + s), rows);
+            }
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            workbook.write(outputStream);
+            return outputStream.toByteArray();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static void writeUserList(Sheet sheet, int rows) {
+        Row header = sheet.createRow(0);
+        String[] headers = {"ID", "이름", "이메일", "나이"};
+        for (int i = 0; i < headers.length; i++) {
+            header.createCell(i).setCellValue(headers[i]);
+        }
+        int rowNum = 1;
+        for (User user : users(rows)) {
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(user.getId());
+            row.createCell(1).setCellValue(user.getName());
+            row.createCell(2).setCellValue(user.getEmail());
+            row.createCell(3).setCellValue(user.getAge());
+        }
+    }
+
+    /**
+     * userListXlsx와 같은 내용의 CSV 파일을 만듭니다.
+     *
+     * @param rows 데이터 행 수 (헤더 제외)
+     * @return UTF-8 CSV 바이트
+     */
+    public static byte[] userListCsv(int rows) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
+            writer.write("ID,이름,이메일,나이\r\n");
+            for (User user : users(rows)) {
+                writer.write(user.getId() + "," + user.getName() + "," + user.getEmail() + "," + user.getAge() + "\r\n");
+            }
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * 한 가지 타입의 셀만 담긴 시트 XML(sheetN.xml)을 만듭니다.
+     *
+     * @param kind 셀 타입
+     * @param rows 행 수
+     * @param columns 열 수
+     * @return UTF-8 시트 XML 바이트
+     */
+    public static byte[] sheetXml(CellKind kind, int rows, int columns) throws IOException {
+        Random random = new Random(SEED);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+            writer.write("<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+            for (int r = 1; r <= rows; r++) {
+                writer.write("<row r=\"" + r + "\">");
+                for (int c = 0; c < columns; c++) {
+                    String ref = columnName(c) + r;
+                    switch (kind) {
+                        case NUMERIC -> writer.write("<c r=\"" + ref + "\"><v>" + random.nextInt(1_000_000) / 100.0 + "</v></c>");
+                        case DATE -> writer.write("<c r=\"" + ref + "\" s=\"" + DATE_STYLE_INDEX + "\"><v>" + (40000 + random.nextInt(10000)) + "</v></c>");
+                        case SHARED_STRING -> writer.write("<c r=\"" + ref + "\" t=\"s\"><v>" + random.nextInt(10000) + "</v></c>");
+                        case INLINE_STRING -> writer.write("<c r=\"" + ref + "\" t=\"inlineStr\"><is><t>user" + random.nextInt(10000) + "@example.com</t></is></c>");
+                        case BOOLEAN -> writer.write("<c r=\"" + ref + "\" t=\"b\"><v>" + (random.nextBoolean() ? 1 : 0) + "</v></c>");
+                    }
+                }
+                writer.write("</row>");
+            }
+            writer.write("</sheetData></worksheet>");
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * DATE_STYLE_INDEX에 날짜 서식이 적용된 스타일 테이블을 만듭니다.
+     */
+    public static StylesTable dateStyles() {
+        StylesTable styles = new StylesTable();
+        XSSFCellStyle dateStyle = styles.createCellStyle();
+        dateStyle.setDataFormat((short) 14);
+        return styles;
+    }
+
+    private static String columnName(int columnIndex) {
+        StringBuilder name = new StringBuilder();
+        for (int c = columnIndex + 1; c > 0; c = (c - 1) / 26) {
+            name.insert(0, (char) ('A' + (c - 1) % 26));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.apachepoilearning.benchmark;
+
+import com.example.apachepoilearning.domain.memory.MemoryBudget;
+import com.example.apachepoilearning.domain.memory.MemoryEstimator;
+import com.example.apachepoilearning.domain.upload.service.RowConsumer;
+import com.example.apachepoilearning.domain.upload.service.StagedUpload;
+import com.example.apachepoilearning.domain.upload.service.UploadPlanner;
+import com.example.apachepoilearning.domain.upload.service.UploadPreview;
+import com.example.apachepoilearning.domain.upload.service.UploadService;
+import com.example.apachepoilearning.domain.upload.service.UploadStagingService;
+import com.example.apachepoilearning.metrics.ExcelMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드 방식 비교: XSSFWorkbook (객체 모델) vs SAX (이벤트 모델, 시트 XML은 SAX 파서 또는 SheetXmlScanner로 읽음)
+ * vs 같은 내용의 CSV (DelimitedScanner, byteScanner 값과 관계없음)
+ * inspect는 파일 앞부분만 읽으므로 행 수와 관계없이 거의 일정해야 합니다. (파일을 임시 파일로 저장하는 시간 포함)
+ * 두 메서드 모두 콘솔 출력을 하므로, 측정하는 동안 System.out은 버립니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UploadBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    // uploadSAXXlsx의 시트 XML 읽기 방식: true이면 SheetXmlScanner, false이면 SAX 파서
+    @Param({"true", "false"})
+    public boolean byteScanner;
+
+    private MockMultipartFile file;
+    private MockMultipartFile csvFile;
+    private UploadStagingService stagingService;
+    private UploadService uploadService;
+    private ExecutorService executor;
+    private Path stagingDir;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws Exception {
+        byte[] xlsx = SyntheticWorkbooks.userListXlsx(rows);
+        file = new MockMultipartFile("file", "users.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", xlsx);
+        csvFile = new MockMultipartFile("file", "users.csv", "text/csv", SyntheticWorkbooks.userListCsv(rows));
+
+        stagingDir = Files.createTempDirectory("upload-benchmark-");
+        executor = Executors.newSingleThreadExecutor();
+        // 파싱 경로만 측정하므로 저장(UserChunkWriter)은 사용하지 않습니다.
+        ExcelMetrics metrics = new ExcelMetrics(new SimpleMeterRegistry());
+        stagingService = new UploadStagingService(stagingDir, metrics);
+        uploadService = new UploadService(stagingService, metrics, null, executor,
+                1000, DataSize.ofMegabytes(16), 1024, executor, 0, 1024,
+                new UploadPlanner(1000, 10000, 20000, 200000, DataSize.ofMegabytes(5), 100000),
+                byteScanner,
+                new MemoryBudget(DataSize.ofBytes(0), 0.5, Duration.ofSeconds(30), metrics),
+                new MemoryEstimator(DataSize.ofMegabytes(8), 1024, 64, 4));
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        System.setOut(originalOut);
+        executor.shutdown();
+        Files.deleteIfExists(stagingDir);
+    }
+
+    @Benchmark
+    public void uploadXlsx() throws Exception {
+        uploadService.uploadXlsx(file);
+    }
+
+    @Benchmark
+    public void uploadSAXXlsx() throws Exception {
+        uploadService.uploadSAXXlsx(file);
+    }
+
+    @Benchmark
+    public UploadPreview inspect() throws Exception {
+        return uploadService.inspect(file, 10);
+    }
+
+    @Benchmark
+    public void uploadCsv() throws Exception {
+        try (StagedUpload staged = stagingService.stage(csvFile)) {
+            uploadService.uploadDelimited(staged.file(), staged.format(), new RowConsumer() {
+            });
+        }
+    }
+}
@@ -1,59 +1,347 @@
 package com.example.apachepoilearning.api;
 
+import com.example.apachepoilearning.domain.download.cache.ExportSnapshot;
+import com.example.apachepoilearning.domain.download.cache.ExportSnapshotCache;
 import com.example.apachepoilearning.domain.download.service.DownloadService;
+import com.example.apachepoilearning.domain.download.service.UserExportService;
+import com.example.apachepoilearning.domain.memory.MemoryReservation;
+import com.example.apachepoilearning.excel.DelimitedFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * GET 요청을 통해 데이터베이스의 사용자 정보를 포함한 Excel 파일을 다운로드합니다.
+ * "/download"와 "/download/users"는 Accept 헤더(또는 format 파라미터)가 text/csv, text/tab-separated-values이면
+ * 같은 사용자 목록을 CSV/TSV로 제공하고, Accept-Encoding에 gzip이 있으면 gzip으로 압축하여 전송합니다.
  */
 @Controller
 public class DownloadController {
 
+    private static final MediaType XLSX = MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
     // Excel 파일 생성 비즈니스 로직을 담당하는 서비스 의존성 선언
     private final DownloadService downloadService;
+    // users 테이블을 엑셀로 내보내는 서비스
+    private final UserExportService userExportService;
+    // 생성된 엑셀 파일을 디스크에 보관하는 캐시
+    private final ExportSnapshotCache exportSnapshotCache;
 
-    // DownloadService를 주입받기 위한 생성자
-    public DownloadController(DownloadService downloadService) {
+    // DownloadService, UserExportService, ExportSnapshotCache를 주입받기 위한 생성자
+    public DownloadController(DownloadService downloadService, UserExportService userExportService,
+                              ExportSnapshotCache exportSnapshotCache) {
         this.downloadService = downloadService;
+        this.userExportService = userExportService;
+        this.exportSnapshotCache = exportSnapshotCache;
     }
 
     /**
      * "/download" 경로로 들어오는 GET 요청을 처리하여 Excel 파일을 클라이언트에 제공합니다.
-     * @return 생성된 Excel 파일의 바이트 배열과 적절한 HTTP 헤더, HTTP 상태 코드(200 OK)를 포함하는 ResponseEntity
+     * 생성된 파일은 스냅샷 캐시에 저장되므로, 같은 날 반복된 요청은 워크북을 다시 만들지 않고 저장된 파일을 전송합니다.
+     * 클라이언트가 If-None-Match로 같은 ETag를 보내면 본문 없이 304 (Not Modified)로 응답합니다.
+     * 메모리 예산이 부족하여 파일을 만들지 못하면 503 (Service Unavailable)으로 응답합니다.
+     * CSV/TSV를 요청하면 "User List" 시트와 같은 사용자 목록만 담은 파일을 제공합니다.
+     * @param format 응답 형식 (csv, tsv, xlsx, 없으면 Accept 헤더로 정함)
+     * @param accept 클라이언트가 받을 수 있는 형식
+     * @param acceptEncoding 클라이언트가 받을 수 있는 압축 방식
+     * @param ifNoneMatch 클라이언트가 가지고 있는 파일의 ETag
+     * @return 스냅샷 파일을 응답 스트림에 쓰는 StreamingResponseBody와 ETag, Last-Modified 헤더를 포함하는 ResponseEntity
      */
     @GetMapping("/download")
-    public ResponseEntity<?> downloadProcess() throws IOException {
+    public ResponseEntity<StreamingResponseBody> downloadProcess(
+            @RequestParam(value = "format", required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws IOException {
+
+        DelimitedFormat delimitedFormat = negotiate(format, accept);
+        if (delimitedFormat != null) {
+            boolean gzip = acceptsGzip(acceptEncoding);
+            ExportSnapshot snapshot = exportSnapshotCache.get(delimitedReport("sample", delimitedFormat, gzip), LocalDate.now().toString(),
+                    outputStream -> downloadService.writeDelimited(delimitedFormat, gzip, outputStream));
+            return snapshotResponse(snapshot, delimitedHeaders("다운로드된_파일", delimitedFormat, gzip), ifNoneMatch);
+        }
 
-        // 엑셀 데이터는 byte[]로 받음
-        byte[] excelBytes = downloadService.downloadXlsx();
+        // 예제 데이터의 "Daily Data" 시트는 오늘 날짜를 기준으로 만들어지므로 날짜를 데이터 버전으로 사용합니다.
+        // 엑셀 데이터는 byte[]로 받아 스냅샷 파일에 씁니다. (캐시에 없을 때만 생성)
+        ExportSnapshot snapshot;
+        try {
+            snapshot = exportSnapshotCache.get("sample", LocalDate.now().toString(),
+                    outputStream -> outputStream.write(downloadService.downloadXlsx()));
+        } catch (RejectedExecutionException e) {
+            return serviceUnavailable();
+        }
 
         // 클라이언트(브라우저)에게 다운로드될 파일의 원본 이름
-        String fileName = "다운로드된_엑셀_파일.xlsx";
+        return snapshotResponse(snapshot, negotiatedHeaders(attachmentHeaders("다운로드된_엑셀_파일.xlsx")), ifNoneMatch);
+    }
+
+    /**
+     * "/download/stream" 경로로 들어오는 GET 요청을 처리하여 Excel 파일을 응답 스트림에 직접 씁니다.
+     * byte[]로 반환하는 방식과 달리 ByteArrayOutputStream 버퍼와 toByteArray() 복사본을 만들지 않습니다.
+     * "User List" 시트는 DownloadService.writeXlsxFast가 SheetXmlWriter로 행을 만드는 대로 압축하여 응답 스트림에 쓰고,
+     * Content-Length 없이 chunked 전송되므로 파일 전체가 완성되기 전에 첫 바이트가 클라이언트에 도달합니다.
+     * (SXSSF는 모든 행을 임시 파일에 쓴 뒤 workbook.write에서야 출력을 시작하므로 이 경로에서는 사용하지 않습니다)
+     * 메모리 예산이 부족하여 파일을 만들지 못하면 503 (Service Unavailable)으로 응답합니다.
+     * @return 서블릿 출력 스트림에 Excel 파일을 쓰는 StreamingResponseBody와 HTTP 헤더를 포함하는 ResponseEntity
+     */
+    @GetMapping("/download/stream")
+    public ResponseEntity<StreamingResponseBody> downloadStreamProcess() {
+
+        // 본문이 실행될 때는 이미 200 응답 헤더가 전송된 뒤이므로, 메모리 예산은 요청 스레드에서 미리 예약합니다.
+        MemoryReservation reservation;
+        try {
+            reservation = downloadService.reserveStreaming();
+        } catch (RejectedExecutionException e) {
+            return serviceUnavailable();
+        }
+
+        // StreamingResponseBody는 요청 스레드가 아닌 비동기 스레드에서 실행되며,
+        // 전달받은 outputStream은 서블릿 응답 출력 스트림입니다.
+        StreamingResponseBody body = outputStream -> {
+            try (reservation) {
+                downloadService.writeXlsxFast(outputStream);
+            }
+        };
+
+        return new ResponseEntity<>(body, attachmentHeaders("다운로드된_엑셀_파일.xlsx"), HttpStatus.OK);
+    }
+
+    /**
+     * "/download/parallel" 경로로 들어오는 GET 요청을 처리하여, 시트들을 동시에 생성한 Excel 파일을 응답 스트림에 씁니다.
+     * 파일 내용은 "/download/stream"과 같습니다.
+     * 메모리 예산이 부족하여 파일을 만들지 못하면 503 (Service Unavailable)으로 응답합니다.
+     * @return 서블릿 출력 스트림에 Excel 파일을 쓰는 StreamingResponseBody와 HTTP 헤더를 포함하는 ResponseEntity
+     */
+    @GetMapping("/download/parallel")
+    public ResponseEntity<StreamingResponseBody> downloadParallelProcess() {
+
+        // "/download/stream"과 같이 응답 헤더를 보내기 전에 요청 스레드에서 예약합니다.
+        MemoryReservation reservation;
+        try {
+            reservation = downloadService.reserveParallel();
+        } catch (RejectedExecutionException e) {
+            return serviceUnavailable();
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try (reservation) {
+                downloadService.writeXlsxParallel(outputStream);
+            }
+        };
+
+        return new ResponseEntity<>(body, attachmentHeaders("다운로드된_엑셀_파일.xlsx"), HttpStatus.OK);
+    }
+
+    /**
+     * "/download/users" 경로로 들어오는 GET 요청을 처리하여 users 테이블 전체를 Excel 파일로 제공합니다.
+     * 테이블의 데이터 버전(행 수, 가장 큰 id, row_version의 합)이 같으면 스냅샷 캐시의 파일을 전송하고, ETag가 같으면 304로 응답합니다.
+     * 캐시에 없을 때는 DB 커서에서 읽은 행이 바로 시트에 기록되므로 테이블 크기와 관계없이 메모리 사용량이 일정합니다.
+     * CSV/TSV는 워크북과 zip 압축 없이 행을 바로 텍스트로 쓰므로, 수백만 행을 내보낼 때 엑셀 파일보다 훨씬 적은 CPU를 사용합니다.
+     * @param format 응답 형식 (csv, tsv, xlsx, 없으면 Accept 헤더로 정함)
+     * @param accept 클라이언트가 받을 수 있는 형식
+     * @param acceptEncoding 클라이언트가 받을 수 있는 압축 방식
+     * @param ifNoneMatch 클라이언트가 가지고 있는 파일의 ETag
+     * @return 스냅샷 파일을 응답 스트림에 쓰는 StreamingResponseBody와 ETag, Last-Modified 헤더를 포함하는 ResponseEntity
+     */
+    @GetMapping("/download/users")
+    public ResponseEntity<StreamingResponseBody> downloadUsersProcess(
+            @RequestParam(value = "format", required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws IOException {
+
+        DelimitedFormat delimitedFormat = negotiate(format, accept);
+        if (delimitedFormat != null) {
+            boolean gzip = acceptsGzip(acceptEncoding);
+            ExportSnapshot snapshot = exportSnapshotCache.get(delimitedReport("users", delimitedFormat, gzip), userExportService.dataVersion(),
+                    outputStream -> userExportService.writeUsersDelimited(delimitedFormat, gzip, outputStream));
+            return snapshotResponse(snapshot, delimitedHeaders("사용자_목록", delimitedFormat, gzip), ifNoneMatch);
+        }
+
+        // 트랜잭션은 UserExportService에서 시작합니다.
+        ExportSnapshot snapshot = exportSnapshotCache.get("users", userExportService.dataVersion(),
+                userExportService::writeUsersXlsx);
+
+        return snapshotResponse(snapshot, negotiatedHeaders(attachmentHeaders("사용자_목록.xlsx")), ifNoneMatch);
+    }
+
+    /**
+     * 스냅샷 파일을 응답으로 변환합니다.
+     * If-None-Match가 스냅샷의 ETag와 같으면 304, 아니면 파일 전체를 FileChannel.transferTo로 전송합니다.
+     * 스냅샷은 304로 응답하거나 본문 전송이 끝나면 캐시에 release합니다.
+     * @param snapshot 전송할 스냅샷 (ExportSnapshotCache.get으로 받은 스냅샷)
+     * @param headers 파일 이름, 형식 등 응답 헤더 (attachmentHeaders, delimitedHeaders)
+     * @param ifNoneMatch 클라이언트가 가지고 있는 파일의 ETag
+     */
+    private ResponseEntity<StreamingResponseBody> snapshotResponse(ExportSnapshot snapshot, HttpHeaders headers, String ifNoneMatch) {
+
+        if (snapshot.matches(ifNoneMatch)) {
+            exportSnapshotCache.release(snapshot);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.etag())
+                    .lastModified(snapshot.lastModified())
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(headers.getVary().toArray(String[]::new))
+                    .build();
+        }
+
+        headers.setETag(snapshot.etag());
+        headers.setLastModified(snapshot.lastModified());
+        // no-cache: 클라이언트가 캐시한 파일을 쓰기 전에 항상 ETag로 재검증하도록 합니다.
+        headers.setCacheControl(CacheControl.noCache());
+        headers.setContentLength(snapshot.size());
+
+        // 파일은 본문이 실행될 때 엽니다. 그때까지는 캐시에서 제거되더라도 release 전이므로 삭제되지 않습니다.
+        StreamingResponseBody body = outputStream -> {
+            try (FileChannel channel = snapshot.open()) {
+                snapshot.transferTo(channel, outputStream);
+            } finally {
+                exportSnapshotCache.release(snapshot);
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
 
+    /**
+     * 메모리 예산이 부족할 때의 응답입니다. 요청을 쌓아두지 않고 잠시 후 다시 시도하도록 응답합니다.
+     */
+    private static <T> ResponseEntity<T> serviceUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .build();
+    }
+
+    /**
+     * 엑셀 파일 다운로드 응답에 필요한 HTTP 헤더를 생성합니다.
+     * @param fileName 클라이언트(브라우저)에게 다운로드될 파일의 원본 이름
+     * @return Content-Disposition, Content-Type 헤더가 설정된 HttpHeaders
+     */
+    private HttpHeaders attachmentHeaders(String fileName) {
+        return attachmentHeaders(fileName, XLSX.toString());
+    }
+
+    /**
+     * 다운로드 응답에 필요한 HTTP 헤더를 생성합니다.
+     * @param fileName 클라이언트(브라우저)에게 다운로드될 파일의 원본 이름
+     * @param contentType 응답 본문의 미디어 타입
+     * @return Content-Disposition, Content-Type 헤더가 설정된 HttpHeaders
+     */
+    private HttpHeaders attachmentHeaders(String fileName, String contentType) {
         // 1. 파일명을 UTF-8 문자셋으로 URL 인코딩
         // 2. URLEncoder는 공백을 '+'로 인코딩하므로, HTTP 헤더 표준에 맞게 이를 '%20'으로 다시 치환
         String encodedFileName = java.net.URLEncoder.encode(fileName, StandardCharsets.UTF_8).replaceAll("\\+", "%20");
 
-        // 응답 헤더 (엑셀 파일로)
         HttpHeaders headers = new HttpHeaders();
         // Content-Disposition 헤더 설정: 파일을 다운로드하도록 지시하며, 다운로드될 파일명을 지정합니다.
         // "attachment"는 브라우저가 파일을 다운로드하도록 유도하고, "filename"은 파일명을 명시합니다.
         headers.add("Content-Disposition", "attachment; filename=\"" + encodedFileName + "\"");
-        // Content-Type 헤더 설정: 응답 본문의 미디어 타입이 Excel .xlsx 파일임을 브라우저에 알립니다.
-        headers.add("Content-Type", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-
-        // 최종 ResponseEntity 반환:
-        // 1. excelBytes: 응답 본문에 포함될 Excel 파일 데이터 (byte 배열)
-        // 2. headers: 위에서 설정한 HTTP 응답 헤더
-        // 3. HttpStatus.OK: HTTP 상태 코드 200 (성공)
-        return new ResponseEntity<>(excelBytes, headers, HttpStatus.OK);
+        // Content-Type 헤더 설정: 응답 본문의 미디어 타입(Excel .xlsx 파일 등)을 브라우저에 알립니다.
+        headers.add("Content-Type", contentType);
+        return headers;
+    }
+
+    /**
+     * CSV/TSV 다운로드 응답 헤더를 생성합니다. gzip으로 압축한 파일이면 Content-Encoding: gzip을 설정합니다.
+     * @param baseName 확장자를 제외한 파일 이름
+     */
+    private HttpHeaders delimitedHeaders(String baseName, DelimitedFormat format, boolean gzip) {
+        HttpHeaders headers = attachmentHeaders(baseName + "." + format.extension(), format.mediaType() + ";charset=UTF-8");
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return negotiatedHeaders(headers);
+    }
+
+    /**
+     * 같은 경로가 Accept, Accept-Encoding에 따라 다른 파일을 응답하므로, 중간 캐시가 구분할 수 있도록 Vary 헤더를 설정합니다.
+     */
+    private static HttpHeaders negotiatedHeaders(HttpHeaders headers) {
+        headers.setVary(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING));
+        return headers;
+    }
+
+    /**
+     * @return 스냅샷 캐시에서 형식과 압축 여부별로 따로 보관하기 위한 보고서 이름 (예: "users.csv.gz")
+     */
+    private static String delimitedReport(String report, DelimitedFormat format, boolean gzip) {
+        return report + "." + format.extension() + (gzip ? ".gz" : "");
+    }
+
+    /**
+     * 응답 형식을 정합니다. format 파라미터가 있으면 그 값을, 없으면 Accept 헤더에서 품질 값(q)이 가장 높은 형식을 사용합니다.
+     * Accept 헤더에 엑셀, CSV, TSV가 명시되지 않았거나(브라우저의 *&#47;* 등) 형식을 해석할 수 없으면 엑셀 파일로 응답합니다.
+     * @return CSV 또는 TSV, 엑셀 파일이면 null
+     */
+    private static DelimitedFormat negotiate(String format, String accept) {
+        if (format != null && !format.isBlank()) {
+            return DelimitedFormat.fromFileName(format);
+        }
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        DelimitedFormat best = null;
+        double bestQuality = 0;
+        for (MediaType mediaType : mediaTypes) {
+            double quality = mediaType.getQualityValue();
+            if (quality <= bestQuality) {
+                continue;
+            }
+            DelimitedFormat candidate = DelimitedFormat.fromMediaType(mediaType.getType() + "/" + mediaType.getSubtype());
+            if (candidate != null || XLSX.equalsTypeAndSubtype(mediaType)) {
+                best = candidate;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return Accept-Encoding에 gzip이 있고 q=0으로 거절되지 않았으면 true
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
     }
 
 }
@@ -1,13 +1,23 @@
 package com.example.apachepoilearning.api;
 
+import com.example.apachepoilearning.domain.upload.job.UploadJob;
+import com.example.apachepoilearning.domain.upload.job.UploadJobService;
+import com.example.apachepoilearning.domain.upload.job.UploadJobStatus;
+import com.example.apachepoilearning.domain.upload.service.UploadPreview;
 import com.example.apachepoilearning.domain.upload.service.UploadService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 엑셀 파일 업로드 기능 담당
@@ -16,9 +26,11 @@ import java.io.IOException;
 @Controller
 public class UploadController {
 
+    private final UploadJobService uploadJobService;
     private final UploadService uploadService;
 
-    public UploadController(UploadService uploadService) {
+    public UploadController(UploadJobService uploadJobService, UploadService uploadService) {
+        this.uploadJobService = uploadJobService;
         this.uploadService = uploadService;
     }
 
@@ -31,17 +43,74 @@ public class UploadController {
     }
 
     /**
-     * POST 요청으로 /upload 경로에 파일이 전송되었을 때 파일을 처리합니다.
-     * 전송된 엑셀 파일을 읽어 비즈니스 로직을 수행합니다.
+     * POST 요청으로 /upload 경로에 파일이 전송되었을 때 파일을 업로드 작업으로 등록합니다.
+     * 파일은 임시 파일로 저장된 뒤 작업 스레드 풀에서 비동기로 users 테이블에 저장되며,
+     * 요청 스레드는 작업 id를 응답하고 즉시 반환됩니다.
+     * mode=delta이면 같은 원본(source, 기본값: 파일명)으로 이전에 올린 시트와 비교하여 바뀐 행만 반영합니다.
+     * 반영 결과(INSERT, UPDATE, DELETE 건수 등)는 작업이 끝난 뒤 상태 조회 응답의 delta에 담깁니다.
+     * 파일 파트의 Content-Type이 text/csv, text/tab-separated-values이거나 확장자가 .csv, .tsv(.gz 압축 포함)이면
+     * 엑셀 파일과 같은 열 순서(ID, 이름, 이메일, 나이)의 CSV/TSV로 읽습니다.
      *
      * @param file 클라이언트로부터 전송된 MultipartFile 객체 (업로드된 파일 데이터)
-     * @return 파일 처리 후 다시 /upload 경로로 리다이렉트합니다.
+     * @param mode 저장 방식 ("append": 모든 행 추가, "delta": 변경분만 반영)
+     * @param source 변경분 업로드의 원본 이름 (없으면 파일명)
+     * @return 202 Accepted와 작업 상태 (Location 헤더: 상태 조회 경로), 작업 큐가 가득 찬 경우 503 Service Unavailable,
+     *         mode=delta인데 원본 이름과 파일명이 모두 없는 경우 400 Bad Request
      * @throws IOException 파일 처리 중 발생할 수 있는 입출력 예외
      */
     @PostMapping("/upload")
-    public String uploadProcess(@RequestParam("file") MultipartFile file) throws Exception {
-        // uploadService.uploadXlsx(file);
-        uploadService.uploadSAXXlsx(file);
-        return "redirect:/upload";
+    public ResponseEntity<UploadJobStatus> uploadProcess(@RequestParam("file") MultipartFile file,
+                                                         @RequestParam(value = "mode", defaultValue = "append") String mode,
+                                                         @RequestParam(value = "source", required = false) String source) throws IOException {
+        String deltaSource = null;
+        if ("delta".equalsIgnoreCase(mode)) {
+            deltaSource = source != null && !source.isBlank() ? source : file.getOriginalFilename();
+            // 원본 이름이 없으면 이전 업로드를 찾을 수 없으므로, 모든 행을 추가하는 업로드로 바꾸지 않고 거절합니다.
+            if (deltaSource == null || deltaSource.isBlank()) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        UploadJob job;
+        try {
+            job = uploadJobService.submit(file, deltaSource);
+        } catch (RejectedExecutionException e) {
+            // 작업 큐가 가득 찬 경우, 작업을 쌓아두지 않고 잠시 후 다시 시도하도록 응답합니다.
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/upload/jobs/" + job.getId()))
+                .body(UploadJobStatus.of(job));
+    }
+
+    /**
+     * 업로드 파일을 저장하지 않고, 시트 이름, 행/열 범위(dimension), 헤더와 열 종류, 앞부분 행과 처리 방식을 확인합니다.
+     * 파일 앞부분만 읽으므로 대용량 파일도 바로 응답합니다.
+     *
+     * @param file 클라이언트로부터 전송된 MultipartFile 객체
+     * @param rows 헤더 다음에 읽을 행 수
+     * @return 워크북 정보와 처리 방식
+     * @throws Exception 파일 처리 중 발생할 수 있는 예외
+     */
+    @PostMapping("/upload/inspect")
+    public ResponseEntity<UploadPreview> inspect(@RequestParam("file") MultipartFile file,
+                                                 @RequestParam(value = "rows", defaultValue = "10") int rows) throws Exception {
+        return ResponseEntity.ok(uploadService.inspect(file, Math.max(rows, 0)));
+    }
+
+    /**
+     * 업로드 작업의 진행 상황(변환, 저장된 행 수, 처리 속도, 오류)을 조회합니다.
+     *
+     * @param jobId 업로드 요청 시 응답받은 작업 id
+     * @return 작업 상태, 작업이 없으면 404 Not Found
+     */
+    @GetMapping("/upload/jobs/{jobId}")
+    public ResponseEntity<UploadJobStatus> uploadStatus(@PathVariable String jobId) {
+        return uploadJobService.find(jobId)
+                .map(UploadJobStatus::of)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
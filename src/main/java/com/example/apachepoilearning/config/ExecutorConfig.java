@@ -0,0 +1,84 @@
+package com.example.apachepoilearning.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 엑셀 처리에 사용하는 스레드 풀 설정
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * 여러 시트를 동시에 SAX 파싱하기 위한 스레드 풀
+     * 스레드 수와 대기 큐 크기가 모두 제한되어 있으며, 큐가 가득 차면 작업을 제출한 스레드가 직접 파싱하므로
+     * 동시에 업로드가 몰려도 작업이 메모리에 무한정 쌓이지 않습니다.
+     * (Java 17 기준이므로 플랫폼 스레드를 사용합니다. Java 21 이상에서는 가상 스레드로 교체할 수 있습니다.)
+     *
+     * @param threads 파싱 스레드 수 (기본값: CPU 코어 수)
+     * @param queueCapacity 대기 큐 크기
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService sheetParseExecutor(
+            @Value("${excel.upload.parse-threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+            @Value("${excel.upload.parse-queue-capacity:64}") int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("sheet-parse-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * 병렬 다운로드에서 시트를 동시에 생성하기 위한 스레드 풀
+     * sheetParseExecutor와 같이 스레드 수와 대기 큐 크기가 제한되어 있으며, 큐가 가득 차면 요청 스레드가 직접 시트를 생성합니다.
+     *
+     * @param threads 시트 생성 스레드 수 (기본값: CPU 코어 수)
+     * @param queueCapacity 대기 큐 크기
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService sheetRenderExecutor(
+            @Value("${excel.download.render-threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+            @Value("${excel.download.render-queue-capacity:64}") int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("sheet-render-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * 비동기 업로드 작업을 처리하는 스레드 풀
+     * 대기 큐가 가득 차면 AbortPolicy에 의해 RejectedExecutionException이 발생하며,
+     * 컨트롤러는 이를 503 응답으로 변환하여 클라이언트가 나중에 다시 시도하도록 합니다.
+     *
+     * @param workers 동시에 처리할 업로드 작업 수
+     * @param queueCapacity 대기 가능한 업로드 작업 수
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService uploadJobExecutor(
+            @Value("${excel.upload.job.workers:2}") int workers,
+            @Value("${excel.upload.job.queue-capacity:8}") int queueCapacity) {
+        return new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("upload-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 업로드 파이프라인(RowPipeline)의 변환 워커와 writer를 실행하는 스레드 풀
+     * 파이프라인의 작업들은 서로를 기다리므로 모두 동시에 실행되어야 합니다. 큐에 대기시키면 교착 상태가 될 수 있어
+     * 필요한 만큼 스레드를 만드는 캐시 스레드 풀을 사용합니다.
+     * 파이프라인은 업로드 작업 안에서만 실행되므로 스레드 수는 uploadJobExecutor의 workers × (파이프라인 워커 수 + 1)을 넘지 않습니다.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService rowPipelineExecutor() {
+        return Executors.newCachedThreadPool(new CustomizableThreadFactory("row-pipeline-"));
+    }
+}
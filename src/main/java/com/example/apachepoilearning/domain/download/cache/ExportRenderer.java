@@ -0,0 +1,16 @@
+package com.example.apachepoilearning.domain.download.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 캐시에 없는 스냅샷을 생성할 때 엑셀 파일을 출력 스트림에 씁니다.
+ */
+@FunctionalInterface
+public interface ExportRenderer {
+
+    /**
+     * @param outputStream 스냅샷 파일의 출력 스트림 (캐시가 닫습니다)
+     */
+    void render(OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,72 @@
+package com.example.apachepoilearning.domain.download.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * 디스크에 저장된 엑셀 파일 스냅샷
+ *
+ * @param key 캐시 키 (보고서 이름, 파라미터, 데이터 버전)
+ * @param file 스냅샷 파일 경로
+ * @param size 파일 크기 (바이트)
+ * @param etag 파일 내용의 해시로 만든 강한(strong) ETag (따옴표 포함)
+ * @param lastModified 스냅샷 생성 시각 (HTTP 날짜 형식에 맞게 초 단위)
+ * @param expiresAt 이 시각이 지나면 캐시에서 제거
+ */
+public record ExportSnapshot(String key, Path file, long size, String etag, Instant lastModified, Instant expiresAt) {
+
+    /**
+     * If-None-Match 헤더 값과 이 스냅샷의 ETag를 비교합니다.
+     * 여러 개의 ETag(쉼표 구분), 약한 비교(W/ 접두사), "*"를 지원합니다.
+     *
+     * @param ifNoneMatch If-None-Match 헤더 값 (없으면 null)
+     * @return 클라이언트가 이미 같은 파일을 가지고 있으면 true (304 응답)
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 스냅샷 파일을 읽기 전용으로 엽니다.
+     * ExportSnapshotCache.get으로 받은 뒤 release하기 전까지는 캐시에서 제거되더라도 파일이 남아 있습니다.
+     */
+    public FileChannel open() throws IOException {
+        return FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    /**
+     * 열어 둔 스냅샷 파일을 FileChannel.transferTo로 출력 스트림에 복사합니다.
+     * 파일 내용을 힙의 byte[]로 읽지 않으며, 대상이 소켓 채널이면 커널 안에서 바로 전송(zero-copy)됩니다.
+     *
+     * @param channel open()으로 연 파일 채널
+     * @param outputStream 응답 출력 스트림
+     */
+    public void transferTo(FileChannel channel, OutputStream outputStream) throws IOException {
+        WritableByteChannel target = Channels.newChannel(outputStream);
+        long position = 0;
+        while (position < size) {
+            position += channel.transferTo(position, size - position, target);
+        }
+    }
+}
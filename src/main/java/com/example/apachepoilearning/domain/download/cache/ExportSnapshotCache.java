@@ -0,0 +1,259 @@
+package com.example.apachepoilearning.domain.download.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 생성된 엑셀 파일을 디스크에 보관하는 캐시
+ *
+ * 같은 보고서를 반복해서 요청하더라도 데이터가 바뀌지 않았다면 워크북을 다시 만들지 않고 저장된 파일을 그대로 전송합니다.
+ * 키는 보고서 이름(파라미터 포함)과 데이터 버전으로 구성되므로, 데이터가 바뀌면 새 키로 다시 생성됩니다.
+ * 전체 파일 크기가 maxSize를 넘으면 가장 오래 사용되지 않은 스냅샷부터 삭제하고(LRU), ttl이 지난 스냅샷은 조회할 때 삭제합니다.
+ * 같은 키를 동시에 요청하면 한 요청만 파일을 생성하고 나머지는 그 결과를 기다립니다.
+ * get이 반환한 스냅샷은 release를 호출할 때까지 캐시에서 제거되더라도 파일이 삭제되지 않습니다.
+ */
+@Component
+public class ExportSnapshotCache {
+
+    private final Path cacheDir;
+    private final long maxBytes;
+    private final Duration ttl;
+
+    // 접근 순서(access-order) LinkedHashMap: 가장 오래 사용되지 않은 스냅샷이 맨 앞에 옵니다.
+    private final Map<String, ExportSnapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    // 생성 중인 스냅샷 (같은 키의 중복 생성 방지)
+    private final ConcurrentHashMap<String, CompletableFuture<ExportSnapshot>> rendering = new ConcurrentHashMap<>();
+
+    // get으로 받아 간 뒤 아직 release하지 않은 스냅샷 파일과 그 수
+    private final Map<Path, Integer> readers = new HashMap<>();
+    // 캐시에서 제거되었지만 읽을 요청이 남아 있어 삭제를 미룬 파일
+    private final Set<Path> retired = new HashSet<>();
+
+    /**
+     * @param baseDir 스냅샷 파일을 저장할 디렉터리 (실행할 때마다 그 아래에 새 디렉터리를 만듭니다)
+     * @param maxSize 보관할 스냅샷 파일 크기의 합계 상한
+     * @param ttl 스냅샷 유효 시간
+     */
+    public ExportSnapshotCache(@Value("${excel.download.cache.dir:#{systemProperties['java.io.tmpdir']}}") Path baseDir,
+                               @Value("${excel.download.cache.max-size:512MB}") DataSize maxSize,
+                               @Value("${excel.download.cache.ttl:10m}") Duration ttl) throws IOException {
+        this.cacheDir = Files.createTempDirectory(Files.createDirectories(baseDir), "excel-export-");
+        this.maxBytes = maxSize.toBytes();
+        this.ttl = ttl;
+    }
+
+    /**
+     * 캐시된 스냅샷을 반환하고, 없거나 만료되었으면 renderer로 새로 생성합니다.
+     * 반환된 스냅샷의 파일은 release를 호출할 때까지 삭제되지 않으므로, 응답 본문이 나중에 파일을 열어도 됩니다.
+     *
+     * @param report 보고서 이름과 파라미터 (예: "users", "users?sheet=1")
+     * @param dataVersion 데이터 버전 (데이터가 바뀌면 달라지는 값)
+     * @param renderer 엑셀 파일 생성
+     * @return 디스크에 저장된 스냅샷 (사용이 끝나면 release를 호출해야 합니다)
+     * @throws IOException 파일 생성 중 발생할 수 있는 예외
+     */
+    public ExportSnapshot get(String report, String dataVersion, ExportRenderer renderer) throws IOException {
+        String key = report + "@" + dataVersion;
+        while (true) {
+            ExportSnapshot snapshot = getOrRender(key, renderer);
+            if (retain(snapshot)) {
+                return snapshot;
+            }
+            // 받아 가기 전에 다른 요청이 캐시에서 제거하여 파일이 삭제되었으면 다시 조회합니다.
+        }
+    }
+
+    /**
+     * get으로 받은 스냅샷의 사용이 끝났음을 알립니다. 그 사이 캐시에서 제거된 스냅샷이면 마지막 요청이 release할 때 파일을 삭제합니다.
+     */
+    public synchronized void release(ExportSnapshot snapshot) {
+        Path file = snapshot.file();
+        Integer remaining = readers.computeIfPresent(file, (path, count) -> count > 1 ? count - 1 : null);
+        if (remaining == null && retired.remove(file)) {
+            delete(file);
+        }
+    }
+
+    private synchronized boolean retain(ExportSnapshot snapshot) {
+        if (snapshots.get(snapshot.key()) != snapshot && !readers.containsKey(snapshot.file())) {
+            return false;
+        }
+        readers.merge(snapshot.file(), 1, Integer::sum);
+        return true;
+    }
+
+    private ExportSnapshot getOrRender(String key, ExportRenderer renderer) throws IOException {
+        ExportSnapshot cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<ExportSnapshot> mine = new CompletableFuture<>();
+        CompletableFuture<ExportSnapshot> inProgress = rendering.putIfAbsent(key, mine);
+        if (inProgress != null) {
+            return await(inProgress);
+        }
+        try {
+            // 조회와 등록 사이에 다른 요청이 생성을 끝냈을 수 있습니다.
+            ExportSnapshot snapshot = lookup(key);
+            if (snapshot == null) {
+                snapshot = render(key, renderer);
+                store(snapshot);
+            }
+            mine.complete(snapshot);
+            return snapshot;
+        } catch (Throwable t) {
+            // OutOfMemoryError 등 Error도 전달해야 기다리는 요청이 끝없이 대기하지 않습니다.
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            rendering.remove(key, mine);
+        }
+    }
+
+    private synchronized ExportSnapshot lookup(String key) {
+        ExportSnapshot snapshot = snapshots.get(key);
+        if (snapshot != null && snapshot.expiresAt().isBefore(Instant.now())) {
+            snapshots.remove(key);
+            discard(snapshot);
+            return null;
+        }
+        return snapshot;
+    }
+
+    private ExportSnapshot render(String key, ExportRenderer renderer) throws IOException {
+        MessageDigest md5;
+        try {
+            md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        Path file = Files.createTempFile(cacheDir, "snapshot-", ".xlsx");
+        try {
+            // 파일에 쓰면서 내용의 해시를 계산하여 ETag로 사용합니다.
+            try (OutputStream out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(file)), md5)) {
+                renderer.render(out);
+            }
+            Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+            String etag = "\"" + HexFormat.of().formatHex(md5.digest()) + "\"";
+            return new ExportSnapshot(key, file, Files.size(file), etag, now, now.plus(ttl));
+        } catch (Throwable t) {
+            Files.deleteIfExists(file);
+            throw t;
+        }
+    }
+
+    private synchronized void store(ExportSnapshot snapshot) {
+        ExportSnapshot previous = snapshots.put(snapshot.key(), snapshot);
+        if (previous != null) {
+            discard(previous);
+        }
+        totalBytes += snapshot.size();
+
+        // 만료된 스냅샷과, 크기 상한을 넘는 만큼 오래된 스냅샷을 제거합니다. (방금 저장한 스냅샷은 남겨 둡니다)
+        Instant now = Instant.now();
+        Iterator<ExportSnapshot> it = snapshots.values().iterator();
+        while (it.hasNext()) {
+            ExportSnapshot eldest = it.next();
+            if (eldest == snapshot) {
+                break;
+            }
+            if (totalBytes > maxBytes || eldest.expiresAt().isBefore(now)) {
+                it.remove();
+                discard(eldest);
+            }
+        }
+    }
+
+    /**
+     * 캐시에서 제거된 스냅샷 파일을 삭제합니다. get으로 받아 간 요청이 남아 있으면 모두 release할 때까지 삭제를 미룹니다.
+     * (호출자가 이 객체의 락을 가지고 있어야 합니다)
+     */
+    private void discard(ExportSnapshot snapshot) {
+        totalBytes -= snapshot.size();
+        if (readers.containsKey(snapshot.file())) {
+            retired.add(snapshot.file());
+        } else {
+            delete(snapshot.file());
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ExportSnapshot await(CompletableFuture<ExportSnapshot> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("스냅샷 생성을 기다리는 중 인터럽트되었습니다");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * @return 보관 중인 스냅샷 파일 크기의 합계
+     */
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    @PreDestroy
+    public synchronized void clear() throws IOException {
+        for (ExportSnapshot snapshot : snapshots.values()) {
+            Files.deleteIfExists(snapshot.file());
+        }
+        for (Path file : retired) {
+            Files.deleteIfExists(file);
+        }
+        snapshots.clear();
+        readers.clear();
+        retired.clear();
+        totalBytes = 0;
+        Files.deleteIfExists(cacheDir);
+    }
+}
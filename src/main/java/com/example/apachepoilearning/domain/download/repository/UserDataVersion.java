@@ -0,0 +1,18 @@
+package com.example.apachepoilearning.domain.download.repository;
+
+/**
+ * users 테이블의 데이터 버전 (행 수, 가장 큰 id, row_version의 합)
+ * 행을 추가하면 가장 큰 id가, 삭제하면 행 수가, 수정하면(UserBatchRepository.updateUsers) row_version의 합이 커지므로
+ * 어떤 쓰기든 값이 달라집니다. 내보내기 스냅샷 캐시의 키로 사용합니다.
+ *
+ * @param count 행 수
+ * @param maxId 가장 큰 id (행이 없으면 0)
+ * @param versionSum row_version의 합 (행이 없으면 0)
+ */
+public record UserDataVersion(Long count, Long maxId, Long versionSum) {
+
+    @Override
+    public String toString() {
+        return count + "-" + maxId + "-" + versionSum;
+    }
+}
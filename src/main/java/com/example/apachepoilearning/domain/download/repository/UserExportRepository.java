@@ -0,0 +1,40 @@
+package com.example.apachepoilearning.domain.download.repository;
+
+import com.example.apachepoilearning.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.stream.Stream;
+
+/**
+ * 다운로드(내보내기)용 사용자 조회 레포지토리
+ */
+public interface UserExportRepository extends JpaRepository<User, Long> {
+
+    /**
+     * users 테이블 전체를 id 순서로 스트리밍합니다.
+     *
+     * MySQL Connector/J는 fetch size가 Integer.MIN_VALUE일 때만 결과를 한 행씩 가져오는 스트리밍 모드로 동작합니다.
+     * (그 외의 값이면 결과 전체를 클라이언트 메모리에 올립니다)
+     * 읽기 전용 힌트를 주면 Hibernate가 dirty checking용 스냅샷을 만들지 않습니다.
+     *
+     * 반환된 Stream은 트랜잭션 안에서 사용하고 반드시 닫아야 합니다. (try-with-resources)
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select u from User u order by u.id")
+    Stream<User> streamAll();
+
+    /**
+     * 스냅샷 캐시 키로 사용할 users 테이블의 데이터 버전을 조회합니다.
+     */
+    @Query("select new com.example.apachepoilearning.domain.download.repository.UserDataVersion("
+            + "count(u), coalesce(max(u.id), 0L), coalesce(sum(u.rowVersion), 0L)) from User u")
+    UserDataVersion findDataVersion();
+}
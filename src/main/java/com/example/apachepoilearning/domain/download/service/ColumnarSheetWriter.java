@@ -0,0 +1,65 @@
+package com.example.apachepoilearning.domain.download.service;
+
+import com.example.apachepoilearning.excel.table.Column;
+import com.example.apachepoilearning.excel.table.ColumnarTable;
+import com.example.apachepoilearning.excel.table.DateColumn;
+import com.example.apachepoilearning.excel.table.DoubleColumn;
+import com.example.apachepoilearning.excel.table.LongColumn;
+import com.example.apachepoilearning.excel.table.StringColumn;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * ColumnarTable을 시트에 씁니다.
+ * 날짜는 LocalDate를 만들지 않고 엑셀 날짜 일련번호(double)로 바로 쓰며, 날짜 셀 스타일로 표시 형식을 지정합니다.
+ * SXSSF 시트에 쓰면 Cell 객체는 rowAccessWindowSize 개의 행만큼만 메모리에 남습니다.
+ */
+final class ColumnarSheetWriter {
+
+    private ColumnarSheetWriter() {
+    }
+
+    /**
+     * @param sheet 대상 시트
+     * @param table 쓸 표
+     * @param headerStyle 헤더 셀 스타일 (열 이름을 첫 행에 씁니다, null이면 기본 스타일)
+     * @param dateStyle 날짜 열 셀 스타일
+     * @return 다음에 쓸 행 인덱스
+     */
+    static int write(Sheet sheet, ColumnarTable table, CellStyle headerStyle, CellStyle dateStyle) {
+        int columnCount = table.getColumnCount();
+
+        Row headerRow = sheet.createRow(0);
+        for (int c = 0; c < columnCount; c++) {
+            Cell cell = headerRow.createCell(c);
+            cell.setCellValue(table.column(c).getName());
+            if (headerStyle != null) {
+                cell.setCellStyle(headerStyle);
+            }
+        }
+
+        int rowCount = table.getRowCount();
+        for (int r = 0; r < rowCount; r++) {
+            Row row = sheet.createRow(r + 1);
+            for (int c = 0; c < columnCount; c++) {
+                Column column = table.column(c);
+                if (column.isNull(r)) {
+                    continue;
+                }
+                Cell cell = row.createCell(c);
+                switch (column.getType()) {
+                    case DOUBLE -> cell.setCellValue(((DoubleColumn) column).get(r));
+                    case LONG -> cell.setCellValue(((LongColumn) column).get(r));
+                    case DATE -> {
+                        cell.setCellValue(((DateColumn) column).getExcelDate(r));
+                        cell.setCellStyle(dateStyle);
+                    }
+                    case STRING -> cell.setCellValue(((StringColumn) column).get(r));
+                }
+            }
+        }
+        return rowCount + 1;
+    }
+}
@@ -1,23 +1,146 @@
 package com.example.apachepoilearning.domain.download.service;
 
+import com.example.apachepoilearning.domain.download.style.BorderSpec;
+import com.example.apachepoilearning.domain.download.style.CellStyleSpec;
+import com.example.apachepoilearning.domain.download.style.FontSpec;
+import com.example.apachepoilearning.domain.download.style.StyleRegistry;
+import com.example.apachepoilearning.domain.memory.MemoryBudget;
+import com.example.apachepoilearning.domain.memory.MemoryEstimator;
+import com.example.apachepoilearning.domain.memory.MemoryReservation;
 import com.example.apachepoilearning.entity.User;
+import com.example.apachepoilearning.excel.table.ColumnType;
+import com.example.apachepoilearning.excel.table.ColumnarTable;
+import com.example.apachepoilearning.excel.table.GroupSummary;
+import com.example.apachepoilearning.excel.DelimitedFormat;
+import com.example.apachepoilearning.excel.ExcelRowMapper;
+import com.example.apachepoilearning.metrics.CountingOutputStream;
+import com.example.apachepoilearning.metrics.ExcelMetrics;
+import io.micrometer.core.instrument.Timer;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class DownloadService {
 
+    // "Cell Practice" 시트 1. 셀 디자인: 노란 배경 + 방향마다 색이 다른 굵은 테두리
+    private static final CellStyleSpec PRACTICE_CELL_STYLE = CellStyleSpec.DEFAULT
+            .withFill(IndexedColors.LIGHT_YELLOW)
+            .withBorder(new BorderSpec(BorderStyle.THICK,
+                    IndexedColors.RED, IndexedColors.BLUE, IndexedColors.GREEN, IndexedColors.PINK));
+
+    // "Cell Practice" 시트 2. 글자 디자인: 14pt 굵은 이탤릭 파란 글씨 + 가운데 정렬
+    private static final CellStyleSpec PRACTICE_FONT_STYLE = CellStyleSpec.DEFAULT
+            .withFont(new FontSpec((short) 14, true, true, IndexedColors.BLUE))
+            .withAlignment(HorizontalAlignment.CENTER, VerticalAlignment.CENTER);
+
+    // 예제 시트("Statistics Summary", "Daily Data", "Cell Practice")가 사용하는 모든 스타일
+    // 병렬 모드에서는 시트마다 별도의 워크북을 만들므로, 모든 워크북에 이 순서대로 등록하여 스타일 인덱스를 맞춥니다.
+    private static final List<CellStyleSpec> REPORT_STYLES = List.of(CellStyleSpec.DATE, PRACTICE_CELL_STYLE, PRACTICE_FONT_STYLE);
+
+    // 예제 시트 세 개의 셀 수 (사용자 수와 관계없이 일정하며, 메모리 예산을 어림할 때 더합니다)
+    private static final int REPORT_CELLS = 500;
+
+    /**
+     * 예제 시트 하나를 채우는 함수
+     */
+    @FunctionalInterface
+    private interface ReportSheet {
+        void fill(Sheet sheet, StyleRegistry styles);
+    }
+
+    // SXSSF 스트리밍 모드에서 메모리에 유지할 최대 행 수
+    // 이 개수를 넘는 행은 임시 파일로 flush 되므로, 전체 행 수와 관계없이 힙 사용량이 일정하게 유지됩니다.
+    private final int rowAccessWindowSize;
+    // 워크북 생성/직렬화 시간, 파일 크기 지표
+    private final ExcelMetrics excelMetrics;
+    // 병렬 모드에서 예제 시트를 동시에 만드는 스레드 풀
+    private final ExecutorService sheetRenderExecutor;
+    // 업로드/다운로드가 나누어 쓰는 힙 예산과 처리 방식별 사용량 어림
+    private final MemoryBudget memoryBudget;
+    private final MemoryEstimator memoryEstimator;
+    // CSV/TSV 파일 앞에 UTF-8 BOM을 쓸지 여부 (엑셀에서 열 때 한글이 깨지지 않도록)
+    private final boolean delimitedBom;
+    // CSV/TSV 문자열 필드가 수식으로 실행되지 않도록 작은따옴표를 붙일지 여부
+    private final boolean delimitedEscapeFormulas;
+
+    public DownloadService(@Value("${excel.download.row-access-window:100}") int rowAccessWindowSize,
+                           ExcelMetrics excelMetrics,
+                           @Qualifier("sheetRenderExecutor") ExecutorService sheetRenderExecutor,
+                           MemoryBudget memoryBudget,
+                           MemoryEstimator memoryEstimator,
+                           @Value("${excel.download.delimited.bom:true}") boolean delimitedBom,
+                           @Value("${excel.download.delimited.escape-formulas:true}") boolean delimitedEscapeFormulas) {
+        this.rowAccessWindowSize = rowAccessWindowSize;
+        this.excelMetrics = excelMetrics;
+        this.sheetRenderExecutor = sheetRenderExecutor;
+        this.memoryBudget = memoryBudget;
+        this.memoryEstimator = memoryEstimator;
+        this.delimitedBom = delimitedBom;
+        this.delimitedEscapeFormulas = delimitedEscapeFormulas;
+    }
+
     public byte[] downloadXlsx() throws IOException {
+        return downloadXlsx(sampleUsers());
+    }
+
+    /**
+     * 전달받은 사용자 목록으로 "User List" 시트를 채워 XSSFWorkbook (객체 모델) 방식으로 엑셀 파일을 생성합니다.
+     * 워크북 전체가 메모리에 올라가므로, 셀 수로 어림한 만큼 메모리 예산을 예약할 수 있을 때만 객체 모델을 사용합니다.
+     * 사용자 수를 알 수 없거나(Collection이 아닌 경우) 예산이 지금 남아 있지 않으면, 기다리지 않고 SXSSF 방식으로 같은 내용의 파일을 만듭니다.
+     *
+     * @param users "User List" 시트에 기록할 사용자들
+     * @return 생성된 엑셀 파일의 바이트 배열
+     * @throws IOException 워크북 출력 중 발생할 수 있는 예외
+     */
+    public byte[] downloadXlsx(Iterable<User> users) throws IOException {
+        int columns = ExcelRowMapper.of(User.class).headers().length;
+        long rows = users instanceof Collection<?> collection ? collection.size() : -1;
+        long cells = Math.max(rows + 1, 1) * columns + REPORT_CELLS;
+
+        if (rows >= 0) {
+            MemoryReservation reservation = memoryBudget.tryReserve(memoryEstimator.objectModel(cells) + memoryEstimator.downloadBytes(cells));
+            if (reservation != null) {
+                try (reservation) {
+                    return buildXlsx(users);
+                }
+            }
+            // 사용자 수를 몰라 처음부터 SXSSF로 만드는 경우는 예산 부족으로 바꾼 것이 아니므로 세지 않습니다.
+            excelMetrics.memoryAdmission("downgraded");
+        }
+        try (MemoryReservation reservation = memoryBudget.reserve(
+                memoryEstimator.streamingDownload(rowAccessWindowSize, columns) + memoryEstimator.downloadBytes(cells))) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            writeStreaming(users, outputStream);
+            return outputStream.toByteArray();
+        }
+    }
+
+    /**
+     * XSSFWorkbook으로 네 개의 시트를 만들어 byte[]로 반환합니다. (메모리 예산은 호출하는 쪽에서 예약합니다)
+     */
+    private byte[] buildXlsx(Iterable<User> users) throws IOException {
 
         // 엑셀 Workbook 객체 생성
         // XSSFWorkbook은 엑셀 파일을 읽을 때 모든 데이터를 메모리에 로드
@@ -26,35 +149,446 @@ public class DownloadService {
         Workbook workbook = new XSSFWorkbook();
 
         // 시트 추가
-        // ------------------------- Sheet1: 사용자 목록 데이터 -------------------------
-        Sheet sheet1 = workbook.createSheet("User List"); // "User List"라는 이름의 첫 번째 시트 생성
+        Timer.Sample build = Timer.start();
+        fillWorkbook(workbook, users);
+        build.stop(excelMetrics.downloadBuildTimer("xssf"));
+
+        // 출력 스트림화
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Timer.Sample write = Timer.start();
+        workbook.write(outputStream);
+        workbook.close();
+        write.stop(excelMetrics.downloadWriteTimer("xssf"));
+        excelMetrics.downloadBytes("xssf").record(outputStream.size());
+
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * writeXlsxStreaming이 사용할 메모리 예산(SXSSF 행 창)을 예약합니다.
+     * writeXlsxFast는 템플릿 워크북과 행 버퍼만 메모리에 두므로 이 예산 안에서 쓸 수 있습니다.
+     * 응답 본문을 쓰기 전에 요청 스레드에서 예약하면, 예산이 부족할 때 응답 헤더를 보내기 전에 거절할 수 있습니다.
+     *
+     * @return 예약한 예산 (파일을 다 쓴 뒤 close로 반납해야 합니다)
+     * @throws java.util.concurrent.RejectedExecutionException excel.memory.max-wait 안에 예산을 예약하지 못한 경우
+     */
+    public MemoryReservation reserveStreaming() {
+        int columns = ExcelRowMapper.of(User.class).headers().length;
+        return memoryBudget.reserve(memoryEstimator.streamingDownload(rowAccessWindowSize, columns));
+    }
+
+    /**
+     * downloadXlsx()와 동일한 네 개의 시트를 SXSSF (스트리밍) 방식으로 생성하여 출력 스트림에 바로 씁니다.
+     * 메모리 예산은 호출하는 쪽에서 reserveStreaming()으로 미리 예약합니다.
+     *
+     * @param outputStream 완성된 엑셀 파일이 기록될 출력 스트림 (호출자가 닫아야 합니다)
+     * @throws IOException 임시 파일 또는 출력 스트림 입출력 중 발생할 수 있는 예외
+     */
+    public void writeXlsxStreaming(OutputStream outputStream) throws IOException {
+        writeStreaming(sampleUsers(), outputStream);
+    }
+
+    /**
+     * 전달받은 사용자 목록으로 "User List" 시트를 채워 SXSSF 방식으로 엑셀 파일을 씁니다.
+     * SXSSFWorkbook은 rowAccessWindowSize 개의 행만 메모리에 두고 나머지는 압축된 임시 파일로 내보내므로,
+     * 수백만 행을 내보내더라도 최대 힙 사용량이 행 수에 비례해서 늘어나지 않습니다.
+     * 행 창(window)에 필요한 만큼 메모리 예산을 예약한 뒤 만듭니다. (예산이 빌 때까지 차례를 기다립니다)
+     *
+     * @param users "User List" 시트에 기록할 사용자들 (한 번만 순회합니다)
+     * @param outputStream 완성된 엑셀 파일이 기록될 출력 스트림 (호출자가 닫아야 합니다)
+     * @throws IOException 임시 파일 또는 출력 스트림 입출력 중 발생할 수 있는 예외
+     * @throws java.util.concurrent.RejectedExecutionException excel.memory.max-wait 안에 예산을 예약하지 못한 경우
+     */
+    public void writeXlsxStreaming(Iterable<User> users, OutputStream outputStream) throws IOException {
+        try (MemoryReservation reservation = reserveStreaming()) {
+            writeStreaming(users, outputStream);
+        }
+    }
+
+    /**
+     * SXSSFWorkbook으로 네 개의 시트를 만들어 출력 스트림에 씁니다. (메모리 예산은 호출하는 쪽에서 예약합니다)
+     */
+    private void writeStreaming(Iterable<User> users, OutputStream outputStream) throws IOException {
+
+        // 세 번째 인자(compressTmpFiles)를 true로 주면 flush된 행을 gzip으로 압축하여 임시 파일 크기를 줄입니다.
+        SXSSFWorkbook workbook = new SXSSFWorkbook(null, rowAccessWindowSize, true);
+        try {
+            // SXSSF는 행을 생성하는 동안 임시 파일로 flush 하므로 build 시간에 임시 파일 쓰기가 포함됩니다.
+            Timer.Sample build = Timer.start();
+            fillWorkbook(workbook, users);
+            build.stop(excelMetrics.downloadBuildTimer("sxssf"));
+
+            CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+            Timer.Sample write = Timer.start();
+            workbook.write(countingStream);
+            write.stop(excelMetrics.downloadWriteTimer("sxssf"));
+            excelMetrics.downloadBytes("sxssf").record(countingStream.getCount());
+        } finally {
+            // 예외가 발생하더라도 임시 파일이 남지 않도록 반드시 정리합니다.
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    /**
+     * downloadXlsx()와 동일한 네 개의 시트를 만들되, "User List" 시트는 POI 객체 모델 없이 시트 XML을 직접 씁니다.
+     * writeXlsxFast(Iterable, OutputStream)을 참고하세요.
+     */
+    public void writeXlsxFast(OutputStream outputStream) throws IOException {
+        writeXlsxFast(sampleUsers(), outputStream);
+    }
+
+    /**
+     * 전달받은 사용자 목록으로 "User List" 시트를 채운 엑셀 파일을 씁니다.
+     *
+     * 1. XSSFWorkbook으로 빈 "User List" 시트와 나머지 세 시트(스타일, 병합, 필터 포함)를 가진 템플릿을 만듭니다.
+     *    헤더와 날짜 열에 쓸 셀 스타일도 이때 등록하고, 스타일 인덱스만 기억해 둡니다.
+     * 2. 템플릿의 zip 항목을 출력 스트림으로 옮기면서 "User List" 시트 XML만 SheetXmlWriter로 직접 씁니다.
+     * 사용자 행은 Cell 객체, 임시 파일 없이 재사용 버퍼를 거쳐 바로 압축되므로 SXSSF보다 처리량이 높고 할당이 거의 없습니다.
+     *
+     * @param users "User List" 시트에 기록할 사용자들 (한 번만 순회합니다)
+     * @param outputStream 완성된 엑셀 파일이 기록될 출력 스트림 (호출자가 닫아야 합니다)
+     * @throws IOException 출력 스트림 입출력 중 발생할 수 있는 예외
+     */
+    public void writeXlsxFast(Iterable<User> users, OutputStream outputStream) throws IOException {
+
+        // 1. 템플릿 워크북 생성 (행 수와 관계없이 크기가 일정합니다)
+        Timer.Sample build = Timer.start();
+        ByteArrayOutputStream template = new ByteArrayOutputStream();
+        Map<String, FastXlsxWriter.SheetContent> sheets = new HashMap<>();
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            StyleRegistry styles = new StyleRegistry(workbook);
+            XSSFSheet sheet1 = workbook.createSheet("User List");
+            fillReportSheets(workbook, styles);
+
+            int[] columnStyles = userColumnStyleIndexes(styles);
+            sheets.put(entryName(sheet1), sheetXml -> writeUserSheetXml(sheetXml, users, columnStyles));
+            workbook.write(template);
+        }
+        build.stop(excelMetrics.downloadBuildTimer("fast"));
+
+        // 2. 템플릿을 옮기면서 "User List" 시트 XML을 직접 기록
+        CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+        Timer.Sample write = Timer.start();
+        FastXlsxWriter.write(template.toByteArray(), sheets, countingStream);
+        countingStream.flush();
+        write.stop(excelMetrics.downloadWriteTimer("fast"));
+        excelMetrics.downloadBytes("fast").record(countingStream.getCount());
+    }
+
+    /**
+     * 예제 사용자 목록("User List" 시트와 같은 내용)을 CSV/TSV로 씁니다.
+     * writeDelimited(Iterable, DelimitedFormat, boolean, OutputStream)을 참고하세요.
+     */
+    public void writeDelimited(DelimitedFormat format, boolean gzip, OutputStream outputStream) throws IOException {
+        writeDelimited(sampleUsers(), format, gzip, outputStream);
+    }
+
+    /**
+     * 전달받은 사용자 목록을 "User List" 시트와 같은 열(ExcelRowMapper의 헤더와 열 순서)의 CSV/TSV로 씁니다.
+     * 워크북, 스타일, zip 압축 없이 행마다 DelimitedWriter의 재사용 버퍼에 바로 기록하므로,
+     * 수백만 행을 내보낼 때 writeXlsxFast보다도 CPU 사용량이 적고 메모리는 버퍼 하나만 사용합니다. (메모리 예산을 예약하지 않습니다)
+     *
+     * @param users 기록할 사용자들 (한 번만 순회합니다)
+     * @param format CSV 또는 TSV
+     * @param gzip true이면 gzip으로 압축하여 씁니다 (Content-Encoding: gzip 응답, .csv.gz 파일)
+     * @param outputStream 완성된 파일이 기록될 출력 스트림 (호출자가 닫아야 합니다)
+     * @throws IOException 출력 스트림 입출력 중 발생할 수 있는 예외
+     */
+    public void writeDelimited(Iterable<User> users, DelimitedFormat format, boolean gzip, OutputStream outputStream) throws IOException {
+        ExcelRowMapper<User> userMapper = ExcelRowMapper.of(User.class);
+        int[] columnIndexes = userMapper.columnIndexes();
+        String[] headers = userMapper.headers();
+        int maxColumnIndex = columnIndexes.length == 0 ? 0 : columnIndexes[columnIndexes.length - 1];
+        String mode = gzip ? format.extension() + "-gzip" : format.extension();
+
+        CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+        Timer.Sample write = Timer.start();
+        // gzip 스트림은 finish()로 트레일러만 쓰고, 응답 스트림은 닫지 않습니다.
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(countingStream, 64 * 1024) : null;
+        DelimitedWriter writer = new DelimitedWriter(gzip ? gzipStream : countingStream, format, maxColumnIndex, delimitedEscapeFormulas);
+        if (delimitedBom) {
+            writer.writeBom();
+        }
+
+        writer.startRow();
+        for (int i = 0; i < headers.length; i++) {
+            writer.headerCell(columnIndexes[i], headers[i]);
+        }
+        writer.endRow();
+
+        for (User user : users) {
+            writer.startRow();
+            userMapper.writeRow(user, writer);
+            writer.endRow();
+        }
+        writer.finish();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+        countingStream.flush();
+        write.stop(excelMetrics.downloadWriteTimer(mode));
+        excelMetrics.downloadBytes(mode).record(countingStream.getCount());
+    }
+
+    /**
+     * writeXlsxParallel이 사용할 메모리 예산을 예약합니다.
+     * 예제 시트마다 만드는 워크북이 동시에 메모리에 있고, 요청 스레드는 writeXlsxFast와 같이 템플릿 워크북과 행 버퍼를 사용합니다.
+     * 응답 본문을 쓰기 전에 요청 스레드에서 예약하면, 예산이 부족할 때 응답 헤더를 보내기 전에 거절할 수 있습니다.
+     *
+     * @return 예약한 예산 (파일을 다 쓴 뒤 close로 반납해야 합니다)
+     * @throws java.util.concurrent.RejectedExecutionException excel.memory.max-wait 안에 예산을 예약하지 못한 경우
+     */
+    public MemoryReservation reserveParallel() {
+        int columns = ExcelRowMapper.of(User.class).headers().length;
+        int reportSheets = reportSheets().size();
+        return memoryBudget.reserve(memoryEstimator.streamingDownload(rowAccessWindowSize, columns)
+                + reportSheets * memoryEstimator.objectModel(REPORT_CELLS / reportSheets));
+    }
+
+    /**
+     * downloadXlsx()와 동일한 네 개의 시트를 동시에 만들어 하나의 엑셀 파일로 씁니다.
+     * 메모리 예산은 호출하는 쪽에서 reserveParallel()로 미리 예약합니다. writeXlsxParallel(Iterable, OutputStream)을 참고하세요.
+     */
+    public void writeXlsxParallel(OutputStream outputStream) throws IOException {
+        writeXlsxParallel(sampleUsers(), outputStream);
+    }
+
+    /**
+     * 서로 의존하지 않는 시트들을 동시에 만들어 하나의 엑셀 파일로 조립합니다.
+     *
+     * 1. 예제 시트("Statistics Summary", "Daily Data", "Cell Practice")는 sheetRenderExecutor에서 시트마다 별도의 워크북으로 만들고,
+     *    완성된 시트 XML(sheetN.xml)만 꺼냅니다.
+     *    - 스타일: 모든 워크북에 REPORT_STYLES를 같은 순서로 등록하므로 스타일 인덱스가 템플릿의 styles.xml과 같습니다.
+     *    - 문자열: 공유 문자열 테이블 대신 인라인 문자열로 기록하므로 공유 문자열 테이블을 합칠 필요가 없습니다.
+     * 2. 그동안 요청 스레드는 네 개의 빈 시트와 스타일만 가진 템플릿 워크북(workbook.xml, 관계 파일, styles.xml)을 만듭니다.
+     * 3. 템플릿의 zip 항목을 옮기면서 "User List" 시트는 writeXlsxFast와 같이 직접 쓰고, 예제 시트는 완성된 XML을 기다려 씁니다.
+     * 따라서 전체 소요 시간이 시트별 생성 시간의 합이 아니라 가장 오래 걸리는 시트의 시간에 가까워집니다.
+     *
+     * @param users "User List" 시트에 기록할 사용자들 (한 번만 순회합니다)
+     * @param outputStream 완성된 엑셀 파일이 기록될 출력 스트림 (호출자가 닫아야 합니다)
+     * @throws IOException 출력 스트림 입출력 중 발생할 수 있는 예외
+     */
+    public void writeXlsxParallel(Iterable<User> users, OutputStream outputStream) throws IOException {
+
+        // 1. 예제 시트 생성 작업 제출
+        Timer.Sample build = Timer.start();
+        Map<String, CompletableFuture<byte[]>> rendered = new LinkedHashMap<>();
+        for (Map.Entry<String, ReportSheet> report : reportSheets().entrySet()) {
+            rendered.put(report.getKey(), CompletableFuture.supplyAsync(
+                    () -> renderSheetXml(report.getKey(), report.getValue()), sheetRenderExecutor));
+        }
+
+        // 2. 템플릿 워크북 생성 (시트 순서와 이름은 downloadXlsx()와 같습니다)
+        ByteArrayOutputStream template = new ByteArrayOutputStream();
+        Map<String, FastXlsxWriter.SheetContent> sheets = new HashMap<>();
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            StyleRegistry styles = new StyleRegistry(workbook);
+            // 예제 시트 워크북과 같은 순서로 먼저 등록합니다. 사용자 시트에만 쓰는 스타일은 그 뒤에 추가됩니다.
+            styles.registerAll(REPORT_STYLES);
+
+            XSSFSheet sheet1 = workbook.createSheet("User List");
+            int[] columnStyles = userColumnStyleIndexes(styles);
+            sheets.put(entryName(sheet1), sheetXml -> writeUserSheetXml(sheetXml, users, columnStyles));
+
+            for (Map.Entry<String, CompletableFuture<byte[]>> report : rendered.entrySet()) {
+                CompletableFuture<byte[]> sheetXmlBytes = report.getValue();
+                sheets.put(entryName(workbook.createSheet(report.getKey())), sheetXml -> sheetXml.write(await(sheetXmlBytes)));
+            }
+            workbook.write(template);
+        }
+        build.stop(excelMetrics.downloadBuildTimer("parallel"));
+
+        // 3. 조립
+        CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+        Timer.Sample write = Timer.start();
+        FastXlsxWriter.write(template.toByteArray(), sheets, countingStream);
+        countingStream.flush();
+        write.stop(excelMetrics.downloadWriteTimer("parallel"));
+        excelMetrics.downloadBytes("parallel").record(countingStream.getCount());
+    }
+
+    /**
+     * 시트 하나만 가진 워크북에 예제 시트를 만들고, 그 시트의 XML을 반환합니다. (sheetRenderExecutor에서 실행)
+     */
+    private byte[] renderSheetXml(String sheetName, ReportSheet reportSheet) {
+        // 네 번째 인자(useSharedStringsTable)를 false로 주면 문자열 셀이 인라인 문자열로 기록되어, 시트 XML만으로 완전합니다.
+        SXSSFWorkbook workbook = new SXSSFWorkbook(null, rowAccessWindowSize, true, false);
+        try {
+            StyleRegistry styles = new StyleRegistry(workbook);
+            styles.registerAll(REPORT_STYLES);
+            int registered = styles.getStyleCount();
+
+            Sheet sheet = workbook.createSheet(sheetName);
+            // 조립된 파일에서는 첫 번째 시트가 아니므로 선택(탭 활성) 상태를 해제합니다.
+            sheet.setSelected(false);
+            reportSheet.fill(sheet, styles);
+            if (styles.getStyleCount() != registered) {
+                // 템플릿에 없는 스타일을 참조하게 되므로 조립할 수 없습니다.
+                throw new IllegalStateException("REPORT_STYLES에 없는 스타일을 사용하는 시트입니다: " + sheetName);
+            }
+
+            ByteArrayOutputStream packaged = new ByteArrayOutputStream();
+            workbook.write(packaged);
+            return FastXlsxWriter.readEntry(packaged.toByteArray(), entryName(workbook.getXSSFWorkbook().getSheet(sheetName)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            workbook.dispose();
+            try {
+                workbook.close();
+            } catch (IOException ignored) {
+                // 메모리에만 쓴 워크북이므로 닫기 실패는 결과에 영향을 주지 않습니다.
+            }
+        }
+    }
+
+    /**
+     * 예제 시트 생성 작업의 결과를 기다립니다. 작업에서 발생한 예외는 원래 예외로 다시 던집니다.
+     */
+    private static byte[] await(CompletableFuture<byte[]> sheetXml) throws IOException {
+        try {
+            return sheetXml.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * "User List" 시트 XML 전체를 SheetXmlWriter로 씁니다.
+     *
+     * @param columnStyles 열(binding 순서)별 셀 스타일 인덱스
+     */
+    private void writeUserSheetXml(OutputStream sheetXml, Iterable<User> users, int[] columnStyles) throws IOException {
+        ExcelRowMapper<User> userMapper = ExcelRowMapper.of(User.class);
+        int[] columnIndexes = userMapper.columnIndexes();
+        String[] headers = userMapper.headers();
+        int maxColumnIndex = columnIndexes.length == 0 ? 0 : columnIndexes[columnIndexes.length - 1];
+        // 행 수를 미리 알 수 있을 때만 dimension(사용 범위)을 기록합니다. (DB 커서는 알 수 없음)
+        int lastRowIndex = users instanceof Collection<?> collection ? collection.size() : -1;
+
+        SheetXmlWriter writer = new SheetXmlWriter(sheetXml, maxColumnIndex, columnStyles);
+        writer.startSheet(lastRowIndex);
+
+        writer.startRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            // 헤더 셀은 기본 스타일(0)로 씁니다. (fillUserSheet와 같음)
+            writer.headerCell(columnIndexes[i], headers[i], 0);
+        }
+        writer.endRow();
+
+        int rowNum = 1;
+        for (User user : users) {
+            writer.startRow(rowNum++);
+            userMapper.writeRow(user, writer);
+            writer.endRow();
+        }
+        writer.endSheet();
+    }
+
+    /**
+     * User의 열별 셀 스타일(날짜 형식 등)을 레지스트리에 등록하고, binding 순서의 스타일 인덱스를 반환합니다. (스타일이 없으면 0)
+     */
+    private int[] userColumnStyleIndexes(StyleRegistry styles) {
+        CellStyle[] userColumnStyles = ExcelRowMapper.of(User.class)
+                .columnStyles(format -> styles.get(CellStyleSpec.DEFAULT.withDataFormat(format)));
+        int[] indexes = new int[userColumnStyles.length];
+        for (int i = 0; i < userColumnStyles.length; i++) {
+            indexes[i] = userColumnStyles[i] == null ? 0 : userColumnStyles[i].getIndex();
+        }
+        return indexes;
+    }
+
+    /**
+     * 시트의 zip 항목 이름을 반환합니다.
+     * 파트 이름은 "/xl/worksheets/sheet1.xml" 형태이고, zip 항목 이름은 앞의 '/'가 없습니다.
+     */
+    private static String entryName(XSSFSheet sheet) {
+        return sheet.getPackagePart().getPartName().getName().substring(1);
+    }
 
+    /**
+     * 예제용 사용자 데이터를 생성합니다.
+     */
+    private List<User> sampleUsers() {
         // 사용자 데이터 생성 (하드코딩 대신 동적 생성 예시)
         List<User> users = new ArrayList<>();
         users.add(new User(1L, "김철수", "kim@example.com", 25));
         users.add(new User(2L, "이영희", "lee@example.com", 30));
         users.add(new User(3L, "박민준", "park@example.com", 28));
         users.add(new User(4L, "최수정", "choi@example.com", 32));
+        return users;
+    }
+
+    /**
+     * 워크북 구현체(XSSF, SXSSF)와 관계없이 네 개의 시트를 생성합니다.
+     * 모든 스타일은 StyleRegistry를 통해 가져오므로 행 수와 관계없이 스펙마다 한 번만 생성됩니다.
+     *
+     * @param workbook 시트를 추가할 워크북
+     * @param users "User List" 시트에 기록할 사용자들
+     */
+    private void fillWorkbook(Workbook workbook, Iterable<User> users) {
+
+        // 이 워크북에서 사용할 스타일 캐시
+        StyleRegistry styles = new StyleRegistry(workbook);
+
+        // ------------------------- Sheet1: 사용자 목록 데이터 -------------------------
+        Sheet sheet1 = workbook.createSheet("User List"); // "User List"라는 이름의 첫 번째 시트 생성
+        fillUserSheet(sheet1, users, styles);
+
+        // ------------------------- Sheet2 ~ Sheet4 -------------------------
+        fillReportSheets(workbook, styles);
+    }
+
+    /**
+     * "User List" 시트를 채웁니다.
+     */
+    private void fillUserSheet(Sheet sheet1, Iterable<User> users, StyleRegistry styles) {
+
+        // User의 @ExcelColumn 정보로 헤더와 데이터 셀을 씁니다. (ID, 이름, 이메일, 나이)
+        ExcelRowMapper<User> userMapper = ExcelRowMapper.of(User.class);
 
         // Sheet1 헤더 로우 생성
-        Row headerRow1 = sheet1.createRow(0);
-        String[] headers1 = {"ID", "이름", "이메일", "나이"};
-        for (int i = 0; i < headers1.length; i++) {
-            headerRow1.createCell(i).setCellValue(headers1[i]);
-        }
+        userMapper.writeHeader(sheet1.createRow(0), null);
 
         // Sheet1 데이터 로우 생성
+        CellStyle[] userColumnStyles = userMapper.columnStyles(format -> styles.get(CellStyleSpec.DEFAULT.withDataFormat(format)));
         int rowNum1 = 1;
         for (User user : users) {
-            Row row = sheet1.createRow(rowNum1++);
-            row.createCell(0).setCellValue(user.getId());
-            row.createCell(1).setCellValue(user.getName());
-            row.createCell(2).setCellValue(user.getEmail());
-            row.createCell(3).setCellValue(user.getAge());
+            userMapper.writeRow(sheet1.createRow(rowNum1++), user, userColumnStyles);
         }
+    }
+
+    /**
+     * 사용자 목록 외의 예제 시트("Statistics Summary", "Daily Data", "Cell Practice")를 생성합니다.
+     * 스타일, 병합, 필터가 있는 작은 시트들이므로 항상 POI 객체 모델로 만듭니다.
+     */
+    private void fillReportSheets(Workbook workbook, StyleRegistry styles) {
+        for (Map.Entry<String, ReportSheet> report : reportSheets().entrySet()) {
+            report.getValue().fill(workbook.createSheet(report.getKey()), styles);
+        }
+    }
+
+    /**
+     * @return 시트 이름 → 시트를 채우는 함수 (시트 순서대로)
+     */
+    private Map<String, ReportSheet> reportSheets() {
+        Map<String, ReportSheet> sheets = new LinkedHashMap<>();
+        sheets.put("Statistics Summary", this::fillStatisticsSheet);
+        sheets.put("Daily Data", this::fillDailySheet);
+        sheets.put("Cell Practice", this::fillPracticeSheet);
+        return sheets;
+    }
+
+    private void fillStatisticsSheet(Sheet sheet2, StyleRegistry styles) {
 
         // ------------------------- Sheet2: 통계 요약 데이터 -------------------------
-        Sheet sheet2 = workbook.createSheet("Statistics Summary"); // "Statistics Summary"라는 이름의 두 번째 시트 생성
 
         // 통계 데이터 생성 (예시)
         Map<String, Integer> stats = new LinkedHashMap<>(); // 순서 유지를 위해 LinkedHashMap 사용
@@ -63,113 +597,84 @@ public class DownloadService {
         stats.put("Category C", 90);
         stats.put("Category D", 400);
 
+        // 원본 데이터를 열 단위 표(카테고리: 사전 인코딩 문자열, 건수: long[])에 담고 카테고리별로 합계를 집계합니다.
+        // 원본 행이 수백만 개여도 Cell 객체 없이 배열만 훑어서 집계합니다.
+        ColumnarTable statsTable = ColumnarTable.of(new String[]{"Category", "Count"}, new ColumnType[]{ColumnType.STRING, ColumnType.LONG});
+        for (Map.Entry<String, Integer> entry : stats.entrySet()) {
+            int row = statsTable.addRow();
+            statsTable.stringColumn(0).set(row, entry.getKey());
+            statsTable.longColumn(1).set(row, entry.getValue());
+        }
+
         // Sheet2 헤더 로우 생성
-        Row headerRow2 = sheet2.createRow(0);
-        headerRow2.createCell(0).setCellValue("Category");
-        headerRow2.createCell(1).setCellValue("Count");
+        writeHeaderRow(sheet2, "Category", "Count");
 
         // Sheet2 데이터 로우 생성
         int rowNum2 = 1;
-        for (Map.Entry<String, Integer> entry : stats.entrySet()) {
+        for (GroupSummary group : statsTable.groupBy(0, 1)) {
             Row row = sheet2.createRow(rowNum2++);
-            row.createCell(0).setCellValue(entry.getKey());
-            row.createCell(1).setCellValue(entry.getValue());
+            row.createCell(0).setCellValue(group.key());
+            row.createCell(1).setCellValue(group.sum());
         }
+    }
 
-        // ------------------------- Sheet3: 날짜 및 숫자 데이터 -------------------------
-        Sheet sheet3 = workbook.createSheet("Daily Data"); // "Daily Data"라는 이름의 세 번째 시트 생성
+    private void fillDailySheet(Sheet sheet3, StyleRegistry styles) {
 
-        // 날짜 데이터 스타일 생성 (날짜 형식 지정)
-        CellStyle dateCellStyle = workbook.createCellStyle();
-        CreationHelper createHelper = workbook.getCreationHelper();
-        dateCellStyle.setDataFormat(createHelper.createDataFormat().getFormat("yyyy-MM-dd"));
+        // ------------------------- Sheet3: 날짜 및 숫자 데이터 -------------------------
 
-        // Sheet3 헤더 로우 생성
-        Row headerRow3 = sheet3.createRow(0);
-        headerRow3.createCell(0).setCellValue("날짜");
-        headerRow3.createCell(1).setCellValue("값1");
-        headerRow3.createCell(2).setCellValue("값2");
+        // 날짜와 숫자만 있는 시트이므로 열 단위 표(날짜: epoch day long[], 값: double[])에 먼저 담습니다.
+        ColumnarTable daily = ColumnarTable.of(new String[]{"날짜", "값1", "값2"},
+                new ColumnType[]{ColumnType.DATE, ColumnType.DOUBLE, ColumnType.DOUBLE});
 
-        // Sheet3 데이터 로우 생성 (지난 7일간의 데이터 예시)
-        int rowNum3 = 1;
+        // 지난 7일간의 데이터 예시
+        LocalDate today = LocalDate.now();
         for (int i = 0; i < 7; i++) {
-            Row row = sheet3.createRow(rowNum3++);
-            LocalDate date = LocalDate.now().minusDays(i); // 오늘부터 i일 전의 날짜
-            double value1 = 100 + (i * 5) + Math.random() * 10; // 임의의 숫자 값
-            double value2 = 50 - (i * 2) + Math.random() * 5;  // 임의의 숫자 값
+            int row = daily.addRow();
+            daily.dateColumn(0).set(row, today.minusDays(i)); // 오늘부터 i일 전의 날짜
+            daily.doubleColumn(1).set(row, 100 + (i * 5) + Math.random() * 10); // 임의의 숫자 값
+            daily.doubleColumn(2).set(row, 50 - (i * 2) + Math.random() * 5);  // 임의의 숫자 값
+        }
 
-            // 날짜 셀
-            Cell dateCell = row.createCell(0);
-            dateCell.setCellValue(date); // LocalDate 객체를 직접 셀에 설정
-            dateCell.setCellStyle(dateCellStyle); // 날짜 스타일 적용
+        // Sheet3 헤더 로우와 데이터 로우 생성
+        // 날짜 데이터 스타일 (날짜 형식 지정) - 행마다 스타일을 새로 만들지 않고 레지스트리에서 공유합니다.
+        ColumnarSheetWriter.write(sheet3, daily, null, styles.date());
+    }
 
-            // 숫자 셀
-            row.createCell(1).setCellValue(value1);
-            row.createCell(2).setCellValue(value2);
-        }
+    private void fillPracticeSheet(Sheet sheet4, StyleRegistry styles) {
 
-        // ------------------------- Sheet3: 셀 기능 조작 연습 -------------------------
-        Sheet sheet4 = workbook.createSheet("Cell Practice");
+        // ------------------------- Sheet4: 셀 기능 조작 연습 -------------------------
 
         // 셀 병합: B1 (0행, 1열)부터 C1 (0행, 2열)까지 병합
         sheet4.addMergedRegion(new CellRangeAddress(0, 0, 1, 2));
 
-        // 1. 셀 디자인
-        // 스타일 객체 생성
-        CellStyle style1 = workbook.createCellStyle();
-
-        // 배경색
-        style1.setFillForegroundColor(IndexedColors.LIGHT_YELLOW.getIndex());
-        style1.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-        // 테두리 스타일
-        style1.setBorderTop(BorderStyle.THICK);
-        style1.setBorderBottom(BorderStyle.THICK);
-        style1.setBorderLeft(BorderStyle.THICK);
-        style1.setBorderRight(BorderStyle.THICK);
-
-        // 테두리 색상
-        style1.setTopBorderColor(IndexedColors.RED.getIndex());
-        style1.setBottomBorderColor(IndexedColors.BLUE.getIndex());
-        style1.setLeftBorderColor(IndexedColors.GREEN.getIndex());
-        style1.setRightBorderColor(IndexedColors.PINK.getIndex());
-
+        // 1. 셀 디자인 (배경색, 테두리 스타일, 테두리 색상)
         // 특정 셀에 저장 (여러 셀이라면 반복문을 통해 반복 수행)
         Row sheet4_row1 = sheet4.createRow(1);
         Cell sheet4_row1_cell0 = sheet4_row1.createCell(0);
         sheet4_row1_cell0.setCellValue("데이터");
-        sheet4_row1_cell0.setCellStyle(style1);
+        sheet4_row1_cell0.setCellStyle(styles.get(PRACTICE_CELL_STYLE));
 
-        // 2. 글자 디자인
-        CellStyle style2 = workbook.createCellStyle();
+        // 2. 글자 디자인 (폰트, 글자 정렬) 스타일 생성
+        styles.get(PRACTICE_FONT_STYLE);
 
-        // 폰트 설정
-        Font font = workbook.createFont();
-        font.setFontHeightInPoints((short)14);     // 폰트 크기
-        font.setBold(true);                        // 굵게
-        font.setItalic(true);                      // 이탤릭
-        font.setColor(IndexedColors.BLUE.getIndex()); // 폰트 색상
-        style2.setFont(font);
-
-        // 글자 정렬
-        style2.setAlignment(HorizontalAlignment.CENTER); // 가로 가운데 정렬
-        style2.setVerticalAlignment(VerticalAlignment.CENTER); // 세로 가운데 정렬
-
-        // 특정 셀에 지정
+        // 특정 셀에 지정 (예제에서는 두 번째 셀에도 1번 셀 디자인을 적용합니다)
         Row sheet4_row2 = sheet4.createRow(2);
         Cell sheet4_row2_cell0 = sheet4_row2.createCell(0);
         sheet4_row2_cell0.setCellValue("데이터");
-        sheet4_row2_cell0.setCellStyle(style1);
+        sheet4_row2_cell0.setCellStyle(styles.get(PRACTICE_CELL_STYLE));
 
         // 3. 필터: 0번째 행의 0열부터 2열까지 필터 적용 (A1:C1)
         sheet4.setAutoFilter(new CellRangeAddress(0, 0, 0, 2));
+    }
 
-        // 출력 스트림화
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        workbook.write(outputStream);
-        workbook.close();
-
-        return outputStream.toByteArray();
+    /**
+     * 0번째 행에 헤더 셀들을 생성합니다.
+     */
+    private void writeHeaderRow(Sheet sheet, String... headers) {
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            headerRow.createCell(i).setCellValue(headers[i]);
+        }
     }
 
 }
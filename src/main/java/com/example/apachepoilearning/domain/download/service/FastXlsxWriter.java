@@ -0,0 +1,97 @@
+package com.example.apachepoilearning.domain.download.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * POI로 만든 템플릿 워크북에서 일부 시트의 XML만 따로 생성한 XML로 바꿔 xlsx 파일을 씁니다.
+ *
+ * 템플릿에는 스타일(styles.xml), 다른 시트, 통합 문서 정보(workbook.xml, 관계 파일)가 모두 들어 있고 대상 시트만 비어 있습니다.
+ * 템플릿의 zip 항목을 순서대로 옮겨 쓰다가 대상 시트 항목을 만나면 콜백으로 시트 XML을 바로 기록하므로,
+ * 대량의 행은 POI 객체 모델이나 임시 파일을 거치지 않습니다.
+ */
+final class FastXlsxWriter {
+
+    /**
+     * 대상 시트의 내용을 기록하는 콜백
+     */
+    @FunctionalInterface
+    interface SheetContent {
+        void write(OutputStream sheetXml) throws IOException;
+    }
+
+    private FastXlsxWriter() {
+    }
+
+    /**
+     * @param template POI로 저장한 템플릿 워크북 (작은 파일이므로 byte[]로 받습니다)
+     * @param sheetEntryName 교체할 시트의 zip 항목 이름 (예: xl/worksheets/sheet1.xml)
+     * @param content 시트 XML 전체를 쓰는 콜백
+     * @param outputStream 완성된 엑셀 파일이 기록될 출력 스트림 (닫지 않습니다)
+     */
+    static void write(byte[] template, String sheetEntryName, SheetContent content, OutputStream outputStream) throws IOException {
+        write(template, Map.of(sheetEntryName, content), outputStream);
+    }
+
+    /**
+     * @param template POI로 저장한 템플릿 워크북
+     * @param sheets 교체할 시트의 zip 항목 이름 → 시트 XML 전체를 쓰는 콜백 (콜백은 템플릿의 항목 순서대로 호출됩니다)
+     * @param outputStream 완성된 엑셀 파일이 기록될 출력 스트림 (닫지 않습니다)
+     */
+    static void write(byte[] template, Map<String, SheetContent> sheets, OutputStream outputStream) throws IOException {
+        // ZipOutputStream.close()는 내부 스트림도 닫으므로 finish()만 호출합니다.
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        // 시트 XML은 반복되는 태그가 대부분이라 가장 빠른 압축 수준으로도 충분히 작아집니다.
+        zip.setLevel(Deflater.BEST_SPEED);
+
+        int replaced = 0;
+        try (ZipInputStream templateZip = new ZipInputStream(new ByteArrayInputStream(template))) {
+            byte[] copyBuffer = new byte[8192];
+            ZipEntry entry;
+            while ((entry = templateZip.getNextEntry()) != null) {
+                // 압축된 크기 등은 다시 계산되어야 하므로 이름만 가진 새 항목을 만듭니다.
+                zip.putNextEntry(new ZipEntry(entry.getName()));
+                SheetContent content = sheets.get(entry.getName());
+                if (content != null) {
+                    content.write(zip);
+                    replaced++;
+                } else {
+                    int read;
+                    while ((read = templateZip.read(copyBuffer)) != -1) {
+                        zip.write(copyBuffer, 0, read);
+                    }
+                }
+                zip.closeEntry();
+            }
+        }
+        if (replaced != sheets.size()) {
+            throw new IllegalStateException("템플릿에 없는 시트 항목이 있습니다: " + sheets.keySet());
+        }
+        zip.finish();
+    }
+
+    /**
+     * zip 파일(xlsx)에서 항목 하나의 내용을 읽습니다.
+     *
+     * @param zipBytes zip 파일 내용
+     * @param entryName 읽을 항목 이름
+     * @return 항목 내용
+     */
+    static byte[] readEntry(byte[] zipBytes, String entryName) throws IOException {
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(zipBytes))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.getName().equals(entryName)) {
+                    return zip.readAllBytes();
+                }
+            }
+        }
+        throw new IllegalStateException("zip 항목이 없습니다: " + entryName);
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.apachepoilearning.domain.download.service;
+
+import com.example.apachepoilearning.excel.ExcelRowMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 워크시트 XML(xl/worksheets/sheetN.xml)을 POI 객체 모델 없이 출력 스트림에 직접 씁니다.
+ *
+ * SXSSF도 셀마다 Cell 객체와 문자열을 만들고 임시 파일에 한 번 쓴 뒤 다시 읽어 압축하지만,
+ * 이 writer는 값을 재사용하는 byte[] 버퍼에 UTF-8로 바로 기록하고 버퍼가 차면 출력 스트림(ZipOutputStream)에 넘깁니다.
+ * - 셀 참조(A1, B1...): 열 문자는 생성 시 한 번, 행 번호는 행마다 한 번만 만들어 셀마다 이어 붙입니다.
+ * - 숫자: 정수는 직접 자릿수를 기록하고, 소수만 Double.toString을 사용합니다.
+ * - 문자열: 공유 문자열 테이블 없이 인라인 문자열(t="inlineStr")로 기록합니다.
+ * 따라서 행 수와 관계없이 문자열 필드 외에는 거의 할당이 발생하지 않습니다.
+ *
+ * 셀 스타일은 워크북에 이미 등록된 스타일 인덱스만 참조하며, 병합, 열 너비 같은 기능은 지원하지 않으므로 단순 표 형태의 시트에만 사용합니다.
+ */
+final class SheetXmlWriter implements ExcelRowMapper.CellSink {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte[] SHEET_START = ("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" "
+            + "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SHEET_VIEWS = ("<sheetViews><sheetView workbookViewId=\"0\" tabSelected=\"true\"/></sheetViews>"
+            + "<sheetFormatPr defaultRowHeight=\"15.0\"/><sheetData>").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SHEET_END = ("</sheetData><pageMargins bottom=\"0.75\" footer=\"0.3\" header=\"0.3\" "
+            + "left=\"0.7\" right=\"0.7\" top=\"0.75\"/></worksheet>").getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] DIMENSION_START = ascii("<dimension ref=\"A1:");
+    private static final byte[] ROW_START = ascii("<row r=\"");
+    private static final byte[] ROW_END = ascii("</row>");
+    private static final byte[] CELL_START = ascii("<c r=\"");
+    private static final byte[] STYLE_ATTRIBUTE = ascii("\" s=\"");
+    private static final byte[] NUMBER_VALUE = ascii("\"><v>");
+    private static final byte[] BOOLEAN_VALUE = ascii("\" t=\"b\"><v>");
+    private static final byte[] INLINE_STRING = ascii("\" t=\"inlineStr\"><is><t>");
+    private static final byte[] INLINE_STRING_PRESERVE = ascii("\" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+    private static final byte[] VALUE_END = ascii("</v></c>");
+    private static final byte[] INLINE_STRING_END = ascii("</t></is></c>");
+    private static final byte[] AMP = ascii("&amp;");
+    private static final byte[] LT = ascii("&lt;");
+    private static final byte[] GT = ascii("&gt;");
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    // 열 인덱스별 열 문자 (예: 0 → "A", 27 → "AB")
+    private final byte[][] columnLetters;
+    // slot(binding 순서)별 셀 스타일 인덱스의 문자열 (스타일이 없으면 null)
+    private final byte[][] slotStyles;
+    // 현재 행 번호(1부터 시작)의 자릿수
+    private final byte[] rowDigits = new byte[10];
+    private int rowDigitsLength;
+
+    /**
+     * @param out 시트 XML을 기록할 출력 스트림 (이 writer가 닫지 않습니다)
+     * @param maxColumnIndex 사용할 가장 큰 열 인덱스 (0부터 시작)
+     * @param slotStyles slot별 셀 스타일 인덱스 (0 이하이면 기본 스타일)
+     */
+    SheetXmlWriter(OutputStream out, int maxColumnIndex, int[] slotStyles) {
+        this.out = out;
+        this.columnLetters = new byte[maxColumnIndex + 1][];
+        for (int i = 0; i <= maxColumnIndex; i++) {
+            columnLetters[i] = ascii(columnName(i));
+        }
+        this.slotStyles = new byte[slotStyles.length][];
+        for (int i = 0; i < slotStyles.length; i++) {
+            this.slotStyles[i] = slotStyles[i] > 0 ? ascii(Integer.toString(slotStyles[i])) : null;
+        }
+    }
+
+    /**
+     * XML 선언과 시트 머리 부분을 씁니다.
+     *
+     * @param lastRowIndex 마지막 행 인덱스 (0부터 시작, 모르면 -1이며 이 경우 dimension을 쓰지 않습니다)
+     */
+    void startSheet(int lastRowIndex) throws IOException {
+        write(SHEET_START);
+        if (lastRowIndex >= 0) {
+            write(DIMENSION_START);
+            write(columnLetters[columnLetters.length - 1]);
+            writeLong(lastRowIndex + 1L);
+            writeByte('"');
+            writeByte('/');
+            writeByte('>');
+        }
+        write(SHEET_VIEWS);
+    }
+
+    /**
+     * @param rowIndex 행 인덱스 (0부터 시작)
+     */
+    void startRow(int rowIndex) throws IOException {
+        // 행 번호 자릿수를 한 번만 만들어 두고 셀마다 재사용합니다.
+        int value = rowIndex + 1;
+        int length = 0;
+        do {
+            rowDigits[rowDigits.length - 1 - length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        rowDigitsLength = length;
+
+        write(ROW_START);
+        write(rowDigits, rowDigits.length - length, length);
+        writeByte('"');
+        writeByte('>');
+    }
+
+    void endRow() throws IOException {
+        write(ROW_END);
+    }
+
+    /**
+     * 시트 끝부분을 쓰고 버퍼를 비웁니다. 출력 스트림은 닫지 않습니다.
+     */
+    void endSheet() throws IOException {
+        write(SHEET_END);
+        flushBuffer();
+    }
+
+    /**
+     * 스타일을 지정하여 문자열 셀을 씁니다. (헤더 행 등)
+     */
+    void headerCell(int columnIndex, String value, int styleIndex) throws IOException {
+        startCell(columnIndex, styleIndex > 0 ? ascii(Integer.toString(styleIndex)) : null);
+        writeInlineString(value);
+    }
+
+    @Override
+    public void number(int columnIndex, int slot, long value) throws IOException {
+        startCell(columnIndex, slotStyles[slot]);
+        write(NUMBER_VALUE);
+        writeLong(value);
+        write(VALUE_END);
+    }
+
+    @Override
+    public void number(int columnIndex, int slot, double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            // 엑셀 숫자 셀은 NaN, 무한대를 표현할 수 없으므로 빈 셀로 둡니다.
+            return;
+        }
+        startCell(columnIndex, slotStyles[slot]);
+        write(NUMBER_VALUE);
+        // 날짜 일련번호처럼 정수인 값이 대부분이므로 Double.toString을 거치지 않습니다.
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            writeLong((long) value);
+        } else {
+            writeAscii(Double.toString(value));
+        }
+        write(VALUE_END);
+    }
+
+    @Override
+    public void text(int columnIndex, int slot, String value) throws IOException {
+        startCell(columnIndex, slotStyles[slot]);
+        writeInlineString(value);
+    }
+
+    @Override
+    public void bool(int columnIndex, int slot, boolean value) throws IOException {
+        startCell(columnIndex, slotStyles[slot]);
+        write(BOOLEAN_VALUE);
+        writeByte(value ? '1' : '0');
+        write(VALUE_END);
+    }
+
+    // ------------------------- 내부 기록 -------------------------
+
+    private void startCell(int columnIndex, byte[] style) throws IOException {
+        write(CELL_START);
+        write(columnLetters[columnIndex]);
+        write(rowDigits, rowDigits.length - rowDigitsLength, rowDigitsLength);
+        if (style != null) {
+            write(STYLE_ATTRIBUTE);
+            write(style);
+        }
+    }
+
+    private void writeInlineString(String value) throws IOException {
+        // 앞뒤 공백이 있는 문자열은 xml:space="preserve"가 없으면 엑셀이 공백을 제거합니다.
+        boolean preserve = !value.isEmpty()
+                && (Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1)));
+        write(preserve ? INLINE_STRING_PRESERVE : INLINE_STRING);
+        writeEscaped(value);
+        write(INLINE_STRING_END);
+    }
+
+    /**
+     * 문자열을 XML 이스케이프하면서 UTF-8로 기록합니다. XML 1.0에서 허용되지 않는 제어 문자는 건너뜁니다.
+     */
+    private void writeEscaped(String value) throws IOException {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (position + 6 > buffer.length) {
+                flushBuffer();
+            }
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                switch (c) {
+                    case '&' -> write(AMP);
+                    case '<' -> write(LT);
+                    case '>' -> write(GT);
+                    default -> {
+                        if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                            buffer[position++] = (byte) c;
+                        }
+                    }
+                }
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (!Character.isSurrogate(c) && c < 0xFFFE) {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * long 값을 문자열 객체 없이 10진수로 기록합니다.
+     */
+    private void writeLong(long value) throws IOException {
+        if (position + 20 > buffer.length) {
+            flushBuffer();
+        }
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int start = position;
+        do {
+            buffer[position++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        // 낮은 자리부터 기록했으므로 뒤집습니다.
+        for (int i = start, j = position - 1; i < j; i++, j--) {
+            byte tmp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = tmp;
+        }
+    }
+
+    private void writeAscii(String value) throws IOException {
+        if (position + value.length() > buffer.length) {
+            flushBuffer();
+        }
+        for (int i = 0; i < value.length(); i++) {
+            buffer[position++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        write(bytes, 0, bytes.length);
+    }
+
+    private void write(byte[] bytes, int offset, int length) throws IOException {
+        if (position + length > buffer.length) {
+            flushBuffer();
+            if (length > buffer.length) {
+                out.write(bytes, offset, length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    /**
+     * 열 인덱스를 엑셀 열 이름으로 변환합니다. (0 → A, 25 → Z, 26 → AA)
+     */
+    private static String columnName(int columnIndex) {
+        StringBuilder name = new StringBuilder();
+        for (int n = columnIndex + 1; n > 0; n = (n - 1) / 26) {
+            name.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return name.toString();
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
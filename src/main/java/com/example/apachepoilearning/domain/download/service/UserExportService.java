@@ -0,0 +1,75 @@
+package com.example.apachepoilearning.domain.download.service;
+
+import com.example.apachepoilearning.domain.download.repository.UserExportRepository;
+import com.example.apachepoilearning.entity.User;
+import com.example.apachepoilearning.excel.DelimitedFormat;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+/**
+ * users 테이블의 데이터를 엑셀 파일로 내보냅니다.
+ *
+ * findAll()은 테이블 전체를 List와 영속성 컨텍스트에 올리지만,
+ * 이 서비스는 DB 커서에서 한 행씩 꺼내 바로 시트 XML에 쓰고 영속성 컨텍스트에서 분리(detach)합니다.
+ * "User List" 시트는 단순한 표이므로 POI 객체 모델을 거치지 않는 DownloadService.writeXlsxFast를 사용합니다.
+ * 따라서 DB 조회와 시트 쓰기가 겹쳐서 진행되고, 행 수와 관계없이 메모리 사용량이 일정합니다.
+ */
+@Service
+public class UserExportService {
+
+    private final UserExportRepository userExportRepository;
+    private final EntityManager entityManager;
+    private final DownloadService downloadService;
+
+    public UserExportService(UserExportRepository userExportRepository, EntityManager entityManager,
+                             DownloadService downloadService) {
+        this.userExportRepository = userExportRepository;
+        this.entityManager = entityManager;
+        this.downloadService = downloadService;
+    }
+
+    /**
+     * @return users 테이블의 데이터 버전 (내보내기 스냅샷 캐시 키)
+     */
+    @Transactional(readOnly = true)
+    public String dataVersion() {
+        return userExportRepository.findDataVersion().toString();
+    }
+
+    /**
+     * users 테이블 전체를 엑셀 파일로 출력 스트림에 씁니다.
+     * 스트리밍 커서는 트랜잭션(커넥션)이 열려 있는 동안만 유효하므로, 워크북 쓰기가 끝날 때까지 읽기 전용 트랜잭션을 유지합니다.
+     *
+     * @param outputStream 완성된 엑셀 파일이 기록될 출력 스트림 (호출자가 닫아야 합니다)
+     * @throws IOException 출력 스트림 입출력 중 발생할 수 있는 예외
+     */
+    @Transactional(readOnly = true)
+    public void writeUsersXlsx(OutputStream outputStream) throws IOException {
+        try (Stream<User> users = userExportRepository.streamAll()) {
+            // 시트에 기록된 엔티티는 다시 사용하지 않으므로 바로 분리하여 영속성 컨텍스트가 커지지 않게 합니다.
+            Stream<User> detached = users.peek(entityManager::detach);
+            downloadService.writeXlsxFast(detached::iterator, outputStream);
+        }
+    }
+
+    /**
+     * users 테이블 전체를 CSV/TSV로 출력 스트림에 씁니다. (DownloadService.writeDelimited 참고)
+     *
+     * @param format CSV 또는 TSV
+     * @param gzip true이면 gzip으로 압축하여 씁니다
+     * @param outputStream 완성된 파일이 기록될 출력 스트림 (호출자가 닫아야 합니다)
+     * @throws IOException 출력 스트림 입출력 중 발생할 수 있는 예외
+     */
+    @Transactional(readOnly = true)
+    public void writeUsersDelimited(DelimitedFormat format, boolean gzip, OutputStream outputStream) throws IOException {
+        try (Stream<User> users = userExportRepository.streamAll()) {
+            Stream<User> detached = users.peek(entityManager::detach);
+            downloadService.writeDelimited(detached::iterator, format, gzip, outputStream);
+        }
+    }
+}
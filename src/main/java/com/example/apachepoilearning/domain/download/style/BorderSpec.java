@@ -0,0 +1,25 @@
+package com.example.apachepoilearning.domain.download.style;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.IndexedColors;
+
+/**
+ * 네 방향 테두리 설정을 나타내는 값 객체
+ *
+ * @param style 네 방향에 공통으로 적용할 테두리 스타일
+ * @param top 위쪽 테두리 색상
+ * @param bottom 아래쪽 테두리 색상
+ * @param left 왼쪽 테두리 색상
+ * @param right 오른쪽 테두리 색상
+ */
+public record BorderSpec(BorderStyle style, IndexedColors top, IndexedColors bottom, IndexedColors left, IndexedColors right) {
+
+    public static final BorderSpec THIN = all(BorderStyle.THIN, IndexedColors.BLACK);
+
+    /**
+     * 네 방향에 같은 스타일과 색상을 적용하는 테두리 설정을 생성합니다.
+     */
+    public static BorderSpec all(BorderStyle style, IndexedColors color) {
+        return new BorderSpec(style, color, color, color, color);
+    }
+}
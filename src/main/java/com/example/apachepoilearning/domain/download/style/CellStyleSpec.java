@@ -0,0 +1,46 @@
+package com.example.apachepoilearning.domain.download.style;
+
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+
+/**
+ * 셀 스타일 설정을 나타내는 값 객체
+ * equals/hashCode가 값 기준이므로 StyleRegistry의 키로 사용하여 같은 스타일을 한 번만 생성합니다.
+ * 각 항목이 null이면 워크북 기본값을 그대로 사용합니다.
+ *
+ * @param dataFormat 표시 형식 (예: "yyyy-MM-dd", "#,##0")
+ * @param font 폰트 설정
+ * @param fill 배경색 (SOLID_FOREGROUND 패턴으로 채웁니다)
+ * @param border 테두리 설정
+ * @param alignment 가로 정렬
+ * @param verticalAlignment 세로 정렬
+ */
+public record CellStyleSpec(String dataFormat, FontSpec font, IndexedColors fill, BorderSpec border,
+                            HorizontalAlignment alignment, VerticalAlignment verticalAlignment) {
+
+    public static final CellStyleSpec DEFAULT = new CellStyleSpec(null, null, null, null, null, null);
+
+    // 날짜 열 스타일 (StyleRegistry.date)
+    public static final CellStyleSpec DATE = DEFAULT.withDataFormat("yyyy-MM-dd");
+
+    public CellStyleSpec withDataFormat(String dataFormat) {
+        return new CellStyleSpec(dataFormat, font, fill, border, alignment, verticalAlignment);
+    }
+
+    public CellStyleSpec withFont(FontSpec font) {
+        return new CellStyleSpec(dataFormat, font, fill, border, alignment, verticalAlignment);
+    }
+
+    public CellStyleSpec withFill(IndexedColors fill) {
+        return new CellStyleSpec(dataFormat, font, fill, border, alignment, verticalAlignment);
+    }
+
+    public CellStyleSpec withBorder(BorderSpec border) {
+        return new CellStyleSpec(dataFormat, font, fill, border, alignment, verticalAlignment);
+    }
+
+    public CellStyleSpec withAlignment(HorizontalAlignment alignment, VerticalAlignment verticalAlignment) {
+        return new CellStyleSpec(dataFormat, font, fill, border, alignment, verticalAlignment);
+    }
+}
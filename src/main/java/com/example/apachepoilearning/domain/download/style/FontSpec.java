@@ -0,0 +1,17 @@
+package com.example.apachepoilearning.domain.download.style;
+
+import org.apache.poi.ss.usermodel.IndexedColors;
+
+/**
+ * 폰트 설정을 나타내는 값 객체
+ * 같은 값을 가진 FontSpec은 StyleRegistry에서 하나의 Font로 공유됩니다.
+ *
+ * @param heightInPoints 폰트 크기 (0이면 기본 크기)
+ * @param bold 굵게
+ * @param italic 이탤릭
+ * @param color 폰트 색상 (null이면 기본 색상)
+ */
+public record FontSpec(short heightInPoints, boolean bold, boolean italic, IndexedColors color) {
+
+    public static final FontSpec BOLD = new FontSpec((short) 0, true, false, null);
+}
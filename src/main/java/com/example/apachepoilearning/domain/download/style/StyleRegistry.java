@@ -0,0 +1,120 @@
+package com.example.apachepoilearning.domain.download.style;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 워크북 하나에서 사용하는 CellStyle, Font를 스펙(값 객체) 기준으로 캐싱합니다.
+ *
+ * workbook.createCellStyle()을 셀이나 행마다 호출하면 styles.xml에 같은 스타일이 계속 추가되고,
+ * XLSX의 스타일 개수 제한(64,000개)에 걸릴 수 있습니다.
+ * 이 레지스트리를 통하면 스타일 생성 횟수가 행 수가 아닌 서로 다른 스펙의 개수에 비례합니다.
+ *
+ * CellStyle은 워크북에 종속되므로 내보내기(워크북) 한 번마다 새로 생성해서 사용합니다. 스레드 안전하지 않습니다.
+ */
+public class StyleRegistry {
+
+    private final Workbook workbook;
+    private final DataFormat dataFormat;
+    private final Map<CellStyleSpec, CellStyle> styles = new HashMap<>();
+    private final Map<FontSpec, Font> fonts = new HashMap<>();
+
+    // 행마다 사용하는 날짜 스타일은 조회 없이 바로 꺼낼 수 있도록 필드로 보관합니다.
+    private CellStyle date;
+
+    public StyleRegistry(Workbook workbook) {
+        this.workbook = workbook;
+        this.dataFormat = workbook.createDataFormat();
+    }
+
+    public CellStyle date() {
+        if (date == null) {
+            date = get(CellStyleSpec.DATE);
+        }
+        return date;
+    }
+
+    /**
+     * 스펙에 해당하는 CellStyle을 반환합니다. 처음 요청된 스펙일 때만 워크북에 새 스타일을 생성합니다.
+     */
+    public CellStyle get(CellStyleSpec spec) {
+        return styles.computeIfAbsent(spec, this::createStyle);
+    }
+
+    /**
+     * 스펙들을 순서대로 미리 등록합니다.
+     * 서로 다른 워크북에 같은 스펙 목록을 같은 순서로 등록하면, 각 스펙의 스타일 인덱스가 모든 워크북에서 같아집니다.
+     */
+    public void registerAll(List<CellStyleSpec> specs) {
+        for (CellStyleSpec spec : specs) {
+            get(spec);
+        }
+    }
+
+    /**
+     * 스펙에 해당하는 Font를 반환합니다. 처음 요청된 스펙일 때만 워크북에 새 폰트를 생성합니다.
+     */
+    public Font font(FontSpec spec) {
+        return fonts.computeIfAbsent(spec, this::createFont);
+    }
+
+    /**
+     * 지금까지 워크북에 생성된 스타일 개수
+     */
+    public int getStyleCount() {
+        return styles.size();
+    }
+
+    private CellStyle createStyle(CellStyleSpec spec) {
+        CellStyle style = workbook.createCellStyle();
+
+        if (spec.dataFormat() != null) {
+            style.setDataFormat(dataFormat.getFormat(spec.dataFormat()));
+        }
+        if (spec.font() != null) {
+            style.setFont(font(spec.font()));
+        }
+        if (spec.fill() != null) {
+            style.setFillForegroundColor(spec.fill().getIndex());
+            style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        }
+        if (spec.border() != null) {
+            BorderSpec border = spec.border();
+            style.setBorderTop(border.style());
+            style.setBorderBottom(border.style());
+            style.setBorderLeft(border.style());
+            style.setBorderRight(border.style());
+            style.setTopBorderColor(border.top().getIndex());
+            style.setBottomBorderColor(border.bottom().getIndex());
+            style.setLeftBorderColor(border.left().getIndex());
+            style.setRightBorderColor(border.right().getIndex());
+        }
+        if (spec.alignment() != null) {
+            style.setAlignment(spec.alignment());
+        }
+        if (spec.verticalAlignment() != null) {
+            style.setVerticalAlignment(spec.verticalAlignment());
+        }
+        return style;
+    }
+
+    private Font createFont(FontSpec spec) {
+        Font font = workbook.createFont();
+        if (spec.heightInPoints() > 0) {
+            font.setFontHeightInPoints(spec.heightInPoints());
+        }
+        font.setBold(spec.bold());
+        font.setItalic(spec.italic());
+        if (spec.color() != null) {
+            font.setColor(spec.color().getIndex());
+        }
+        return font;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.apachepoilearning.domain.memory;
+
+import com.example.apachepoilearning.metrics.ExcelMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드와 다운로드가 함께 나누어 쓰는 힙 예산
+ * 각 요청은 시작하기 전에 MemoryEstimator로 어림한 만큼 예산을 예약하고, 끝나면 반납합니다.
+ * 예산이 부족하면 먼저 기다리기 시작한 요청부터 차례로 시작하므로(공정 모드 Semaphore), 큰 요청이 작은 요청들에 밀려 계속 기다리지 않습니다.
+ * 객체 모델(XSSFWorkbook)처럼 다른 방식으로 대신할 수 있는 요청은 tryReserve로 기다리지 않고 확인한 뒤 스트리밍 방식으로 바꿉니다.
+ *
+ * Semaphore의 허가 수는 int이므로 1KB를 허가 하나로 셉니다.
+ */
+@Component
+public class MemoryBudget {
+
+    private static final long PERMIT_BYTES = 1024;
+
+    private final Semaphore permits;
+    private final int totalPermits;
+    // 예산이 빌 때까지 기다리는 최대 시간 (넘으면 요청을 거절)
+    private final Duration maxWait;
+    private final ExcelMetrics excelMetrics;
+
+    /**
+     * @param budget 예산 (0이면 최대 힙 크기 × budgetRatio)
+     * @param budgetRatio budget이 0일 때 최대 힙 크기 중 엑셀 처리에 쓸 비율
+     * @param maxWait 예산이 빌 때까지 기다리는 최대 시간
+     * @param excelMetrics 예약 크기, 대기 시간 지표
+     */
+    public MemoryBudget(@Value("${excel.memory.budget:0}") DataSize budget,
+                        @Value("${excel.memory.budget-ratio:0.5}") double budgetRatio,
+                        @Value("${excel.memory.max-wait:30s}") Duration maxWait,
+                        ExcelMetrics excelMetrics) {
+        long bytes = budget.toBytes() > 0 ? budget.toBytes() : (long) (Runtime.getRuntime().maxMemory() * budgetRatio);
+        this.totalPermits = (int) Math.max(1, Math.min(Integer.MAX_VALUE, bytes / PERMIT_BYTES));
+        this.permits = new Semaphore(totalPermits, true);
+        this.maxWait = maxWait;
+        this.excelMetrics = excelMetrics;
+        excelMetrics.memoryBudget(totalBytes());
+    }
+
+    /**
+     * 예산이 남아 있으면 바로 예약합니다. 기다리는 요청이 있으면 그 요청을 앞지르지 않습니다.
+     *
+     * @param bytes 예약할 크기
+     * @return 예약, 지금 예약할 수 없으면 null
+     */
+    public MemoryReservation tryReserve(long bytes) {
+        int count = permitsOf(bytes);
+        try {
+            // tryAcquire(int)는 공정 모드에서도 대기 중인 요청을 앞지르므로, 대기 순서를 지키는 시간 제한 버전을 사용합니다.
+            if (!permits.tryAcquire(count, 0, TimeUnit.NANOSECONDS)) {
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        return reserved(count);
+    }
+
+    /**
+     * 예산이 빌 때까지 최대 maxWait 동안 차례를 기다려 예약합니다.
+     * 예산 전체보다 큰 요청은 예산 전체를 예약하므로, 다른 요청이 모두 끝난 뒤 혼자 실행됩니다.
+     *
+     * @param bytes 예약할 크기
+     * @return 예약 (사용 후 close 해야 합니다)
+     * @throws RejectedExecutionException maxWait 안에 예약하지 못했거나 기다리는 중에 인터럽트된 경우
+     */
+    public MemoryReservation reserve(long bytes) {
+        int count = permitsOf(bytes);
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(count, maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                excelMetrics.memoryAdmission("rejected");
+                throw new RejectedExecutionException("메모리 예산이 부족하여 요청을 처리할 수 없습니다: " + bytes + " bytes");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("메모리 예산을 기다리는 중에 인터럽트되었습니다.", e);
+        }
+        excelMetrics.recordMemoryWait(System.nanoTime() - start);
+        return reserved(count);
+    }
+
+    /**
+     * @return 예산 전체 크기 (바이트)
+     */
+    public long totalBytes() {
+        return totalPermits * PERMIT_BYTES;
+    }
+
+    /**
+     * @return 지금 예약할 수 있는 크기 (바이트)
+     */
+    public long availableBytes() {
+        return permits.availablePermits() * PERMIT_BYTES;
+    }
+
+    private int permitsOf(long bytes) {
+        long count = (Math.max(bytes, 0) + PERMIT_BYTES - 1) / PERMIT_BYTES;
+        return (int) Math.max(1, Math.min(count, totalPermits));
+    }
+
+    private MemoryReservation reserved(int count) {
+        excelMetrics.memoryAdmission("admitted");
+        excelMetrics.memoryReserved(count * PERMIT_BYTES);
+        return new MemoryReservation(count * PERMIT_BYTES, () -> {
+            permits.release(count);
+            excelMetrics.memoryReleased(count * PERMIT_BYTES);
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.apachepoilearning.domain.memory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * 요청 하나가 처리되는 동안 사용할 힙 크기를 처리 방식별로 어림합니다. (MemoryBudget에 예약할 크기)
+ * - 객체 모델(XSSFWorkbook): 셀마다 XSSFCell과 XmlBeans CTCell 객체가 생기므로 셀 수에 비례합니다.
+ * - 스트리밍(SAX, SXSSF): 시트 크기와 관계없이 배치나 행 창(window)에 담긴 셀, 힙에 올린 공유 문자열 테이블만큼 사용합니다.
+ * 값은 보수적인 어림값이며, 실제 사용량은 excel.memory.reserved.bytes 지표와 힙 사용량을 비교하여 조정합니다.
+ */
+@Component
+public class MemoryEstimator {
+
+    // 압축된 xlsx 파일에서 셀 하나가 차지하는 평균 크기 (시트 XML은 보통 8~10배 압축됩니다)
+    private static final int COMPRESSED_CELL_BYTES = 4;
+    // 완성된 xlsx 파일에서 셀 하나가 차지하는 크기 (byte[]로 반환할 때 ByteArrayOutputStream과 복사본 두 벌)
+    private static final int OUTPUT_CELL_BYTES = 2 * 8;
+    // RowHashIndex의 항목 하나: 채움률 50% × (long 3개 + boolean 2개)
+    private static final int ROW_HASH_ENTRY_BYTES = 2 * (3 * Long.BYTES + 2);
+    // 열 수를 알 수 없을 때 사용하는 열 수
+    private static final int DEFAULT_COLUMNS = 20;
+
+    // 요청마다 시트 크기와 관계없이 사용하는 크기 (zip 압축 해제 버퍼, 스타일 테이블, 파서 버퍼 등)
+    private final long baseBytes;
+    // 객체 모델에서 셀 하나가 차지하는 크기
+    private final int objectModelCellBytes;
+    // 스트리밍 방식에서 배치나 파이프라인에 담긴 셀 하나가 차지하는 크기 (RowBuffer 항목, 변환된 엔티티 필드)
+    private final int streamingCellBytes;
+    // 힙에 올린 공유 문자열 테이블의 크기 / sharedStrings.xml 크기
+    private final int sharedStringsFactor;
+
+    public MemoryEstimator(@Value("${excel.memory.estimate.base:8MB}") DataSize base,
+                           @Value("${excel.memory.estimate.object-model-cell-bytes:1024}") int objectModelCellBytes,
+                           @Value("${excel.memory.estimate.streaming-cell-bytes:64}") int streamingCellBytes,
+                           @Value("${excel.memory.estimate.shared-strings-factor:4}") int sharedStringsFactor) {
+        this.baseBytes = base.toBytes();
+        this.objectModelCellBytes = objectModelCellBytes;
+        this.streamingCellBytes = streamingCellBytes;
+        this.sharedStringsFactor = sharedStringsFactor;
+    }
+
+    /**
+     * @param cells 워크북 전체의 셀 수
+     * @return 워크북 전체를 XSSFWorkbook으로 올릴 때의 크기
+     */
+    public long objectModel(long cells) {
+        return baseBytes + cells * objectModelCellBytes;
+    }
+
+    /**
+     * 시트 크기를 확인하지 않은 업로드 파일을 XSSFWorkbook으로 읽을 때의 크기 (파일 크기로 셀 수를 어림)
+     *
+     * @param fileSize xlsx 파일 크기
+     */
+    public long objectModelFromFileSize(long fileSize) {
+        return objectModel(Math.max(fileSize, 0) / COMPRESSED_CELL_BYTES);
+    }
+
+    /**
+     * @param readers 동시에 읽는 시트 수
+     * @param rowsInFlight 배치와 파이프라인에 동시에 담길 수 있는 행 수
+     * @param columns 열 수 (모르면 0 이하)
+     * @param heapSharedStringsSize 힙에 올릴 sharedStrings.xml의 크기 (메모리 매핑 파일에 보관하면 0)
+     * @return SAX 방식으로 읽어 저장할 때의 크기
+     */
+    public long streaming(int readers, long rowsInFlight, int columns, long heapSharedStringsSize) {
+        return Math.max(readers, 1) * baseBytes
+                + rowsInFlight * columnsOrDefault(columns) * streamingCellBytes
+                + heapSharedStringsSize * sharedStringsFactor;
+    }
+
+    /**
+     * @param rows 이전 업로드의 행 수
+     * @return 변경분 업로드의 행 해시 색인(RowHashIndex) 크기
+     */
+    public long rowHashIndex(long rows) {
+        return Math.max(rows, 0) * ROW_HASH_ENTRY_BYTES;
+    }
+
+    /**
+     * @param windowRows SXSSF가 메모리에 유지하는 행 수
+     * @param columns 열 수
+     * @return SXSSF 방식으로 엑셀 파일을 만들 때의 크기
+     */
+    public long streamingDownload(int windowRows, int columns) {
+        return baseBytes + (long) windowRows * columnsOrDefault(columns) * objectModelCellBytes;
+    }
+
+    /**
+     * @param cells 워크북 전체의 셀 수
+     * @return 완성된 엑셀 파일을 byte[]로 반환할 때의 크기
+     */
+    public long downloadBytes(long cells) {
+        return cells * OUTPUT_CELL_BYTES;
+    }
+
+    private static int columnsOrDefault(int columns) {
+        return columns > 0 ? columns : DEFAULT_COLUMNS;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.apachepoilearning.domain.memory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * MemoryBudget에서 예약한 예산
+ * try-with-resources로 사용하며, close를 여러 번 호출해도 한 번만 반납합니다.
+ */
+public final class MemoryReservation implements AutoCloseable {
+
+    private final long bytes;
+    private final Runnable release;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    MemoryReservation(long bytes, Runnable release) {
+        this.bytes = bytes;
+        this.release = release;
+    }
+
+    /**
+     * @return 예약한 크기 (바이트, 1KB 단위로 올림)
+     */
+    public long bytes() {
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            release.run();
+        }
+    }
+}
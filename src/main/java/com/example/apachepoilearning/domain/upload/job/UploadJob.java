@@ -0,0 +1,86 @@
+package com.example.apachepoilearning.domain.upload.job;
+
+import com.example.apachepoilearning.domain.upload.service.ImportProgress;
+import com.example.apachepoilearning.domain.upload.service.StagedUpload;
+import com.example.apachepoilearning.domain.upload.service.UserDeltaImportResult;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 비동기로 처리되는 업로드 작업 하나
+ * 작업 스레드가 상태를 갱신하고 상태 조회 요청이 이를 읽으므로, 변경되는 필드는 volatile 입니다.
+ */
+@Getter
+public class UploadJob {
+
+    private final String id;
+    private final String fileName;
+    // 업로드 파일을 임시로 저장해둔 파일 (요청이 끝난 뒤에도 작업 스레드가 읽을 수 있도록)
+    private final StagedUpload stagedUpload;
+    // 변경분(delta) 업로드의 원본 이름 (null이면 모든 행을 추가 저장)
+    private final String deltaSource;
+    private final ImportProgress progress = new ImportProgress();
+    private final Instant submittedAt = Instant.now();
+
+    private volatile UploadJobState state = UploadJobState.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    // 변경분 업로드의 반영 결과 (완료된 변경분 업로드가 아니면 null)
+    private volatile UserDeltaImportResult deltaResult;
+
+    public UploadJob(String id, String fileName, StagedUpload stagedUpload) {
+        this(id, fileName, stagedUpload, null);
+    }
+
+    public UploadJob(String id, String fileName, StagedUpload stagedUpload, String deltaSource) {
+        this.id = id;
+        this.fileName = fileName;
+        this.stagedUpload = stagedUpload;
+        this.deltaSource = deltaSource;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        state = UploadJobState.RUNNING;
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        state = UploadJobState.COMPLETED;
+    }
+
+    void complete(UserDeltaImportResult deltaResult) {
+        // 상태 조회가 COMPLETED를 보면 결과도 볼 수 있도록 상태보다 먼저 기록합니다.
+        this.deltaResult = deltaResult;
+        complete();
+    }
+
+    void fail(Throwable t) {
+        finishedAt = Instant.now();
+        error = t.getClass().getSimpleName() + ": " + t.getMessage();
+        state = UploadJobState.FAILED;
+    }
+
+    /**
+     * @return 작업이 끝났으면(완료 또는 실패) true
+     */
+    public boolean isFinished() {
+        return state == UploadJobState.COMPLETED || state == UploadJobState.FAILED;
+    }
+
+    /**
+     * @return 시작 이후 초당 저장된 행 수 (시작 전이면 0)
+     */
+    public double getRowsPerSecond() {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(start, end).toMillis());
+        return progress.getRowsPersisted() * 1000.0 / millis;
+    }
+}
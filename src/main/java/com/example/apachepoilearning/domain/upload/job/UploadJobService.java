@@ -0,0 +1,151 @@
+package com.example.apachepoilearning.domain.upload.job;
+
+import com.example.apachepoilearning.domain.upload.service.StagedUpload;
+import com.example.apachepoilearning.domain.upload.service.UploadService;
+import com.example.apachepoilearning.domain.upload.service.UploadStagingService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 업로드 파일을 임시 파일로 저장한 뒤, 제한된 작업 스레드 풀에서 비동기로 파싱 및 저장합니다.
+ * 요청 스레드는 파일을 저장하고 작업 id를 돌려준 즉시 반환되며,
+ * 작업 큐가 가득 차면 새 작업을 메모리에 쌓아두지 않고 거절합니다.
+ * 실행 중이거나 대기 중인 작업 수(workers + queue-capacity)만큼의 자리를 먼저 확보한 뒤 파일을 저장하므로,
+ * 거절될 요청은 업로드 파일을 디스크에 옮기고 해시를 계산하기 전에 거절됩니다.
+ */
+@Service
+public class UploadJobService {
+
+    private final UploadService uploadService;
+    private final UploadStagingService uploadStagingService;
+    private final ExecutorService uploadJobExecutor;
+    // 종료된 작업의 상태를 보관하는 시간
+    private final Duration retention;
+    // 실행 중이거나 대기 중인 작업의 자리 (uploadJobExecutor의 스레드 수 + 대기 큐 크기)
+    private final Semaphore slots;
+
+    private final Map<String, UploadJob> jobs = new ConcurrentHashMap<>();
+
+    public UploadJobService(UploadService uploadService,
+                            UploadStagingService uploadStagingService,
+                            @Qualifier("uploadJobExecutor") ExecutorService uploadJobExecutor,
+                            @Value("${excel.upload.job.retention:1h}") Duration retention,
+                            @Value("${excel.upload.job.workers:2}") int workers,
+                            @Value("${excel.upload.job.queue-capacity:8}") int queueCapacity) {
+        this.uploadService = uploadService;
+        this.uploadStagingService = uploadStagingService;
+        this.uploadJobExecutor = uploadJobExecutor;
+        this.retention = retention;
+        this.slots = new Semaphore(workers + queueCapacity);
+    }
+
+    /**
+     * 업로드 파일을 임시 파일로 저장하고 작업 큐에 등록합니다.
+     *
+     * @param file 업로드된 MultipartFile 객체
+     * @return 등록된 작업
+     * @throws IOException 임시 파일 저장 중 발생할 수 있는 예외
+     * @throws RejectedExecutionException 작업 큐가 가득 차서 작업을 받을 수 없는 경우
+     */
+    public UploadJob submit(MultipartFile file) throws IOException {
+        return submit(file, null);
+    }
+
+    /**
+     * 업로드 파일을 임시 파일로 저장하고 작업 큐에 등록합니다.
+     *
+     * @param file 업로드된 MultipartFile 객체
+     * @param deltaSource 변경분(delta) 업로드의 원본 이름 (null이면 모든 행을 추가 저장)
+     * @return 등록된 작업
+     * @throws IOException 임시 파일 저장 중 발생할 수 있는 예외
+     * @throws RejectedExecutionException 작업 큐가 가득 차서 작업을 받을 수 없는 경우
+     */
+    public UploadJob submit(MultipartFile file, String deltaSource) throws IOException {
+        evictFinishedJobs();
+
+        // 파일을 옮기고 해시를 계산하기 전에, 작업 스레드 풀에 들어갈 자리가 있는지 먼저 확인합니다.
+        if (!slots.tryAcquire()) {
+            throw new RejectedExecutionException("업로드 작업 큐가 가득 찼습니다.");
+        }
+        boolean submitted = false;
+        try {
+            // MultipartFile은 요청이 끝나면 정리되므로, 작업 스레드가 읽을 수 있도록 임시 파일로 옮겨둡니다.
+            StagedUpload stagedUpload = uploadStagingService.stage(file);
+
+            UploadJob job = new UploadJob(UUID.randomUUID().toString(), file.getOriginalFilename(), stagedUpload, deltaSource);
+            jobs.put(job.getId(), job);
+            try {
+                uploadJobExecutor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.getId());
+                stagedUpload.close();
+                throw e;
+            }
+            submitted = true;
+            return job;
+        } finally {
+            // 제출한 작업의 자리는 작업이 끝날 때(run) 반납합니다.
+            if (!submitted) {
+                slots.release();
+            }
+        }
+    }
+
+    /**
+     * @param jobId 작업 id
+     * @return 작업 (없거나 보관 기간이 지났으면 empty)
+     */
+    public Optional<UploadJob> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * 작업 스레드에서 실행되는 업로드 처리
+     */
+    private void run(UploadJob job) {
+        job.start();
+        try {
+            if (job.getDeltaSource() != null) {
+                job.complete(uploadService.importUsersDelta(job.getStagedUpload(), job.getDeltaSource(), job.getProgress()));
+            } else {
+                uploadService.importUsers(job.getStagedUpload(), job.getProgress());
+                job.complete();
+            }
+        } catch (Throwable t) {
+            // OutOfMemoryError 등 Error로 끝나더라도 상태 조회가 RUNNING에 머물지 않도록 실패로 기록합니다.
+            job.fail(t);
+            if (t instanceof Error error) {
+                throw error;
+            }
+        } finally {
+            try {
+                job.getStagedUpload().close();
+            } catch (IOException ignored) {
+                // 임시 파일 삭제 실패는 작업 결과에 영향을 주지 않습니다.
+            } finally {
+                slots.release();
+            }
+        }
+    }
+
+    /**
+     * 종료된 지 retention 이상 지난 작업의 상태를 제거합니다.
+     */
+    private void evictFinishedJobs() {
+        Instant threshold = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(threshold));
+    }
+}
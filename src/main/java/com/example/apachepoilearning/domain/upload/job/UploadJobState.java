@@ -0,0 +1,15 @@
+package com.example.apachepoilearning.domain.upload.job;
+
+/**
+ * 업로드 작업 상태
+ */
+public enum UploadJobState {
+    // 작업 큐에서 대기 중
+    QUEUED,
+    // 파싱 및 저장 중
+    RUNNING,
+    // 정상 완료
+    COMPLETED,
+    // 오류로 중단
+    FAILED
+}
@@ -0,0 +1,35 @@
+package com.example.apachepoilearning.domain.upload.job;
+
+import com.example.apachepoilearning.domain.upload.service.UserDeltaImportResult;
+
+import java.time.Instant;
+
+/**
+ * 업로드 작업 상태 조회 응답
+ *
+ * @param jobId 작업 id
+ * @param fileName 업로드 파일명
+ * @param state 작업 상태
+ * @param rowsExpected 파싱 전에 시트 크기로 확인한 예상 행 수 (모르면 -1)
+ * @param rowsParsed 변환된 행 수
+ * @param rowsPersisted 저장된 행 수
+ * @param rowsRejected 값을 변환할 수 없어 건너뛴 행 수
+ * @param rowsPerSecond 초당 저장된 행 수
+ * @param submittedAt 작업 접수 시각
+ * @param startedAt 작업 시작 시각 (시작 전이면 null)
+ * @param finishedAt 작업 종료 시각 (종료 전이면 null)
+ * @param error 실패 원인 (실패하지 않았다면 null)
+ * @param delta 변경분 업로드의 행별 반영 결과 (INSERT, UPDATE, DELETE, 변경 없음 등, 완료된 변경분 업로드가 아니면 null)
+ */
+public record UploadJobStatus(String jobId, String fileName, UploadJobState state,
+                              long rowsExpected, long rowsParsed, long rowsPersisted, long rowsRejected, double rowsPerSecond,
+                              Instant submittedAt, Instant startedAt, Instant finishedAt, String error,
+                              UserDeltaImportResult delta) {
+
+    public static UploadJobStatus of(UploadJob job) {
+        return new UploadJobStatus(job.getId(), job.getFileName(), job.getState(),
+                job.getProgress().getRowsExpected(), job.getProgress().getRowsParsed(), job.getProgress().getRowsPersisted(),
+                job.getProgress().getRowsRejected(), job.getRowsPerSecond(),
+                job.getSubmittedAt(), job.getStartedAt(), job.getFinishedAt(), job.getError(), job.getDeltaResult());
+    }
+}
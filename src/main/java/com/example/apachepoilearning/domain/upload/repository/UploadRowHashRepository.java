@@ -0,0 +1,91 @@
+package com.example.apachepoilearning.domain.upload.repository;
+
+import com.example.apachepoilearning.entity.UploadRowHash;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 변경분(delta) 업로드의 행 해시 색인(upload_row_hashes)을 JDBC로 읽고 씁니다.
+ * 색인은 원본마다 수십만 행이 될 수 있으므로 엔티티로 읽지 않고 기본 타입 값으로 콜백에 전달합니다.
+ */
+@Repository
+public class UploadRowHashRepository {
+
+    private static final String SELECT_ROW_HASHES = "SELECT row_key, row_hash, user_id FROM upload_row_hashes WHERE source_name = ?";
+
+    private static final String UPSERT_ROW_HASH = "INSERT INTO upload_row_hashes (source_name, row_key, row_hash, user_id) VALUES (?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE row_hash = VALUES(row_hash), user_id = VALUES(user_id)";
+
+    private static final String DELETE_ROW_HASH = "DELETE FROM upload_row_hashes WHERE source_name = ? AND row_key = ?";
+
+    /**
+     * 색인의 한 행을 전달받는 콜백
+     */
+    @FunctionalInterface
+    public interface RowHashHandler {
+        void accept(long rowKey, long rowHash, long userId);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UploadRowHashRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param sourceName 업로드 원본 이름
+     * @param handler 색인의 행마다 호출할 콜백
+     */
+    public void forEachRowHash(String sourceName, RowHashHandler handler) {
+        jdbcTemplate.query(SELECT_ROW_HASHES,
+                rs -> handler.accept(rs.getLong(1), rs.getLong(2), rs.getLong(3)),
+                sourceName);
+    }
+
+    /**
+     * 행 해시를 추가하거나 갱신합니다.
+     * @param rowHashes 저장할 행 해시 목록
+     */
+    public void upsertRowHashes(List<UploadRowHash> rowHashes) {
+        jdbcTemplate.batchUpdate(UPSERT_ROW_HASH, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                UploadRowHash rowHash = rowHashes.get(i);
+                ps.setString(1, rowHash.getSourceName());
+                ps.setLong(2, rowHash.getRowKey());
+                ps.setLong(3, rowHash.getRowHash());
+                ps.setLong(4, rowHash.getUserId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rowHashes.size();
+            }
+        });
+    }
+
+    /**
+     * @param sourceName 업로드 원본 이름
+     * @param rowKeys 삭제할 행의 키 해시
+     * @param count rowKeys 중 사용할 개수
+     */
+    public void deleteRowHashes(String sourceName, long[] rowKeys, int count) {
+        jdbcTemplate.batchUpdate(DELETE_ROW_HASH, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, sourceName);
+                ps.setLong(2, rowKeys[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+    }
+}
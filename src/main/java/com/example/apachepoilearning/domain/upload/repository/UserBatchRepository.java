@@ -0,0 +1,159 @@
+package com.example.apachepoilearning.domain.upload.repository;
+
+import com.example.apachepoilearning.entity.User;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 업로드된 사용자 데이터를 JDBC 배치로 저장합니다.
+ * User 엔티티는 IDENTITY 전략을 사용하므로 Hibernate가 INSERT를 배치로 묶지 못합니다.
+ * 그래서 대량 저장은 JPA를 거치지 않고 JdbcTemplate의 batchUpdate를 사용하며,
+ * MySQL 드라이버의 rewriteBatchedStatements 옵션과 함께 사용하면 여러 행이 하나의 INSERT 문으로 전송됩니다.
+ */
+@Repository
+public class UserBatchRepository {
+
+    private static final String INSERT_USER = "INSERT INTO users (name, email, age) VALUES (?, ?, ?)";
+
+    private static final String UPDATE_USER = "UPDATE users SET name = ?, email = ?, age = ?, row_version = row_version + 1 WHERE id = ?";
+
+    private static final String DELETE_USER = "DELETE FROM users WHERE id = ?";
+
+    private static final String SELECT_CHECKPOINT = "SELECT last_row FROM upload_checkpoints WHERE source_key = ?";
+
+    private static final String UPSERT_CHECKPOINT = "INSERT INTO upload_checkpoints (source_key, last_row, updated_at) VALUES (?, ?, NOW()) "
+            + "ON DUPLICATE KEY UPDATE last_row = VALUES(last_row), updated_at = VALUES(updated_at)";
+
+    private static final String DELETE_CHECKPOINT = "DELETE FROM upload_checkpoints WHERE source_key = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 사용자 목록을 하나의 JDBC 배치로 저장합니다. (id는 데이터베이스에서 생성)
+     * @param users 저장할 사용자 목록
+     */
+    public void insertUsers(List<User> users) {
+        jdbcTemplate.batchUpdate(INSERT_USER, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                User user = users.get(i);
+                ps.setString(1, user.getName());
+                ps.setString(2, user.getEmail());
+                ps.setInt(3, user.getAge());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return users.size();
+            }
+        });
+    }
+
+    /**
+     * 사용자 목록을 하나의 JDBC 배치로 저장하고, 데이터베이스에서 생성된 id를 각 User에 채웁니다.
+     * @param users 저장할 사용자 목록
+     */
+    public void insertUsersReturningIds(List<User> users) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        User user = users.get(i);
+                        ps.setString(1, user.getName());
+                        ps.setString(2, user.getEmail());
+                        ps.setInt(3, user.getAge());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return users.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+
+    /**
+     * id가 채워진 사용자 목록의 이름, 이메일, 나이를 하나의 JDBC 배치로 갱신합니다.
+     * 행마다 row_version을 1 올리므로, 행 수와 id가 그대로여도 내보내기 스냅샷 캐시의 데이터 버전이 바뀝니다.
+     * @param users 갱신할 사용자 목록
+     */
+    public void updateUsers(List<User> users) {
+        jdbcTemplate.batchUpdate(UPDATE_USER, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                User user = users.get(i);
+                ps.setString(1, user.getName());
+                ps.setString(2, user.getEmail());
+                ps.setInt(3, user.getAge());
+                ps.setLong(4, user.getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return users.size();
+            }
+        });
+    }
+
+    /**
+     * @param ids 삭제할 사용자 id
+     * @param count ids 중 사용할 개수
+     */
+    public void deleteUsers(long[] ids, int count) {
+        jdbcTemplate.batchUpdate(DELETE_USER, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, ids[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+    }
+
+    /**
+     * @param sourceKey 업로드 원본을 식별하는 키
+     * @return 마지막으로 커밋된 행 인덱스, 기록이 없으면 -1
+     */
+    public int findLastCommittedRow(String sourceKey) {
+        List<Integer> rows = jdbcTemplate.queryForList(SELECT_CHECKPOINT, Integer.class, sourceKey);
+        return rows.isEmpty() ? -1 : rows.get(0);
+    }
+
+    /**
+     * 마지막으로 커밋된 행 인덱스를 기록합니다.
+     * @param sourceKey 업로드 원본을 식별하는 키
+     * @param lastRow 마지막으로 커밋된 행 인덱스
+     */
+    public void saveCheckpoint(String sourceKey, int lastRow) {
+        jdbcTemplate.update(UPSERT_CHECKPOINT, sourceKey, lastRow);
+    }
+
+    /**
+     * 체크포인트를 삭제합니다. (업로드가 끝까지 저장된 경우)
+     * @param sourceKey 업로드 원본을 식별하는 키
+     */
+    public void deleteCheckpoint(String sourceKey) {
+        jdbcTemplate.update(DELETE_CHECKPOINT, sourceKey);
+    }
+}
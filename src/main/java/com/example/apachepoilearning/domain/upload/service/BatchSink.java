@@ -0,0 +1,18 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import java.util.List;
+
+/**
+ * RowPipeline에서 변환된 결과를 배치 단위로 저장합니다. 하나의 writer 스레드에서만 호출됩니다.
+ *
+ * @param <T> 저장할 객체 타입
+ */
+@FunctionalInterface
+public interface BatchSink<T> {
+
+    /**
+     * @param batch 저장할 객체 목록 (호출이 끝나면 재사용되므로 참조를 보관하면 안 됩니다)
+     * @param lastRowIndex 이 배치에 포함된 마지막 행 인덱스 (순서 보장 모드에서만 재시작 지점으로 사용할 수 있습니다)
+     */
+    void write(List<T> batch, int lastRowIndex) throws Exception;
+}
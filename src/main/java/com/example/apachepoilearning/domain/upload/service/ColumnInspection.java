@@ -0,0 +1,42 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+/**
+ * 앞부분 행으로 판별한 열 정보
+ *
+ * @param columnIndex 열 인덱스 (0부터 시작)
+ * @param header 첫 행(헤더)의 셀 값 (없으면 null)
+ * @param type 헤더 다음 행들의 셀 값 종류
+ */
+public record ColumnInspection(int columnIndex, String header, Type type) {
+
+    /**
+     * 열의 값 종류
+     */
+    public enum Type {
+        // 헤더 다음 행들에 값이 없음
+        EMPTY,
+        // 소수부가 없는 숫자
+        INTEGER,
+        // 숫자 (INTEGER와 섞여 있으면 NUMBER)
+        NUMBER,
+        // 날짜 서식이 적용된 숫자
+        DATE,
+        STRING,
+        BOOLEAN,
+        // 서로 다른 종류가 섞여 있음
+        MIXED;
+
+        /**
+         * 지금까지의 종류에 셀 하나의 종류를 더한 결과
+         */
+        Type merge(Type cell) {
+            if (this == EMPTY || this == cell) {
+                return cell;
+            }
+            if ((this == INTEGER && cell == NUMBER) || (this == NUMBER && cell == INTEGER)) {
+                return NUMBER;
+            }
+            return MIXED;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import com.example.apachepoilearning.excel.table.Column;
+import com.example.apachepoilearning.excel.table.ColumnarTable;
+import com.example.apachepoilearning.excel.table.DateColumn;
+import com.example.apachepoilearning.excel.table.DoubleColumn;
+import com.example.apachepoilearning.excel.table.LongColumn;
+import com.example.apachepoilearning.excel.table.StringColumn;
+import org.apache.poi.xssf.model.SharedStrings;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * SAX로 파싱된 셀 값을 ColumnarTable의 열 배열에 바로 저장합니다.
+ * 숫자, 날짜 셀은 String이나 Cell 객체를 거치지 않고 double[]/long[]에 저장되며,
+ * 공유 문자열 셀은 공유 문자열 인덱스 → 사전 코드 캐시를 사용하므로 같은 문자열이 반복되면 문자열 조회도 하지 않습니다.
+ * 표의 열 개수를 넘는 열은 무시합니다.
+ * UploadService.uploadSAXXlsx(file, sst -> new ColumnarTableBuilder(sst, table, 1))처럼 시트를 읽는 RowConsumer로 사용합니다.
+ */
+public class ColumnarTableBuilder implements RowConsumer {
+
+    private final SharedStrings sst;
+    private final ColumnarTable table;
+    private final Column[] columns;
+    // 이 행 인덱스부터 데이터 행입니다. (그 앞은 헤더)
+    private final int firstDataRow;
+
+    // 열별 공유 문자열 인덱스 → (사전 코드 + 1) 캐시, 0이면 아직 조회하지 않음
+    private final int[][] sharedStringCodes;
+
+    // 현재 행 번호 (헤더 행이면 -1)
+    private int row = -1;
+
+    /**
+     * @param sst 공유 문자열 테이블
+     * @param table 채울 표 (열 타입이 시트의 열 순서와 같아야 합니다)
+     * @param firstDataRow 첫 번째 데이터 행 인덱스 (헤더가 한 줄이면 1)
+     */
+    public ColumnarTableBuilder(SharedStrings sst, ColumnarTable table, int firstDataRow) {
+        this.sst = sst;
+        this.table = table;
+        this.firstDataRow = firstDataRow;
+        this.columns = new Column[table.getColumnCount()];
+        this.sharedStringCodes = new int[columns.length][];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = table.column(i);
+        }
+    }
+
+    @Override
+    public void startRow(int rowIndex) {
+        row = rowIndex >= firstDataRow ? table.addRow() : -1;
+    }
+
+    @Override
+    public void numericCell(int columnIndex, double value) {
+        if (row < 0 || columnIndex >= columns.length) {
+            return;
+        }
+        Column column = columns[columnIndex];
+        switch (column.getType()) {
+            case DOUBLE -> ((DoubleColumn) column).set(row, value);
+            case LONG -> ((LongColumn) column).set(row, (long) value);
+            case DATE -> ((DateColumn) column).setExcelDate(row, value);
+            case STRING -> ((StringColumn) column).set(row, formatNumber(value));
+        }
+    }
+
+    @Override
+    public void sharedStringCell(int columnIndex, int sharedStringIndex) {
+        if (row < 0 || columnIndex >= columns.length) {
+            return;
+        }
+        Column column = columns[columnIndex];
+        if (column instanceof StringColumn strings) {
+            strings.setCode(row, sharedStringCode(columnIndex, strings, sharedStringIndex));
+        } else {
+            setParsed(column, MappedSharedStrings.resolve(sst, sharedStringIndex));
+        }
+    }
+
+    @Override
+    public void inlineStringCell(int columnIndex, CharSequence value) {
+        if (row < 0 || columnIndex >= columns.length) {
+            return;
+        }
+        Column column = columns[columnIndex];
+        if (column instanceof StringColumn strings) {
+            strings.set(row, value.toString());
+        } else {
+            setParsed(column, value);
+        }
+    }
+
+    @Override
+    public void booleanCell(int columnIndex, boolean value) {
+        if (row < 0 || columnIndex >= columns.length) {
+            return;
+        }
+        if (columns[columnIndex] instanceof StringColumn strings) {
+            strings.set(row, value ? "TRUE" : "FALSE");
+        } else {
+            numericCell(columnIndex, value ? 1 : 0);
+        }
+    }
+
+    /**
+     * @return 채워진 표
+     */
+    public ColumnarTable getTable() {
+        return table;
+    }
+
+    private int sharedStringCode(int columnIndex, StringColumn strings, int sharedStringIndex) {
+        int[] codes = sharedStringCodes[columnIndex];
+        if (codes == null || sharedStringIndex >= codes.length) {
+            int length = Math.max(sharedStringIndex + 1, codes == null ? 64 : codes.length * 2);
+            codes = sharedStringCodes[columnIndex] = codes == null ? new int[length] : Arrays.copyOf(codes, length);
+        }
+        int code = codes[sharedStringIndex] - 1;
+        if (code < 0) {
+            code = strings.encode(MappedSharedStrings.resolve(sst, sharedStringIndex));
+            codes[sharedStringIndex] = code + 1;
+        }
+        return code;
+    }
+
+    /**
+     * 문자열로 저장된 숫자, 날짜를 변환합니다. (숫자 열에 문자열이 들어온 경우이므로 일반적인 경로는 아닙니다)
+     */
+    private void setParsed(Column column, CharSequence value) {
+        if (value.length() == 0) {
+            return;
+        }
+        switch (column.getType()) {
+            case DOUBLE -> ((DoubleColumn) column).set(row, FastNumbers.parseDouble(value));
+            case LONG -> ((LongColumn) column).set(row, (long) FastNumbers.parseDouble(value));
+            case DATE -> ((DateColumn) column).set(row, LocalDate.parse(value.subSequence(0, Math.min(10, value.length()))));
+            default -> {
+            }
+        }
+    }
+
+    private static String formatNumber(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+
+/**
+ * 셀 스타일 인덱스(s 속성)가 날짜 서식인지 여부를 스타일마다 한 번만 계산하여 보관합니다.
+ * 숫자 셀마다 서식 문자열을 다시 검사하지 않도록 하기 위한 캐시입니다.
+ */
+final class DateStyleCache {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte DATE = 1;
+    private static final byte NOT_DATE = 2;
+
+    private final StylesTable stylesTable;
+    // 스타일 인덱스별 판별 결과 (여러 스레드가 동시에 채워도 같은 값이 기록되므로 동기화하지 않습니다)
+    private final byte[] states;
+
+    DateStyleCache(StylesTable stylesTable) {
+        this.stylesTable = stylesTable;
+        this.states = new byte[stylesTable.getNumCellStyles()];
+    }
+
+    /**
+     * @param styleIndex 셀의 s 속성 값
+     * @return 날짜 서식이면 true
+     */
+    boolean isDateStyle(int styleIndex) {
+        if (styleIndex <= 0 || styleIndex >= states.length) {
+            // 0번 스타일은 "General" 서식입니다.
+            return false;
+        }
+        byte state = states[styleIndex];
+        if (state == UNKNOWN) {
+            XSSFCellStyle style = stylesTable.getStyleAt(styleIndex);
+            boolean date = style != null
+                    && style.getDataFormatString() != null
+                    && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+            state = date ? DATE : NOT_DATE;
+            states[styleIndex] = state;
+        }
+        return state == DATE;
+    }
+}
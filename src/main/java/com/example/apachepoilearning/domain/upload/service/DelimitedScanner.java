@@ -0,0 +1,327 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import com.example.apachepoilearning.excel.DelimitedFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * CSV/TSV 텍스트를 UTF-8 바이트 단위로 읽어 SheetHandler의 이벤트 메서드를 직접 호출하는 리더
+ *
+ * 레코드(줄) 하나를 행 하나로, 필드 하나를 셀 하나로 전달하므로, 시트를 읽을 때와 같은 RowConsumer
+ * (UserRowConsumer, UserDeltaConsumer, RowPipeline 등)와 행 해시 계산을 그대로 사용합니다.
+ * - 첫 번째 레코드(헤더)는 행 인덱스 0이며, 빈 줄은 건너뛰되 행 인덱스는 증가합니다. (같은 파일을 다시 올리면 같은 행 번호)
+ * - 큰따옴표로 감싼 필드는 구분자, 줄바꿈, 두 번 쓴 큰따옴표("")를 값으로 가질 수 있으며 항상 문자열 셀입니다. (RFC 4180)
+ * - 감싸지 않은 필드가 정규 형태의 숫자(예: 25, -3.5)이면 SheetXmlScanner의 <v>와 같이 버퍼의 바이트를 그대로 숫자 셀로 전달하고,
+ *   그 외(앞에 0이 붙은 값, 1.50, 1e5 등)는 문자열 셀로 전달합니다. 문자열 필드에 넣을 때 원래 표기가 바뀌지 않도록 하기 위해서입니다.
+ * - 빈 필드는 셀을 전달하지 않습니다.
+ * 숫자 필드는 String을 만들지 않고, 문자열 필드는 재사용 StringBuilder로 디코딩합니다.
+ *
+ * 읽기 버퍼와 문자열 버퍼를 재사용하도록 스레드마다 하나의 인스턴스를 사용합니다. (forCurrentThread 참고)
+ */
+public final class DelimitedScanner {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // 아주 긴 필드 때문에 이보다 커진 버퍼는 다음 파일에서 재사용하지 않습니다.
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+    // double로 정확히 표현되는 10진수 유효 자릿수
+    private static final int MAX_NUMBER_DIGITS = 15;
+
+    private static final ThreadLocal<DelimitedScanner> SCANNERS = ThreadLocal.withInitial(DelimitedScanner::new);
+
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private InputStream input;
+    private SheetHandler handler;
+    private byte delimiter;
+    private final StringBuilder text = new StringBuilder(64);
+
+    // 현재 레코드의 행 인덱스 (오류 메시지용)
+    private int rowIndex;
+
+    private DelimitedScanner() {
+    }
+
+    /**
+     * @return 현재 스레드의 스캐너 (같은 스레드에서 scan을 중첩해서 호출하면 안 됩니다)
+     */
+    public static DelimitedScanner forCurrentThread() {
+        return SCANNERS.get();
+    }
+
+    /**
+     * CSV/TSV 텍스트를 끝까지 읽어 handler의 이벤트 메서드를 호출합니다.
+     *
+     * @param delimited UTF-8 텍스트 스트림 (압축되어 있으면 호출하는 쪽에서 풀어서 전달합니다)
+     * @param format 구분자 형식
+     * @param handler 행과 셀을 전달받을 SheetHandler
+     * @throws IOException 입출력 오류 또는 형식 오류 (닫히지 않은 큰따옴표, 올바르지 않은 UTF-8 등)
+     */
+    public void scan(InputStream delimited, DelimitedFormat format, SheetHandler handler) throws IOException {
+        this.input = delimited;
+        this.handler = handler;
+        this.delimiter = format.delimiter();
+        if (buffer.length > MAX_RETAINED_BUFFER_SIZE) {
+            // 이전 파일의 아주 긴 필드 때문에 커진 버퍼는 다시 만듭니다.
+            buffer = new byte[BUFFER_SIZE];
+        }
+        position = 0;
+        limit = 0;
+        try {
+            // UTF-8 BOM (DelimitedWriter, 엑셀의 "CSV UTF-8" 저장 형식)은 건너뜁니다.
+            if (fill(3) && buffer[0] == (byte) 0xEF && buffer[1] == (byte) 0xBB && buffer[2] == (byte) 0xBF) {
+                position = 3;
+            }
+            readRecords();
+            handler.endDocument();
+        } finally {
+            this.input = null;
+            this.handler = null;
+        }
+    }
+
+    private void readRecords() throws IOException {
+        rowIndex = 0;
+        while (fill(1)) {
+            byte b = buffer[position];
+            if (b == '\n' || b == '\r') {
+                // 빈 줄
+                skipLineEnd();
+                rowIndex++;
+                continue;
+            }
+            handler.startRow(rowIndex);
+            int columnIndex = 0;
+            while (readField(columnIndex++)) {
+                // 구분자 다음 필드를 계속 읽습니다.
+            }
+            handler.endRow();
+            rowIndex++;
+        }
+    }
+
+    /**
+     * position부터 필드 하나를 읽어 셀로 전달하고, 필드 뒤의 구분자나 줄바꿈까지 넘깁니다.
+     *
+     * @return 같은 레코드에 필드가 더 있으면(구분자를 만났으면) true
+     */
+    private boolean readField(int columnIndex) throws IOException {
+        if (!fill(1)) {
+            // 마지막 구분자 뒤의 빈 필드
+            return false;
+        }
+        if (buffer[position] == '"') {
+            readQuoted(columnIndex);
+            return endField();
+        }
+
+        int i = position;
+        boolean ascii = true;
+        while (true) {
+            if (i >= limit) {
+                int offset = i - position;
+                if (!refill()) {
+                    break;
+                }
+                i = position + offset;
+                continue;
+            }
+            byte b = buffer[i];
+            if (b == delimiter || b == '\n' || b == '\r') {
+                break;
+            }
+            if (b < 0) {
+                ascii = false;
+            }
+            i++;
+        }
+
+        int length = i - position;
+        if (length > 0) {
+            if (ascii && isNumber(position, length)) {
+                handler.startCell(columnIndex, SheetHandler.TYPE_NUMBER, 0);
+                handler.cellValue(buffer, position, length);
+            } else {
+                text.setLength(0);
+                decode(position, i, false);
+                handler.startCell(columnIndex, SheetHandler.TYPE_INLINE_STRING, 0);
+                handler.inlineStringValue(text);
+            }
+        }
+        position = i;
+        return endField();
+    }
+
+    /**
+     * position의 여는 큰따옴표부터 닫는 큰따옴표까지 읽어 문자열 셀로 전달하고, 닫는 큰따옴표 다음으로 이동합니다.
+     */
+    private void readQuoted(int columnIndex) throws IOException {
+        int i = position + 1;
+        while (true) {
+            if (i + 1 >= limit) {
+                // 큰따옴표 다음 바이트까지 확인해야 하므로 두 바이트를 확보합니다.
+                int offset = i - position;
+                if (!refill()) {
+                    i = position + offset;
+                    if (i < limit && buffer[i] == '"') {
+                        break;
+                    }
+                    throw new IOException((rowIndex + 1) + "번째 행: 큰따옴표로 시작한 필드가 닫히지 않았습니다.");
+                }
+                i = position + offset;
+                continue;
+            }
+            if (buffer[i] == '"') {
+                if (buffer[i + 1] != '"') {
+                    break;
+                }
+                i += 2;
+            } else {
+                i++;
+            }
+        }
+
+        text.setLength(0);
+        decode(position + 1, i, true);
+        handler.startCell(columnIndex, SheetHandler.TYPE_INLINE_STRING, 0);
+        handler.inlineStringValue(text);
+        position = i + 1;
+    }
+
+    /**
+     * 필드 다음의 구분자 또는 줄바꿈을 넘깁니다.
+     *
+     * @return 구분자를 만났으면 true, 줄바꿈이나 파일 끝이면 false
+     */
+    private boolean endField() throws IOException {
+        if (!fill(1)) {
+            return false;
+        }
+        byte b = buffer[position];
+        if (b == delimiter) {
+            position++;
+            return true;
+        }
+        if (b == '\n' || b == '\r') {
+            skipLineEnd();
+            return false;
+        }
+        // 감싸지 않은 필드는 구분자나 줄바꿈에서 끝나므로 여기에 오는 것은 닫는 큰따옴표 다음뿐입니다.
+        throw new IOException((rowIndex + 1) + "번째 행: 닫는 큰따옴표 뒤에 구분자나 줄바꿈이 없습니다.");
+    }
+
+    /**
+     * position의 줄바꿈(\n, \r\n, \r)을 넘깁니다.
+     */
+    private void skipLineEnd() throws IOException {
+        if (buffer[position++] == '\r' && fill(1) && buffer[position] == '\n') {
+            position++;
+        }
+    }
+
+    /**
+     * [offset, offset + length)가 앞에 0이 붙지 않은 10진수(선택적 '-' 부호와 소수부)이고, double로 정확히 표현되며,
+     * 숫자로 바꿨다가 다시 문자열로 만들어도 같은 표기(소수부 끝에 0이 없음)인지 확인합니다.
+     */
+    private boolean isNumber(int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        boolean negative = buffer[i] == '-';
+        if (negative) {
+            i++;
+        }
+        int integerStart = i;
+        while (i < end && isDigit(buffer[i])) {
+            i++;
+        }
+        int integerDigits = i - integerStart;
+        if (integerDigits == 0 || integerDigits > MAX_NUMBER_DIGITS
+                || (integerDigits > 1 && buffer[integerStart] == '0')) {
+            return false;
+        }
+        if (i == end) {
+            // "-0"은 숫자로 바꾸면 부호가 사라지므로 문자열로 둡니다.
+            return !(negative && integerDigits == 1 && buffer[integerStart] == '0');
+        }
+        if (buffer[i] != '.') {
+            return false;
+        }
+        int fractionStart = ++i;
+        while (i < end && isDigit(buffer[i])) {
+            i++;
+        }
+        int fractionDigits = i - fractionStart;
+        return i == end && fractionDigits > 0 && integerDigits + fractionDigits <= MAX_NUMBER_DIGITS && buffer[end - 1] != '0';
+    }
+
+    /**
+     * UTF-8 바이트를 디코딩하여 text에 더합니다.
+     *
+     * @param quoted 큰따옴표로 감싼 필드의 내용이면 true (두 번 쓴 큰따옴표를 하나로 바꿉니다)
+     */
+    private void decode(int start, int end, boolean quoted) throws IOException {
+        int i = start;
+        while (i < end) {
+            int b = buffer[i] & 0xFF;
+            if (b < 0x80) {
+                text.append((char) b);
+                i += quoted && b == '"' ? 2 : 1;
+            } else if (b >= 0xC0 && b < 0xE0 && i + 1 < end) {
+                text.append((char) ((b & 0x1F) << 6 | buffer[i + 1] & 0x3F));
+                i += 2;
+            } else if (b >= 0xE0 && b < 0xF0 && i + 2 < end) {
+                text.append((char) ((b & 0x0F) << 12 | (buffer[i + 1] & 0x3F) << 6 | buffer[i + 2] & 0x3F));
+                i += 3;
+            } else if (b >= 0xF0 && i + 3 < end) {
+                int codePoint = (b & 0x07) << 18 | (buffer[i + 1] & 0x3F) << 12 | (buffer[i + 2] & 0x3F) << 6 | buffer[i + 3] & 0x3F;
+                text.appendCodePoint(codePoint);
+                i += 4;
+            } else {
+                throw new IOException((rowIndex + 1) + "번째 행: 올바르지 않은 UTF-8 문자가 있습니다.");
+            }
+        }
+    }
+
+    /**
+     * position부터 최소 count 바이트가 버퍼에 있도록 채웁니다.
+     *
+     * @return 파일 끝이라 채울 수 없으면 false
+     */
+    private boolean fill(int count) throws IOException {
+        while (limit - position < count) {
+            if (!refill()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 스트림에서 더 읽습니다. position 앞의 바이트(이미 처리한 필드)를 버리고 나머지를 버퍼 앞으로 옮기며,
+     * 필드 하나가 버퍼보다 길면 버퍼를 두 배로 늘립니다.
+     *
+     * @return 파일 끝이면 false
+     */
+    private boolean refill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read = input.read(buffer, limit, buffer.length - limit);
+        if (read <= 0) {
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 시트 XML에서 읽은 셀 참조와 숫자를 새로운 객체 할당 없이 변환하는 유틸리티
+ * 일반적인 형태(부호, 정수부, 소수부)만 직접 처리하고, 지수 표기 등은 JDK 파서로 넘깁니다.
+ */
+final class FastNumbers {
+
+    // 10^0 ~ 10^22 는 double로 정확하게 표현되므로, 2^53 이하의 정수를 이 값으로 나누면 올바르게 반올림된 결과를 얻습니다.
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private FastNumbers() {
+    }
+
+    /**
+     * "AB12" 같은 셀 참조에서 열 인덱스(0부터 시작)를 계산합니다.
+     * @param cellReference 셀 참조 문자열
+     * @return 열 인덱스
+     */
+    static int columnIndex(CharSequence cellReference) {
+        int column = 0;
+        for (int i = 0; i < cellReference.length(); i++) {
+            char c = cellReference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    /**
+     * 부호 없는 10진수 정수를 변환합니다. (공유 문자열 인덱스, 행 번호, 스타일 인덱스 등)
+     * @param s 변환할 문자열
+     * @return 변환된 정수
+     */
+    static int parseInt(CharSequence s) {
+        int length = s.length();
+        if (length == 0 || length > 9) {
+            return Integer.parseInt(s.toString());
+        }
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.parseInt(s.toString());
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * 시트 XML의 ASCII 바이트에서 부호 없는 10진수 정수를 변환합니다. (SheetXmlScanner)
+     */
+    static int parseInt(byte[] s, int offset, int length) {
+        if (length == 0 || length > 9) {
+            return Integer.parseInt(ascii(s, offset, length));
+        }
+        int value = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            int digit = s[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.parseInt(ascii(s, offset, length));
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * 시트 XML의 ASCII 바이트에서 셀 참조의 열 인덱스를 계산합니다. (SheetXmlScanner)
+     */
+    static int columnIndex(byte[] cellReference, int offset, int length) {
+        int column = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            byte c = cellReference[i];
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    /**
+     * 셀 값 문자열을 double로 변환합니다.
+     * 유효 자릿수가 2^53 이하이고 소수점 아래 자릿수가 22 이하인 경우에만 직접 계산하며,
+     * 그 외(지수 표기, 아주 긴 숫자 등)는 Double.parseDouble로 처리하여 정확도를 보장합니다.
+     * @param s 변환할 문자열
+     * @return 변환된 값
+     */
+    static double parseDouble(CharSequence s) {
+        int length = s.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && s.charAt(0) == '-') {
+            negative = true;
+            i++;
+        }
+        if (i == length) {
+            return Double.parseDouble(s.toString());
+        }
+
+        long mantissa = 0;
+        int scale = 0;
+        boolean fraction = false;
+        for (; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa > MAX_EXACT_MANTISSA) {
+                    return Double.parseDouble(s.toString());
+                }
+                if (fraction) {
+                    scale++;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                return Double.parseDouble(s.toString());
+            }
+        }
+        if (scale >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(s.toString());
+        }
+
+        double value = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    /**
+     * 시트 XML의 ASCII 바이트에서 셀 값을 double로 변환합니다. (SheetXmlScanner)
+     * parseDouble(CharSequence)와 같은 규칙을 따릅니다.
+     */
+    static double parseDouble(byte[] s, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        boolean negative = false;
+        if (length > 0 && s[i] == '-') {
+            negative = true;
+            i++;
+        }
+        if (i == end) {
+            return Double.parseDouble(ascii(s, offset, length));
+        }
+
+        long mantissa = 0;
+        int scale = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            byte c = s[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa > MAX_EXACT_MANTISSA) {
+                    return Double.parseDouble(ascii(s, offset, length));
+                }
+                if (fraction) {
+                    scale++;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                return Double.parseDouble(ascii(s, offset, length));
+            }
+        }
+        if (scale >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(ascii(s, offset, length));
+        }
+
+        double value = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    private static String ascii(byte[] s, int offset, int length) {
+        return new String(s, offset, length, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 업로드 진행 상황 (예상 행 수, 변환된 행 수, 저장된 행 수, 값을 변환할 수 없어 건너뛴 행 수)
+ * 파싱 스레드가 갱신하고 다른 스레드(상태 조회 요청)가 읽으므로 원자적 카운터를 사용합니다.
+ */
+public class ImportProgress {
+
+    // 파싱 전에 시트 크기로 확인한 데이터 행 수 (모르면 -1)
+    private volatile long rowsExpected = -1;
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsPersisted = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+
+    void setRowsExpected(long rows) {
+        rowsExpected = rows;
+    }
+
+    void addRowsParsed(long rows) {
+        rowsParsed.addAndGet(rows);
+    }
+
+    void addRowsPersisted(long rows) {
+        rowsPersisted.addAndGet(rows);
+    }
+
+    void addRowsRejected(long rows) {
+        rowsRejected.addAndGet(rows);
+    }
+
+    public long getRowsExpected() {
+        return rowsExpected;
+    }
+
+    public long getRowsParsed() {
+        return rowsParsed.get();
+    }
+
+    public long getRowsPersisted() {
+        return rowsPersisted.get();
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected.get();
+    }
+}
@@ -0,0 +1,452 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 공유 문자열(sharedStrings.xml)을 힙이 아닌 메모리 매핑 파일에 보관하는 SharedStrings 구현
+ * SharedStringsTable은 모든 문자열을 RichTextString 객체로 힙에 올려두지만,
+ * 이 구현은 sharedStrings.xml을 SAX로 한 번 읽으면서 문자열을 UTF-8 바이트로 임시 파일에 기록하고
+ * (데이터 파일 + 오프셋 인덱스 파일), 조회할 때마다 매핑된 파일에서 필요한 문자열만 디코딩합니다.
+ * 자주 조회되는 문자열은 작은 LRU 캐시에 보관합니다.
+ * 조회 결과는 SharedStringsTable과 같습니다. (서식 있는 텍스트는 조각을 이어 붙이고, 윗주는 제외하며, _xHHHH_ 이스케이프를 풉니다)
+ * 사용이 끝나면 반드시 close()를 호출하여 임시 파일을 삭제해야 합니다.
+ */
+public class MappedSharedStrings implements SharedStrings, Closeable {
+
+    // 데이터 파일을 나누어 매핑하는 단위 (MappedByteBuffer는 2GB를 넘을 수 없음)
+    // 문자열 하나가 두 구간에 걸치지 않도록 기록할 때 다음 구간의 시작으로 건너뜁니다.
+    static final long SEGMENT_SIZE = 1L << 30;
+    // 인덱스 항목 크기: 데이터 파일 오프셋(long) + 바이트 길이(int)
+    private static final int INDEX_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final Path dataFile;
+    private final Path indexFile;
+    private final long segmentSize;
+    private final Map<Integer, String> cache;
+
+    private MappedByteBuffer[] segments;
+    private MappedByteBuffer index;
+    private int count;
+    private int uniqueCount;
+
+    private MappedSharedStrings(int cacheSize, long segmentSize) throws IOException {
+        this.dataFile = Files.createTempFile("sst-", ".dat");
+        this.indexFile = Files.createTempFile("sst-", ".idx");
+        this.segmentSize = segmentSize;
+        this.cache = new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * OPCPackage의 sharedStrings.xml을 읽어 메모리 매핑 파일로 된 공유 문자열 테이블을 만듭니다.
+     * 공유 문자열 파트가 없는 워크북이면 빈 테이블을 반환합니다.
+     *
+     * @param pkg 열려있는 OPCPackage 객체
+     * @param cacheSize LRU 캐시에 보관할 문자열 개수
+     * @return 공유 문자열 테이블
+     */
+    public static MappedSharedStrings open(OPCPackage pkg, int cacheSize) throws IOException, SAXException, ParserConfigurationException {
+        List<PackagePart> parts = pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+        if (parts.isEmpty()) {
+            return open(null, cacheSize, SEGMENT_SIZE);
+        }
+        try (InputStream inputStream = parts.get(0).getInputStream()) {
+            return open(inputStream, cacheSize, SEGMENT_SIZE);
+        }
+    }
+
+    /**
+     * sharedStrings.xml 스트림을 읽어 공유 문자열 테이블을 만듭니다.
+     *
+     * @param sharedStringsXml sharedStrings.xml 스트림 (null이면 빈 테이블)
+     * @param cacheSize LRU 캐시에 보관할 문자열 개수
+     * @param segmentSize 데이터 파일을 나누어 매핑하는 단위 (테스트에서 구간 경계를 확인할 때만 SEGMENT_SIZE가 아닌 값을 사용합니다)
+     */
+    static MappedSharedStrings open(InputStream sharedStringsXml, int cacheSize, long segmentSize)
+            throws IOException, SAXException, ParserConfigurationException {
+        MappedSharedStrings sst = new MappedSharedStrings(cacheSize, segmentSize);
+        try {
+            sst.load(sharedStringsXml);
+            return sst;
+        } catch (IOException | SAXException | ParserConfigurationException | RuntimeException e) {
+            sst.close();
+            throw e;
+        }
+    }
+
+    /**
+     * SharedStrings 구현에 관계없이 공유 문자열을 조회합니다.
+     * MappedSharedStrings이면 RichTextString 객체를 만들지 않고 문자열을 바로 반환합니다.
+     * MeteredSharedStrings이면 조회 횟수를 센 뒤 감싸고 있는 테이블에서 조회합니다.
+     *
+     * @param sst 공유 문자열 테이블
+     * @param index 공유 문자열 인덱스
+     * @return 문자열
+     */
+    public static String resolve(SharedStrings sst, int index) {
+        if (sst instanceof MeteredSharedStrings metered) {
+            return metered.getString(index);
+        }
+        if (sst instanceof MappedSharedStrings mapped) {
+            return mapped.getString(index);
+        }
+        return sst.getItemAt(index).getString();
+    }
+
+    /**
+     * sharedStrings.xml 스트림을 SAX로 읽으면서 문자열을 데이터 파일에, 위치를 인덱스 파일에 기록한 뒤 두 파일을 매핑합니다.
+     */
+    private void load(InputStream sharedStringsXml) throws IOException, SAXException, ParserConfigurationException {
+        try (FileChannel data = FileChannel.open(dataFile, StandardOpenOption.WRITE);
+             FileChannel idx = FileChannel.open(indexFile, StandardOpenOption.WRITE)) {
+
+            SharedStringsWriter writer = new SharedStringsWriter(data, idx, segmentSize);
+            if (sharedStringsXml != null) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(writer);
+                parser.parse(new InputSource(sharedStringsXml));
+            }
+            writer.flush();
+            count = writer.declaredCount >= 0 ? writer.declaredCount : writer.entries;
+            uniqueCount = writer.entries;
+        }
+
+        try (FileChannel data = FileChannel.open(dataFile, StandardOpenOption.READ);
+             FileChannel idx = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            long dataSize = data.size();
+            int segmentCount = (int) ((dataSize + segmentSize - 1) / segmentSize);
+            segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long start = i * segmentSize;
+                segments[i] = data.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentSize, dataSize - start));
+            }
+            if (idx.size() > Integer.MAX_VALUE) {
+                throw new IOException("공유 문자열 개수가 너무 많습니다: " + uniqueCount);
+            }
+            index = idx.map(FileChannel.MapMode.READ_ONLY, 0, idx.size());
+            index.order(ByteOrder.BIG_ENDIAN);
+        }
+    }
+
+    /**
+     * @param idx 공유 문자열 인덱스
+     * @return 문자열 (LRU 캐시에 없으면 매핑된 파일에서 디코딩)
+     */
+    public String getString(int idx) {
+        if (idx < 0 || idx >= uniqueCount) {
+            throw new IllegalArgumentException("공유 문자열 인덱스 범위를 벗어났습니다: " + idx);
+        }
+        synchronized (cache) {
+            String cached = cache.get(idx);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        long offset = index.getLong(idx * INDEX_ENTRY_SIZE);
+        int length = index.getInt(idx * INDEX_ENTRY_SIZE + Long.BYTES);
+        if (length == 0) {
+            return "";
+        }
+        byte[] bytes = new byte[length];
+        // 절대 위치 get은 버퍼의 position을 바꾸지 않으므로 여러 스레드가 동시에 호출해도 안전합니다.
+        segments[(int) (offset / segmentSize)].get((int) (offset % segmentSize), bytes, 0, length);
+        String value = decode(bytes);
+
+        synchronized (cache) {
+            cache.put(idx, value);
+        }
+        return value;
+    }
+
+    /**
+     * SharedStringsWriter가 기록한 바이트를 문자열로 바꿉니다.
+     * UTF-8과 같지만, 짝이 없는 서로게이트(_xD800_ 등으로 이스케이프된 문자)도 3바이트로 기록되어 있으므로
+     * 대체 문자(U+FFFD)로 바꾸는 String(byte[], UTF_8) 대신 직접 디코딩합니다.
+     */
+    private static String decode(byte[] bytes) {
+        char[] chars = new char[bytes.length];
+        int length = 0;
+        int i = 0;
+        while (i < bytes.length) {
+            int b = bytes[i] & 0xFF;
+            if (b < 0x80) {
+                chars[length++] = (char) b;
+                i += 1;
+            } else if (b < 0xE0) {
+                chars[length++] = (char) (((b & 0x1F) << 6) | (bytes[i + 1] & 0x3F));
+                i += 2;
+            } else if (b < 0xF0) {
+                chars[length++] = (char) (((b & 0x0F) << 12) | ((bytes[i + 1] & 0x3F) << 6) | (bytes[i + 2] & 0x3F));
+                i += 3;
+            } else {
+                int cp = ((b & 0x07) << 18) | ((bytes[i + 1] & 0x3F) << 12) | ((bytes[i + 2] & 0x3F) << 6) | (bytes[i + 3] & 0x3F);
+                chars[length++] = Character.highSurrogate(cp);
+                chars[length++] = Character.lowSurrogate(cp);
+                i += 4;
+            }
+        }
+        return new String(chars, 0, length);
+    }
+
+    @Override
+    public RichTextString getItemAt(int idx) {
+        return new XSSFRichTextString(getString(idx));
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public int getUniqueCount() {
+        return uniqueCount;
+    }
+
+    /**
+     * @return 데이터 파일과 인덱스 파일의 전체 크기 (바이트)
+     */
+    public long getFileSize() throws IOException {
+        return Files.size(dataFile) + Files.size(indexFile);
+    }
+
+    /**
+     * 임시 파일을 삭제합니다.
+     * 매핑된 버퍼는 GC 시점에 해제되며, 리눅스에서는 매핑된 상태에서도 파일 삭제가 가능합니다.
+     */
+    @Override
+    public void close() throws IOException {
+        segments = null;
+        index = null;
+        synchronized (cache) {
+            cache.clear();
+        }
+        Files.deleteIfExists(dataFile);
+        Files.deleteIfExists(indexFile);
+    }
+
+    /**
+     * sharedStrings.xml의 <si> 항목마다 텍스트를 모아 UTF-8로 인코딩하여 기록하는 SAX 핸들러
+     * <r> (서식 있는 텍스트 조각)의 <t>는 이어 붙이고, <rPh> (윗주)의 텍스트는 제외합니다.
+     * XSSFRichTextString.getString()과 같이 _xHHHH_ 이스케이프(XML에 쓸 수 없는 문자)를 풀어서 기록합니다.
+     */
+    private static final class SharedStringsWriter extends DefaultHandler {
+
+        private final FileChannel data;
+        private final FileChannel idx;
+        private final long segmentSize;
+        private final ByteBuffer dataBuffer = ByteBuffer.allocate(64 * 1024);
+        private final ByteBuffer indexBuffer = ByteBuffer.allocate(INDEX_ENTRY_SIZE * 4096);
+        private final StringBuilder text = new StringBuilder(64);
+
+        private boolean collecting;
+        private boolean inPhonetic;
+        private long position;
+        private int entries;
+        private int declaredCount = -1;
+
+        private SharedStringsWriter(FileChannel data, FileChannel idx, long segmentSize) {
+            this.data = data;
+            this.idx = idx;
+            this.segmentSize = segmentSize;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String name, Attributes attributes) {
+            switch (name) {
+                case "sst" -> {
+                    String countValue = attributes.getValue("count");
+                    if (countValue != null) {
+                        declaredCount = FastNumbers.parseInt(countValue);
+                    }
+                }
+                case "si" -> text.setLength(0);
+                case "t" -> collecting = !inPhonetic;
+                case "rPh" -> inPhonetic = true;
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collecting) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String name) throws SAXException {
+            switch (name) {
+                case "t" -> collecting = false;
+                case "rPh" -> inPhonetic = false;
+                case "si" -> {
+                    try {
+                        unescape(text);
+                        append(text);
+                    } catch (IOException e) {
+                        throw new SAXException(e);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        /**
+         * _xHHHH_ 형식의 이스케이프를 해당 문자로 바꿉니다. (이스케이프가 없으면 그대로 둡니다)
+         */
+        private static void unescape(StringBuilder value) {
+            int from = value.indexOf("_x");
+            if (from < 0) {
+                return;
+            }
+            int out = from;
+            int i = from;
+            while (i < value.length()) {
+                char c = value.charAt(i);
+                if (c == '_' && i + 6 < value.length() && value.charAt(i + 1) == 'x' && value.charAt(i + 6) == '_') {
+                    int code = hex(value, i + 2);
+                    if (code >= 0) {
+                        value.setCharAt(out++, (char) code);
+                        i += 7;
+                        continue;
+                    }
+                }
+                value.setCharAt(out++, c);
+                i++;
+            }
+            value.setLength(out);
+        }
+
+        /**
+         * @return value[start, start + 4)의 16진수 값, 16진수가 아니면 -1
+         */
+        private static int hex(CharSequence value, int start) {
+            int code = 0;
+            for (int i = start; i < start + 4; i++) {
+                int digit = Character.digit(value.charAt(i), 16);
+                if (digit < 0) {
+                    return -1;
+                }
+                code = code << 4 | digit;
+            }
+            return code;
+        }
+
+        /**
+         * 문자열 하나를 데이터 파일에 기록하고 인덱스 항목을 추가합니다.
+         */
+        private void append(CharSequence value) throws IOException {
+            int length = utf8Length(value);
+            // 문자열이 매핑 구간 경계에 걸치면 다음 구간 시작으로 건너뜁니다.
+            long segmentOffset = position % segmentSize;
+            if (segmentOffset + length > segmentSize) {
+                long padding = segmentSize - segmentOffset;
+                flushData();
+                position += padding;
+                data.position(position);
+            }
+
+            if (indexBuffer.remaining() < INDEX_ENTRY_SIZE) {
+                flushIndex();
+            }
+            indexBuffer.putLong(position).putInt(length);
+            entries++;
+
+            for (int i = 0; i < value.length(); i++) {
+                if (dataBuffer.remaining() < 4) {
+                    flushData();
+                }
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    dataBuffer.put((byte) c);
+                } else if (c < 0x800) {
+                    dataBuffer.put((byte) (0xC0 | (c >> 6)));
+                    dataBuffer.put((byte) (0x80 | (c & 0x3F)));
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, value.charAt(++i));
+                    dataBuffer.put((byte) (0xF0 | (cp >> 18)));
+                    dataBuffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                    dataBuffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                    dataBuffer.put((byte) (0x80 | (cp & 0x3F)));
+                } else {
+                    dataBuffer.put((byte) (0xE0 | (c >> 12)));
+                    dataBuffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                    dataBuffer.put((byte) (0x80 | (c & 0x3F)));
+                }
+            }
+            position += length;
+        }
+
+        private static int utf8Length(CharSequence value) {
+            int length = 0;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    length += 1;
+                } else if (c < 0x800) {
+                    length += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    length += 4;
+                    i++;
+                } else {
+                    length += 3;
+                }
+            }
+            return length;
+        }
+
+        private void flush() throws IOException {
+            flushData();
+            flushIndex();
+        }
+
+        private void flushData() throws IOException {
+            dataBuffer.flip();
+            while (dataBuffer.hasRemaining()) {
+                data.write(dataBuffer);
+            }
+            dataBuffer.clear();
+        }
+
+        private void flushIndex() throws IOException {
+            indexBuffer.flip();
+            while (indexBuffer.hasRemaining()) {
+                idx.write(indexBuffer);
+            }
+            indexBuffer.clear();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.xssf.model.SharedStrings;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 공유 문자열 테이블을 감싸 실제로 조회한 횟수를 세는 SharedStrings 구현
+ * 공유 문자열 셀 수가 아니라, RowConsumer가 MappedSharedStrings.resolve나 getItemAt으로 문자열을 가져온 횟수입니다.
+ * (RowHasher, ColumnarTableBuilder처럼 인덱스별로 결과를 보관하는 소비자는 같은 인덱스를 한 번만 조회합니다)
+ * RowPipeline의 워커들이 동시에 조회하므로 LongAdder로 셉니다. 지표에는 테이블을 닫을 때 한 번에 반영합니다.
+ */
+class MeteredSharedStrings implements SharedStrings, Closeable {
+
+    private final SharedStrings delegate;
+    private final LongAdder lookups = new LongAdder();
+
+    MeteredSharedStrings(SharedStrings delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * 공유 문자열을 조회합니다. (MappedSharedStrings.resolve 참고)
+     */
+    String getString(int idx) {
+        lookups.increment();
+        return MappedSharedStrings.resolve(delegate, idx);
+    }
+
+    @Override
+    public RichTextString getItemAt(int idx) {
+        lookups.increment();
+        return delegate.getItemAt(idx);
+    }
+
+    @Override
+    public int getCount() {
+        return delegate.getCount();
+    }
+
+    @Override
+    public int getUniqueCount() {
+        return delegate.getUniqueCount();
+    }
+
+    /**
+     * @return 감싸고 있는 공유 문자열 테이블
+     */
+    SharedStrings getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * @return 지금까지 조회한 횟수
+     */
+    long getLookupCount() {
+        return lookups.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (delegate instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
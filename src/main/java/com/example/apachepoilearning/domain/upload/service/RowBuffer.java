@@ -0,0 +1,149 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import java.util.Arrays;
+
+/**
+ * SAX 스레드가 토큰화한 행 하나를 담는 버퍼
+ * RowPipeline이 고정된 개수의 버퍼를 풀(pool)로 돌려 쓰므로, 행마다 버퍼나 셀 배열을 새로 할당하지 않습니다.
+ * 셀 값은 종류(Kind)에 따라 numbers 배열(숫자, 날짜, 공유 문자열 인덱스, 불리언) 또는 texts 배열(문자열)에 저장됩니다.
+ */
+public final class RowBuffer {
+
+    /**
+     * 셀 값의 종류 (RowConsumer의 콜백 메서드와 1:1로 대응)
+     */
+    public enum Kind {
+        NUMERIC, DATE, SHARED_STRING, INLINE_STRING, BOOLEAN, ERROR
+    }
+
+    private static final int INITIAL_CELLS = 16;
+
+    // 파이프라인 안에서의 순번 (순서 보장 모드에서 재정렬에 사용)
+    long sequence;
+    // 워커가 변환한 결과 (RowMapper가 null을 반환하면 건너뛴 행)
+    Object result;
+
+    private int rowIndex;
+    private int size;
+    private int[] columns;
+    private Kind[] kinds;
+    private double[] numbers;
+    private StringBuilder[] texts;
+
+    public RowBuffer() {
+        this(INITIAL_CELLS);
+    }
+
+    /**
+     * @param initialCells 처음 할당할 셀 수 (시트의 열 수를 알면 그 값으로 잡아 행 중간에 배열이 늘어나지 않도록 합니다)
+     */
+    public RowBuffer(int initialCells) {
+        int cells = Math.max(initialCells, 1);
+        columns = new int[cells];
+        kinds = new Kind[cells];
+        numbers = new double[cells];
+        texts = new StringBuilder[cells];
+    }
+
+    void start(int rowIndex, long sequence) {
+        this.rowIndex = rowIndex;
+        this.sequence = sequence;
+        this.size = 0;
+        this.result = null;
+    }
+
+    void addNumber(int column, Kind kind, double value) {
+        int i = next(column, kind);
+        numbers[i] = value;
+    }
+
+    void addText(int column, Kind kind, CharSequence value) {
+        int i = next(column, kind);
+        StringBuilder text = texts[i];
+        if (text == null) {
+            text = texts[i] = new StringBuilder(32);
+        }
+        text.setLength(0);
+        text.append(value);
+    }
+
+    private int next(int column, Kind kind) {
+        if (size == columns.length) {
+            int capacity = size * 2;
+            columns = Arrays.copyOf(columns, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+            numbers = Arrays.copyOf(numbers, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+        columns[size] = column;
+        kinds[size] = kind;
+        return size++;
+    }
+
+    /**
+     * @return 행 인덱스 (0부터 시작)
+     */
+    public int rowIndex() {
+        return rowIndex;
+    }
+
+    /**
+     * @return 값이 있는 셀 수
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param i 셀 순번 (0 ~ size() - 1)
+     * @return 열 인덱스
+     */
+    public int column(int i) {
+        return columns[i];
+    }
+
+    public Kind kind(int i) {
+        return kinds[i];
+    }
+
+    /**
+     * NUMERIC, DATE 셀의 값 (DATE는 엑셀 날짜 일련번호)
+     */
+    public double number(int i) {
+        return numbers[i];
+    }
+
+    public int sharedStringIndex(int i) {
+        return (int) numbers[i];
+    }
+
+    public boolean bool(int i) {
+        return numbers[i] != 0;
+    }
+
+    /**
+     * INLINE_STRING, ERROR 셀의 값
+     * 버퍼가 재사용되므로, 변환 이후에도 필요하다면 toString()으로 복사해야 합니다.
+     */
+    public CharSequence text(int i) {
+        return texts[i];
+    }
+
+    /**
+     * 버퍼에 담긴 셀들을 순서대로 RowConsumer 콜백으로 다시 전달합니다.
+     */
+    public void replay(RowConsumer consumer) {
+        consumer.startRow(rowIndex);
+        for (int i = 0; i < size; i++) {
+            switch (kinds[i]) {
+                case NUMERIC -> consumer.numericCell(columns[i], numbers[i]);
+                case DATE -> consumer.dateCell(columns[i], numbers[i]);
+                case SHARED_STRING -> consumer.sharedStringCell(columns[i], (int) numbers[i]);
+                case INLINE_STRING -> consumer.inlineStringCell(columns[i], texts[i]);
+                case BOOLEAN -> consumer.booleanCell(columns[i], numbers[i] != 0);
+                case ERROR -> consumer.errorCell(columns[i], texts[i]);
+            }
+        }
+        consumer.endRow(rowIndex);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+/**
+ * SheetHandler가 파싱한 행과 셀 값을 전달받는 콜백 인터페이스
+ * 셀 값은 타입별 메서드로 전달되며, 모든 메서드는 필요한 것만 구현할 수 있도록 기본 구현(아무 일도 하지 않음)을 제공합니다.
+ * 열 인덱스(columnIndex)와 행 인덱스(rowIndex)는 모두 0부터 시작합니다.
+ */
+public interface RowConsumer {
+
+    /**
+     * 새로운 행(<row>)이 시작될 때 호출
+     * @param rowIndex 행 인덱스
+     */
+    default void startRow(int rowIndex) {
+    }
+
+    /**
+     * 숫자 셀 (t 속성이 없거나 "n")
+     * @param columnIndex 열 인덱스
+     * @param value 셀 값
+     */
+    default void numericCell(int columnIndex, double value) {
+    }
+
+    /**
+     * 날짜 서식이 적용된 숫자 셀
+     * 기본 구현은 numericCell로 위임하며, 값은 엑셀 날짜 일련번호입니다. (DateUtil.getLocalDateTime으로 변환 가능)
+     * @param columnIndex 열 인덱스
+     * @param excelDate 엑셀 날짜 일련번호
+     */
+    default void dateCell(int columnIndex, double excelDate) {
+        numericCell(columnIndex, excelDate);
+    }
+
+    /**
+     * 공유 문자열 셀 (t="s")
+     * 실제 문자열이 필요한 경우에만 공유 문자열 테이블에서 조회하도록 인덱스만 전달합니다.
+     * @param columnIndex 열 인덱스
+     * @param sharedStringIndex 공유 문자열 테이블의 인덱스
+     */
+    default void sharedStringCell(int columnIndex, int sharedStringIndex) {
+    }
+
+    /**
+     * 인라인 문자열 셀 (t="inlineStr", t="str", t="d")
+     * value는 핸들러가 재사용하는 버퍼이므로, 콜백이 끝난 뒤에도 필요하다면 toString()으로 복사해야 합니다.
+     * @param columnIndex 열 인덱스
+     * @param value 셀 문자열
+     */
+    default void inlineStringCell(int columnIndex, CharSequence value) {
+    }
+
+    /**
+     * 불리언 셀 (t="b")
+     * @param columnIndex 열 인덱스
+     * @param value 셀 값
+     */
+    default void booleanCell(int columnIndex, boolean value) {
+    }
+
+    /**
+     * 오류 셀 (t="e"), 예: #DIV/0!
+     * value는 핸들러가 재사용하는 버퍼입니다.
+     * @param columnIndex 열 인덱스
+     * @param errorCode 오류 코드 문자열
+     */
+    default void errorCell(int columnIndex, CharSequence errorCode) {
+    }
+
+    /**
+     * 행 해시를 계산할 때 행의 키로 사용할 열 인덱스
+     * null이 아니면 SheetHandler가 행마다 셀 원본 값의 64비트 해시를 계산하여 rowHash로 전달합니다. (기본값: 계산하지 않음)
+     */
+    default int[] rowKeyColumns() {
+        return null;
+    }
+
+    /**
+     * rowKeyColumns()가 null이 아닐 때, 행의 마지막 셀 다음(endRow 직전)에 호출
+     * @param rowIndex 행 인덱스
+     * @param keyHash 키 열 셀 값의 해시
+     * @param rowHash 행 전체 셀 값의 해시
+     */
+    default void rowHash(int rowIndex, long keyHash, long rowHash) {
+    }
+
+    /**
+     * 행(</row>)이 끝났을 때 호출
+     * @param rowIndex 행 인덱스
+     */
+    default void endRow(int rowIndex) {
+    }
+
+    /**
+     * 시트의 마지막 행까지 전달된 뒤(문서 끝) 호출
+     * 시트 파싱이 끝난 직후, 공유 문자열 테이블을 닫기 전에 호출됩니다.
+     */
+    default void endSheet() {
+    }
+
+    /**
+     * 시트 파싱이 실패했을 때 endSheet 대신 호출
+     * 공유 문자열 테이블과 패키지를 닫기 전에 호출되므로, 다른 스레드에서 조회 중인 작업은 여기서 멈춰야 합니다.
+     *
+     * @param cause 파싱을 중단시킨 예외
+     */
+    default void abortSheet(Throwable cause) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+/**
+ * 업로드 원본의 행 해시 색인을 메모리에 올린 해시 테이블 (키 해시 → 행 해시, users.id)
+ * 수십만 행을 HashMap<Long, ...>으로 올리면 항목마다 여러 객체가 생기므로,
+ * 기본 타입 배열과 선형 탐사(open addressing)를 사용합니다.
+ * 이번 업로드에서 나타난 키는 seen으로 표시하여, 끝까지 나타나지 않은 행(시트에서 삭제된 행)을 찾습니다.
+ */
+final class RowHashIndex {
+
+    /**
+     * 이번 업로드에서 나타나지 않은 항목을 전달받는 콜백
+     */
+    @FunctionalInterface
+    interface UnseenHandler {
+        void accept(long rowKey, long userId);
+    }
+
+    private long[] keys;
+    private long[] hashes;
+    private long[] userIds;
+    private boolean[] used;
+    private boolean[] seen;
+    private int mask;
+    private int size;
+
+    RowHashIndex(int expectedSize) {
+        // 채움률이 50%를 넘지 않도록 2의 거듭제곱으로 크기를 정합니다.
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        hashes = new long[capacity];
+        userIds = new long[capacity];
+        used = new boolean[capacity];
+        seen = new boolean[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    /**
+     * 항목을 추가합니다. 같은 키가 이미 있으면 값을 바꿉니다.
+     *
+     * @return 항목의 슬롯
+     */
+    int put(long rowKey, long rowHash, long userId) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int slot = slotOf(rowKey);
+        if (!used[slot]) {
+            used[slot] = true;
+            keys[slot] = rowKey;
+            size++;
+        }
+        hashes[slot] = rowHash;
+        userIds[slot] = userId;
+        return slot;
+    }
+
+    /**
+     * @return 키의 슬롯, 없으면 -1
+     */
+    int find(long rowKey) {
+        int slot = slotOf(rowKey);
+        return used[slot] ? slot : -1;
+    }
+
+    long rowHash(int slot) {
+        return hashes[slot];
+    }
+
+    long userId(int slot) {
+        return userIds[slot];
+    }
+
+    /**
+     * 이번 업로드에서 나타난 키로 표시합니다.
+     *
+     * @return 이미 표시되어 있었으면(시트 안에서 키가 중복되면) false
+     */
+    boolean markSeen(int slot) {
+        if (seen[slot]) {
+            return false;
+        }
+        seen[slot] = true;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 이번 업로드에서 나타나지 않은 항목을 모두 전달합니다.
+     */
+    void forEachUnseen(UnseenHandler handler) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot] && !seen[slot]) {
+                handler.accept(keys[slot], userIds[slot]);
+            }
+        }
+    }
+
+    /**
+     * 키가 있는 슬롯 또는 키를 넣을 빈 슬롯을 찾습니다.
+     */
+    private int slotOf(long rowKey) {
+        // 키는 이미 잘 섞인 64비트 해시이므로 상위 비트를 한 번 더 섞기만 합니다.
+        int slot = (int) (rowKey ^ (rowKey >>> 32)) & mask;
+        while (used[slot] && keys[slot] != rowKey) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldHashes = hashes;
+        long[] oldUserIds = userIds;
+        boolean[] oldUsed = used;
+        boolean[] oldSeen = seen;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = put(oldKeys[i], oldHashes[i], oldUserIds[i]);
+                seen[slot] = oldSeen[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import org.apache.poi.xssf.model.SharedStrings;
+
+import java.util.Arrays;
+
+/**
+ * SheetHandler가 셀 원본 값으로 행마다 64비트 해시를 계산합니다.
+ * - rowHash: 행의 모든 셀(열 위치, 값 종류, 값)의 해시 → 행 내용이 바뀌었는지 판별
+ * - keyHash: 키 열 셀만의 해시 → 이전 업로드의 어느 행과 같은 행인지 판별
+ *
+ * 셀 값은 숫자로 변환하지 않고 XML의 문자열 그대로 해시하며(FNV-1a), 셀마다 murmur3 finalizer로 섞습니다.
+ * 공유 문자열 셀은 문자열 내용으로 해시하므로, 엑셀이 파일을 다시 저장하면서 공유 문자열 순서가 바뀌거나
+ * 인라인 문자열로 저장되더라도 같은 값이면 같은 해시가 됩니다.
+ * 공유 문자열 해시는 인덱스별로 한 번만 계산해 캐싱하므로, 같은 문자열이 반복되는 시트에서도 조회 비용이 한 번만 듭니다.
+ */
+final class RowHasher {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long MIX = 0x9e3779b97f4a7c15L;
+
+    // 값 종류 (숫자와 날짜, 공유 문자열과 인라인 문자열은 구분하지 않습니다)
+    static final int NUMBER = 1;
+    static final int STRING = 2;
+    static final int BOOLEAN = 3;
+    static final int ERROR = 4;
+
+    private final SharedStrings sst;
+    private final boolean[] keyColumns;
+    // 공유 문자열 인덱스별 해시 캐시 (0이면 아직 계산하지 않음)
+    private long[] sharedStringHashes;
+
+    private long rowHash;
+    private long keyHash;
+
+    /**
+     * @param sst 공유 문자열 테이블 (공유 문자열이 없는 워크북이면 null)
+     * @param keyColumns 키로 사용할 열 인덱스
+     */
+    RowHasher(SharedStrings sst, int[] keyColumns) {
+        this.sst = sst;
+        int maxColumn = Arrays.stream(keyColumns).max().orElse(-1);
+        this.keyColumns = new boolean[maxColumn + 1];
+        for (int column : keyColumns) {
+            this.keyColumns[column] = true;
+        }
+        this.sharedStringHashes = new long[sst != null ? Math.max(sst.getUniqueCount(), 0) : 0];
+    }
+
+    void reset() {
+        rowHash = FNV_OFFSET;
+        keyHash = FNV_OFFSET;
+    }
+
+    /**
+     * @param type NUMBER, STRING, BOOLEAN, ERROR 중 하나
+     * @param value XML에 기록된 셀 값
+     */
+    void addValue(int columnIndex, int type, CharSequence value) {
+        long hash = FNV_OFFSET;
+        for (int i = 0, length = value.length(); i < length; i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        addCell(columnIndex, type, hash);
+    }
+
+    /**
+     * addValue(int, int, CharSequence)와 같은 해시를 ASCII 바이트에서 계산합니다. (ASCII 문자는 바이트 값과 문자 값이 같습니다)
+     */
+    void addValue(int columnIndex, int type, byte[] value, int offset, int length) {
+        long hash = FNV_OFFSET;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash = (hash ^ value[i]) * FNV_PRIME;
+        }
+        addCell(columnIndex, type, hash);
+    }
+
+    void addSharedString(int columnIndex, int sharedStringIndex) {
+        addCell(columnIndex, STRING, sharedStringHash(sharedStringIndex));
+    }
+
+    long rowHash() {
+        return fmix(rowHash);
+    }
+
+    long keyHash() {
+        return fmix(keyHash);
+    }
+
+    private void addCell(int columnIndex, int type, long valueHash) {
+        long cell = fmix(valueHash ^ ((long) columnIndex << 3 | type) * MIX);
+        // 셀 순서에 따라 결과가 달라지도록 회전 후 곱합니다.
+        rowHash = (Long.rotateLeft(rowHash, 27) ^ cell) * MIX;
+        if (columnIndex < keyColumns.length && keyColumns[columnIndex]) {
+            keyHash = (Long.rotateLeft(keyHash, 27) ^ cell) * MIX;
+        }
+    }
+
+    private long sharedStringHash(int index) {
+        if (index >= sharedStringHashes.length) {
+            // uniqueCount가 실제보다 작게 기록된 파일도 있으므로 필요하면 늘립니다.
+            sharedStringHashes = Arrays.copyOf(sharedStringHashes, Math.max(index + 1, sharedStringHashes.length * 2));
+        }
+        long hash = sharedStringHashes[index];
+        if (hash == 0) {
+            String value = sst != null ? MappedSharedStrings.resolve(sst, index) : "";
+            hash = FNV_OFFSET;
+            for (int i = 0, length = value.length(); i < length; i++) {
+                hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+            }
+            // 0은 "계산하지 않음" 표시로 사용하므로 피합니다.
+            sharedStringHashes[index] = hash = hash == 0 ? 1 : hash;
+        }
+        return hash;
+    }
+
+    /**
+     * murmur3 64비트 finalizer
+     */
+    private static long fmix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb53a185ec34eL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+/**
+ * RowPipeline의 워커 스레드에서 행 버퍼를 도메인 객체로 변환(검증 포함)합니다.
+ * 여러 워커가 동시에 호출하므로 구현은 스레드 안전해야 합니다.
+ *
+ * @param <T> 변환 결과 타입
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * @param row 변환할 행 (호출이 끝나면 재사용되므로 참조를 보관하면 안 됩니다)
+     * @return 변환 결과, 저장하지 않을 행(헤더 등)이면 null
+     */
+    T map(RowBuffer row);
+}
@@ -0,0 +1,352 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * SAX 파싱과 행 처리를 여러 스레드로 나누는 생산자/소비자 파이프라인
+ *
+ * <pre>
+ * SAX 스레드 (RowConsumer) --input--> 변환 워커 N개 (RowMapper) --completed--> writer 1개 (BatchSink)
+ * </pre>
+ *
+ * SAX 스레드는 셀 값을 풀에서 꺼낸 RowBuffer에 복사만 하고, 변환/검증은 워커가, 저장은 writer가 맡으므로
+ * 압축 해제와 XML 파싱, 변환, DB 입출력이 동시에 진행됩니다.
+ * RowBuffer 개수(capacity)가 처리 중인 행 수의 상한이며, 소비자가 밀리면 풀이 비어 SAX 스레드가 기다립니다. (backpressure)
+ *
+ * 순서 보장 모드(ordered)에서는 writer가 순번대로 재정렬한 뒤 저장하므로 BatchSink의 lastRowIndex를 체크포인트로 쓸 수 있습니다.
+ * 사용 순서: start() → SheetHandler로 파싱 → finish() (파싱이 실패하면 공유 문자열 테이블을 닫기 전에 abortSheet()로 abort()가 호출됩니다)
+ *
+ * @param <T> RowMapper의 변환 결과 타입
+ */
+public class RowPipeline<T> implements RowConsumer {
+
+    // 대기할 때 이 횟수만큼은 바쁜 대기(spin) 후 park 합니다.
+    private static final int SPIN_LIMIT = 200;
+    private static final long PARK_NANOS = 50_000;
+
+    private final int workers;
+    private final boolean ordered;
+    private final int batchSize;
+    private final RowMapper<T> mapper;
+    private final BatchSink<T> sink;
+
+    // 빈 버퍼 풀, 변환 대기 행, 변환 완료 행
+    private final RowRingBuffer<RowBuffer> pool;
+    private final RowRingBuffer<RowBuffer> input;
+    private final RowRingBuffer<RowBuffer> completed;
+    private final int bufferCount;
+
+    // writer가 종료 조건을 확인할 때 읽으므로, 워커를 모두 제출한 뒤 writer를 제출합니다. (ExecutorService.submit 이전의 쓰기는 작업에서 보입니다)
+    private final Future<?>[] workerTasks;
+    // start(), endSheet()를 호출하는 스레드에서만 사용합니다.
+    private Future<?> writerTask;
+    // 워커, writer 또는 파서에서 발생한 첫 번째 예외
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    // 생산자(SAX 스레드) 상태
+    private RowBuffer current;
+    private long nextSequence;
+    private volatile boolean producerDone;
+    private volatile boolean workersDone;
+
+    /**
+     * @param workers 변환 워커 스레드 수
+     * @param capacity 동시에 처리 중일 수 있는 최대 행 수 (RowBuffer 풀 크기)
+     * @param ordered true이면 행 순서대로 BatchSink에 전달
+     * @param batchSize BatchSink에 한 번에 전달할 객체 수
+     * @param mapper 행 변환 (워커 스레드에서 동시에 호출)
+     * @param sink 배치 저장 (writer 스레드에서 호출)
+     */
+    public RowPipeline(int workers, int capacity, boolean ordered, int batchSize, RowMapper<T> mapper, BatchSink<T> sink) {
+        this(workers, capacity, ordered, batchSize, 0, mapper, sink);
+    }
+
+    /**
+     * @param workers 변환 워커 스레드 수
+     * @param capacity 동시에 처리 중일 수 있는 최대 행 수 (RowBuffer 풀 크기)
+     * @param ordered true이면 행 순서대로 BatchSink에 전달
+     * @param batchSize BatchSink에 한 번에 전달할 객체 수
+     * @param rowCells RowBuffer마다 미리 할당할 셀 수 (시트의 열 수, 모르면 0)
+     * @param mapper 행 변환 (워커 스레드에서 동시에 호출)
+     * @param sink 배치 저장 (writer 스레드에서 호출)
+     */
+    public RowPipeline(int workers, int capacity, boolean ordered, int batchSize, int rowCells, RowMapper<T> mapper, BatchSink<T> sink) {
+        this.workers = workers;
+        this.ordered = ordered;
+        this.batchSize = batchSize;
+        this.mapper = mapper;
+        this.sink = sink;
+        this.workerTasks = new Future<?>[workers];
+        this.pool = new RowRingBuffer<>(capacity);
+        this.bufferCount = pool.capacity();
+        // 모든 버퍼가 한 링에 모여도 넘치지 않으므로 input, completed에 넣을 때는 기다리지 않습니다.
+        this.input = new RowRingBuffer<>(bufferCount);
+        this.completed = new RowRingBuffer<>(bufferCount);
+        for (int i = 0; i < bufferCount; i++) {
+            pool.offer(rowCells > 0 ? new RowBuffer(rowCells) : new RowBuffer());
+        }
+    }
+
+    /**
+     * 워커와 writer를 실행합니다. 전달한 스레드 풀은 workers + 1개의 작업을 동시에 실행할 수 있어야 합니다.
+     */
+    public RowPipeline<T> start(ExecutorService executor) {
+        for (int i = 0; i < workers; i++) {
+            workerTasks[i] = executor.submit(this::runWorker);
+        }
+        writerTask = executor.submit(this::runWriter);
+        return this;
+    }
+
+    // ------------------------- 생산자 (SAX 스레드) -------------------------
+
+    @Override
+    public void startRow(int rowIndex) {
+        checkFailure();
+        int spins = 0;
+        RowBuffer buffer;
+        // 풀이 비어 있으면 소비자가 버퍼를 반납할 때까지 파싱을 멈춥니다.
+        while ((buffer = pool.poll()) == null) {
+            checkFailure();
+            spins = idle(spins);
+        }
+        buffer.start(rowIndex, nextSequence++);
+        current = buffer;
+    }
+
+    @Override
+    public void numericCell(int columnIndex, double value) {
+        current.addNumber(columnIndex, RowBuffer.Kind.NUMERIC, value);
+    }
+
+    @Override
+    public void dateCell(int columnIndex, double excelDate) {
+        current.addNumber(columnIndex, RowBuffer.Kind.DATE, excelDate);
+    }
+
+    @Override
+    public void sharedStringCell(int columnIndex, int sharedStringIndex) {
+        current.addNumber(columnIndex, RowBuffer.Kind.SHARED_STRING, sharedStringIndex);
+    }
+
+    @Override
+    public void inlineStringCell(int columnIndex, CharSequence value) {
+        current.addText(columnIndex, RowBuffer.Kind.INLINE_STRING, value);
+    }
+
+    @Override
+    public void booleanCell(int columnIndex, boolean value) {
+        current.addNumber(columnIndex, RowBuffer.Kind.BOOLEAN, value ? 1 : 0);
+    }
+
+    @Override
+    public void errorCell(int columnIndex, CharSequence errorCode) {
+        current.addText(columnIndex, RowBuffer.Kind.ERROR, errorCode);
+    }
+
+    @Override
+    public void endRow(int rowIndex) {
+        input.offer(current);
+        current = null;
+    }
+
+    /**
+     * 시트 파싱이 끝나면 남은 행이 모두 저장될 때까지 기다립니다.
+     * 공유 문자열 테이블을 닫기 전에 워커가 조회를 마치도록 SheetHandler가 문서 끝에서 호출합니다.
+     * 워커나 writer의 예외는 여기서 던지지 않고 finish()에서 던집니다.
+     */
+    @Override
+    public void endSheet() {
+        if (producerDone) {
+            return;
+        }
+        producerDone = true;
+        for (Future<?> task : workerTasks) {
+            if (!await(task)) {
+                return;
+            }
+        }
+        await(writerTask);
+    }
+
+    /**
+     * 작업이 끝날 때까지 기다립니다. (start() 전이면 작업이 없습니다)
+     *
+     * @return 인터럽트되었으면 false
+     */
+    private boolean await(Future<?> task) {
+        if (task == null) {
+            return true;
+        }
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(e);
+            return false;
+        } catch (Exception e) {
+            fail(e);
+        }
+        return true;
+    }
+
+    /**
+     * 남은 행이 모두 저장될 때까지 기다리고, 처리 중 발생한 예외가 있으면 던집니다.
+     */
+    public void finish() throws Exception {
+        endSheet();
+        Throwable t = failure.get();
+        if (t instanceof Exception e) {
+            throw e;
+        }
+        if (t instanceof Error e) {
+            throw e;
+        }
+    }
+
+    /**
+     * 파싱이 실패했을 때 워커와 writer를 중단하고, 멈출 때까지 기다립니다.
+     */
+    public void abort(Throwable cause) {
+        fail(cause);
+        endSheet();
+    }
+
+    /**
+     * SheetHandler가 파싱에 실패하면 공유 문자열 테이블을 닫기 전에 호출합니다. (abort 참고)
+     */
+    @Override
+    public void abortSheet(Throwable cause) {
+        abort(cause);
+    }
+
+    // ------------------------- 소비자 (워커, writer) -------------------------
+
+    private void runWorker() {
+        try {
+            RowBuffer row;
+            while ((row = take(input, () -> producerDone)) != null) {
+                row.result = mapper.map(row);
+                completed.offer(row);
+            }
+        } catch (Throwable t) {
+            fail(t);
+        }
+    }
+
+    private void runWriter() {
+        List<T> batch = new ArrayList<>(batchSize);
+        // 순서 보장 모드의 재정렬 버퍼 (처리 중인 행의 순번 범위가 bufferCount보다 작으므로 슬롯이 겹치지 않습니다)
+        RowBuffer[] pending = ordered ? new RowBuffer[bufferCount] : null;
+        int mask = bufferCount - 1;
+        long next = 0;
+        int lastRow = -1;
+        try {
+            RowBuffer row;
+            while ((row = take(completed, this::allReceived)) != null) {
+                if (!ordered) {
+                    lastRow = emit(row, batch, lastRow);
+                    continue;
+                }
+                pending[(int) (row.sequence & mask)] = row;
+                RowBuffer ready;
+                while ((ready = pending[(int) (next & mask)]) != null && ready.sequence == next) {
+                    pending[(int) (next & mask)] = null;
+                    lastRow = emit(ready, batch, lastRow);
+                    next++;
+                }
+            }
+            if (failure.get() == null && !batch.isEmpty()) {
+                sink.write(batch, lastRow);
+            }
+        } catch (Throwable t) {
+            fail(t);
+        }
+    }
+
+    /**
+     * writer 종료 조건: 생산이 끝났고 워커가 모두 멈췄으며 완료 링이 비어 있음
+     */
+    private boolean allReceived() {
+        if (!producerDone) {
+            return false;
+        }
+        if (!workersDone) {
+            for (Future<?> task : workerTasks) {
+                if (!task.isDone()) {
+                    return false;
+                }
+            }
+            workersDone = true;
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int emit(RowBuffer row, List<T> batch, int lastRow) throws Exception {
+        T result = (T) row.result;
+        int rowIndex = row.rowIndex();
+        // 버퍼를 먼저 풀에 돌려주어 파서가 바로 다음 행을 읽을 수 있게 합니다.
+        row.result = null;
+        pool.offer(row);
+        if (result == null) {
+            return lastRow;
+        }
+        batch.add(result);
+        if (batch.size() >= batchSize) {
+            sink.write(batch, rowIndex);
+            batch.clear();
+        }
+        return rowIndex;
+    }
+
+    /**
+     * 링에서 원소를 꺼냅니다. 비어 있으면 기다리고, 더 이상 들어올 원소가 없거나 실패했으면 null을 반환합니다.
+     */
+    private RowBuffer take(RowRingBuffer<RowBuffer> ring, BooleanSupplier drained) {
+        int spins = 0;
+        while (true) {
+            RowBuffer row = ring.poll();
+            if (row != null) {
+                return row;
+            }
+            if (failure.get() != null) {
+                return null;
+            }
+            if (drained.getAsBoolean()) {
+                // 종료 조건을 확인하기 전에 들어온 원소가 있을 수 있으므로 한 번 더 확인합니다.
+                return ring.poll();
+            }
+            spins = idle(spins);
+        }
+    }
+
+    private int idle(int spins) {
+        if (spins < SPIN_LIMIT) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+            if (Thread.interrupted()) {
+                fail(new InterruptedException());
+            }
+        }
+        return spins + 1;
+    }
+
+    private void fail(Throwable t) {
+        failure.compareAndSet(null, t);
+    }
+
+    private void checkFailure() {
+        Throwable t = failure.get();
+        if (t != null) {
+            throw new IllegalStateException("행 처리 파이프라인이 중단되었습니다", t);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 크기가 고정된 lock-free 링 버퍼 (여러 생산자, 여러 소비자)
+ *
+ * 슬롯마다 순번(sequence)을 두어, 생산자와 소비자가 락 없이 CAS 한 번으로 슬롯을 예약합니다. (D. Vyukov의 bounded MPMC queue)
+ * 슬롯의 순번이 pos이면 pos 번째 원소를 쓸 수 있고, pos + 1이면 pos 번째 원소를 읽을 수 있습니다.
+ * 가득 차거나 비어 있으면 기다리지 않고 바로 false/null을 반환하므로, 대기 방식은 호출하는 쪽(RowPipeline)이 정합니다.
+ *
+ * @param <E> 원소 타입
+ */
+final class RowRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    // 다음에 쓸 위치와 다음에 읽을 위치
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity 최소 용량 (2의 거듭제곱으로 올림)
+     */
+    RowRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return 버퍼가 가득 차서 넣지 못했으면 false
+     */
+    boolean offer(E element) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    elements.lazySet(index, element);
+                    // 순번을 갱신해야 소비자가 이 슬롯을 읽을 수 있습니다. (원소 쓰기가 먼저 보이도록 volatile 쓰기)
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * @return 꺼낸 원소, 비어 있으면 null
+     */
+    E poll() {
+        long pos = head.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    E element = elements.get(index);
+                    elements.lazySet(index, null);
+                    // 한 바퀴 뒤의 생산자가 이 슬롯을 쓸 수 있도록 순번을 넘깁니다.
+                    sequences.set(index, pos + mask + 1);
+                    return element;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return null;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import org.apache.poi.util.XMLHelper;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 스레드마다 하나의 XMLReader를 재사용하여 XML 스트림을 파싱하는 유틸리티
+ * SAXParserFactory.newInstance()는 구현 클래스 조회를, newSAXParser()는 파서 내부 버퍼와 심볼 테이블 생성을 매번 반복하므로,
+ * 시트나 작은 XML 파트를 여러 번 읽을 때는 만들어 둔 XMLReader를 다시 사용합니다.
+ * XMLReader는 스레드에 안전하지 않으므로 스레드 사이에 공유하지 않습니다.
+ * 업로드 파일은 신뢰할 수 없으므로 POI의 XMLHelper로 외부 엔티티와 외부 DTD를 읽지 않고 엔티티 확장 수를 제한한 XMLReader를 만듭니다.
+ */
+final class SaxReaders {
+
+    private static final ThreadLocal<XMLReader> READERS = ThreadLocal.withInitial(SaxReaders::newReader);
+
+    // 파싱이 끝난 뒤 이전 핸들러(와 핸들러가 참조하는 consumer)를 붙잡고 있지 않도록 바꿔 두는 빈 핸들러
+    private static final ContentHandler NO_HANDLER = new DefaultHandler();
+
+    private SaxReaders() {
+    }
+
+    /**
+     * 현재 스레드의 XMLReader로 스트림을 파싱합니다. (같은 스레드에서 중첩해서 호출하면 안 됩니다)
+     *
+     * @param xml XML 스트림
+     * @param handler 파싱 이벤트를 전달받을 핸들러
+     * @throws IOException 입출력 오류
+     * @throws SAXException XML 형식 오류 또는 핸들러가 던진 예외
+     */
+    static void parse(InputStream xml, ContentHandler handler) throws IOException, SAXException {
+        XMLReader reader = READERS.get();
+        reader.setContentHandler(handler);
+        try {
+            reader.parse(new InputSource(xml));
+        } finally {
+            reader.setContentHandler(NO_HANDLER);
+        }
+    }
+
+    private static XMLReader newReader() {
+        try {
+            return XMLHelper.newXMLReader();
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IllegalStateException("XML 파서를 만들 수 없습니다.", e);
+        }
+    }
+}
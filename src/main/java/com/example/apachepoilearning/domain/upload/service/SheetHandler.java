@@ -1,25 +1,81 @@
 package com.example.apachepoilearning.domain.upload.service;
 
-import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
 import org.xml.sax.Attributes;
 import org.xml.sax.helpers.DefaultHandler;
 
+/**
+ * 시트 XML(sheetN.xml)을 SAX 방식으로 읽어 행과 셀 값을 RowConsumer에 전달하는 핸들러
+ * 셀마다 String을 새로 만들지 않도록 하나의 StringBuilder를 재사용하고,
+ * 셀 참조와 숫자도 직접 변환하여 셀 하나당 객체 할당이 거의 발생하지 않습니다.
+ * SAX 콜백은 행, 셀, 값 단위의 이벤트 메서드(startRow, startCell, cellValue 등)로 바뀌어 처리되며,
+ * SheetXmlScanner는 SAX를 거치지 않고 이 이벤트 메서드를 직접 호출합니다.
+ */
 public class SheetHandler extends DefaultHandler {
 
-    // 공유 문자열 테이블 (SharedStringsTable) - 엑셀 파일 내의 중복되는 문자열들을 효율적으로 저장하는 테이블
-    // 엑셀 파일에서 "s" 타입의 셀(문자열 셀)은 이 테이블의 인덱스를 참조하여 실제 문자열 값을 가져옵니다.
-    private final SharedStringsTable sst;
-    // 현재 읽고 있는 요소의 내용을 임시로 저장하는 변수
-    private String lastContents = "";
-    // 현재 셀이 문자열 타입인지 여부를 나타내는 플래그
-    private boolean isString = false;
+    // 셀 타입 (c 요소의 t 속성)
+    static final int TYPE_NUMBER = 0;        // t 없음 또는 "n"
+    static final int TYPE_SHARED_STRING = 1; // "s"
+    static final int TYPE_INLINE_STRING = 2; // "inlineStr", "str", "d"
+    static final int TYPE_BOOLEAN = 3;       // "b"
+    static final int TYPE_ERROR = 4;         // "e"
+
+    // 파싱된 행과 셀을 전달받는 콜백
+    private final RowConsumer consumer;
+    // 숫자 셀이 날짜 서식인지 판별하기 위한 캐시 (스타일 정보가 없으면 null)
+    private final DateStyleCache dateStyles;
+    // 행 해시 계산기 (consumer가 행 해시를 요청하지 않으면 null)
+    private final RowHasher rowHasher;
+
+    // 현재 읽고 있는 값(<v>, <t>)의 내용을 담는 재사용 버퍼
+    private final StringBuilder contents = new StringBuilder(64);
+    // characters()로 들어오는 문자를 contents에 모아야 하는지 여부
+    private boolean collecting;
+    // <is> (인라인 문자열) 요소 안에 있는지 여부
+    private boolean inInlineString;
+    // <rPh> (윗주) 요소 안에 있는지 여부 - 윗주 텍스트는 셀 값에 포함하지 않습니다.
+    private boolean inPhonetic;
+
+    // 현재 셀의 타입, 스타일 인덱스와 위치
+    private int cellType;
+    private int cellStyle;
+    private int rowIndex = -1;
+    private int columnIndex = -1;
+
+    // 처리 통계
+    private long rowCount;
+    private long cellCount;
+    private long sharedStringCount;
+
+    /**
+     * SheetHandler의 생성자
+     * @param consumer 파싱된 행과 셀을 전달받을 콜백
+     */
+    public SheetHandler(RowConsumer consumer) {
+        this(consumer, null);
+    }
+
+    /**
+     * SheetHandler의 생성자
+     * @param consumer 파싱된 행과 셀을 전달받을 콜백
+     * @param stylesTable 날짜 셀 판별에 사용할 스타일 테이블 (null이면 모든 숫자 셀을 numericCell로 전달)
+     */
+    public SheetHandler(RowConsumer consumer, StylesTable stylesTable) {
+        this(consumer, stylesTable, null);
+    }
 
     /**
      * SheetHandler의 생성자
-     * @param sst 공유 문자열 테이블 객체
+     * @param consumer 파싱된 행과 셀을 전달받을 콜백
+     * @param stylesTable 날짜 셀 판별에 사용할 스타일 테이블 (null이면 모든 숫자 셀을 numericCell로 전달)
+     * @param sst 행 해시를 계산할 때 공유 문자열 내용을 조회할 테이블 (consumer가 행 해시를 요청하지 않으면 사용하지 않음)
      */
-    public SheetHandler(SharedStringsTable sst) {
-        this.sst = sst;
+    public SheetHandler(RowConsumer consumer, StylesTable stylesTable, SharedStrings sst) {
+        this.consumer = consumer;
+        this.dateStyles = stylesTable != null ? new DateStyleCache(stylesTable) : null;
+        int[] keyColumns = consumer.rowKeyColumns();
+        this.rowHasher = keyColumns != null ? new RowHasher(sst, keyColumns) : null;
     }
 
     /**
@@ -32,30 +88,46 @@ public class SheetHandler extends DefaultHandler {
      */
     @Override
     public void startElement(String uri, String localName, String name, Attributes attributes) {
-        // 현재 요소가 "c" (셀) 태그인 경우
-        if ("c".equals(name)) {
-            // 셀의 't' (type) 속성 값을 가져옴
-            String type = attributes.getValue("t");
-            // 셀 타입이 "s" (shared string) 인지 확인하여 isString 플래그 설정
-            // "s" 타입은 SharedStringsTable에서 실제 문자열 찾아야함
-            isString = "s".equals(type);
+        switch (name) {
+            case "row" -> {
+                String r = attributes.getValue("r");
+                startRow(r != null ? FastNumbers.parseInt(r) - 1 : -1);
+            }
+            case "c" -> {
+                String r = attributes.getValue("r");
+                String s = attributes.getValue("s");
+                startCell(r != null ? FastNumbers.columnIndex(r) : -1, typeOf(attributes.getValue("t")),
+                        s != null ? FastNumbers.parseInt(s) : 0);
+            }
+            case "v" -> {
+                contents.setLength(0);
+                collecting = true;
+            }
+            case "is" -> {
+                contents.setLength(0);
+                inInlineString = true;
+            }
+            case "t" -> collecting = inInlineString && !inPhonetic;
+            case "rPh" -> inPhonetic = true;
+            default -> {
+                // <f> (수식) 등 나머지 요소의 내용은 사용하지 않습니다.
+            }
         }
-        // 새로운 요소가 시작될 때마다 lastContents 초기화
-        lastContents = "";
     }
 
     /**
      * XML 요소 내의 문자 데이터를 만났을 때 호출
      * 예를 들어, <v>123</v> 에서 "123" 부분을 읽을 때 사용
+     * 한 번에 모든 문자열이 들어오지 않을 수 있으므로 버퍼에 이어 붙입니다.
      * @param ch 문자 배열
      * @param start 문자 데이터의 시작 인덱스
      * @param length 문자 데이터의 길이
      */
     @Override
     public void characters(char[] ch, int start, int length) {
-        // 읽은 문자 데이터를 lastContents 추가
-        // 한 번에 모든 문자열이 들어오지 않을 수 있으므로 += 사용
-        lastContents += new String(ch, start, length);
+        if (collecting) {
+            contents.append(ch, start, length);
+        }
     }
 
     /**
@@ -67,24 +139,192 @@ public class SheetHandler extends DefaultHandler {
      */
     @Override
     public void endElement(String uri, String localName, String name) {
-        // 현재 요소가 "v" (셀 값) 태그인 경우
-        if ("v".equals(name)) {
-            // 셀이 문자열 타입(isString이 true)인 경우
-            if (isString) {
-                // lastContents는 SharedStringsTable의 인덱스이므로 정수로 변환
-                int idx = Integer.parseInt(lastContents);
-                // 해당 인덱스를 사용하여 SharedStringsTable에서 실제 문자열 값 가져옴
-                lastContents = sst.getItemAt(idx).getString();
+        switch (name) {
+            case "v" -> {
+                collecting = false;
+                cellValue(contents);
+            }
+            case "t" -> collecting = false;
+            case "rPh" -> inPhonetic = false;
+            case "is" -> {
+                inInlineString = false;
+                inlineStringValue(contents);
+            }
+            case "row" -> endRow();
+            default -> {
             }
-            // 현재 셀의 값을 출력하고 탭으로 구분
-            System.out.print(lastContents + "\t");
         }
+    }
+
+    /**
+     * 시트 XML 문서의 끝에서 호출
+     */
+    @Override
+    public void endDocument() {
+        consumer.endSheet();
+    }
+
+    /**
+     * 행(<row>) 시작
+     * @param rowIndex r 속성의 행 인덱스 (0부터 시작), r 속성이 생략되어 이전 행의 다음 행이면 -1
+     */
+    void startRow(int rowIndex) {
+        this.rowIndex = rowIndex >= 0 ? rowIndex : this.rowIndex + 1;
+        columnIndex = -1;
+        rowCount++;
+        if (rowHasher != null) {
+            rowHasher.reset();
+        }
+        consumer.startRow(this.rowIndex);
+    }
 
-        // 현재 요소가 "row" (행) 태그인 경우
-        if ("row".equals(name)) {
-            // 한 행의 처리가 끝났으므로 줄바꿈
-            System.out.println();
+    /**
+     * 셀(<c>) 시작
+     * @param columnIndex r 속성(예: "B3")의 열 인덱스, r 속성이 생략되어 이전 셀의 다음 열이면 -1
+     * @param cellType TYPE_ 상수
+     * @param cellStyle s 속성 값 (없으면 0)
+     */
+    void startCell(int columnIndex, int cellType, int cellStyle) {
+        this.columnIndex = columnIndex >= 0 ? columnIndex : this.columnIndex + 1;
+        this.cellType = cellType;
+        this.cellStyle = cellStyle;
+    }
+
+    /**
+     * 현재 셀의 <v> 값을 셀 타입에 맞게 변환하여 consumer에 전달합니다.
+     * value는 콜백이 끝나면 재사용될 수 있습니다.
+     */
+    void cellValue(CharSequence value) {
+        if (value.length() == 0 && cellType != TYPE_INLINE_STRING) {
+            // 값이 비어 있는 셀은 전달하지 않습니다.
+            return;
         }
+        cellCount++;
+        if (rowHasher != null) {
+            hashCell(value);
+        }
+        switch (cellType) {
+            case TYPE_NUMBER -> number(FastNumbers.parseDouble(value));
+            case TYPE_SHARED_STRING -> {
+                sharedStringCount++;
+                consumer.sharedStringCell(columnIndex, FastNumbers.parseInt(value));
+            }
+            case TYPE_BOOLEAN -> consumer.booleanCell(columnIndex, value.length() == 1 && value.charAt(0) == '1');
+            case TYPE_ERROR -> consumer.errorCell(columnIndex, value);
+            default -> consumer.inlineStringCell(columnIndex, value);
+        }
+    }
+
+    /**
+     * 현재 셀의 <v> 값을 UTF-8 바이트 그대로 받아 변환합니다. (SheetXmlScanner)
+     * 숫자, 공유 문자열 인덱스, 불리언 셀은 문자로 바꾸지 않고 바이트에서 바로 변환합니다.
+     * @param bytes 엔티티 참조가 없는 ASCII 바이트
+     */
+    void cellValue(byte[] bytes, int offset, int length) {
+        if (cellType == TYPE_ERROR || cellType == TYPE_INLINE_STRING) {
+            // 문자열로 전달해야 하는 셀은 드물므로 contents에 옮겨 담습니다.
+            contents.setLength(0);
+            for (int i = 0; i < length; i++) {
+                contents.append((char) bytes[offset + i]);
+            }
+            cellValue(contents);
+            return;
+        }
+        if (length == 0) {
+            return;
+        }
+        cellCount++;
+        if (rowHasher != null) {
+            switch (cellType) {
+                case TYPE_NUMBER -> rowHasher.addValue(columnIndex, RowHasher.NUMBER, bytes, offset, length);
+                case TYPE_SHARED_STRING -> rowHasher.addSharedString(columnIndex, FastNumbers.parseInt(bytes, offset, length));
+                default -> rowHasher.addValue(columnIndex, RowHasher.BOOLEAN, bytes, offset, length);
+            }
+        }
+        switch (cellType) {
+            case TYPE_NUMBER -> number(FastNumbers.parseDouble(bytes, offset, length));
+            case TYPE_SHARED_STRING -> {
+                sharedStringCount++;
+                consumer.sharedStringCell(columnIndex, FastNumbers.parseInt(bytes, offset, length));
+            }
+            default -> consumer.booleanCell(columnIndex, length == 1 && bytes[offset] == '1');
+        }
+    }
+
+    /**
+     * 현재 셀의 인라인 문자열(<is>) 값을 전달합니다.
+     */
+    void inlineStringValue(CharSequence value) {
+        cellType = TYPE_INLINE_STRING;
+        cellValue(value);
+    }
+
+    /**
+     * 행(</row>) 끝
+     */
+    void endRow() {
+        if (rowHasher != null) {
+            consumer.rowHash(rowIndex, rowHasher.keyHash(), rowHasher.rowHash());
+        }
+        consumer.endRow(rowIndex);
+    }
+
+    private void number(double value) {
+        if (dateStyles != null && dateStyles.isDateStyle(cellStyle)) {
+            consumer.dateCell(columnIndex, value);
+        } else {
+            consumer.numericCell(columnIndex, value);
+        }
+    }
+
+    /**
+     * 변환하기 전의 셀 값을 행 해시에 더합니다.
+     */
+    private void hashCell(CharSequence value) {
+        switch (cellType) {
+            case TYPE_NUMBER -> rowHasher.addValue(columnIndex, RowHasher.NUMBER, value);
+            case TYPE_SHARED_STRING -> rowHasher.addSharedString(columnIndex, FastNumbers.parseInt(value));
+            case TYPE_BOOLEAN -> rowHasher.addValue(columnIndex, RowHasher.BOOLEAN, value);
+            case TYPE_ERROR -> rowHasher.addValue(columnIndex, RowHasher.ERROR, value);
+            default -> rowHasher.addValue(columnIndex, RowHasher.STRING, value);
+        }
+    }
+
+    /**
+     * c 요소의 t 속성 값을 셀 타입 상수로 변환합니다.
+     */
+    static int typeOf(String t) {
+        if (t == null || t.isEmpty()) {
+            return TYPE_NUMBER;
+        }
+        return switch (t) {
+            case "n" -> TYPE_NUMBER;
+            case "s" -> TYPE_SHARED_STRING;
+            case "b" -> TYPE_BOOLEAN;
+            case "e" -> TYPE_ERROR;
+            default -> TYPE_INLINE_STRING;
+        };
+    }
+
+    /**
+     * @return 지금까지 처리한 행 수
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return 지금까지 처리한 (값이 있는) 셀 수
+     */
+    public long getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * @return 지금까지 처리한 공유 문자열 셀 수
+     */
+    public long getSharedStringCount() {
+        return sharedStringCount;
     }
 
 }
@@ -0,0 +1,42 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import java.util.List;
+
+/**
+ * 시트 하나의 크기와 앞부분 행 정보
+ * 행, 열 범위는 시트 XML의 dimension 요소(예: ref="A1:D100001")에서 읽으며,
+ * dimension이 없거나 앞부분 행과 맞지 않으면(행이 범위를 벗어나면) 범위를 모르는 것으로 보고 lastRow가 -1입니다.
+ *
+ * @param sheetIndex 시트 순서 (0부터 시작)
+ * @param sheetName 시트 이름
+ * @param dimension dimension 요소의 ref 속성 (없으면 null)
+ * @param lastRow 마지막 행 인덱스 (0부터 시작, 모르면 -1)
+ * @param lastColumn 마지막 열 인덱스 (0부터 시작, dimension을 모르면 앞부분 행에서 확인한 값, 셀이 없으면 -1)
+ * @param xmlSize 압축을 푼 시트 XML의 크기 (바이트, 모르면 -1)
+ * @param columns 첫 행(헤더)과 그 다음 행들로 판별한 열 정보
+ * @param sampleRows 첫 행부터 읽은 행들의 셀 값 (셀이 없는 열은 null)
+ */
+public record SheetInspection(int sheetIndex, String sheetName, String dimension, int lastRow, int lastColumn, long xmlSize,
+                              List<ColumnInspection> columns, List<List<String>> sampleRows) {
+
+    /**
+     * @return dimension으로 행 범위를 알 수 있는지 여부
+     */
+    public boolean isRowCountKnown() {
+        return lastRow >= 0;
+    }
+
+    /**
+     * @return 첫 행(헤더)을 제외한 데이터 행 수 (모르면 -1)
+     */
+    public long dataRows() {
+        return lastRow >= 0 ? lastRow : -1;
+    }
+
+    /**
+     * @return 열 수 (셀이 없으면 0)
+     */
+    public int columnCount() {
+        return lastColumn + 1;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+/**
+ * 시트 하나의 SAX 파싱 결과
+ *
+ * @param sheetIndex 시트 순서 (0부터 시작)
+ * @param sheetName 시트 이름
+ * @param rowCount 처리된 행 수
+ * @param cellCount 처리된 (값이 있는) 셀 수
+ * @param consumer 이 시트의 행과 셀을 전달받은 RowConsumer
+ * @param <T> RowConsumer 타입
+ */
+public record SheetParseResult<T extends RowConsumer>(int sheetIndex, String sheetName, long rowCount, long cellCount, T consumer) {
+}
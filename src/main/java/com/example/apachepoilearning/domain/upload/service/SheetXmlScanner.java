@@ -0,0 +1,705 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 시트 XML(sheetN.xml)을 SAX 파서 없이 UTF-8 바이트 단위로 읽어 SheetHandler의 이벤트 메서드를 직접 호출하는 리더
+ *
+ * sheetData 안에서 사용하는 요소는 <row r>, <c r t s>, <v>, <is><t>(윗주 <rPh> 제외)뿐이므로,
+ * 범용 XML 파서처럼 요소마다 Attributes, String을 만들지 않고 바이트에서 바로 속성 값과 숫자, 공유 문자열 인덱스를 읽습니다.
+ * 문자열은 <is><t>와 t="str" 셀에만 있으며 재사용 StringBuilder로 UTF-8을 디코딩합니다.
+ * sheetData 앞부분(열 너비, 시트 보기 등)과 <f>(수식), <extLst> 등 나머지 요소는 건너뜁니다.
+ *
+ * 문서 앞부분(XML 선언, DOCTYPE)에서 UTF-8이 아닌 인코딩이나 DTD를 만나면, 이미 읽은 바이트를 되돌려 SAX로 처리하도록
+ * scan()이 false를 반환합니다. (DTD는 엔티티 정의로 내용의 의미를 바꿀 수 있으므로 직접 처리하지 않습니다)
+ *
+ * 읽기 버퍼와 문자열 버퍼를 재사용하도록 스레드마다 하나의 인스턴스를 사용합니다. (forCurrentThread 참고)
+ */
+public final class SheetXmlScanner {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // 아주 긴 문자열 때문에 이보다 커진 버퍼는 다음 문서에서 재사용하지 않습니다.
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<SheetXmlScanner> SCANNERS = ThreadLocal.withInitial(SheetXmlScanner::new);
+
+    private static final byte[] ROW = ascii("row");
+    private static final byte[] CELL = ascii("c");
+    private static final byte[] VALUE = ascii("v");
+    private static final byte[] INLINE_STRING = ascii("is");
+    private static final byte[] TEXT = ascii("t");
+    private static final byte[] PHONETIC = ascii("rPh");
+    private static final byte[] SHEET_DATA = ascii("sheetData");
+    private static final byte[] COMMENT_END = ascii("-->");
+    private static final byte[] CDATA_START = ascii("<![CDATA[");
+    private static final byte[] CDATA_END = ascii("]]>");
+    private static final byte[] PI_END = ascii("?>");
+
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private InputStream input;
+    private SheetHandler handler;
+
+    // 현재 <v> 값: 엔티티 참조와 ASCII가 아닌 문자가 없으면 바이트 그대로(value), 아니면 디코딩한 문자열(text)
+    private byte[] value = new byte[64];
+    private int valueLength;
+    private boolean valueAscii;
+    private final StringBuilder text = new StringBuilder(64);
+
+    // 요소 안에 있는지 여부
+    private boolean inValue;
+    private boolean inInlineString;
+    private boolean inText;
+    private boolean inPhonetic;
+
+    // 마지막으로 읽은 태그의 (접두사를 뺀) 이름 범위와 태그 끝('>') 위치
+    private int tagNameStart;
+    private int tagNameEnd;
+    private int tagEnd;
+    // 마지막으로 찾은 속성 값의 길이
+    private int attributeLength;
+
+    // 문서 앞부분을 읽는 중이라 버퍼 앞부분을 버리지 않아야 하면 true
+    private boolean keepBuffer;
+    // sheetData가 없거나 비어 있으면 true
+    private boolean endOfSheet;
+
+    private SheetXmlScanner() {
+    }
+
+    /**
+     * @return 현재 스레드의 스캐너 (같은 스레드에서 scan을 중첩해서 호출하면 안 됩니다)
+     */
+    public static SheetXmlScanner forCurrentThread() {
+        return SCANNERS.get();
+    }
+
+    /**
+     * 시트 XML을 끝까지(</sheetData>까지) 읽어 handler의 이벤트 메서드를 호출합니다.
+     *
+     * @param sheetXml 시트 XML 스트림
+     * @param handler 행과 셀을 전달받을 SheetHandler
+     * @return 처리했으면 true, 직접 처리할 수 없는 문서이면 false (이 경우 handler는 호출되지 않았으며 unread()로 SAX 파싱을 이어갑니다)
+     * @throws IOException 입출력 오류 또는 XML 형식 오류
+     */
+    public boolean scan(InputStream sheetXml, SheetHandler handler) throws IOException {
+        this.input = sheetXml;
+        this.handler = handler;
+        if (buffer.length > MAX_RETAINED_BUFFER_SIZE) {
+            // 이전 문서의 아주 긴 문자열 때문에 커진 버퍼는 다시 만듭니다.
+            buffer = new byte[BUFFER_SIZE];
+        }
+        position = 0;
+        limit = 0;
+        inValue = inInlineString = inText = inPhonetic = false;
+        boolean fallback = false;
+        try {
+            if (!readProlog()) {
+                fallback = true;
+                return false;
+            }
+            readSheetData();
+            handler.endDocument();
+            return true;
+        } finally {
+            this.handler = null;
+            // SAX로 넘길 때는 unread()가 나머지 스트림을 사용하므로 남겨 두고, 그 외에는 다 읽은 스트림을 붙잡고 있지 않습니다.
+            if (!fallback) {
+                this.input = null;
+            }
+        }
+    }
+
+    /**
+     * scan()이 false를 반환한 뒤, 스캐너가 이미 읽은 바이트와 나머지 스트림을 이어서 반환합니다.
+     */
+    public InputStream unread() {
+        InputStream rest = input;
+        input = null;
+        return new SequenceInputStream(new ByteArrayInputStream(Arrays.copyOfRange(buffer, 0, limit)), rest);
+    }
+
+    /**
+     * 문서 앞부분을 읽어 직접 처리할 수 있는지 확인하고, <sheetData> 다음 위치로 이동합니다.
+     * 루트 요소가 시작되기 전까지는 읽은 바이트를 버리지 않으므로 SAX로 되돌릴 수 있습니다.
+     *
+     * @return 직접 처리할 수 없으면 false
+     */
+    private boolean readProlog() throws IOException {
+        keepBuffer = true;
+        endOfSheet = false;
+        // BOM: UTF-8이면 건너뛰고, UTF-16/32(BOM이 없으면 0 바이트로 시작)이면 SAX로 넘깁니다.
+        fill(4);
+        if (limit >= 3 && isUtf8Bom()) {
+            position = 3;
+        } else if (limit >= 2 && (buffer[0] == (byte) 0xFE || buffer[0] == (byte) 0xFF || buffer[0] == 0)) {
+            return false;
+        }
+
+        boolean rootStarted = false;
+        while (skipTo((byte) '<')) {
+            if (!fill(2)) {
+                throw new IOException("시트 XML이 중간에 끝났습니다.");
+            }
+            byte next = buffer[position + 1];
+            if (next == '?') {
+                int end = find(PI_END, position + 2);
+                if (!rootStarted && !isUtf8Declaration(position, end)) {
+                    return false;
+                }
+                position = end + PI_END.length;
+            } else if (next == '!') {
+                if (isComment()) {
+                    position = find(COMMENT_END, position + 4) + COMMENT_END.length;
+                } else if (!rootStarted) {
+                    // <!DOCTYPE ...>
+                    return false;
+                } else {
+                    position = find(CDATA_END, position + 2) + CDATA_END.length;
+                }
+            } else if (next == '/') {
+                readTag();
+                position = tagEnd + 1;
+            } else {
+                readTag();
+                if (!rootStarted) {
+                    // 루트 요소부터는 SAX로 되돌릴 일이 없으므로 읽은 바이트를 버려도 됩니다.
+                    rootStarted = true;
+                    keepBuffer = false;
+                }
+                boolean selfClosing = buffer[tagEnd - 1] == '/';
+                boolean sheetData = nameEquals(SHEET_DATA);
+                position = tagEnd + 1;
+                if (sheetData) {
+                    // <sheetData/>: 행이 없는 시트
+                    endOfSheet = selfClosing;
+                    return true;
+                }
+            }
+        }
+        // sheetData가 없는 시트
+        endOfSheet = true;
+        return true;
+    }
+
+    /**
+     * <sheetData>와 </sheetData> 사이를 읽습니다.
+     */
+    private void readSheetData() throws IOException {
+        if (endOfSheet) {
+            return;
+        }
+        while (true) {
+            // 1. 요소 사이의 문자 데이터: <v>, <t> 안에서만 모으고 나머지는 건너뜁니다.
+            if (inValue || inText) {
+                int end = findByte((byte) '<', position);
+                if (end < 0) {
+                    throw new IOException("시트 XML이 중간에 끝났습니다.");
+                }
+                appendCharacters(position, end);
+                position = end;
+            } else if (!skipTo((byte) '<')) {
+                return;
+            }
+
+            // 2. 마크업
+            if (!fill(2)) {
+                throw new IOException("시트 XML이 중간에 끝났습니다.");
+            }
+            byte next = buffer[position + 1];
+            if (next == '/') {
+                readTag();
+                position = tagEnd + 1;
+                if (endElement()) {
+                    return;
+                }
+            } else if (next == '!') {
+                if (startsWith(CDATA_START)) {
+                    int start = position + CDATA_START.length;
+                    int end = find(CDATA_END, start);
+                    if (inValue || inText) {
+                        appendCdata(end);
+                    }
+                    position = end + CDATA_END.length;
+                } else {
+                    position = find(COMMENT_END, position + 4) + COMMENT_END.length;
+                }
+            } else if (next == '?') {
+                position = find(PI_END, position + 2) + PI_END.length;
+            } else {
+                readTag();
+                boolean selfClosing = buffer[tagEnd - 1] == '/';
+                startElement(selfClosing);
+                position = tagEnd + 1;
+            }
+        }
+    }
+
+    /**
+     * 시작 태그 처리 (position은 '<', tagNameEnd, tagEnd는 readTag로 계산된 상태)
+     */
+    private void startElement(boolean selfClosing) {
+        if (nameEquals(CELL)) {
+            int reference = attribute((byte) 'r');
+            int referenceLength = attributeLength;
+            int type = attribute((byte) 't');
+            int typeLength = attributeLength;
+            int style = attribute((byte) 's');
+            int styleLength = attributeLength;
+            handler.startCell(reference >= 0 ? FastNumbers.columnIndex(buffer, reference, referenceLength) : -1,
+                    type >= 0 ? typeOf(type, typeLength) : SheetHandler.TYPE_NUMBER,
+                    style >= 0 ? FastNumbers.parseInt(buffer, style, styleLength) : 0);
+        } else if (nameEquals(VALUE)) {
+            valueLength = 0;
+            valueAscii = true;
+            text.setLength(0);
+            inValue = !selfClosing;
+            if (selfClosing) {
+                handler.cellValue(value, 0, 0);
+            }
+        } else if (nameEquals(ROW)) {
+            int reference = attribute((byte) 'r');
+            handler.startRow(reference >= 0 ? FastNumbers.parseInt(buffer, reference, attributeLength) - 1 : -1);
+            if (selfClosing) {
+                handler.endRow();
+            }
+        } else if (nameEquals(INLINE_STRING)) {
+            text.setLength(0);
+            inInlineString = !selfClosing;
+            if (selfClosing) {
+                handler.inlineStringValue(text);
+            }
+        } else if (nameEquals(TEXT)) {
+            inText = inInlineString && !inPhonetic && !selfClosing;
+        } else if (nameEquals(PHONETIC)) {
+            inPhonetic = !selfClosing;
+        }
+    }
+
+    /**
+     * 종료 태그 처리
+     *
+     * @return </sheetData>이면 true
+     */
+    private boolean endElement() {
+        // 종료 태그는 "</" 다음부터 이름이 시작됩니다.
+        if (nameEquals(VALUE)) {
+            inValue = false;
+            if (valueAscii) {
+                handler.cellValue(value, 0, valueLength);
+            } else {
+                handler.cellValue(text);
+            }
+        } else if (nameEquals(ROW)) {
+            handler.endRow();
+        } else if (nameEquals(TEXT)) {
+            inText = false;
+        } else if (nameEquals(INLINE_STRING)) {
+            inInlineString = false;
+            handler.inlineStringValue(text);
+        } else if (nameEquals(PHONETIC)) {
+            inPhonetic = false;
+        } else {
+            return nameEquals(SHEET_DATA);
+        }
+        return false;
+    }
+
+    /**
+     * [start, end) 범위의 문자 데이터를 현재 값에 더합니다.
+     */
+    private void appendCharacters(int start, int end) throws IOException {
+        if (inValue && valueAscii) {
+            boolean plain = true;
+            for (int i = start; i < end; i++) {
+                byte b = buffer[i];
+                if (b < 0 || b == '&' || b == '\r') {
+                    plain = false;
+                    break;
+                }
+            }
+            if (plain) {
+                int length = end - start;
+                if (valueLength + length > value.length) {
+                    value = Arrays.copyOf(value, Math.max(value.length * 2, valueLength + length));
+                }
+                System.arraycopy(buffer, start, value, valueLength, length);
+                valueLength += length;
+                return;
+            }
+            // 지금까지 모은 ASCII 바이트를 문자열로 옮기고, 이후로는 문자열로 모읍니다.
+            valueAscii = false;
+            for (int i = 0; i < valueLength; i++) {
+                text.append((char) value[i]);
+            }
+        }
+        decode(start, end, true);
+    }
+
+    /**
+     * CDATA 구간(position의 "<![CDATA["부터 end 앞까지)을 현재 값에 더합니다. 엔티티 참조를 해석하지 않습니다.
+     */
+    private void appendCdata(int end) throws IOException {
+        int start = position + CDATA_START.length;
+        if (inValue && valueAscii) {
+            valueAscii = false;
+            for (int i = 0; i < valueLength; i++) {
+                text.append((char) value[i]);
+            }
+        }
+        decode(start, end, false);
+    }
+
+    /**
+     * UTF-8 바이트를 디코딩하여 text에 더합니다.
+     * XML 규칙에 따라 줄바꿈(\r\n, \r)은 \n으로 바꾸고, entities가 true이면 엔티티 참조(&amp; &#65; 등)를 해석합니다.
+     */
+    private void decode(int start, int end, boolean entities) throws IOException {
+        int i = start;
+        while (i < end) {
+            int b = buffer[i] & 0xFF;
+            if (b < 0x80) {
+                if (b == '&' && entities) {
+                    i = decodeEntity(i + 1, end);
+                    continue;
+                }
+                if (b == '\r') {
+                    text.append('\n');
+                    i += i + 1 < end && buffer[i + 1] == '\n' ? 2 : 1;
+                    continue;
+                }
+                text.append((char) b);
+                i++;
+            } else if (b < 0xE0 && i + 1 < end) {
+                text.append((char) ((b & 0x1F) << 6 | buffer[i + 1] & 0x3F));
+                i += 2;
+            } else if (b < 0xF0 && i + 2 < end) {
+                text.append((char) ((b & 0x0F) << 12 | (buffer[i + 1] & 0x3F) << 6 | buffer[i + 2] & 0x3F));
+                i += 3;
+            } else if (i + 3 < end) {
+                int codePoint = (b & 0x07) << 18 | (buffer[i + 1] & 0x3F) << 12 | (buffer[i + 2] & 0x3F) << 6 | buffer[i + 3] & 0x3F;
+                text.appendCodePoint(codePoint);
+                i += 4;
+            } else {
+                throw new IOException("올바르지 않은 UTF-8 문자가 있습니다.");
+            }
+        }
+    }
+
+    /**
+     * '&' 다음 위치(start)부터 ';'까지의 엔티티 참조를 해석하여 text에 더합니다.
+     *
+     * @return ';' 다음 위치
+     */
+    private int decodeEntity(int start, int end) throws IOException {
+        int semicolon = start;
+        while (semicolon < end && buffer[semicolon] != ';') {
+            semicolon++;
+        }
+        int length = semicolon - start;
+        if (semicolon == end || length == 0) {
+            throw new IOException("엔티티 참조가 올바르지 않습니다.");
+        }
+        if (buffer[start] == '#') {
+            int codePoint = 0;
+            boolean hex = length > 1 && buffer[start + 1] == 'x';
+            for (int i = start + (hex ? 2 : 1); i < semicolon; i++) {
+                int digit = Character.digit(buffer[i], hex ? 16 : 10);
+                if (digit < 0) {
+                    throw new IOException("문자 참조가 올바르지 않습니다.");
+                }
+                codePoint = codePoint * (hex ? 16 : 10) + digit;
+            }
+            text.appendCodePoint(codePoint);
+        } else {
+            text.append(switch (new String(buffer, start, length, StandardCharsets.US_ASCII)) {
+                case "lt" -> '<';
+                case "gt" -> '>';
+                case "amp" -> '&';
+                case "quot" -> '"';
+                case "apos" -> '\'';
+                default -> throw new IOException("정의되지 않은 엔티티 참조입니다: &" + new String(buffer, start, length, StandardCharsets.US_ASCII) + ";");
+            });
+        }
+        return semicolon + 1;
+    }
+
+    /**
+     * position의 '<'부터 태그 끝('>', 따옴표 안은 제외)까지 버퍼에 읽고 tagNameEnd, tagEnd를 계산합니다.
+     * 태그 이름에 접두사(x:row 등)가 있으면 접두사를 뺀 이름으로 비교합니다.
+     */
+    private void readTag() throws IOException {
+        int i = position + 1;
+        byte quote = 0;
+        while (true) {
+            if (i >= limit) {
+                int offset = i - position;
+                if (!refill()) {
+                    throw new IOException("시트 XML이 중간에 끝났습니다.");
+                }
+                i = position + offset;
+                continue;
+            }
+            byte b = buffer[i];
+            if (quote != 0) {
+                if (b == quote) {
+                    quote = 0;
+                }
+            } else if (b == '"' || b == '\'') {
+                quote = b;
+            } else if (b == '>') {
+                break;
+            }
+            i++;
+        }
+        tagEnd = i;
+
+        int nameStart = position + 1;
+        if (buffer[nameStart] == '/') {
+            nameStart++;
+        }
+        int nameEnd = nameStart;
+        while (nameEnd < tagEnd) {
+            byte b = buffer[nameEnd];
+            if (b == ' ' || b == '/' || b == '>' || b == '\t' || b == '\r' || b == '\n') {
+                break;
+            }
+            if (b == ':') {
+                nameStart = nameEnd + 1;
+            }
+            nameEnd++;
+        }
+        tagNameStart = nameStart;
+        tagNameEnd = nameEnd;
+    }
+
+    private boolean nameEquals(byte[] name) {
+        if (tagNameEnd - tagNameStart != name.length) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (buffer[tagNameStart + i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 현재 시작 태그에서 접두사 없는 한 글자 속성(r, t, s)의 값을 찾습니다.
+     *
+     * @return 값의 시작 위치 (attributeLength에 길이), 속성이 없으면 -1
+     */
+    private int attribute(byte name) {
+        int i = tagNameEnd;
+        while (i < tagEnd) {
+            // 속성 이름
+            while (i < tagEnd && isWhitespace(buffer[i])) {
+                i++;
+            }
+            int nameStart = i;
+            while (i < tagEnd && buffer[i] != '=' && !isWhitespace(buffer[i]) && buffer[i] != '/') {
+                i++;
+            }
+            int nameLength = i - nameStart;
+            while (i < tagEnd && buffer[i] != '"' && buffer[i] != '\'') {
+                if (buffer[i] == '/' && nameLength == 0) {
+                    return -1;
+                }
+                i++;
+            }
+            if (i >= tagEnd) {
+                return -1;
+            }
+            // 속성 값
+            byte quote = buffer[i++];
+            int valueStart = i;
+            while (i < tagEnd && buffer[i] != quote) {
+                i++;
+            }
+            if (nameLength == 1 && buffer[nameStart] == name) {
+                attributeLength = i - valueStart;
+                return valueStart;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * t 속성 값을 SheetHandler의 셀 타입 상수로 변환합니다.
+     */
+    private int typeOf(int offset, int length) {
+        if (length == 1) {
+            return switch (buffer[offset]) {
+                case 's' -> SheetHandler.TYPE_SHARED_STRING;
+                case 'b' -> SheetHandler.TYPE_BOOLEAN;
+                case 'e' -> SheetHandler.TYPE_ERROR;
+                case 'n' -> SheetHandler.TYPE_NUMBER;
+                default -> SheetHandler.TYPE_INLINE_STRING;
+            };
+        }
+        return length == 0 ? SheetHandler.TYPE_NUMBER : SheetHandler.TYPE_INLINE_STRING;
+    }
+
+    /**
+     * XML 선언(position의 "<?"부터 end까지)의 인코딩이 UTF-8(또는 생략)인지 확인합니다.
+     * XML 선언이 아닌 처리 명령은 상관없으므로 true를 반환합니다.
+     */
+    private boolean isUtf8Declaration(int start, int end) {
+        String declaration = new String(buffer, start, end - start, StandardCharsets.US_ASCII);
+        if (!declaration.startsWith("<?xml ")) {
+            return true;
+        }
+        int encoding = declaration.indexOf("encoding");
+        if (encoding < 0) {
+            return true;
+        }
+        String rest = declaration.substring(encoding + "encoding".length()).replaceAll("[\\s=\"']", " ").trim();
+        String name = rest.split("\\s+")[0];
+        return name.equalsIgnoreCase("UTF-8") || name.equalsIgnoreCase("UTF8") || name.equalsIgnoreCase("US-ASCII");
+    }
+
+    private boolean isUtf8Bom() {
+        return (buffer[0] & 0xFF) == 0xEF && (buffer[1] & 0xFF) == 0xBB && (buffer[2] & 0xFF) == 0xBF;
+    }
+
+    private boolean isComment() throws IOException {
+        return fill(4) && buffer[position + 2] == '-' && buffer[position + 3] == '-';
+    }
+
+    /**
+     * position부터 prefix로 시작하는지 확인합니다.
+     */
+    private boolean startsWith(byte[] prefix) throws IOException {
+        if (!fill(prefix.length)) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer[position + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * position부터 다음 target 바이트까지 건너뜁니다.
+     *
+     * @return 문서 끝이면 false
+     */
+    private boolean skipTo(byte target) throws IOException {
+        while (true) {
+            for (int i = position; i < limit; i++) {
+                if (buffer[i] == target) {
+                    position = i;
+                    return true;
+                }
+            }
+            position = limit;
+            if (!refill()) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * from부터 target 바이트를 찾습니다. 필요하면 버퍼를 채우며, position 이후의 바이트는 유지됩니다.
+     *
+     * @return 찾은 위치, 문서 끝이면 -1
+     */
+    private int findByte(byte target, int from) throws IOException {
+        int i = from;
+        while (true) {
+            for (; i < limit; i++) {
+                if (buffer[i] == target) {
+                    return i;
+                }
+            }
+            int offset = i - position;
+            if (!refill()) {
+                return -1;
+            }
+            i = position + offset;
+        }
+    }
+
+    /**
+     * from부터 바이트 열을 찾습니다. position 이후의 바이트는 유지됩니다.
+     *
+     * @return 찾은 위치
+     */
+    private int find(byte[] sequence, int from) throws IOException {
+        int i = from;
+        while (true) {
+            for (; i + sequence.length <= limit; i++) {
+                boolean match = true;
+                for (int j = 0; j < sequence.length; j++) {
+                    if (buffer[i + j] != sequence[j]) {
+                        match = false;
+                        break;
+                    }
+                }
+                if (match) {
+                    return i;
+                }
+            }
+            int offset = i - position;
+            if (!refill()) {
+                throw new IOException("시트 XML이 중간에 끝났습니다.");
+            }
+            i = position + offset;
+        }
+    }
+
+    /**
+     * position부터 최소 count 바이트가 버퍼에 있도록 채웁니다.
+     *
+     * @return 문서 끝이라 채울 수 없으면 false
+     */
+    private boolean fill(int count) throws IOException {
+        while (limit - position < count) {
+            if (!refill()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 스트림에서 더 읽습니다. 문서 앞부분이 아니면 position 앞의 바이트를 버리고 나머지를 버퍼 앞으로 옮깁니다.
+     * 버퍼가 가득 차 있으면 두 배로 늘립니다.
+     *
+     * @return 문서 끝이면 false
+     */
+    private boolean refill() throws IOException {
+        if (!keepBuffer && position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read = input.read(buffer, limit, buffer.length - limit);
+        if (read <= 0) {
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
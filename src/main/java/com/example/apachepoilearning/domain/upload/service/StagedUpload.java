@@ -0,0 +1,29 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import com.example.apachepoilearning.excel.DelimitedFormat;
+import com.example.apachepoilearning.metrics.ExcelMetrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 디스크에 임시로 저장(spool)된 업로드 파일
+ * 사용이 끝나면 close()로 임시 파일을 삭제합니다.
+ *
+ * @param file 임시 파일 경로
+ * @param size 파일 크기 (바이트)
+ * @param contentHash 파일 내용의 MD5 해시 (16진수 문자열, 업로드 원본 식별용, 해시 없이 옮긴 파일이면 null)
+ * @param format CSV/TSV 파일이면 그 형식 (gzip으로 압축되어 있을 수 있음), 엑셀 파일(XLSX)이면 null
+ * @param metrics 임시 파일 사용량을 기록하는 지표
+ */
+public record StagedUpload(Path file, long size, String contentHash, DelimitedFormat format, ExcelMetrics metrics) implements Closeable {
+
+    @Override
+    public void close() throws IOException {
+        if (Files.deleteIfExists(file)) {
+            metrics.tempFileReleased(size);
+        }
+    }
+}
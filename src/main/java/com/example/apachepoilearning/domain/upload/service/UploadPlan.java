@@ -0,0 +1,25 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+/**
+ * WorkbookInspection을 바탕으로 UploadPlanner가 정한 처리 방식
+ *
+ * @param mode 파일을 읽는 방식
+ * @param expectedRows 처리할 데이터 행 수 (dimension이 없으면 시트 XML 크기로 어림한 값)
+ * @param rowsEstimated expectedRows가 어림한 값인지 여부
+ * @param columns 열 수
+ * @param batchSize 한 번에 커밋할 행 수
+ */
+public record UploadPlan(Mode mode, long expectedRows, boolean rowsEstimated, int columns, int batchSize) {
+
+    /**
+     * 파일을 읽는 방식
+     */
+    public enum Mode {
+        // 셀 수가 적어 XSSFWorkbook(객체 모델)으로 한 번에 읽어도 되는 파일
+        OBJECT_MODEL,
+        // SAX 방식으로 한 스레드에서 읽음
+        STREAMING,
+        // 여러 스레드에서 읽음 (시트가 여럿이면 시트별 병렬 파싱, 시트 하나를 저장할 때는 파싱/변환/저장 파이프라인)
+        PARALLEL
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * WorkbookInspector로 확인한 시트 크기에 맞춰 읽기 방식과 배치 크기를 정합니다.
+ * - 셀 수와 파일 크기가 작으면 OBJECT_MODEL, 행이 parallelMinRows 이상이면 PARALLEL, 그 외에는 STREAMING
+ * - 배치 크기는 한 번에 커밋하는 셀 수가 batchCells 정도가 되도록 열 수로 나누며, 데이터 행 수보다 크게 잡지 않습니다.
+ *   (열이 적은 시트는 커밋 횟수를 줄이고, 열이 많은 시트는 청크 하나가 차지하는 메모리를 제한합니다)
+ */
+@Component
+public class UploadPlanner {
+
+    private static final int MIN_BATCH_SIZE = 100;
+
+    // 범위를 알 수 없을 때 사용하는 배치 크기
+    private final int defaultBatchSize;
+    private final int maxBatchSize;
+    // 한 배치에 담을 셀 수
+    private final int batchCells;
+    // OBJECT_MODEL로 읽을 수 있는 최대 셀 수와 파일 크기
+    private final long objectModelMaxCells;
+    private final DataSize objectModelMaxFileSize;
+    // PARALLEL로 읽기 시작하는 데이터 행 수
+    private final long parallelMinRows;
+
+    public UploadPlanner(@Value("${excel.upload.batch-size:1000}") int defaultBatchSize,
+                         @Value("${excel.upload.plan.max-batch-size:10000}") int maxBatchSize,
+                         @Value("${excel.upload.plan.batch-cells:20000}") int batchCells,
+                         @Value("${excel.upload.plan.object-model-max-cells:200000}") long objectModelMaxCells,
+                         @Value("${excel.upload.plan.object-model-max-file-size:5MB}") DataSize objectModelMaxFileSize,
+                         @Value("${excel.upload.plan.parallel-min-rows:100000}") long parallelMinRows) {
+        this.defaultBatchSize = defaultBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.batchCells = batchCells;
+        this.objectModelMaxCells = objectModelMaxCells;
+        this.objectModelMaxFileSize = objectModelMaxFileSize;
+        this.parallelMinRows = parallelMinRows;
+    }
+
+    /**
+     * 워크북의 모든 시트를 읽을 때의 처리 방식
+     * 데이터 행이 parallelMinRows 이상인 시트가 둘 이상이어야 PARALLEL(시트별 병렬 파싱)로 정합니다.
+     */
+    public UploadPlan plan(WorkbookInspection workbook) {
+        long rows = 0;
+        long cells = 0;
+        int columns = 0;
+        int largeSheets = 0;
+        boolean estimated = false;
+        for (SheetInspection sheet : workbook.sheets()) {
+            long sheetRows = expectedRows(sheet);
+            estimated |= !sheet.isRowCountKnown();
+            rows += sheetRows;
+            cells += sheetRows * Math.max(sheet.columnCount(), 1);
+            columns = Math.max(columns, sheet.columnCount());
+            if (sheetRows >= parallelMinRows) {
+                largeSheets++;
+            }
+        }
+
+        UploadPlan.Mode mode;
+        if (isSmall(workbook, cells)) {
+            mode = UploadPlan.Mode.OBJECT_MODEL;
+        } else if (largeSheets >= 2) {
+            mode = UploadPlan.Mode.PARALLEL;
+        } else {
+            mode = UploadPlan.Mode.STREAMING;
+        }
+        return new UploadPlan(mode, rows, estimated, columns, batchSize(columns, estimated ? Long.MAX_VALUE : rows));
+    }
+
+    /**
+     * 첫 번째 시트만 읽어 저장할 때의 처리 방식 (UploadService.importUsers)
+     * 데이터 행이 parallelMinRows 이상이면 PARALLEL(파이프라인)로 정합니다.
+     */
+    public UploadPlan planFirstSheet(WorkbookInspection workbook) {
+        SheetInspection sheet = workbook.firstSheet();
+        if (sheet == null) {
+            return new UploadPlan(UploadPlan.Mode.OBJECT_MODEL, 0, false, 0, MIN_BATCH_SIZE);
+        }
+        long rows = expectedRows(sheet);
+        int columns = sheet.columnCount();
+
+        UploadPlan.Mode mode;
+        if (isSmall(workbook, rows * Math.max(columns, 1))) {
+            mode = UploadPlan.Mode.OBJECT_MODEL;
+        } else if (rows >= parallelMinRows) {
+            mode = UploadPlan.Mode.PARALLEL;
+        } else {
+            mode = UploadPlan.Mode.STREAMING;
+        }
+        boolean estimated = !sheet.isRowCountKnown();
+        return new UploadPlan(mode, rows, estimated, columns, batchSize(columns, estimated ? Long.MAX_VALUE : rows));
+    }
+
+    /**
+     * 시트의 데이터 행 수
+     * dimension이 없으면 압축을 푼 시트 XML 크기를 행 하나의 어림 크기(열 수 × 셀 하나의 평균 크기)로 나눕니다.
+     */
+    private static long expectedRows(SheetInspection sheet) {
+        if (sheet.isRowCountKnown()) {
+            return sheet.dataRows();
+        }
+        if (sheet.xmlSize() < 0) {
+            return 0;
+        }
+        return sheet.xmlSize() / ((long) Math.max(sheet.columnCount(), 1) * WorkbookInspector.ESTIMATED_CELL_BYTES);
+    }
+
+    private boolean isSmall(WorkbookInspection workbook, long cells) {
+        return cells <= objectModelMaxCells && workbook.fileSize() <= objectModelMaxFileSize.toBytes();
+    }
+
+    /**
+     * @param rows 데이터 행 수 (어림한 값이면 Long.MAX_VALUE를 전달하여 행 수로 제한하지 않습니다)
+     */
+    private int batchSize(int columns, long rows) {
+        if (columns <= 0) {
+            return defaultBatchSize;
+        }
+        long size = Math.max(MIN_BATCH_SIZE, Math.min(maxBatchSize, batchCells / columns));
+        // 데이터 행보다 큰 청크 버퍼를 미리 할당하지 않습니다.
+        return (int) Math.max(1, Math.min(size, rows));
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+/**
+ * 업로드 파일 확인 결과 (/upload/inspect 응답)
+ *
+ * @param workbook 시트 이름, 행/열 범위, 헤더와 열 종류
+ * @param plan 이 파일을 읽을 방식
+ */
+public record UploadPreview(WorkbookInspection workbook, UploadPlan plan) {
+}
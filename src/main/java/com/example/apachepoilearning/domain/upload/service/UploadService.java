@@ -1,27 +1,50 @@
 package com.example.apachepoilearning.domain.upload.service;
 
+import com.example.apachepoilearning.domain.memory.MemoryBudget;
+import com.example.apachepoilearning.domain.memory.MemoryEstimator;
+import com.example.apachepoilearning.domain.memory.MemoryReservation;
+import com.example.apachepoilearning.entity.User;
+import com.example.apachepoilearning.excel.DelimitedFormat;
+import com.example.apachepoilearning.metrics.ExcelMetrics;
 import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.eventusermodel.XSSFReader;
 import org.apache.poi.xssf.model.SharedStrings;
-import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 import org.xml.sax.Attributes;
-import org.xml.sax.InputSource;
-import org.xml.sax.XMLReader;
 import org.xml.sax.helpers.DefaultHandler;
 
-import javax.xml.parsers.SAXParserFactory;
+import java.io.Closeable;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
 
 /**
  * 엑셀 파일 업로드 및 처리를 담당하는 서비스 클래스
@@ -32,14 +55,128 @@ import java.util.regex.Pattern;
 @Service
 public class UploadService {
 
+    // 업로드 파일을 임시 파일로 저장(spool)하는 서비스
+    private final UploadStagingService uploadStagingService;
+    // 파일 열기, 파싱, 저장 소요 시간 등의 지표
+    private final ExcelMetrics excelMetrics;
+    // 사용자 데이터를 청크 단위로 커밋하는 writer
+    private final UserChunkWriter userChunkWriter;
+    // 여러 시트를 동시에 파싱하기 위한 스레드 풀
+    private final ExecutorService sheetParseExecutor;
+    // 한 번에 커밋할 행 수
+    private final int batchSize;
+    // sharedStrings.xml이 이 크기 이상이면 공유 문자열을 메모리 매핑 파일에 보관
+    private final DataSize mappedSharedStringsThreshold;
+    // 메모리 매핑 공유 문자열 테이블의 LRU 캐시 크기
+    private final int mappedSharedStringsCacheSize;
+    // 파이프라인 모드에서 변환 워커와 writer를 실행하는 스레드 풀
+    private final ExecutorService rowPipelineExecutor;
+    // 파이프라인 모드의 변환 워커 수 (0이면 파싱 스레드에서 모두 처리)
+    private final int pipelineWorkers;
+    // 파이프라인 모드에서 동시에 처리 중일 수 있는 최대 행 수
+    private final int pipelineCapacity;
+    // 시트 크기에 맞춰 읽기 방식과 배치 크기를 정하는 planner
+    private final UploadPlanner uploadPlanner;
+    // 시트 XML을 SAX 대신 SheetXmlScanner로 읽을지 여부
+    private final boolean byteScanner;
+    // 업로드/다운로드가 나누어 쓰는 힙 예산과 처리 방식별 사용량 어림
+    private final MemoryBudget memoryBudget;
+    private final MemoryEstimator memoryEstimator;
+
+    public UploadService(UploadStagingService uploadStagingService,
+                         ExcelMetrics excelMetrics,
+                         UserChunkWriter userChunkWriter,
+                         @Qualifier("sheetParseExecutor") ExecutorService sheetParseExecutor,
+                         @Value("${excel.upload.batch-size:1000}") int batchSize,
+                         @Value("${excel.upload.mapped-shared-strings.threshold:16MB}") DataSize mappedSharedStringsThreshold,
+                         @Value("${excel.upload.mapped-shared-strings.cache-size:1024}") int mappedSharedStringsCacheSize,
+                         @Qualifier("rowPipelineExecutor") ExecutorService rowPipelineExecutor,
+                         @Value("${excel.upload.pipeline.workers:0}") int pipelineWorkers,
+                         @Value("${excel.upload.pipeline.capacity:1024}") int pipelineCapacity,
+                         UploadPlanner uploadPlanner,
+                         @Value("${excel.upload.byte-scanner:true}") boolean byteScanner,
+                         MemoryBudget memoryBudget,
+                         MemoryEstimator memoryEstimator) {
+        this.uploadStagingService = uploadStagingService;
+        this.excelMetrics = excelMetrics;
+        this.userChunkWriter = userChunkWriter;
+        this.sheetParseExecutor = sheetParseExecutor;
+        this.batchSize = batchSize;
+        this.mappedSharedStringsThreshold = mappedSharedStringsThreshold;
+        this.mappedSharedStringsCacheSize = mappedSharedStringsCacheSize;
+        this.rowPipelineExecutor = rowPipelineExecutor;
+        this.pipelineWorkers = pipelineWorkers;
+        this.pipelineCapacity = pipelineCapacity;
+        this.uploadPlanner = uploadPlanner;
+        this.byteScanner = byteScanner;
+        this.memoryBudget = memoryBudget;
+        this.memoryEstimator = memoryEstimator;
+    }
+
+    /**
+     * 업로드 파일을 끝까지 읽지 않고 시트 이름, 행/열 범위, 헤더와 열 종류를 확인하고, 이 파일을 읽을 방식을 정합니다.
+     *
+     * @param file 업로드된 MultipartFile 객체
+     * @param sampleRows 헤더 다음에 읽을 행 수
+     * @return 워크북 정보와 처리 방식
+     * @throws Exception 파일 처리 중 발생할 수 있는 예외
+     */
+    public UploadPreview inspect(MultipartFile file, int sampleRows) throws Exception {
+        // 파일 앞부분만 읽으므로 내용 해시를 계산하지 않고, 컨테이너가 저장한 멀티파트 파일을 그대로 옮겨 엽니다.
+        try (StagedUpload staged = uploadStagingService.moveToStaging(file)) {
+            WorkbookInspection workbook = inspect(staged, sampleRows);
+            return new UploadPreview(workbook, uploadPlanner.plan(workbook));
+        }
+    }
+
+    /**
+     * 업로드 파일의 workbook.xml, 시트별 dimension 요소와 첫 행부터 sampleRows + 1개의 행만 읽어 워크북 정보를 확인합니다.
+     * 시트 XML 전체를 읽지 않으므로 파일 크기와 관계없이 수 밀리초 안에 끝납니다. (WorkbookInspector 참고)
+     * CSV/TSV 파일은 OPCPackage로 열 수 없으므로 첫 레코드부터 sampleRows + 1개의 레코드만 읽습니다.
+     *
+     * @param file 디스크에 저장된 업로드 파일
+     * @param sampleRows 헤더 다음에 읽을 행 수
+     * @return 워크북 정보
+     * @throws Exception XML 파싱 및 파일 처리 중 발생할 수 있는 예외
+     */
+    public WorkbookInspection inspect(StagedUpload file, int sampleRows) throws Exception {
+        long openStart = System.nanoTime();
+        if (file.format() != null) {
+            try (InputStream input = openDelimited(file.file())) {
+                excelMetrics.recordOpen(System.nanoTime() - openStart);
+                // gzip으로 압축된 파일은 압축을 푼 크기를 알 수 없습니다.
+                long textSize = input instanceof GZIPInputStream ? -1 : file.size();
+                return WorkbookInspector.inspectDelimited(input, file.format(), file.size(), textSize, sampleRows);
+            }
+        }
+        OPCPackage pkg = OPCPackage.open(file.file().toFile(), PackageAccess.READ);
+        try {
+            excelMetrics.recordOpen(System.nanoTime() - openStart);
+            return WorkbookInspector.inspect(pkg, file.size(), sampleRows);
+        } finally {
+            pkg.revert();
+        }
+    }
+
     /**
      * 엑셀 파일(XLSX)을 XSSFWorkbook (객체 모델) 방식으로 업로드하고 처리합니다.
      * 이 방식은 파일을 모두 메모리에 로드하므로, 파일 크기가 작거나 중간일 때 적합합니다.
+     * 동시에 여러 파일을 올려도 힙이 부족해지지 않도록, 파일 크기로 어림한 만큼 메모리 예산을 예약한 뒤 읽습니다. (예산이 빌 때까지 차례를 기다립니다)
      *
      * @param file 업로드된 MultipartFile 객체 (스프링 웹 환경에서 파일 업로드를 통해 전달받음)
      * @throws IOException 파일 입출력 중 발생할 수 있는 예외
+     * @throws java.util.concurrent.RejectedExecutionException excel.memory.max-wait 안에 예산을 예약하지 못한 경우
      */
     public void uploadXlsx(MultipartFile file) throws IOException {
+        try (MemoryReservation reservation = memoryBudget.reserve(memoryEstimator.objectModelFromFileSize(file.getSize()))) {
+            readWorkbook(file);
+        }
+    }
+
+    /**
+     * 업로드 파일을 XSSFWorkbook으로 읽어 모든 셀을 출력합니다. (메모리 예산은 호출하는 쪽에서 예약합니다)
+     */
+    private void readWorkbook(MultipartFile file) throws IOException {
 
         // 업로드된 파일의 원본 이름 출력
         System.out.println("업로드 파일명: " + file.getOriginalFilename());
@@ -87,11 +224,97 @@ public class UploadService {
      * @throws Exception 파싱 및 파일 처리 중 발생할 수 있는 예외
      */
     public void uploadSAXXlsx(MultipartFile file) throws Exception {
+        // 업로드 파일을 임시 파일로 옮긴 뒤, 셀 값은 사용하지 않고 처리 건수만 확인합니다.
+        try (StagedUpload staged = uploadStagingService.stage(file)) {
+            uploadSAXXlsx(staged.file(), sst -> new RowConsumer() {
+            });
+        }
+    }
+
+    /**
+     * 엑셀 파일(XLSX)의 첫 번째 시트를 SAX 파싱 방식으로 읽어, 파싱된 행과 셀을 RowConsumer에 전달합니다.
+     *
+     * @param file 디스크에 저장된 엑셀 파일 (UploadStagingService로 저장한 임시 파일 등)
+     * @param consumerFactory 공유 문자열 테이블을 받아 셀 값을 처리할 RowConsumer를 생성하는 함수
+     * @throws Exception 파싱 및 파일 처리 중 발생할 수 있는 예외
+     */
+    public void uploadSAXXlsx(Path file, Function<SharedStrings, RowConsumer> consumerFactory) throws Exception {
         System.out.println("\nSAX 방식 엑셀 파일 처리 시작...");
 
         // OPCPackage 열기: XLSX 파일은 ZIP 압축 파일 형식이며, OPC 패키지로 관리됩니다.
         // 이를 통해 파일 내부의 XML 스트림에 직접 접근할 수 있습니다.
-        OPCPackage pkg = OPCPackage.open(file.getInputStream());
+        // 파일을 읽기 전용(PackageAccess.READ)으로 열면 ZIP 전체를 메모리에 올리지 않고, 필요한 항목만 파일에서 읽습니다.
+        long openStart = System.nanoTime();
+        OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+        try {
+            excelMetrics.recordOpen(System.nanoTime() - openStart);
+            parseFirstSheet(pkg, consumerFactory);
+        } finally {
+            // 읽기 전용 패키지를 close()하면 POI가 저장할 수 없다는 경고를 남기므로, 변경 없이 닫는 revert()를 사용합니다.
+            pkg.revert();
+        }
+    }
+
+    /**
+     * CSV/TSV 파일을 DelimitedScanner로 읽어, 레코드와 필드를 시트의 행과 셀처럼 RowConsumer에 전달합니다.
+     * SheetHandler를 그대로 거치므로 행 해시 계산과 처리 통계 지표도 엑셀 파일과 같습니다.
+     * gzip으로 압축된 파일(.csv.gz 등)은 파일 앞의 매직 바이트로 확인하여 읽으면서 풉니다.
+     *
+     * @param file 디스크에 저장된 CSV/TSV 파일
+     * @param format 구분자 형식
+     * @param consumer 셀 값을 처리할 RowConsumer (공유 문자열 셀은 전달되지 않습니다)
+     * @throws Exception 파싱 및 파일 처리 중 발생할 수 있는 예외
+     */
+    public void uploadDelimited(Path file, DelimitedFormat format, RowConsumer consumer) throws Exception {
+        long openStart = System.nanoTime();
+        try (InputStream input = openDelimited(file)) {
+            excelMetrics.recordOpen(System.nanoTime() - openStart);
+            SheetHandler handler = new SheetHandler(consumer);
+
+            long start = System.nanoTime();
+            try {
+                DelimitedScanner.forCurrentThread().scan(input, format, handler);
+            } catch (Throwable t) {
+                consumer.abortSheet(t);
+                throw t;
+            }
+            excelMetrics.recordSheetParsed(handler.getRowCount(), handler.getCellCount(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 업로드 파일의 첫 번째 시트(CSV/TSV이면 파일 전체)를 읽어 RowConsumer에 전달합니다.
+     * CSV/TSV에는 공유 문자열 테이블이 없으므로 consumerFactory에 null을 전달합니다.
+     */
+    private void readFirstSheet(StagedUpload file, Function<SharedStrings, RowConsumer> consumerFactory) throws Exception {
+        if (file.format() != null) {
+            uploadDelimited(file.file(), file.format(), consumerFactory.apply(null));
+        } else {
+            uploadSAXXlsx(file.file(), consumerFactory);
+        }
+    }
+
+    /**
+     * CSV/TSV 파일을 엽니다. gzip 매직 바이트(1F 8B)로 시작하면 압축을 풀면서 읽는 스트림을 반환합니다.
+     */
+    private static InputStream openDelimited(Path file) throws IOException {
+        boolean gzip;
+        try (InputStream magic = Files.newInputStream(file)) {
+            gzip = magic.read() == 0x1F && magic.read() == 0x8B;
+        }
+        InputStream input = Files.newInputStream(file);
+        try {
+            return gzip ? new GZIPInputStream(input, 64 * 1024) : input;
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 열려있는 OPCPackage의 첫 번째 시트를 SAX 파싱 방식으로 읽어, 파싱된 행과 셀을 RowConsumer에 전달합니다.
+     */
+    private void parseFirstSheet(OPCPackage pkg, Function<SharedStrings, RowConsumer> consumerFactory) throws Exception {
         // XSSFReader 생성: OPC 패키지에서 엑셀 관련 XML 스트림(시트, 공유 문자열 등)을 읽기 위한 리더
         XSSFReader xssfReader = new XSSFReader(pkg);
 
@@ -104,27 +327,362 @@ public class UploadService {
             System.out.println(name);
         }
 
-        // --- 시트 데이터 스트림 및 공유 문자열 테이블 가져오기 ---
+        // --- 공유 문자열 테이블 및 스타일 테이블 가져오기 ---
+        // SharedStrings: 엑셀 파일 내의 모든 공유 문자열(텍스트)을 저장하는 테이블입니다.
+        // SAX 파싱 시 셀 값이 문자열 인덱스로 되어있으므로, 실제 문자열이 필요한 RowConsumer가 이 테이블에서 조회합니다.
+        // 공유 문자열이 많은 파일은 힙 대신 메모리 매핑 파일에 보관합니다. (openSharedStrings 참고)
+        SharedStrings sst = openSharedStrings(pkg, xssfReader);
+        // StylesTable: 숫자 셀 중 날짜 서식이 적용된 셀을 구분하는 데 사용합니다.
+        StylesTable styles = xssfReader.getStylesTable();
+
+        // --- 파싱 시작 ---
         // getSheetsData()는 시트 데이터 스트림들의 Iterator를 반환합니다.
         // next()를 호출하여 첫 번째 시트의 InputStream을 가져옵니다.
-        InputStream sheetStream = xssfReader.getSheetsData().next();
+        SheetHandler handler;
+        try (InputStream sheetStream = xssfReader.getSheetsData().next()) {
+            handler = parseSheet(sheetStream, consumerFactory.apply(sst), styles, sst);
+        } finally {
+            closeSharedStrings(sst);
+        }
+        System.out.println("SAX 방식 - 처리된 행 수: " + handler.getRowCount() + ", 셀 수: " + handler.getCellCount());
+    }
 
-        // SharedStringsTable 가져오기: 엑셀 파일 내의 모든 공유 문자열(텍스트)을 저장하는 테이블입니다.
-        // SAX 파싱 시 셀 값이 문자열 인덱스로 되어있으므로, 이 테이블에서 실제 문자열을 조회해야 합니다.
-        SharedStrings sst = xssfReader.getSharedStringsTable();
-        SharedStringsTable sstTable = (SharedStringsTable) sst;
+    /**
+     * 엑셀 파일(XLSX)의 모든 시트를 SAX 방식으로 동시에 파싱합니다.
+     * 시트마다 별도의 작업으로 sheetParseExecutor에 제출되며, 공유 문자열 테이블은 한 번만 읽어 모든 작업이 읽기 전용으로 공유합니다.
+     * 파싱 시간이 시트 개수가 아니라 CPU 코어 수에 따라 줄어듭니다.
+     *
+     * @param file 디스크에 저장된 엑셀 파일 (UploadStagingService로 저장한 임시 파일 등)
+     * @param consumerFactory 시트 이름과 공유 문자열 테이블을 받아 해당 시트의 RowConsumer를 생성하는 함수
+     *                        (RowConsumer는 시트마다 따로 생성되며, 각각 하나의 스레드에서만 호출됩니다)
+     * @return 시트 순서대로 정렬된 시트별 파싱 결과
+     * @throws Exception 파싱 및 파일 처리 중 발생할 수 있는 예외 (시트 작업에서 발생한 예외는 원래 예외로 다시 던집니다)
+     */
+    public <T extends RowConsumer> List<SheetParseResult<T>> uploadSAXXlsxParallel(
+            Path file, BiFunction<String, SharedStrings, T> consumerFactory) throws Exception {
 
-        // --- XML 파서 및 핸들러 설정 ---
-        // SAXParserFactory를 통해 XMLReader 인스턴스 생성
-        XMLReader parser = SAXParserFactory.newInstance().newSAXParser().getXMLReader();
-        // 커스텀 핸들러 (SheetHandler)를 파서에 설정합니다.
-        // SheetHandler는 XML을 파싱하면서 발생하는 이벤트(요소 시작/종료, 문자 데이터 등)를 처리합니다.
-        parser.setContentHandler(new SheetHandler(sstTable));
+        // 파일 기반 패키지는 ZipFile을 사용하므로 여러 스레드가 서로 다른 시트 스트림을 동시에 읽을 수 있습니다.
+        long openStart = System.nanoTime();
+        OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+        try {
+            excelMetrics.recordOpen(System.nanoTime() - openStart);
+            return parseSheetsInParallel(pkg, consumerFactory);
+        } finally {
+            pkg.revert();
+        }
+    }
 
-        // --- 파싱 시작 ---
-        // InputSource를 사용하여 시트 데이터 스트림을 파서에 전달하여 파싱을 시작합니다.
-        // 파싱이 진행되면서 SheetHandler의 메서드들이 호출되어 셀 데이터를 처리합니다.
-        parser.parse(new InputSource(sheetStream));
+    /**
+     * 열려있는 OPCPackage의 모든 시트를 sheetParseExecutor에서 동시에 파싱합니다.
+     * 한 시트라도 실패하면 나머지 작업을 중단시키고, 모든 작업이 끝난 뒤에 공유 문자열 테이블을 닫습니다.
+     * (호출자가 이어서 패키지를 닫으므로, 실행 중인 작업이 닫힌 테이블이나 패키지를 읽지 않도록 합니다)
+     */
+    private <T extends RowConsumer> List<SheetParseResult<T>> parseSheetsInParallel(
+            OPCPackage pkg, BiFunction<String, SharedStrings, T> consumerFactory) throws Exception {
+        XSSFReader xssfReader = new XSSFReader(pkg);
+        SharedStrings sst = openSharedStrings(pkg, xssfReader);
+        StylesTable styles = xssfReader.getStylesTable();
+
+        List<Future<SheetParseResult<T>>> futures = new ArrayList<>();
+        AtomicBoolean aborted = new AtomicBoolean();
+        try {
+            // SheetIterator로 시트 이름과 시트 파트를 순서대로 모은 뒤, 각 작업에서 시트 스트림을 엽니다.
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+            int sheetIndex = 0;
+            while (sheets.hasNext()) {
+                sheets.next().close();
+                int index = sheetIndex++;
+                String sheetName = sheets.getSheetName();
+                PackagePart sheetPart = sheets.getSheetPart();
+                futures.add(sheetParseExecutor.submit(() -> {
+                    if (aborted.get()) {
+                        return null;
+                    }
+                    T consumer = consumerFactory.apply(sheetName, sst);
+                    try (InputStream sheetStream = new AbortableInputStream(sheetPart.getInputStream(), aborted)) {
+                        SheetHandler handler = parseSheet(sheetStream, consumer, styles, sst);
+                        return new SheetParseResult<>(index, sheetName, handler.getRowCount(), handler.getCellCount(), consumer);
+                    }
+                }));
+            }
+
+            // 제출한 순서(= 시트 순서)대로 결과를 모읍니다.
+            List<SheetParseResult<T>> results = new ArrayList<>(futures.size());
+            for (Future<SheetParseResult<T>> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            abort(aborted, futures);
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } catch (Throwable t) {
+            abort(aborted, futures);
+            throw t;
+        } finally {
+            closeSharedStrings(sst);
+        }
+    }
+
+    /**
+     * 시트 작업을 중단시키고 모두 끝날 때까지 기다립니다.
+     * 취소한 Future의 get()은 작업이 끝나기 전에 반환되므로 cancel 대신 중단 표시를 사용합니다.
+     * 아직 시작하지 않은 작업은 바로 끝나고, 실행 중인 작업은 다음 시트 스트림 읽기에서 예외로 끝납니다.
+     */
+    private static void abort(AtomicBoolean aborted, List<? extends Future<?>> futures) {
+        aborted.set(true);
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    // 작업이 끝나기 전에 테이블을 닫을 수 없으므로 계속 기다리고, 인터럽트 상태는 마지막에 복원합니다.
+                    interrupted = true;
+                } catch (ExecutionException | CancellationException e) {
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 엑셀 파일(XLSX)의 첫 번째 시트를 SAX 방식으로 읽어 users 테이블에 저장합니다.
+     *
+     * @param file 업로드된 MultipartFile 객체
+     * @return 저장 결과
+     * @throws Exception 파싱 및 파일 처리, 저장 중 발생할 수 있는 예외
+     */
+    public UserImportResult importUsers(MultipartFile file) throws Exception {
+        try (StagedUpload staged = uploadStagingService.stage(file)) {
+            return importUsers(staged, new ImportProgress());
+        }
+    }
+
+    /**
+     * 엑셀 파일(XLSX)의 첫 번째 시트를 SAX 방식으로 읽어 users 테이블에 저장합니다. CSV/TSV 파일은 DelimitedScanner로 같은 방식으로 읽습니다.
+     * 행은 batchSize 개씩 JDBC 배치로 저장되고 청크마다 커밋되며, 마지막으로 커밋된 행은 체크포인트로 기록됩니다.
+     * 중간에 실패한 파일을 다시 업로드하면 체크포인트 다음 행부터 이어서 저장합니다.
+     * 끝까지 저장하면 체크포인트를 지우므로, 완료된 파일을 다시 업로드하면 처음부터 다시 저장합니다.
+     * 파싱 전에 시트 크기를 확인하여(WorkbookInspector) 배치 크기를 열 수에 맞추고, 예상 행 수를 진행 상황에 기록합니다.
+     * pipelineWorkers가 1 이상이고 행이 충분히 많으면(UploadPlan.Mode.PARALLEL) 파싱, 변환, 저장을 서로 다른 스레드에서 동시에 처리합니다.
+     * (importUsersPipelined 참고)
+     * 배치와 파이프라인에 담길 행, 공유 문자열 테이블 크기만큼 메모리 예산을 예약한 뒤 읽습니다.
+     *
+     * @param file 디스크에 저장된 업로드 파일
+     * @param progress 변환, 저장된 행 수를 기록할 진행 상황 객체
+     * @return 저장 결과
+     * @throws Exception 파싱 및 파일 처리, 저장 중 발생할 수 있는 예외
+     */
+    public UserImportResult importUsers(StagedUpload file, ImportProgress progress) throws Exception {
+
+        // 같은 파일인지 판별하기 위해 파일 내용의 해시(임시 파일로 저장하면서 계산)를 체크포인트 키로 사용합니다.
+        String sourceKey = file.contentHash();
+        int resumeAfterRow = userChunkWriter.findLastCommittedRow(sourceKey);
+        try (Admission admission = admitImport(file, progress, false)) {
+            UploadPlan plan = admission.plan();
+
+            if (isPipelined(plan)) {
+                importUsersPipelined(file, progress, sourceKey, resumeAfterRow, plan);
+                userChunkWriter.completeCheckpoint(sourceKey);
+                return new UserImportResult(sourceKey, resumeAfterRow, progress.getRowsParsed(), progress.getRowsPersisted(),
+                        progress.getRowsRejected());
+            }
+
+            // RowConsumer는 공유 문자열 테이블이 준비된 뒤에 생성되므로, 파싱이 끝난 후 사용할 수 있도록 보관합니다.
+            UserRowConsumer[] consumer = new UserRowConsumer[1];
+            readFirstSheet(file, sst -> consumer[0] = new UserRowConsumer(sst, userChunkWriter, sourceKey, plan.batchSize(), resumeAfterRow,
+                    progress, excelMetrics));
+            consumer[0].finish();
+        }
+        userChunkWriter.completeCheckpoint(sourceKey);
+
+        return new UserImportResult(sourceKey, resumeAfterRow, progress.getRowsParsed(), progress.getRowsPersisted(),
+                progress.getRowsRejected());
+    }
+
+    /**
+     * 엑셀 파일(XLSX)의 첫 번째 시트를 이전에 같은 원본으로 올린 시트와 비교하여, 바뀐 행만 users 테이블에 반영합니다.
+     * SheetHandler가 행마다 키(이메일) 해시와 행 해시를 계산하고, 원본별 행 해시 색인(upload_row_hashes)과 비교하여
+     * 새 행은 INSERT, 바뀐 행은 UPDATE, 시트에서 사라진 행은 DELETE 합니다. (UserDeltaConsumer 참고)
+     * 매일 같은 시트를 조금씩 고쳐 다시 올리는 경우, 바뀌지 않은 행은 파싱과 해시 계산 비용만 들고 데이터베이스에 쓰지 않습니다.
+     *
+     * @param file 디스크에 저장된 업로드 파일
+     * @param sourceName 업로드 원본 이름 (파일 내용이 매번 달라지므로 이름으로 이전 업로드를 찾습니다)
+     * @param progress 변환, 저장된 행 수를 기록할 진행 상황 객체
+     * @return 반영 결과
+     * @throws Exception 파싱 및 파일 처리, 저장 중 발생할 수 있는 예외
+     */
+    public UserDeltaImportResult importUsersDelta(StagedUpload file, String sourceName, ImportProgress progress) throws Exception {
+        try (Admission admission = admitImport(file, progress, true)) {
+            UploadPlan plan = admission.plan();
+            // 이전 업로드의 행 수는 이번 시트와 비슷하므로, 색인을 시트의 행 수에 맞춰 만들어 적재 중에 늘어나지 않도록 합니다.
+            RowHashIndex index = userChunkWriter.loadRowHashIndex(sourceName, (int) Math.min(plan.expectedRows(), Integer.MAX_VALUE / 4));
+
+            UserDeltaConsumer[] consumer = new UserDeltaConsumer[1];
+            readFirstSheet(file, sst -> consumer[0] = new UserDeltaConsumer(sst, sourceName, index, userChunkWriter, plan.batchSize(),
+                    progress, excelMetrics));
+            consumer[0].finish();
+
+            return consumer[0].result();
+        }
+    }
+
+    /**
+     * 메모리 예산을 예약한 처리 방식 (try-with-resources로 사용하여 처리가 끝나면 예산을 반납합니다)
+     */
+    private record Admission(UploadPlan plan, MemoryReservation reservation) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            reservation.close();
+        }
+    }
+
+    /**
+     * 첫 번째 시트의 크기를 확인하여 처리 방식을 정하고, 예상 행 수를 진행 상황에 기록한 뒤 메모리 예산을 예약합니다.
+     * 크기를 확인할 수 없는 파일(CSV/TSV 포함)이면 설정된 batchSize로 한 스레드에서 처리합니다.
+     *
+     * @param delta 변경분 업로드이면 true (행 해시 색인 크기를 더합니다)
+     */
+    private Admission admitImport(StagedUpload file, ImportProgress progress, boolean delta) {
+        UploadPlan plan = new UploadPlan(UploadPlan.Mode.STREAMING, -1, true, 0, batchSize);
+        long heapSharedStrings = 0;
+        // CSV/TSV에는 시트 크기 정보(dimension)가 없으므로 확인하지 않습니다.
+        if (file.format() == null) {
+            try {
+                WorkbookInspection workbook = inspect(file, 0);
+                plan = uploadPlanner.planFirstSheet(workbook);
+                heapSharedStrings = heapSharedStringsSize(workbook);
+                progress.setRowsExpected(plan.expectedRows());
+            } catch (Exception e) {
+                // 손상된 파일 등은 이어지는 파싱 단계에서 원래 예외로 실패하도록 둡니다.
+            }
+        }
+
+        // 저장 중인 배치와, 파이프라인 모드이면 변환/저장을 기다리는 행까지 동시에 메모리에 있을 수 있습니다.
+        long rowsInFlight = plan.batchSize() + (isPipelined(plan) ? pipelineCapacity : 0);
+        long bytes = memoryEstimator.streaming(1, rowsInFlight, plan.columns(), heapSharedStrings);
+        if (delta) {
+            bytes += memoryEstimator.rowHashIndex(plan.expectedRows());
+        }
+        return new Admission(plan, memoryBudget.reserve(bytes));
+    }
+
+    private boolean isPipelined(UploadPlan plan) {
+        return pipelineWorkers > 0 && plan.mode() == UploadPlan.Mode.PARALLEL;
+    }
+
+    /**
+     * @return 힙에 올라갈 공유 문자열 XML 크기 (mappedSharedStringsThreshold 이상이면 메모리 매핑 파일에 보관하므로 0)
+     */
+    private long heapSharedStringsSize(WorkbookInspection workbook) {
+        long size = workbook.sharedStringsSize();
+        return size >= mappedSharedStringsThreshold.toBytes() ? 0 : Math.max(size, 0);
+    }
+
+    /**
+     * 파싱 스레드는 행을 RowBuffer로 토큰화만 하고, pipelineWorkers 개의 워커가 User로 변환하며,
+     * writer 스레드가 행 순서대로 batchSize 개씩 저장합니다.
+     * 체크포인트가 행 순서를 전제로 하므로 순서 보장 모드로 실행합니다.
+     */
+    private void importUsersPipelined(StagedUpload file, ImportProgress progress, String sourceKey, int resumeAfterRow,
+                                      UploadPlan plan) throws Exception {
+        BatchSink<User> sink = (users, lastRow) -> {
+            long start = System.nanoTime();
+            userChunkWriter.writeChunk(sourceKey, users, lastRow);
+            excelMetrics.recordPersist(users.size(), System.nanoTime() - start);
+            progress.addRowsPersisted(users.size());
+        };
+
+        // 파이프라인도 공유 문자열 테이블이 준비된 뒤에 생성되므로 보관해 둡니다.
+        // 파싱이 실패하면 SheetHandler가 공유 문자열 테이블을 닫기 전에 파이프라인을 중단시키고(abortSheet) 예외를 그대로 던집니다.
+        AtomicReference<RowPipeline<User>> pipeline = new AtomicReference<>();
+        readFirstSheet(file, sst -> {
+            RowPipeline<User> created = new RowPipeline<>(pipelineWorkers, pipelineCapacity, true, plan.batchSize(),
+                    plan.columns(), new UserRowMapper(sst, resumeAfterRow, progress), sink);
+            pipeline.set(created);
+            return created.start(rowPipelineExecutor);
+        });
+        pipeline.get().finish();
+    }
+
+    /**
+     * 워크북의 공유 문자열 테이블을 엽니다.
+     * sharedStrings.xml의 크기가 mappedSharedStringsThreshold 이상이면 문자열을 힙에 올리지 않는 MappedSharedStrings를,
+     * 그보다 작으면 POI의 SharedStringsTable을 사용합니다.
+     *
+     * @param pkg 열려있는 OPCPackage 객체
+     * @param xssfReader 같은 패키지로 생성한 XSSFReader
+     * @return 공유 문자열 테이블 (사용 후 closeSharedStrings로 정리해야 합니다)
+     * @throws Exception 공유 문자열 파싱 중 발생할 수 있는 예외
+     */
+    private SharedStrings openSharedStrings(OPCPackage pkg, XSSFReader xssfReader) throws Exception {
+        List<PackagePart> parts = pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+        if (!parts.isEmpty() && parts.get(0).getSize() >= mappedSharedStringsThreshold.toBytes()) {
+            MappedSharedStrings mapped = MappedSharedStrings.open(pkg, mappedSharedStringsCacheSize);
+            excelMetrics.tempFileAllocated(mapped.getFileSize());
+            return new MeteredSharedStrings(mapped);
+        }
+        return new MeteredSharedStrings(xssfReader.getSharedStringsTable());
+    }
+
+    /**
+     * 공유 문자열 테이블을 정리합니다. MappedSharedStrings이면 임시 파일이 삭제됩니다.
+     * 파싱하는 동안 실제로 조회한 공유 문자열 수를 지표에 반영합니다.
+     */
+    private void closeSharedStrings(SharedStrings sst) throws IOException {
+        if (sst instanceof MeteredSharedStrings metered) {
+            excelMetrics.recordSharedStringLookups(metered.getLookupCount());
+            sst = metered.getDelegate();
+        }
+        if (sst instanceof MappedSharedStrings mapped) {
+            excelMetrics.tempFileReleased(mapped.getFileSize());
+        }
+        if (sst instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * 시트 데이터 스트림 하나를 파싱합니다.
+     * byteScanner가 켜져 있으면 SheetXmlScanner로 UTF-8 바이트를 직접 읽고,
+     * 스캐너가 처리할 수 없는 문서(UTF-8이 아닌 인코딩, DTD)이거나 꺼져 있으면 SAX 방식으로 파싱합니다.
+     * 스캐너와 XMLReader는 스레드마다 하나씩 만들어 재사용합니다.
+     *
+     * @param sheetStream 시트 XML(sheetN.xml) 스트림
+     * @param consumer 파싱된 행과 셀을 전달받을 RowConsumer
+     * @param styles 날짜 셀 판별에 사용할 스타일 테이블
+     * @param sst 행 해시 계산에 사용할 공유 문자열 테이블
+     * @return 파싱을 마친 SheetHandler (처리 통계 확인용)
+     * @throws Exception XML 파싱 중 발생할 수 있는 예외
+     */
+    private SheetHandler parseSheet(InputStream sheetStream, RowConsumer consumer, StylesTable styles, SharedStrings sst) throws Exception {
+        // SheetHandler는 XML을 파싱하면서 발생하는 이벤트(요소 시작/종료, 문자 데이터 등)를 처리하여 RowConsumer에 전달합니다.
+        SheetHandler handler = new SheetHandler(consumer, styles, sst);
+
+        long start = System.nanoTime();
+        try {
+            if (byteScanner) {
+                SheetXmlScanner scanner = SheetXmlScanner.forCurrentThread();
+                if (!scanner.scan(sheetStream, handler)) {
+                    // 스캐너가 문서 앞부분에서 이미 읽은 바이트를 포함하여 SAX로 처음부터 다시 파싱합니다.
+                    SaxReaders.parse(scanner.unread(), handler);
+                }
+            } else {
+                SaxReaders.parse(sheetStream, handler);
+            }
+        } catch (Throwable t) {
+            // 호출자가 공유 문자열 테이블을 닫기 전에, 다른 스레드에서 행을 처리하는 소비자(RowPipeline)를 멈춥니다.
+            consumer.abortSheet(t);
+            throw t;
+        }
+        // 셀 단위 지표는 파싱이 끝난 뒤 한 번에 반영합니다.
+        excelMetrics.recordSheetParsed(handler.getRowCount(), handler.getCellCount(), System.nanoTime() - start);
+        return handler;
     }
 
     /**
@@ -142,9 +700,8 @@ public class UploadService {
         // Pattern.compile을 사용하여 해당 경로의 스트림을 가져옵니다.
         InputStream workbookXml = pkg.getPartsByName(Pattern.compile("/xl/workbook.xml")).get(0).getInputStream();
 
-        // XMLReader 생성 및 핸들러 설정 (익명 클래스 사용)
-        XMLReader parser = SAXParserFactory.newInstance().newSAXParser().getXMLReader();
-        parser.setContentHandler(new DefaultHandler() { // 익명 내부 클래스로 DefaultHandler 구현
+        // 핸들러 설정 (익명 클래스 사용)
+        DefaultHandler handler = new DefaultHandler() { // 익명 내부 클래스로 DefaultHandler 구현
 
             /**
              * XML 요소의 시작 태그를 만났을 때 호출됩니다.
@@ -158,10 +715,41 @@ public class UploadService {
                     names.add(attributes.getValue("name"));
                 }
             }
-        });
+        };
 
         // workbook.xml 스트림을 파싱하여 시트 이름을 추출합니다.
-        parser.parse(new InputSource(workbookXml));
+        SaxReaders.parse(workbookXml, handler);
         return names;
     }
+
+    /**
+     * aborted가 설정되면 다음 읽기에서 예외를 던지는 스트림 (다른 시트의 파싱이 실패했을 때 남은 시트 파싱을 빨리 끝내기 위해 사용합니다)
+     */
+    private static final class AbortableInputStream extends FilterInputStream {
+
+        private final AtomicBoolean aborted;
+
+        AbortableInputStream(InputStream in, AtomicBoolean aborted) {
+            super(in);
+            this.aborted = aborted;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkAborted();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkAborted();
+            return super.read(b, off, len);
+        }
+
+        private void checkAborted() throws InterruptedIOException {
+            if (aborted.get()) {
+                throw new InterruptedIOException("다른 시트의 파싱이 실패하여 중단되었습니다");
+            }
+        }
+    }
 }
@@ -0,0 +1,142 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import com.example.apachepoilearning.excel.DelimitedFormat;
+import com.example.apachepoilearning.metrics.ExcelMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 업로드된 파일을 힙에 올리지 않고 임시 파일로 옮겨 저장(spool)합니다.
+ * 저장된 파일은 OPCPackage.open(File, PackageAccess.READ)로 열 수 있으며,
+ * 이 경우 ZIP 항목을 필요할 때마다 파일에서 읽으므로 파일 크기만큼 힙을 사용하지 않습니다.
+ */
+@Component
+public class UploadStagingService {
+
+    // FileChannel.transferFrom 한 번에 옮길 최대 바이트 수
+    private static final long TRANSFER_CHUNK_SIZE = 8L * 1024 * 1024;
+
+    // 임시 파일을 저장할 디렉터리
+    private final Path stagingDir;
+    private final ExcelMetrics excelMetrics;
+
+    public UploadStagingService(@Value("${excel.upload.staging-dir:#{systemProperties['java.io.tmpdir']}}") Path stagingDir,
+                                ExcelMetrics excelMetrics) throws IOException {
+        this.stagingDir = Files.createDirectories(stagingDir);
+        this.excelMetrics = excelMetrics;
+    }
+
+    /**
+     * MultipartFile을 임시 파일로 저장하면서 내용의 MD5 해시를 함께 계산합니다.
+     * 멀티파트 데이터가 이미 디스크에 있는 경우(FileInputStream) 파일 채널 간 전송으로 커널에서 바로 복사됩니다.
+     * 파트의 Content-Type(text/csv, text/tab-separated-values) 또는 파일 확장자(.csv, .tsv, .csv.gz 등)로 CSV/TSV 파일인지 확인하여 기록합니다.
+     *
+     * @param file 업로드된 MultipartFile 객체
+     * @return 저장된 임시 파일 정보
+     * @throws IOException 파일 저장 중 발생할 수 있는 예외
+     */
+    public StagedUpload stage(MultipartFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return stage(inputStream, DelimitedFormat.of(file.getContentType(), file.getOriginalFilename()));
+        }
+    }
+
+    /**
+     * MultipartFile을 해시를 계산하지 않고 임시 파일로 옮깁니다. 파일 앞부분만 읽고 버리는 경우(UploadService.inspect)에 사용합니다.
+     * 서블릿 컨테이너가 멀티파트 데이터를 이미 디스크에 저장했다면 MultipartFile.transferTo(File)가 그 파일을 복사하지 않고 옮기므로,
+     * 파일 크기와 관계없이 바로 끝납니다. (이후에는 같은 MultipartFile을 다시 읽을 수 없습니다)
+     *
+     * @param file 업로드된 MultipartFile 객체
+     * @return 저장된 임시 파일 정보 (contentHash는 null)
+     * @throws IOException 파일 저장 중 발생할 수 있는 예외
+     */
+    public StagedUpload moveToStaging(MultipartFile file) throws IOException {
+        Path stagedFile = Files.createTempFile(stagingDir, "inspect-", ".tmp");
+        try {
+            file.transferTo(stagedFile.toFile());
+            long size = Files.size(stagedFile);
+            excelMetrics.tempFileAllocated(size);
+            return new StagedUpload(stagedFile, size, null, DelimitedFormat.of(file.getContentType(), file.getOriginalFilename()),
+                    excelMetrics);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(stagedFile);
+            throw e;
+        }
+    }
+
+    /**
+     * 입력 스트림을 엑셀 파일(XLSX)로 임시 파일에 저장하면서 내용의 MD5 해시를 함께 계산합니다.
+     *
+     * @param inputStream 저장할 데이터 (호출자가 닫아야 합니다)
+     * @return 저장된 임시 파일 정보
+     * @throws IOException 파일 저장 중 발생할 수 있는 예외
+     */
+    public StagedUpload stage(InputStream inputStream) throws IOException {
+        return stage(inputStream, null);
+    }
+
+    /**
+     * 입력 스트림을 임시 파일로 저장하면서 내용의 MD5 해시를 함께 계산합니다.
+     *
+     * @param inputStream 저장할 데이터 (호출자가 닫아야 합니다)
+     * @param format CSV/TSV 파일이면 그 형식, 엑셀 파일이면 null
+     * @return 저장된 임시 파일 정보
+     * @throws IOException 파일 저장 중 발생할 수 있는 예외
+     */
+    public StagedUpload stage(InputStream inputStream, DelimitedFormat format) throws IOException {
+        Path stagedFile = Files.createTempFile(stagingDir, "upload-", ".tmp");
+        try (FileChannel target = FileChannel.open(stagedFile, StandardOpenOption.WRITE)) {
+            long size;
+            MessageDigest md5 = newMd5();
+            if (inputStream instanceof FileInputStream fileInputStream) {
+                // 멀티파트 임시 파일 -> 스테이징 파일: 파일 채널 간 전송 후, 저장된 파일로 해시를 계산합니다.
+                size = transfer(fileInputStream.getChannel(), target);
+                try (InputStream staged = new DigestInputStream(Files.newInputStream(stagedFile), md5)) {
+                    staged.transferTo(OutputStream.nullOutputStream());
+                }
+            } else {
+                // 그 외의 스트림: 읽는 동안 해시를 계산합니다.
+                DigestInputStream digestInputStream = new DigestInputStream(inputStream, md5);
+                size = transfer(Channels.newChannel(digestInputStream), target);
+            }
+            excelMetrics.tempFileAllocated(size);
+            return new StagedUpload(stagedFile, size, HexFormat.of().formatHex(md5.digest()), format, excelMetrics);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(stagedFile);
+            throw e;
+        }
+    }
+
+    private static long transfer(ReadableByteChannel source, FileChannel target) throws IOException {
+        long position = 0;
+        long transferred;
+        while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK_SIZE)) > 0) {
+            position += transferred;
+        }
+        return position;
+    }
+
+    private static MessageDigest newMd5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import com.example.apachepoilearning.domain.upload.repository.UploadRowHashRepository;
+import com.example.apachepoilearning.domain.upload.repository.UserBatchRepository;
+import com.example.apachepoilearning.entity.UploadRowHash;
+import com.example.apachepoilearning.entity.User;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 업로드된 사용자 데이터를 청크 단위로 커밋합니다.
+ * 한 청크의 INSERT와 체크포인트 갱신이 같은 트랜잭션에서 처리되므로,
+ * 중간에 실패하더라도 체크포인트에 기록된 행까지는 항상 저장되어 있습니다.
+ * 변경분(delta) 업로드에서는 users 변경과 행 해시 색인 갱신이 같은 트랜잭션에서 처리되므로,
+ * 중간에 실패한 뒤 같은 원본을 다시 올리면 아직 반영되지 않은 행만 다시 변경분으로 잡힙니다.
+ */
+@Component
+public class UserChunkWriter {
+
+    private final UserBatchRepository userBatchRepository;
+    private final UploadRowHashRepository uploadRowHashRepository;
+
+    public UserChunkWriter(UserBatchRepository userBatchRepository, UploadRowHashRepository uploadRowHashRepository) {
+        this.userBatchRepository = userBatchRepository;
+        this.uploadRowHashRepository = uploadRowHashRepository;
+    }
+
+    /**
+     * @param sourceKey 업로드 원본을 식별하는 키
+     * @return 완료되지 않은 업로드에서 마지막으로 커밋된 행 인덱스, 기록이 없으면 -1
+     */
+    public int findLastCommittedRow(String sourceKey) {
+        return userBatchRepository.findLastCommittedRow(sourceKey);
+    }
+
+    /**
+     * 사용자 목록을 저장하고 체크포인트를 갱신한 뒤 커밋합니다.
+     * @param sourceKey 업로드 원본을 식별하는 키
+     * @param users 저장할 사용자 목록
+     * @param lastRow 이 청크의 마지막 행 인덱스
+     */
+    @Transactional
+    public void writeChunk(String sourceKey, List<User> users, int lastRow) {
+        if (!users.isEmpty()) {
+            userBatchRepository.insertUsers(users);
+        }
+        userBatchRepository.saveCheckpoint(sourceKey, lastRow);
+    }
+
+    /**
+     * 업로드가 끝까지 저장되었으므로 체크포인트를 지웁니다.
+     * 체크포인트를 남겨 두면 같은 파일을 다시 올렸을 때 모든 행을 이미 커밋된 것으로 보고 아무것도 저장하지 않습니다.
+     * @param sourceKey 업로드 원본을 식별하는 키
+     */
+    public void completeCheckpoint(String sourceKey) {
+        userBatchRepository.deleteCheckpoint(sourceKey);
+    }
+
+    /**
+     * 업로드 원본의 행 해시 색인을 메모리로 읽습니다.
+     * @param sourceName 업로드 원본 이름
+     * @param expectedSize 예상 항목 수 (색인 배열을 미리 이 크기에 맞춰 할당합니다)
+     * @return 색인 (처음 올리는 원본이면 비어 있음)
+     */
+    RowHashIndex loadRowHashIndex(String sourceName, int expectedSize) {
+        RowHashIndex index = new RowHashIndex(Math.max(expectedSize, 1024));
+        uploadRowHashRepository.forEachRowHash(sourceName, index::put);
+        return index;
+    }
+
+    /**
+     * 변경분 업로드의 한 청크를 커밋합니다. 새 행은 INSERT, 내용이 바뀐 행은 UPDATE 하고 행 해시 색인을 갱신합니다.
+     * @param inserts 새로 저장할 사용자 목록
+     * @param insertHashes inserts와 같은 순서의 행 해시 (userId는 INSERT 후 채워집니다)
+     * @param updates id가 채워진, 갱신할 사용자 목록
+     * @param updateHashes updates의 행 해시
+     */
+    @Transactional
+    public void writeDeltaChunk(List<User> inserts, List<UploadRowHash> insertHashes, List<User> updates, List<UploadRowHash> updateHashes) {
+        if (!inserts.isEmpty()) {
+            userBatchRepository.insertUsersReturningIds(inserts);
+            for (int i = 0; i < inserts.size(); i++) {
+                insertHashes.get(i).setUserId(inserts.get(i).getId());
+            }
+            uploadRowHashRepository.upsertRowHashes(insertHashes);
+        }
+        if (!updates.isEmpty()) {
+            userBatchRepository.updateUsers(updates);
+            uploadRowHashRepository.upsertRowHashes(updateHashes);
+        }
+    }
+
+    /**
+     * 시트에서 사라진 행을 users와 행 해시 색인에서 삭제하고 커밋합니다.
+     * @param sourceName 업로드 원본 이름
+     * @param rowKeys 삭제할 행의 키 해시
+     * @param userIds rowKeys와 같은 순서의 users.id
+     * @param count 배열 중 사용할 개수
+     */
+    @Transactional
+    public void deleteDeltaRows(String sourceName, long[] rowKeys, long[] userIds, int count) {
+        userBatchRepository.deleteUsers(userIds, count);
+        uploadRowHashRepository.deleteRowHashes(sourceName, rowKeys, count);
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import com.example.apachepoilearning.entity.UploadRowHash;
+import com.example.apachepoilearning.entity.User;
+import com.example.apachepoilearning.metrics.ExcelMetrics;
+import org.apache.poi.xssf.model.SharedStrings;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 변경분(delta) 업로드: SheetHandler가 계산한 행 해시를 이전 업로드의 색인과 비교하여, 바뀐 행만 User로 변환해 저장합니다.
+ * 시트 형식은 UserRowConsumer와 같으며, 행은 이메일 열의 값으로 식별합니다.
+ *
+ * 셀 값은 변환하지 않고 재사용하는 RowBuffer에 복사만 해 두었다가, 행이 끝났을 때 해시를 비교합니다.
+ * - 색인에 없는 키: INSERT
+ * - 키는 있고 행 해시가 다름: UPDATE (색인의 users.id 사용)
+ * - 키와 행 해시가 같음: 변환, 저장 없이 건너뜀
+ * - 시트가 끝날 때까지 나타나지 않은 키: DELETE (finish에서 처리)
+ * - 이메일이 비어 있거나 없는 행: 행을 식별할 수 없으므로 저장하지 않고 missingKeys로 집계
+ * - 값을 필드 타입으로 변환할 수 없는 행 (나이 열의 "abc" 등): 저장하지 않고 rejected로 집계
+ * 따라서 바뀌지 않은 행은 파싱과 해시 계산 비용만 듭니다.
+ */
+public class UserDeltaConsumer implements RowConsumer {
+
+    // 행을 식별하는 키 열: 이메일 (User의 @ExcelColumn(index = 2))
+    private static final int KEY_COLUMN = 2;
+    private static final int[] KEY_COLUMNS = {KEY_COLUMN};
+    // 첫 번째 행(0)은 헤더입니다.
+    private static final int FIRST_DATA_ROW = 1;
+
+    private final SharedStrings sst;
+    private final String sourceName;
+    private final RowHashIndex index;
+    private final UserChunkWriter writer;
+    private final int batchSize;
+    private final ImportProgress progress;
+    private final ExcelMetrics excelMetrics;
+    // 바뀐 행만 User로 변환합니다.
+    private final UserRowMapper mapper;
+
+    // 현재 행의 셀 값 (행마다 재사용)
+    private final RowBuffer row = new RowBuffer();
+    private boolean dataRow;
+
+    private final List<User> inserts;
+    private final List<UploadRowHash> insertHashes;
+    private final List<User> updates;
+    private final List<UploadRowHash> updateHashes;
+
+    // 처리 결과
+    private long inserted;
+    private long updated;
+    private long deleted;
+    private long unchanged;
+    private long duplicates;
+    private long missingKeys;
+    private long rejected;
+
+    /**
+     * @param sst 공유 문자열 테이블
+     * @param sourceName 업로드 원본 이름
+     * @param index 이전 업로드까지의 행 해시 색인
+     * @param writer 청크 저장을 담당하는 UserChunkWriter
+     * @param batchSize 한 번에 커밋할 변경 행 수
+     * @param progress 변환, 저장된 행 수를 기록할 진행 상황 객체
+     * @param excelMetrics 청크 저장 시간을 기록할 지표
+     */
+    UserDeltaConsumer(SharedStrings sst, String sourceName, RowHashIndex index, UserChunkWriter writer, int batchSize,
+                      ImportProgress progress, ExcelMetrics excelMetrics) {
+        this.sst = sst;
+        this.sourceName = sourceName;
+        this.index = index;
+        this.writer = writer;
+        this.batchSize = batchSize;
+        this.progress = progress;
+        this.excelMetrics = excelMetrics;
+        this.mapper = new UserRowMapper(sst, -1, progress);
+        this.inserts = new ArrayList<>(batchSize);
+        this.insertHashes = new ArrayList<>(batchSize);
+        this.updates = new ArrayList<>(batchSize);
+        this.updateHashes = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public int[] rowKeyColumns() {
+        return KEY_COLUMNS;
+    }
+
+    @Override
+    public void startRow(int rowIndex) {
+        dataRow = rowIndex >= FIRST_DATA_ROW;
+        if (dataRow) {
+            row.start(rowIndex, 0);
+        }
+    }
+
+    @Override
+    public void numericCell(int columnIndex, double value) {
+        if (dataRow) {
+            row.addNumber(columnIndex, RowBuffer.Kind.NUMERIC, value);
+        }
+    }
+
+    @Override
+    public void dateCell(int columnIndex, double excelDate) {
+        if (dataRow) {
+            row.addNumber(columnIndex, RowBuffer.Kind.DATE, excelDate);
+        }
+    }
+
+    @Override
+    public void sharedStringCell(int columnIndex, int sharedStringIndex) {
+        if (dataRow) {
+            row.addNumber(columnIndex, RowBuffer.Kind.SHARED_STRING, sharedStringIndex);
+        }
+    }
+
+    @Override
+    public void inlineStringCell(int columnIndex, CharSequence value) {
+        if (dataRow) {
+            row.addText(columnIndex, RowBuffer.Kind.INLINE_STRING, value);
+        }
+    }
+
+    @Override
+    public void booleanCell(int columnIndex, boolean value) {
+        if (dataRow) {
+            row.addNumber(columnIndex, RowBuffer.Kind.BOOLEAN, value ? 1 : 0);
+        }
+    }
+
+    @Override
+    public void rowHash(int rowIndex, long keyHash, long rowHash) {
+        // 헤더 행과 값이 없는 행은 비교하지 않습니다.
+        if (!dataRow || row.size() == 0) {
+            return;
+        }
+        // 이메일이 없는 행은 모두 같은 키 해시를 가지므로, 비교하면 첫 행만 저장되고 나머지는 중복으로 잘못 집계됩니다.
+        if (!hasKey()) {
+            missingKeys++;
+            progress.addRowsParsed(1);
+            return;
+        }
+
+        int slot = index.find(keyHash);
+        if (slot >= 0 && !index.markSeen(slot)) {
+            // 같은 키(이메일)가 시트 안에 두 번 이상 나오면 처음 나온 행만 반영합니다.
+            duplicates++;
+            progress.addRowsParsed(1);
+            return;
+        }
+        if (slot >= 0 && index.rowHash(slot) == rowHash) {
+            unchanged++;
+            progress.addRowsParsed(1);
+            return;
+        }
+
+        User user = mapper.map(row);
+        if (user == null) {
+            // 값을 변환할 수 없는 행은 반영하지 않습니다. 기존 행이면 seen으로 표시되어 있으므로 삭제되지도 않습니다.
+            rejected++;
+            return;
+        }
+        if (slot >= 0) {
+            user.setId(index.userId(slot));
+            updates.add(user);
+            updateHashes.add(new UploadRowHash(sourceName, keyHash, rowHash, index.userId(slot)));
+        } else {
+            // 시트 안에서 같은 키가 다시 나오면 중복으로 처리되도록 색인에 넣어 둡니다. (users.id는 INSERT 후에 정해짐)
+            index.markSeen(index.put(keyHash, rowHash, 0));
+            inserts.add(user);
+            insertHashes.add(new UploadRowHash(sourceName, keyHash, rowHash, 0));
+        }
+        if (inserts.size() + updates.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * @return 현재 행의 키 열(이메일)에 공백이 아닌 값이 있으면 true
+     */
+    private boolean hasKey() {
+        for (int i = 0; i < row.size(); i++) {
+            if (row.column(i) != KEY_COLUMN) {
+                continue;
+            }
+            return switch (row.kind(i)) {
+                case SHARED_STRING -> !isBlank(MappedSharedStrings.resolve(sst, row.sharedStringIndex(i)));
+                case INLINE_STRING -> !isBlank(row.text(i));
+                default -> true;
+            };
+        }
+        return false;
+    }
+
+    private static boolean isBlank(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isWhitespace(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 남은 변경 행을 저장하고, 이번 시트에 나타나지 않은 행을 삭제합니다. 파싱이 끝난 뒤 반드시 호출해야 합니다.
+     */
+    public void finish() {
+        if (!inserts.isEmpty() || !updates.isEmpty()) {
+            flush();
+        }
+
+        long[] rowKeys = new long[batchSize];
+        long[] userIds = new long[batchSize];
+        int[] count = new int[1];
+        index.forEachUnseen((rowKey, userId) -> {
+            rowKeys[count[0]] = rowKey;
+            userIds[count[0]] = userId;
+            if (++count[0] == batchSize) {
+                delete(rowKeys, userIds, count[0]);
+                count[0] = 0;
+            }
+        });
+        if (count[0] > 0) {
+            delete(rowKeys, userIds, count[0]);
+        }
+    }
+
+    private void flush() {
+        long start = System.nanoTime();
+        int rows = inserts.size() + updates.size();
+        writer.writeDeltaChunk(inserts, insertHashes, updates, updateHashes);
+        excelMetrics.recordPersist(rows, System.nanoTime() - start);
+        progress.addRowsPersisted(rows);
+        inserted += inserts.size();
+        updated += updates.size();
+        inserts.clear();
+        insertHashes.clear();
+        updates.clear();
+        updateHashes.clear();
+    }
+
+    private void delete(long[] rowKeys, long[] userIds, int count) {
+        long start = System.nanoTime();
+        writer.deleteDeltaRows(sourceName, rowKeys, userIds, count);
+        excelMetrics.recordPersist(count, System.nanoTime() - start);
+        progress.addRowsPersisted(count);
+        deleted += count;
+    }
+
+    /**
+     * @return 처리 결과 (finish 호출 후)
+     */
+    public UserDeltaImportResult result() {
+        return new UserDeltaImportResult(sourceName, progress.getRowsParsed(), inserted, updated, deleted, unchanged, duplicates,
+                missingKeys, rejected);
+    }
+}
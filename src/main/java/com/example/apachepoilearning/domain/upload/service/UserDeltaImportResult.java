@@ -0,0 +1,18 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+/**
+ * 변경분(delta) 업로드 결과
+ *
+ * @param sourceName 업로드 원본 이름
+ * @param rowsParsed 시트의 데이터 행 수
+ * @param inserted 새로 저장한 행 수
+ * @param updated 내용이 바뀌어 갱신한 행 수
+ * @param deleted 시트에서 사라져 삭제한 행 수
+ * @param unchanged 바뀌지 않아 건너뛴 행 수
+ * @param duplicates 키(이메일)가 중복되어 건너뛴 행 수
+ * @param missingKeys 키(이메일)가 비어 있거나 없어 건너뛴 행 수
+ * @param rejected 값을 필드 타입으로 변환할 수 없어 건너뛴 행 수
+ */
+public record UserDeltaImportResult(String sourceName, long rowsParsed, long inserted, long updated, long deleted,
+                                    long unchanged, long duplicates, long missingKeys, long rejected) {
+}
@@ -0,0 +1,14 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+/**
+ * 사용자 업로드(저장) 결과
+ *
+ * @param sourceKey 업로드 원본을 식별하는 키 (파일 내용의 해시)
+ * @param resumedAfterRow 이전 업로드에서 이미 커밋되어 건너뛴 마지막 행 인덱스 (처음부터 저장했다면 -1)
+ * @param rowsParsed 이번 업로드에서 변환한 데이터 행 수
+ * @param rowsPersisted 이번 업로드에서 저장한 행 수
+ * @param rowsRejected 값을 필드 타입으로 변환할 수 없어 건너뛴 행 수
+ */
+public record UserImportResult(String sourceKey, int resumedAfterRow, long rowsParsed, long rowsPersisted,
+                               long rowsRejected) {
+}
@@ -0,0 +1,139 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import com.example.apachepoilearning.entity.User;
+import com.example.apachepoilearning.excel.ExcelRowMapper;
+import com.example.apachepoilearning.metrics.ExcelMetrics;
+import org.apache.poi.xssf.model.SharedStrings;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SAX로 파싱된 행을 User로 변환하여 batchSize 개씩 모아 UserChunkWriter로 저장합니다.
+ * 시트 형식은 다운로드 파일의 "User List" 시트와 같습니다. (ID, 이름, 이메일, 나이 / 첫 행은 헤더)
+ * 셀과 필드의 대응은 User의 @ExcelColumn 정보(ExcelRowMapper)를 따르며, ID 열은 데이터베이스에서 생성되므로 사용하지 않습니다.
+ */
+public class UserRowConsumer implements RowConsumer {
+
+    private static final ExcelRowMapper<User> MAPPER = ExcelRowMapper.of(User.class);
+    // 첫 번째 행(0)은 헤더입니다.
+    private static final int FIRST_DATA_ROW = 1;
+
+    private final SharedStrings sst;
+    private final UserChunkWriter writer;
+    private final String sourceKey;
+    private final int batchSize;
+    // 이 행 인덱스까지는 이전 업로드에서 이미 커밋되었으므로 건너뜁니다.
+    private final int resumeAfterRow;
+
+    // 진행 상황 (다른 스레드에서 조회할 수 있음)
+    private final ImportProgress progress;
+    private final ExcelMetrics excelMetrics;
+
+    private final List<User> chunk;
+    private User current;
+    // 현재 행에 필드 타입으로 변환할 수 없는 값이 있었는지 여부
+    private boolean rejected;
+    private int lastRow = -1;
+
+    /**
+     * @param sst 공유 문자열 테이블
+     * @param writer 청크 저장을 담당하는 UserChunkWriter
+     * @param sourceKey 업로드 원본을 식별하는 키
+     * @param batchSize 한 번에 커밋할 행 수
+     * @param resumeAfterRow 이미 커밋된 마지막 행 인덱스 (처음부터 저장하려면 -1)
+     * @param progress 변환, 저장된 행 수를 기록할 진행 상황 객체
+     * @param excelMetrics 청크 저장 시간을 기록할 지표
+     */
+    public UserRowConsumer(SharedStrings sst, UserChunkWriter writer, String sourceKey, int batchSize, int resumeAfterRow,
+                           ImportProgress progress, ExcelMetrics excelMetrics) {
+        this.sst = sst;
+        this.writer = writer;
+        this.sourceKey = sourceKey;
+        this.batchSize = batchSize;
+        this.resumeAfterRow = resumeAfterRow;
+        this.progress = progress;
+        this.excelMetrics = excelMetrics;
+        this.chunk = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void startRow(int rowIndex) {
+        // 헤더 행과 이미 커밋된 행은 User를 만들지 않습니다.
+        current = rowIndex >= FIRST_DATA_ROW && rowIndex > resumeAfterRow ? MAPPER.newInstance() : null;
+        rejected = false;
+    }
+
+    @Override
+    public void numericCell(int columnIndex, double value) {
+        if (current != null) {
+            MAPPER.setNumber(current, columnIndex, value);
+        }
+    }
+
+    @Override
+    public void dateCell(int columnIndex, double excelDate) {
+        if (current != null) {
+            MAPPER.setDate(current, columnIndex, excelDate);
+        }
+    }
+
+    @Override
+    public void sharedStringCell(int columnIndex, int sharedStringIndex) {
+        // 매핑된 열일 때만 공유 문자열 테이블을 조회합니다.
+        if (current != null && MAPPER.isMapped(columnIndex)) {
+            rejected |= !MAPPER.setString(current, columnIndex, MappedSharedStrings.resolve(sst, sharedStringIndex));
+        }
+    }
+
+    @Override
+    public void inlineStringCell(int columnIndex, CharSequence value) {
+        if (current != null) {
+            rejected |= !MAPPER.setText(current, columnIndex, value);
+        }
+    }
+
+    @Override
+    public void booleanCell(int columnIndex, boolean value) {
+        if (current != null) {
+            MAPPER.setBoolean(current, columnIndex, value);
+        }
+    }
+
+    @Override
+    public void endRow(int rowIndex) {
+        if (current == null) {
+            return;
+        }
+        if (rejected) {
+            // 나이 열에 숫자가 아닌 문자열이 있는 행처럼 값을 변환할 수 없는 행은 저장하지 않습니다.
+            progress.addRowsRejected(1);
+            current = null;
+            return;
+        }
+        progress.addRowsParsed(1);
+        chunk.add(current);
+        current = null;
+        lastRow = rowIndex;
+        if (chunk.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * 아직 저장하지 않은 나머지 행을 저장합니다. 파싱이 끝난 뒤 반드시 호출해야 합니다.
+     */
+    public void finish() {
+        if (!chunk.isEmpty()) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        long start = System.nanoTime();
+        writer.writeChunk(sourceKey, chunk, lastRow);
+        excelMetrics.recordPersist(chunk.size(), System.nanoTime() - start);
+        progress.addRowsPersisted(chunk.size());
+        chunk.clear();
+    }
+}
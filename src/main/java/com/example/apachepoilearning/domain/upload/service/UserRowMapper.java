@@ -0,0 +1,65 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import com.example.apachepoilearning.entity.User;
+import com.example.apachepoilearning.excel.ExcelRowMapper;
+import org.apache.poi.xssf.model.SharedStrings;
+
+/**
+ * RowPipeline의 워커에서 행 버퍼를 User로 변환합니다.
+ * 시트 형식은 UserRowConsumer와 같습니다. (ID, 이름, 이메일, 나이 / 첫 행은 헤더, User의 @ExcelColumn 정보를 따름)
+ * 상태를 가지지 않으므로 여러 워커가 동시에 사용할 수 있습니다.
+ */
+public class UserRowMapper implements RowMapper<User> {
+
+    private static final ExcelRowMapper<User> MAPPER = ExcelRowMapper.of(User.class);
+    // 첫 번째 행(0)은 헤더입니다.
+    private static final int FIRST_DATA_ROW = 1;
+
+    private final SharedStrings sst;
+    // 이 행 인덱스까지는 이전 업로드에서 이미 커밋되었으므로 건너뜁니다.
+    private final int resumeAfterRow;
+    private final ImportProgress progress;
+
+    /**
+     * @param sst 공유 문자열 테이블 (여러 스레드에서 읽어도 안전해야 합니다)
+     * @param resumeAfterRow 이미 커밋된 마지막 행 인덱스 (처음부터 저장하려면 -1)
+     * @param progress 변환된 행 수를 기록할 진행 상황 객체
+     */
+    public UserRowMapper(SharedStrings sst, int resumeAfterRow, ImportProgress progress) {
+        this.sst = sst;
+        this.resumeAfterRow = resumeAfterRow;
+        this.progress = progress;
+    }
+
+    @Override
+    public User map(RowBuffer row) {
+        // 헤더 행과 이미 커밋된 행은 User를 만들지 않습니다.
+        if (row.rowIndex() < FIRST_DATA_ROW || row.rowIndex() <= resumeAfterRow) {
+            return null;
+        }
+        User user = MAPPER.newInstance();
+        boolean converted = true;
+        for (int i = 0; i < row.size(); i++) {
+            int column = row.column(i);
+            if (!MAPPER.isMapped(column)) {
+                continue;
+            }
+            switch (row.kind(i)) {
+                case NUMERIC -> MAPPER.setNumber(user, column, row.number(i));
+                case DATE -> MAPPER.setDate(user, column, row.number(i));
+                case SHARED_STRING -> converted &= MAPPER.setString(user, column, MappedSharedStrings.resolve(sst, row.sharedStringIndex(i)));
+                case INLINE_STRING -> converted &= MAPPER.setText(user, column, row.text(i));
+                case BOOLEAN -> MAPPER.setBoolean(user, column, row.bool(i));
+                case ERROR -> {
+                }
+            }
+        }
+        if (!converted) {
+            // 나이 열에 숫자가 아닌 문자열이 있는 행처럼 값을 변환할 수 없는 행은 저장하지 않습니다.
+            progress.addRowsRejected(1);
+            return null;
+        }
+        progress.addRowsParsed(1);
+        return user;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import java.util.List;
+
+/**
+ * 업로드 파일을 끝까지 읽지 않고 확인한 워크북 정보 (WorkbookInspector 참고)
+ *
+ * @param fileSize 파일 크기 (바이트)
+ * @param sharedStringsSize 압축을 푼 sharedStrings.xml 크기 (바이트, 공유 문자열이 없으면 0, 알 수 없으면 -1)
+ * @param sheets 시트 순서대로 정렬된 시트별 정보
+ */
+public record WorkbookInspection(long fileSize, long sharedStringsSize, List<SheetInspection> sheets) {
+
+    /**
+     * @return 첫 번째 시트 (시트가 없으면 null)
+     */
+    public SheetInspection firstSheet() {
+        return sheets.isEmpty() ? null : sheets.get(0);
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import com.example.apachepoilearning.excel.DelimitedFormat;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 업로드 파일의 시트 이름, 행/열 범위, 헤더와 열 종류를 파일 앞부분만 읽어 확인합니다.
+ * - workbook.xml: 시트 이름과 순서
+ * - 시트 XML: sheetData 앞의 dimension 요소와 첫 행부터 sampleRows 개의 행 (그 뒤는 압축도 풀지 않습니다)
+ * - sharedStrings.xml: 앞부분 행이 참조하는 가장 큰 인덱스까지만 (전체 크기는 zip 항목 정보로 확인)
+ * 시트 XML 전체나 공유 문자열 테이블 전체를 읽지 않으므로, 파일 크기와 관계없이 수 밀리초 안에 끝납니다.
+ * CSV/TSV 파일은 앞부분 레코드만 읽어 시트 하나짜리 워크북 정보로 만듭니다. (inspectDelimited 참고)
+ */
+final class WorkbookInspector {
+
+    // dimension 없이 행 수를 어림할 때 사용하는 셀 하나의 평균 XML 크기 (<c r="B2" s="1" t="s"><v>12</v></c>)
+    static final int ESTIMATED_CELL_BYTES = 32;
+
+    private WorkbookInspector() {
+    }
+
+    /**
+     * @param pkg 열려있는 OPCPackage 객체
+     * @param fileSize 파일 크기 (바이트)
+     * @param sampleRows 헤더 다음에 읽을 행 수
+     * @return 워크북 정보
+     * @throws Exception XML 파싱 및 파일 접근 중 발생할 수 있는 예외
+     */
+    static WorkbookInspection inspect(OPCPackage pkg, long fileSize, int sampleRows) throws Exception {
+        XSSFReader xssfReader = new XSSFReader(pkg);
+        // 스타일 테이블은 날짜 열을 구분하는 데 필요하며, 시트 크기와 관계없이 작습니다.
+        StylesTable styles = xssfReader.getStylesTable();
+
+        List<SheetSample> samples = new ArrayList<>();
+        XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+        int maxSharedString = -1;
+        while (sheets.hasNext()) {
+            SheetSample sample = new SheetSample(sampleRows + 1);
+            try (InputStream sheetStream = sheets.next()) {
+                sample.parse(sheetStream, styles);
+            }
+            sample.sheetName = sheets.getSheetName();
+            sample.xmlSize = sheets.getSheetPart().getSize();
+            maxSharedString = Math.max(maxSharedString, sample.maxSharedString);
+            samples.add(sample);
+        }
+
+        String[] sharedStrings = readSharedStrings(pkg, maxSharedString);
+        List<SheetInspection> inspections = new ArrayList<>(samples.size());
+        for (int i = 0; i < samples.size(); i++) {
+            inspections.add(samples.get(i).toInspection(i, sharedStrings));
+        }
+        List<PackagePart> sharedStringsParts = pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+        long sharedStringsSize = sharedStringsParts.isEmpty() ? 0 : sharedStringsParts.get(0).getSize();
+        return new WorkbookInspection(fileSize, sharedStringsSize, inspections);
+    }
+
+    /**
+     * CSV/TSV 텍스트의 첫 레코드부터 sampleRows + 1개의 레코드만 읽어 시트 하나짜리 워크북 정보를 만듭니다.
+     * 구분자 텍스트에는 dimension이 없으므로 행 범위는 모르는 것(lastRow가 -1)으로 보고, 시트 이름은 형식의 확장자(예: "csv")입니다.
+     *
+     * @param delimited UTF-8 텍스트 스트림 (압축되어 있으면 호출하는 쪽에서 풀어서 전달합니다)
+     * @param format 구분자 형식
+     * @param fileSize 파일 크기 (바이트)
+     * @param textSize 압축을 푼 텍스트 크기 (바이트, 모르면 -1)
+     * @param sampleRows 헤더 다음에 읽을 행 수
+     * @return 워크북 정보 (공유 문자열이 없으므로 sharedStringsSize는 0)
+     * @throws Exception 입출력 오류 또는 형식 오류
+     */
+    static WorkbookInspection inspectDelimited(InputStream delimited, DelimitedFormat format, long fileSize, long textSize,
+                                               int sampleRows) throws Exception {
+        SheetSample sample = new SheetSample(sampleRows + 1);
+        try {
+            DelimitedScanner.forCurrentThread().scan(delimited, format, new SheetHandler(sample));
+        } catch (StopParsing ignored) {
+            // 필요한 레코드를 모두 읽었으므로 나머지 텍스트는 읽지 않습니다.
+        }
+        sample.sheetName = format.extension();
+        sample.xmlSize = textSize;
+        return new WorkbookInspection(fileSize, 0, List.of(sample.toInspection(0, new String[0])));
+    }
+
+    /**
+     * sharedStrings.xml을 앞에서부터 읽어 maxIndex 번째 문자열까지만 반환합니다.
+     * 엑셀과 POI는 공유 문자열을 시트에 처음 나온 순서대로 기록하므로, 앞부분 행이 참조하는 문자열은 보통 파일 앞쪽에 있습니다.
+     */
+    private static String[] readSharedStrings(OPCPackage pkg, int maxIndex) throws Exception {
+        if (maxIndex < 0) {
+            return new String[0];
+        }
+        List<PackagePart> parts = pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+        if (parts.isEmpty()) {
+            return new String[0];
+        }
+
+        List<String> strings = new ArrayList<>(maxIndex + 1);
+        DefaultHandler handler = new DefaultHandler() {
+            private final StringBuilder text = new StringBuilder();
+            private boolean collecting;
+            private boolean inPhonetic;
+
+            @Override
+            public void startElement(String uri, String localName, String name, Attributes attributes) {
+                switch (name) {
+                    case "si" -> text.setLength(0);
+                    case "t" -> collecting = !inPhonetic;
+                    case "rPh" -> inPhonetic = true;
+                    default -> {
+                    }
+                }
+            }
+
+            @Override
+            public void characters(char[] ch, int start, int length) {
+                if (collecting) {
+                    text.append(ch, start, length);
+                }
+            }
+
+            @Override
+            public void endElement(String uri, String localName, String name) {
+                switch (name) {
+                    case "t" -> collecting = false;
+                    case "rPh" -> inPhonetic = false;
+                    case "si" -> {
+                        strings.add(text.toString());
+                        if (strings.size() > maxIndex) {
+                            throw StopParsing.INSTANCE;
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        };
+        try (InputStream sharedStringsXml = parts.get(0).getInputStream()) {
+            SaxReaders.parse(sharedStringsXml, handler);
+        } catch (StopParsing ignored) {
+            // 필요한 문자열을 모두 읽었습니다.
+        }
+        return strings.toArray(String[]::new);
+    }
+
+    /**
+     * 시트 XML의 앞부분을 읽은 결과
+     * SheetHandler로 셀 값을 받아 RowBuffer에 담아 두고, 공유 문자열은 모든 시트를 읽은 뒤 한 번에 조회합니다.
+     */
+    private static final class SheetSample implements RowConsumer {
+
+        private final int maxRows;
+        private final List<RowBuffer> rows = new ArrayList<>();
+        private RowBuffer current;
+
+        private String sheetName;
+        private String dimension;
+        private long xmlSize;
+        private int maxSharedString = -1;
+
+        SheetSample(int maxRows) {
+            this.maxRows = maxRows;
+        }
+
+        void parse(InputStream sheetStream, StylesTable styles) throws Exception {
+            SheetHandler handler = new SheetHandler(this, styles) {
+                @Override
+                public void startElement(String uri, String localName, String name, Attributes attributes) {
+                    // dimension은 sheetData보다 앞에 있습니다.
+                    if ("dimension".equals(name)) {
+                        dimension = attributes.getValue("ref");
+                    }
+                    super.startElement(uri, localName, name, attributes);
+                }
+            };
+            try {
+                SaxReaders.parse(sheetStream, handler);
+            } catch (StopParsing ignored) {
+                // 필요한 행을 모두 읽었으므로 나머지 시트 XML은 읽지 않습니다.
+            }
+        }
+
+        @Override
+        public void startRow(int rowIndex) {
+            current = new RowBuffer();
+            current.start(rowIndex, rows.size());
+        }
+
+        @Override
+        public void numericCell(int columnIndex, double value) {
+            current.addNumber(columnIndex, RowBuffer.Kind.NUMERIC, value);
+        }
+
+        @Override
+        public void dateCell(int columnIndex, double excelDate) {
+            current.addNumber(columnIndex, RowBuffer.Kind.DATE, excelDate);
+        }
+
+        @Override
+        public void sharedStringCell(int columnIndex, int sharedStringIndex) {
+            current.addNumber(columnIndex, RowBuffer.Kind.SHARED_STRING, sharedStringIndex);
+            maxSharedString = Math.max(maxSharedString, sharedStringIndex);
+        }
+
+        @Override
+        public void inlineStringCell(int columnIndex, CharSequence value) {
+            current.addText(columnIndex, RowBuffer.Kind.INLINE_STRING, value);
+        }
+
+        @Override
+        public void booleanCell(int columnIndex, boolean value) {
+            current.addNumber(columnIndex, RowBuffer.Kind.BOOLEAN, value ? 1 : 0);
+        }
+
+        @Override
+        public void errorCell(int columnIndex, CharSequence errorCode) {
+            current.addText(columnIndex, RowBuffer.Kind.ERROR, errorCode);
+        }
+
+        @Override
+        public void endRow(int rowIndex) {
+            rows.add(current);
+            if (rows.size() >= maxRows) {
+                throw StopParsing.INSTANCE;
+            }
+        }
+
+        SheetInspection toInspection(int sheetIndex, String[] sharedStrings) {
+            int sampledLastRow = -1;
+            int sampledLastColumn = -1;
+            for (RowBuffer row : rows) {
+                sampledLastRow = Math.max(sampledLastRow, row.rowIndex());
+                for (int i = 0; i < row.size(); i++) {
+                    sampledLastColumn = Math.max(sampledLastColumn, row.column(i));
+                }
+            }
+
+            // dimension이 없거나, 실제 행이 범위를 벗어나면(갱신되지 않은 "A1" 등) 범위를 모르는 것으로 봅니다.
+            int lastRow = -1;
+            int lastColumn = sampledLastColumn;
+            if (dimension != null && !dimension.isEmpty()) {
+                CellRangeAddress range = CellRangeAddress.valueOf(dimension);
+                if (range.getLastRow() >= sampledLastRow && range.getLastColumn() >= sampledLastColumn) {
+                    lastRow = range.getLastRow();
+                    lastColumn = range.getLastColumn();
+                }
+            }
+
+            // 열 정보: 첫 행은 헤더, 나머지 행으로 값 종류를 판별합니다.
+            String[] headers = new String[lastColumn + 1];
+            ColumnInspection.Type[] types = new ColumnInspection.Type[lastColumn + 1];
+            Arrays.fill(types, ColumnInspection.Type.EMPTY);
+            List<List<String>> sampleValues = new ArrayList<>(rows.size());
+            for (int r = 0; r < rows.size(); r++) {
+                RowBuffer row = rows.get(r);
+                String[] values = new String[lastColumn + 1];
+                for (int i = 0; i < row.size(); i++) {
+                    int column = row.column(i);
+                    if (column > lastColumn) {
+                        continue;
+                    }
+                    values[column] = format(row, i, sharedStrings);
+                    if (r == 0) {
+                        headers[column] = values[column];
+                    } else if (row.kind(i) != RowBuffer.Kind.ERROR) {
+                        types[column] = types[column].merge(typeOf(row, i));
+                    }
+                }
+                sampleValues.add(Arrays.asList(values));
+            }
+
+            List<ColumnInspection> columns = new ArrayList<>(lastColumn + 1);
+            for (int column = 0; column <= lastColumn; column++) {
+                columns.add(new ColumnInspection(column, headers[column], types[column]));
+            }
+            return new SheetInspection(sheetIndex, sheetName, dimension, lastRow, lastColumn, xmlSize, columns, sampleValues);
+        }
+
+        private static ColumnInspection.Type typeOf(RowBuffer row, int i) {
+            return switch (row.kind(i)) {
+                case NUMERIC -> row.number(i) == Math.rint(row.number(i)) ? ColumnInspection.Type.INTEGER : ColumnInspection.Type.NUMBER;
+                case DATE -> ColumnInspection.Type.DATE;
+                case BOOLEAN -> ColumnInspection.Type.BOOLEAN;
+                default -> ColumnInspection.Type.STRING;
+            };
+        }
+
+        private static String format(RowBuffer row, int i, String[] sharedStrings) {
+            return switch (row.kind(i)) {
+                case NUMERIC -> {
+                    double value = row.number(i);
+                    yield value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+                }
+                case DATE -> {
+                    LocalDateTime date = DateUtil.getLocalDateTime(row.number(i));
+                    yield date.toLocalTime().toSecondOfDay() == 0 ? date.toLocalDate().toString() : date.toString();
+                }
+                case SHARED_STRING -> {
+                    int index = row.sharedStringIndex(i);
+                    yield index < sharedStrings.length ? sharedStrings[index] : null;
+                }
+                case BOOLEAN -> row.bool(i) ? "TRUE" : "FALSE";
+                case INLINE_STRING, ERROR -> row.text(i).toString();
+            };
+        }
+    }
+
+    /**
+     * 필요한 만큼 읽은 뒤 SAX 파싱을 중단하기 위한 예외 (스택 트레이스를 만들지 않습니다)
+     */
+    private static final class StopParsing extends RuntimeException {
+
+        static final StopParsing INSTANCE = new StopParsing();
+
+        private StopParsing() {
+            super(null, null, false, false);
+        }
+    }
+}
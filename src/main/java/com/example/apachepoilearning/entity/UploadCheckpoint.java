@@ -0,0 +1,32 @@
+package com.example.apachepoilearning.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 업로드 파일별로 마지막으로 커밋된 행 위치를 기록합니다.
+ * 중간에 실패한 파일을 다시 업로드하면 이 위치 다음 행부터 이어서 저장합니다.
+ * 파일을 끝까지 저장하면 기록을 지우므로, 남아 있는 기록은 모두 완료되지 않은 업로드입니다.
+ */
+@Entity
+@Table(name = "upload_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadCheckpoint {
+
+    // 업로드 원본을 식별하는 키 (파일 내용의 해시)
+    @Id
+    @Column(length = 64)
+    private String sourceKey;
+    // 마지막으로 커밋된 행 인덱스 (0부터 시작)
+    private int lastRow;
+    private LocalDateTime updatedAt;
+
+}
@@ -0,0 +1,47 @@
+package com.example.apachepoilearning.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * 변경분(delta) 업로드를 위한 행 해시 색인
+ * 업로드 원본(source)마다, 마지막으로 반영한 시트의 행별 키 해시, 행 해시와 그 행이 저장된 users.id를 기록합니다.
+ * 같은 원본을 다시 업로드하면 행 해시가 달라진 행만 저장하고, 시트에서 사라진 행은 삭제합니다.
+ */
+@Entity
+@Table(name = "upload_row_hashes")
+@IdClass(UploadRowHash.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadRowHash {
+
+    // 업로드 원본 이름 (매일 같은 시트를 올리는 경우 파일 내용이 아닌 이름으로 식별)
+    @Id
+    @Column(length = 200)
+    private String sourceName;
+    // 키 열 값의 64비트 해시
+    @Id
+    private long rowKey;
+    // 행 전체 셀 값의 64비트 해시
+    private long rowHash;
+    // 이 행이 저장된 users.id
+    private long userId;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String sourceName;
+        private long rowKey;
+    }
+}
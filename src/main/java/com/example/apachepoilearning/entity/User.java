@@ -1,7 +1,7 @@
 package com.example.apachepoilearning.entity;
 
+import com.example.apachepoilearning.excel.ExcelColumn;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -11,14 +11,29 @@ import lombok.Setter;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class User {
 
+    // 엑셀 열 매핑: ID, 이름, 이메일, 나이 (ID는 데이터베이스에서 생성되므로 업로드할 때 읽지 않습니다)
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ExcelColumn(index = 0, header = "ID", importable = false)
     private Long id;
+    @ExcelColumn(index = 1, header = "이름")
     private String name;
+    @ExcelColumn(index = 2, header = "이메일")
     private String email;
+    @ExcelColumn(index = 3, header = "나이")
     private int age;
+    // 행이 수정될 때마다 1씩 증가합니다. (UserBatchRepository.updateUsers)
+    // JDBC INSERT에서는 값을 주지 않으므로 기본값을 DB에 둡니다.
+    @Column(name = "row_version", nullable = false, columnDefinition = "bigint not null default 0")
+    private long rowVersion;
+
+    public User(Long id, String name, String email, int age) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.age = age;
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.example.apachepoilearning.excel;
+
+import java.util.Locale;
+
+/**
+ * 엑셀 대신 사용할 수 있는 구분자 텍스트 형식 (CSV, TSV)
+ * 두 형식 모두 UTF-8이며, 구분자, 큰따옴표, 줄바꿈이 들어 있는 값은 RFC 4180처럼 큰따옴표로 감쌉니다.
+ */
+public enum DelimitedFormat {
+
+    CSV((byte) ',', "text/csv", "csv"),
+    TSV((byte) '\t', "text/tab-separated-values", "tsv");
+
+    private static final String GZIP_EXTENSION = ".gz";
+
+    private final byte delimiter;
+    private final String mediaType;
+    private final String extension;
+
+    DelimitedFormat(byte delimiter, String mediaType, String extension) {
+        this.delimiter = delimiter;
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public byte delimiter() {
+        return delimiter;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return 파일 확장자 (점 제외, 예: "csv")
+     */
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * @param mediaType Content-Type 값 (charset 등 매개변수 포함 가능)
+     * @return 해당하는 형식, 구분자 텍스트 형식이 아니면 null
+     */
+    public static DelimitedFormat fromMediaType(String mediaType) {
+        if (mediaType == null) {
+            return null;
+        }
+        int parameters = mediaType.indexOf(';');
+        String type = (parameters >= 0 ? mediaType.substring(0, parameters) : mediaType).trim().toLowerCase(Locale.ROOT);
+        for (DelimitedFormat format : values()) {
+            if (format.mediaType.equals(type)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param name 형식 이름 또는 파일 이름 (예: "csv", "users.tsv", "users.csv.gz")
+     * @return 해당하는 형식, 구분자 텍스트 형식이 아니면 null
+     */
+    public static DelimitedFormat fromFileName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String lower = name.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(GZIP_EXTENSION)) {
+            lower = lower.substring(0, lower.length() - GZIP_EXTENSION.length());
+        }
+        String extension = lower.substring(lower.lastIndexOf('.') + 1);
+        for (DelimitedFormat format : values()) {
+            if (format.extension.equals(extension)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 업로드 파일의 형식을 Content-Type으로 정하고, 알 수 없으면(application/octet-stream, application/gzip 등) 파일 이름으로 정합니다.
+     *
+     * @return 해당하는 형식, 구분자 텍스트 형식이 아니면(엑셀 파일 등) null
+     */
+    public static DelimitedFormat of(String contentType, String fileName) {
+        DelimitedFormat format = fromMediaType(contentType);
+        return format != null ? format : fromFileName(fileName);
+    }
+}
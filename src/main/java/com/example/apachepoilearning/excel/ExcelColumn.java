@@ -0,0 +1,37 @@
+package com.example.apachepoilearning.excel;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 엔티티 필드와 엑셀 열을 연결합니다. ExcelRowMapper가 이 정보로 읽기/쓰기 접근자를 만듭니다.
+ * 필드에는 public getter(get/is)가 있어야 하며, 업로드에 사용하려면 public setter도 있어야 합니다.
+ *
+ * 지원 타입: int, long, double, boolean (래퍼 타입 포함), String, LocalDate, LocalDateTime
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExcelColumn {
+
+    /**
+     * 열 인덱스 (0부터 시작)
+     */
+    int index();
+
+    /**
+     * 헤더 행에 쓸 열 이름
+     */
+    String header();
+
+    /**
+     * 셀 표시 형식 (예: "#,##0", "yyyy-MM-dd"). 비어 있으면 날짜 타입만 기본 날짜 형식을 사용합니다.
+     */
+    String format() default "";
+
+    /**
+     * false이면 업로드할 때 이 열을 읽지 않습니다. (예: 데이터베이스에서 생성하는 id)
+     */
+    boolean importable() default true;
+}
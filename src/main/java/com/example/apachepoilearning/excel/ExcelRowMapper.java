@@ -0,0 +1,519 @@
+package com.example.apachepoilearning.excel;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+
+import java.io.IOException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * @ExcelColumn이 붙은 필드를 엑셀 행과 변환합니다.
+ *
+ * 클래스마다 한 번, getter/setter를 LambdaMetafactory로 ToIntFunction, ObjIntConsumer 같은 함수형 인터페이스 구현체로 만들어 캐싱합니다.
+ * 셀마다 리플렉션(Method.invoke)을 하지 않고, 기본 타입 필드는 기본 타입 전용 인터페이스를 사용하므로 박싱도 발생하지 않습니다.
+ * 따라서 JIT 컴파일 이후에는 직접 작성한 user.setAge((int) value) 코드와 거의 같은 비용으로 동작합니다.
+ *
+ * 읽기: SAX 콜백(RowConsumer)에서 setNumber, setText, setString 등으로 셀 값을 필드에 넣습니다.
+ *       문자열을 숫자, 날짜 필드로 변환할 수 없으면 setText, setString이 false를 반환하며, 행을 건너뛸지는 호출하는 쪽이 정합니다.
+ * 쓰기: writeHeader, writeRow로 필드 값을 셀에 씁니다. POI 객체 모델을 거치지 않을 때는 writeRow(T, CellSink)를 사용합니다.
+ *
+ * @param <T> 엔티티 타입
+ */
+public final class ExcelRowMapper<T> {
+
+    // 클래스별 매퍼 캐시 (클래스가 언로드되면 함께 제거됩니다)
+    private static final ClassValue<ExcelRowMapper<?>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected ExcelRowMapper<?> computeValue(Class<?> type) {
+            return new ExcelRowMapper<>(type);
+        }
+    };
+
+    private static final String DEFAULT_DATE_FORMAT = "yyyy-MM-dd";
+    private static final String DEFAULT_DATE_TIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
+    private enum Kind {
+        INT, LONG, DOUBLE, BOOLEAN, INTEGER_OBJECT, LONG_OBJECT, DOUBLE_OBJECT, BOOLEAN_OBJECT, STRING, LOCAL_DATE, LOCAL_DATE_TIME
+    }
+
+    // 필드 타입별 변환 방식
+    private static final Map<Class<?>, Kind> KINDS = Map.ofEntries(
+            Map.entry(int.class, Kind.INT),
+            Map.entry(long.class, Kind.LONG),
+            Map.entry(double.class, Kind.DOUBLE),
+            Map.entry(boolean.class, Kind.BOOLEAN),
+            Map.entry(Integer.class, Kind.INTEGER_OBJECT),
+            Map.entry(Long.class, Kind.LONG_OBJECT),
+            Map.entry(Double.class, Kind.DOUBLE_OBJECT),
+            Map.entry(Boolean.class, Kind.BOOLEAN_OBJECT),
+            Map.entry(String.class, Kind.STRING),
+            Map.entry(LocalDate.class, Kind.LOCAL_DATE),
+            Map.entry(LocalDateTime.class, Kind.LOCAL_DATE_TIME));
+
+    /**
+     * boolean 필드 setter (java.util.function에 없는 형태)
+     */
+    @FunctionalInterface
+    interface ObjBooleanConsumer<T> {
+        void accept(T target, boolean value);
+    }
+
+    /**
+     * POI 셀 객체 없이 셀 값을 직접 받는 대상 (예: 시트 XML을 바로 쓰는 writer)
+     * slot은 binding 순서의 열 번호로, columnStyles()가 반환하는 배열의 인덱스와 같습니다.
+     */
+    public interface CellSink {
+        void number(int columnIndex, int slot, long value) throws IOException;
+
+        void number(int columnIndex, int slot, double value) throws IOException;
+
+        void text(int columnIndex, int slot, String value) throws IOException;
+
+        void bool(int columnIndex, int slot, boolean value) throws IOException;
+    }
+
+    /**
+     * 열 하나의 매핑 정보와 생성된 접근자
+     * getter/setter의 실제 타입은 kind에 따라 정해집니다. (예: INT이면 ToIntFunction, ObjIntConsumer)
+     */
+    private static final class Binding {
+        final int index;
+        final String header;
+        final String format;
+        final Kind kind;
+        final Object getter;
+        final Object setter;
+
+        Binding(int index, String header, String format, Kind kind, Object getter, Object setter) {
+            this.index = index;
+            this.header = header;
+            this.format = format;
+            this.kind = kind;
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    private final Class<T> type;
+    private final Supplier<T> constructor;
+    // 열 인덱스 순서로 정렬된 매핑 (쓰기용)
+    private final Binding[] bindings;
+    // 열 인덱스로 바로 찾기 위한 배열 (읽기용, 업로드에 사용하지 않는 열은 null)
+    private final Binding[] byColumn;
+
+    @SuppressWarnings("unchecked")
+    private ExcelRowMapper(Class<T> type) {
+        this.type = type;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            this.constructor = (Supplier<T>) generate(lookup, Supplier.class, "get", MethodType.methodType(Object.class),
+                    lookup.findConstructor(type, MethodType.methodType(void.class)));
+
+            List<Binding> list = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                ExcelColumn column = field.getAnnotation(ExcelColumn.class);
+                if (column != null) {
+                    list.add(bind(lookup, type, field, column));
+                }
+            }
+            list.sort(Comparator.comparingInt(binding -> binding.index));
+            this.bindings = list.toArray(new Binding[0]);
+
+            int maxIndex = bindings.length == 0 ? -1 : bindings[bindings.length - 1].index;
+            this.byColumn = new Binding[maxIndex + 1];
+            for (Binding binding : bindings) {
+                if (binding.setter != null) {
+                    byColumn[binding.index] = binding;
+                }
+            }
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("엑셀 매핑 정보를 만들 수 없습니다: " + type.getName(), e);
+        }
+    }
+
+    /**
+     * @param type @ExcelColumn 필드와 public 기본 생성자를 가진 클래스
+     * @return 캐싱된 매퍼
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ExcelRowMapper<T> of(Class<T> type) {
+        return (ExcelRowMapper<T>) MAPPERS.get(type);
+    }
+
+    // ------------------------- 읽기 (셀 → 필드) -------------------------
+
+    /**
+     * 기본 생성자로 새 객체를 만듭니다.
+     */
+    public T newInstance() {
+        return constructor.get();
+    }
+
+    /**
+     * @return 이 열을 읽어서 채울 필드가 있으면 true (공유 문자열처럼 값 조회에 비용이 드는 셀을 건너뛸 때 사용)
+     */
+    public boolean isMapped(int columnIndex) {
+        return columnIndex < byColumn.length && byColumn[columnIndex] != null;
+    }
+
+    /**
+     * 숫자 셀 값을 필드 타입에 맞게 변환하여 넣습니다.
+     */
+    @SuppressWarnings("unchecked")
+    public void setNumber(T target, int columnIndex, double value) {
+        Binding binding = binding(columnIndex);
+        if (binding == null) {
+            return;
+        }
+        switch (binding.kind) {
+            case INT -> ((ObjIntConsumer<T>) binding.setter).accept(target, (int) value);
+            case LONG -> ((ObjLongConsumer<T>) binding.setter).accept(target, (long) value);
+            case DOUBLE -> ((ObjDoubleConsumer<T>) binding.setter).accept(target, value);
+            case BOOLEAN -> ((ObjBooleanConsumer<T>) binding.setter).accept(target, value != 0);
+            case LOCAL_DATE, LOCAL_DATE_TIME -> setDate(target, columnIndex, value);
+            case STRING -> ((BiConsumer<T, Object>) binding.setter).accept(target, formatNumber(value));
+            default -> ((BiConsumer<T, Object>) binding.setter).accept(target, box(binding.kind, value));
+        }
+    }
+
+    /**
+     * 날짜 서식이 적용된 숫자 셀(엑셀 날짜 일련번호)을 넣습니다. 날짜 타입이 아닌 필드에는 숫자로 넣습니다.
+     */
+    @SuppressWarnings("unchecked")
+    public void setDate(T target, int columnIndex, double excelDate) {
+        Binding binding = binding(columnIndex);
+        if (binding == null) {
+            return;
+        }
+        switch (binding.kind) {
+            case LOCAL_DATE -> ((BiConsumer<T, Object>) binding.setter).accept(target, DateUtil.getLocalDateTime(excelDate).toLocalDate());
+            case LOCAL_DATE_TIME -> ((BiConsumer<T, Object>) binding.setter).accept(target, DateUtil.getLocalDateTime(excelDate));
+            default -> setNumber(target, columnIndex, excelDate);
+        }
+    }
+
+    /**
+     * 문자열 셀(인라인 문자열, 수식 결과 등) 값을 필드 타입에 맞게 변환하여 넣습니다.
+     * value는 재사용되는 버퍼일 수 있으므로, 문자열 필드에는 복사본을 넣습니다.
+     *
+     * @return 값을 필드 타입으로 변환할 수 없으면 false (필드는 바뀌지 않습니다)
+     */
+    public boolean setText(T target, int columnIndex, CharSequence value) {
+        Binding binding = binding(columnIndex);
+        if (binding == null) {
+            return true;
+        }
+        if (binding.kind == Kind.STRING) {
+            return setString(target, columnIndex, value.toString());
+        }
+        return setConverted(target, binding, value);
+    }
+
+    /**
+     * 공유 문자열 테이블에서 조회한 문자열을 넣습니다.
+     *
+     * @return 값을 필드 타입으로 변환할 수 없으면 false (필드는 바뀌지 않습니다)
+     */
+    @SuppressWarnings("unchecked")
+    public boolean setString(T target, int columnIndex, String value) {
+        Binding binding = binding(columnIndex);
+        if (binding == null) {
+            return true;
+        }
+        if (binding.kind == Kind.STRING) {
+            ((BiConsumer<T, Object>) binding.setter).accept(target, value);
+            return true;
+        }
+        return setConverted(target, binding, value);
+    }
+
+    /**
+     * 불리언 셀 값을 넣습니다.
+     */
+    @SuppressWarnings("unchecked")
+    public void setBoolean(T target, int columnIndex, boolean value) {
+        Binding binding = binding(columnIndex);
+        if (binding == null) {
+            return;
+        }
+        switch (binding.kind) {
+            case BOOLEAN -> ((ObjBooleanConsumer<T>) binding.setter).accept(target, value);
+            case BOOLEAN_OBJECT -> ((BiConsumer<T, Object>) binding.setter).accept(target, value);
+            case STRING -> ((BiConsumer<T, Object>) binding.setter).accept(target, Boolean.toString(value));
+            default -> setNumber(target, columnIndex, value ? 1 : 0);
+        }
+    }
+
+    private Binding binding(int columnIndex) {
+        return columnIndex < byColumn.length ? byColumn[columnIndex] : null;
+    }
+
+    /**
+     * 문자열로 저장된 숫자, 날짜, 불리언을 필드 타입으로 변환합니다. (일반적인 경로가 아니므로 간단하게 처리합니다)
+     * 나이 열의 "abc"처럼 변환할 수 없는 값은 예외를 던지지 않고 false를 반환하여, 잘못된 셀 하나 때문에 업로드 전체가 실패하지 않도록 합니다.
+     *
+     * @return 변환할 수 없는 값이면 false
+     */
+    @SuppressWarnings("unchecked")
+    private boolean setConverted(T target, Binding binding, CharSequence value) {
+        String text = value.toString().trim();
+        if (text.isEmpty()) {
+            return true;
+        }
+        try {
+            switch (binding.kind) {
+                case LOCAL_DATE -> ((BiConsumer<T, Object>) binding.setter).accept(target, LocalDate.parse(text.length() > 10 ? text.substring(0, 10) : text));
+                case LOCAL_DATE_TIME -> ((BiConsumer<T, Object>) binding.setter).accept(target, LocalDateTime.parse(text));
+                case BOOLEAN, BOOLEAN_OBJECT -> setBoolean(target, binding.index, text.equalsIgnoreCase("true") || text.equals("1"));
+                default -> setNumber(target, binding.index, Double.parseDouble(text));
+            }
+            return true;
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    // ------------------------- 쓰기 (필드 → 셀) -------------------------
+
+    /**
+     * 헤더 행에 @ExcelColumn의 header 값을 씁니다.
+     *
+     * @param style 헤더 셀 스타일 (null이면 기본 스타일)
+     */
+    public void writeHeader(Row row, CellStyle style) {
+        for (Binding binding : bindings) {
+            Cell cell = row.createCell(binding.index);
+            cell.setCellValue(binding.header);
+            if (style != null) {
+                cell.setCellStyle(style);
+            }
+        }
+    }
+
+    /**
+     * 열마다 사용할 셀 스타일을 만듭니다. 시트를 쓰기 전에 한 번만 호출하여 writeRow에 전달합니다.
+     *
+     * @param formatStyle 표시 형식 문자열로 셀 스타일을 찾는 함수 (예: StyleRegistry 사용)
+     * @return 열 순서대로 정렬된 셀 스타일 배열 (형식이 없는 열은 null)
+     */
+    public CellStyle[] columnStyles(Function<String, CellStyle> formatStyle) {
+        CellStyle[] styles = new CellStyle[bindings.length];
+        for (int i = 0; i < bindings.length; i++) {
+            Binding binding = bindings[i];
+            String format = binding.format;
+            if (format.isEmpty() && binding.kind == Kind.LOCAL_DATE) {
+                format = DEFAULT_DATE_FORMAT;
+            } else if (format.isEmpty() && binding.kind == Kind.LOCAL_DATE_TIME) {
+                format = DEFAULT_DATE_TIME_FORMAT;
+            }
+            styles[i] = format.isEmpty() ? null : formatStyle.apply(format);
+        }
+        return styles;
+    }
+
+    /**
+     * 객체의 필드 값을 행의 셀에 씁니다. 값이 null인 필드는 셀을 만들지 않습니다.
+     *
+     * @param columnStyles columnStyles()로 만든 셀 스타일 배열 (null이면 스타일을 적용하지 않음)
+     */
+    @SuppressWarnings("unchecked")
+    public void writeRow(Row row, T value, CellStyle[] columnStyles) {
+        for (int i = 0; i < bindings.length; i++) {
+            Binding binding = bindings[i];
+            Cell cell;
+            switch (binding.kind) {
+                case INT -> {
+                    cell = row.createCell(binding.index);
+                    cell.setCellValue(((ToIntFunction<T>) binding.getter).applyAsInt(value));
+                }
+                case LONG -> {
+                    cell = row.createCell(binding.index);
+                    cell.setCellValue(((ToLongFunction<T>) binding.getter).applyAsLong(value));
+                }
+                case DOUBLE -> {
+                    cell = row.createCell(binding.index);
+                    cell.setCellValue(((ToDoubleFunction<T>) binding.getter).applyAsDouble(value));
+                }
+                case BOOLEAN -> {
+                    cell = row.createCell(binding.index);
+                    cell.setCellValue(((Predicate<T>) binding.getter).test(value));
+                }
+                default -> {
+                    Object fieldValue = ((Function<T, Object>) binding.getter).apply(value);
+                    if (fieldValue == null) {
+                        continue;
+                    }
+                    cell = row.createCell(binding.index);
+                    setCellValue(cell, fieldValue);
+                }
+            }
+            if (columnStyles != null && columnStyles[i] != null) {
+                cell.setCellStyle(columnStyles[i]);
+            }
+        }
+    }
+
+    /**
+     * 객체의 필드 값을 CellSink에 전달합니다. 기본 타입 필드는 박싱 없이 전달되며, 날짜는 엑셀 날짜 일련번호로 변환됩니다.
+     * 값이 null인 필드는 전달하지 않습니다.
+     */
+    @SuppressWarnings("unchecked")
+    public void writeRow(T value, CellSink sink) throws IOException {
+        for (int i = 0; i < bindings.length; i++) {
+            Binding binding = bindings[i];
+            switch (binding.kind) {
+                case INT -> sink.number(binding.index, i, (long) ((ToIntFunction<T>) binding.getter).applyAsInt(value));
+                case LONG -> sink.number(binding.index, i, ((ToLongFunction<T>) binding.getter).applyAsLong(value));
+                case DOUBLE -> sink.number(binding.index, i, ((ToDoubleFunction<T>) binding.getter).applyAsDouble(value));
+                case BOOLEAN -> sink.bool(binding.index, i, ((Predicate<T>) binding.getter).test(value));
+                default -> {
+                    Object fieldValue = ((Function<T, Object>) binding.getter).apply(value);
+                    if (fieldValue instanceof String s) {
+                        sink.text(binding.index, i, s);
+                    } else if (fieldValue instanceof Integer || fieldValue instanceof Long) {
+                        sink.number(binding.index, i, ((Number) fieldValue).longValue());
+                    } else if (fieldValue instanceof Number n) {
+                        sink.number(binding.index, i, n.doubleValue());
+                    } else if (fieldValue instanceof Boolean b) {
+                        sink.bool(binding.index, i, b);
+                    } else if (fieldValue instanceof LocalDate d) {
+                        sink.number(binding.index, i, DateUtil.getExcelDate(d));
+                    } else if (fieldValue instanceof LocalDateTime dt) {
+                        sink.number(binding.index, i, DateUtil.getExcelDate(dt));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return binding 순서의 헤더 문자열
+     */
+    public String[] headers() {
+        String[] headers = new String[bindings.length];
+        for (int i = 0; i < bindings.length; i++) {
+            headers[i] = bindings[i].header;
+        }
+        return headers;
+    }
+
+    /**
+     * @return binding 순서의 열 인덱스 (0부터 시작)
+     */
+    public int[] columnIndexes() {
+        int[] indexes = new int[bindings.length];
+        for (int i = 0; i < bindings.length; i++) {
+            indexes[i] = bindings[i].index;
+        }
+        return indexes;
+    }
+
+    private static void setCellValue(Cell cell, Object value) {
+        if (value instanceof String s) {
+            cell.setCellValue(s);
+        } else if (value instanceof Number n) {
+            cell.setCellValue(n.doubleValue());
+        } else if (value instanceof Boolean b) {
+            cell.setCellValue(b);
+        } else if (value instanceof LocalDate d) {
+            cell.setCellValue(d);
+        } else if (value instanceof LocalDateTime dt) {
+            cell.setCellValue(dt);
+        }
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    // ------------------------- 접근자 생성 -------------------------
+
+    private static Binding bind(MethodHandles.Lookup lookup, Class<?> type, Field field, ExcelColumn column) throws Throwable {
+        Class<?> fieldType = field.getType();
+        Kind kind = kindOf(fieldType);
+        String suffix = Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+
+        String getterName = (fieldType == boolean.class ? "is" : "get") + suffix;
+        MethodHandle getterHandle = lookup.findVirtual(type, getterName, MethodType.methodType(fieldType));
+        Object getter = switch (kind) {
+            case INT -> generate(lookup, ToIntFunction.class, "applyAsInt", MethodType.methodType(int.class, Object.class), getterHandle);
+            case LONG -> generate(lookup, ToLongFunction.class, "applyAsLong", MethodType.methodType(long.class, Object.class), getterHandle);
+            case DOUBLE -> generate(lookup, ToDoubleFunction.class, "applyAsDouble", MethodType.methodType(double.class, Object.class), getterHandle);
+            case BOOLEAN -> generate(lookup, Predicate.class, "test", MethodType.methodType(boolean.class, Object.class), getterHandle);
+            default -> generate(lookup, Function.class, "apply", MethodType.methodType(Object.class, Object.class), getterHandle);
+        };
+
+        Object setter = null;
+        if (column.importable()) {
+            MethodHandle setterHandle = lookup.findVirtual(type, "set" + suffix, MethodType.methodType(void.class, fieldType));
+            setter = switch (kind) {
+                case INT -> generate(lookup, ObjIntConsumer.class, "accept", MethodType.methodType(void.class, Object.class, int.class), setterHandle);
+                case LONG -> generate(lookup, ObjLongConsumer.class, "accept", MethodType.methodType(void.class, Object.class, long.class), setterHandle);
+                case DOUBLE -> generate(lookup, ObjDoubleConsumer.class, "accept", MethodType.methodType(void.class, Object.class, double.class), setterHandle);
+                case BOOLEAN -> generate(lookup, ObjBooleanConsumer.class, "accept", MethodType.methodType(void.class, Object.class, boolean.class), setterHandle);
+                default -> generate(lookup, BiConsumer.class, "accept", MethodType.methodType(void.class, Object.class, Object.class), setterHandle);
+            };
+        }
+        return new Binding(column.index(), column.header(), column.format(), kind, getter, setter);
+    }
+
+    /**
+     * 메서드 핸들을 함수형 인터페이스 구현체로 만듭니다. (람다식 u -> u.getAge()를 컴파일했을 때와 같은 방식)
+     *
+     * @param samType 인터페이스 메서드의 (제네릭이 지워진) 시그니처
+     */
+    private static Object generate(MethodHandles.Lookup lookup, Class<?> functionalInterface, String methodName,
+                                   MethodType samType, MethodHandle implementation) throws Throwable {
+        CallSite site = LambdaMetafactory.metafactory(lookup, methodName, MethodType.methodType(functionalInterface),
+                samType, implementation, implementation.type());
+        return site.getTarget().invoke();
+    }
+
+    private static Kind kindOf(Class<?> fieldType) {
+        Kind kind = KINDS.get(fieldType);
+        if (kind == null) {
+            throw new IllegalArgumentException("지원하지 않는 필드 타입입니다: " + fieldType.getName());
+        }
+        return kind;
+    }
+
+    private static Object box(Kind kind, double value) {
+        return switch (kind) {
+            case INTEGER_OBJECT -> (int) value;
+            case LONG_OBJECT -> (long) value;
+            case BOOLEAN_OBJECT -> value != 0;
+            default -> value;
+        };
+    }
+
+    /**
+     * 숫자 셀을 문자열 필드에 넣을 때, 정수 값은 소수점 없이 표시합니다. (예: 전화번호, 우편번호)
+     */
+    private static String formatNumber(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.apachepoilearning.excel.table;
+
+import java.util.Arrays;
+
+/**
+ * ColumnarTable의 열 하나
+ * 값은 하위 클래스의 기본 타입 배열에 저장하고, 값의 존재 여부는 행마다 1비트(present 비트맵)로 관리합니다.
+ * 값을 넣지 않은 행은 null(빈 셀)입니다.
+ */
+public abstract class Column {
+
+    private final String name;
+    private final ColumnType type;
+    // 값이 있는 행이면 1인 비트맵 (long 하나에 64행)
+    private long[] present;
+
+    Column(String name, ColumnType type, int capacity) {
+        this.name = name;
+        this.type = type;
+        this.present = new long[words(capacity)];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ColumnType getType() {
+        return type;
+    }
+
+    public boolean isNull(int row) {
+        return (present[row >>> 6] & (1L << row)) == 0;
+    }
+
+    /**
+     * @param rowCount 테이블의 행 수
+     * @return 값이 없는 행 수
+     */
+    public int nullCount(int rowCount) {
+        int count = 0;
+        int fullWords = rowCount >>> 6;
+        for (int i = 0; i < fullWords; i++) {
+            count += Long.bitCount(present[i]);
+        }
+        int rest = rowCount & 63;
+        if (rest != 0) {
+            count += Long.bitCount(present[fullWords] & ((1L << rest) - 1));
+        }
+        return rowCount - count;
+    }
+
+    void markPresent(int row) {
+        present[row >>> 6] |= 1L << row;
+    }
+
+    /**
+     * 행 수가 capacity를 넘으면 값 배열과 비트맵을 늘립니다.
+     */
+    void ensureCapacity(int capacity) {
+        if (capacity > capacity()) {
+            int newCapacity = Math.max(capacity, capacity() * 2);
+            present = Arrays.copyOf(present, words(newCapacity));
+            grow(newCapacity);
+        }
+    }
+
+    abstract int capacity();
+
+    abstract void grow(int capacity);
+
+    private static int words(int capacity) {
+        return Math.max(1, (capacity + 63) >>> 6);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.apachepoilearning.excel.table;
+
+/**
+ * ColumnarTable 열의 저장 방식
+ */
+public enum ColumnType {
+
+    // double[]
+    DOUBLE,
+    // long[]
+    LONG,
+    // long[] (1970-01-01 기준 일 수, LocalDate.toEpochDay와 같음)
+    DATE,
+    // int[] 코드 + 문자열 사전 (dictionary encoding)
+    STRING;
+
+    Column create(String name, int capacity) {
+        return switch (this) {
+            case DOUBLE -> new DoubleColumn(name, capacity);
+            case LONG -> new LongColumn(name, capacity);
+            case DATE -> new DateColumn(name, capacity);
+            case STRING -> new StringColumn(name, capacity);
+        };
+    }
+}
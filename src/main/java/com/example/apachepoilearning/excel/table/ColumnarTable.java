@@ -0,0 +1,141 @@
+package com.example.apachepoilearning.excel.table;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 열 단위(columnar)로 저장하는 메모리 내 표
+ *
+ * 행마다 Row/Cell 객체를 만드는 XSSFWorkbook과 달리, 열마다 기본 타입 배열 하나에 값을 저장하므로
+ * 숫자와 날짜는 박싱되지 않고, 수백만 행도 행 수 × 8바이트 정도의 메모리로 보관할 수 있습니다.
+ * 합계, 최솟값, 최댓값, group-by 같은 집계는 배열을 순서대로 훑기 때문에 빠릅니다.
+ *
+ * 채우기: ColumnarTableBuilder (SAX 파싱) 또는 addRow() 후 열마다 set
+ * 쓰기: ColumnarSheetWriter (시트), 또는 열 배열을 직접 읽는 writer
+ * 스레드 안전하지 않습니다.
+ */
+public class ColumnarTable {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Column[] columns;
+    private int rowCount;
+
+    private ColumnarTable(Column[] columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * @param names 열 이름 (헤더)
+     * @param types 열 타입
+     */
+    public static ColumnarTable of(String[] names, ColumnType[] types) {
+        if (names.length != types.length) {
+            throw new IllegalArgumentException("열 이름과 타입의 개수가 다릅니다");
+        }
+        Column[] columns = new Column[names.length];
+        for (int i = 0; i < names.length; i++) {
+            columns[i] = types[i].create(names[i], INITIAL_CAPACITY);
+        }
+        return new ColumnarTable(columns);
+    }
+
+    /**
+     * 빈 행을 하나 추가합니다.
+     * @return 추가된 행 번호 (0부터 시작)
+     */
+    public int addRow() {
+        int row = rowCount++;
+        for (Column column : columns) {
+            column.ensureCapacity(rowCount);
+        }
+        return row;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public Column column(int index) {
+        return columns[index];
+    }
+
+    public DoubleColumn doubleColumn(int index) {
+        return (DoubleColumn) columns[index];
+    }
+
+    public LongColumn longColumn(int index) {
+        return (LongColumn) columns[index];
+    }
+
+    public DateColumn dateColumn(int index) {
+        return (DateColumn) columns[index];
+    }
+
+    public StringColumn stringColumn(int index) {
+        return (StringColumn) columns[index];
+    }
+
+    public NumericColumn numericColumn(int index) {
+        return (NumericColumn) columns[index];
+    }
+
+    public double sum(int column) {
+        return numericColumn(column).sum(rowCount);
+    }
+
+    public double min(int column) {
+        return numericColumn(column).min(rowCount);
+    }
+
+    public double max(int column) {
+        return numericColumn(column).max(rowCount);
+    }
+
+    /**
+     * 문자열 열의 값별로 숫자 열을 집계합니다. (SQL의 GROUP BY key)
+     * 사전 코드를 배열 인덱스로 사용하므로 그룹을 찾을 때 해시 조회나 박싱이 없습니다.
+     * 키나 값이 null인 행은 제외합니다.
+     *
+     * @param keyColumn 그룹 키로 사용할 문자열 열
+     * @param valueColumn 집계할 숫자 열
+     * @return 키가 처음 나온 순서대로 정렬된 그룹별 집계 결과
+     */
+    public List<GroupSummary> groupBy(int keyColumn, int valueColumn) {
+        StringColumn keys = stringColumn(keyColumn);
+        NumericColumn values = numericColumn(valueColumn);
+
+        int groups = keys.dictionarySize();
+        long[] counts = new long[groups];
+        double[] sums = new double[groups];
+        double[] mins = new double[groups];
+        double[] maxs = new double[groups];
+        Arrays.fill(mins, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+
+        for (int row = 0; row < rowCount; row++) {
+            if (keys.isNull(row) || values.isNull(row)) {
+                continue;
+            }
+            int code = keys.getCode(row);
+            double value = values.getAsDouble(row);
+            counts[code]++;
+            sums[code] += value;
+            mins[code] = Math.min(mins[code], value);
+            maxs[code] = Math.max(maxs[code], value);
+        }
+
+        List<GroupSummary> result = new ArrayList<>(groups);
+        for (int code = 0; code < groups; code++) {
+            if (counts[code] > 0) {
+                result.add(new GroupSummary(keys.decode(code), counts[code], sums[code], mins[code], maxs[code]));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.apachepoilearning.excel.table;
+
+import java.time.LocalDate;
+
+/**
+ * 날짜를 1970-01-01 기준 일 수(epoch day)로 long[]에 저장하는 열
+ * 엑셀 날짜 일련번호(1900 날짜 체계)와는 EXCEL_EPOCH_OFFSET 만큼 차이가 나므로, 셀 값과 변환할 때 객체를 만들지 않습니다.
+ */
+public class DateColumn extends LongColumn {
+
+    // 엑셀 일련번호 25569 = 1970-01-01 (1900-03-01 이후 날짜에 대해 유효)
+    public static final long EXCEL_EPOCH_OFFSET = 25569;
+
+    DateColumn(String name, int capacity) {
+        super(name, ColumnType.DATE, capacity);
+    }
+
+    public void set(int row, LocalDate date) {
+        set(row, date.toEpochDay());
+    }
+
+    /**
+     * 엑셀 날짜 일련번호의 날짜 부분(정수 부분)을 저장합니다.
+     */
+    public void setExcelDate(int row, double excelDate) {
+        set(row, (long) Math.floor(excelDate) - EXCEL_EPOCH_OFFSET);
+    }
+
+    public double getExcelDate(int row) {
+        return get(row) + EXCEL_EPOCH_OFFSET;
+    }
+
+    public LocalDate getDate(int row) {
+        return LocalDate.ofEpochDay(get(row));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.apachepoilearning.excel.table;
+
+import java.util.Arrays;
+
+/**
+ * double[]에 값을 저장하는 열
+ */
+public class DoubleColumn extends NumericColumn {
+
+    private double[] values;
+
+    DoubleColumn(String name, int capacity) {
+        super(name, ColumnType.DOUBLE, capacity);
+        this.values = new double[capacity];
+    }
+
+    public double get(int row) {
+        return values[row];
+    }
+
+    public void set(int row, double value) {
+        values[row] = value;
+        markPresent(row);
+    }
+
+    @Override
+    public double getAsDouble(int row) {
+        return values[row];
+    }
+
+    @Override
+    public double sum(int rowCount) {
+        double sum = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (!isNull(row)) {
+                sum += values[row];
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public double min(int rowCount) {
+        double min = Double.NaN;
+        for (int row = 0; row < rowCount; row++) {
+            if (!isNull(row) && !(values[row] >= min)) {
+                min = values[row];
+            }
+        }
+        return min;
+    }
+
+    @Override
+    public double max(int rowCount) {
+        double max = Double.NaN;
+        for (int row = 0; row < rowCount; row++) {
+            if (!isNull(row) && !(values[row] <= max)) {
+                max = values[row];
+            }
+        }
+        return max;
+    }
+
+    @Override
+    int capacity() {
+        return values.length;
+    }
+
+    @Override
+    void grow(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.apachepoilearning.excel.table;
+
+/**
+ * ColumnarTable.groupBy의 그룹 하나에 대한 집계 결과
+ *
+ * @param key 그룹 키 (문자열 열의 값)
+ * @param count 값이 있는 행 수
+ * @param sum 합계
+ * @param min 최솟값 (값이 없으면 NaN)
+ * @param max 최댓값 (값이 없으면 NaN)
+ */
+public record GroupSummary(String key, long count, double sum, double min, double max) {
+
+    public double average() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+}
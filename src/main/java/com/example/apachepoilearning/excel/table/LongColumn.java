@@ -0,0 +1,81 @@
+package com.example.apachepoilearning.excel.table;
+
+import java.util.Arrays;
+
+/**
+ * long[]에 값을 저장하는 열
+ */
+public class LongColumn extends NumericColumn {
+
+    private long[] values;
+
+    LongColumn(String name, int capacity) {
+        this(name, ColumnType.LONG, capacity);
+    }
+
+    LongColumn(String name, ColumnType type, int capacity) {
+        super(name, type, capacity);
+        this.values = new long[capacity];
+    }
+
+    public long get(int row) {
+        return values[row];
+    }
+
+    public void set(int row, long value) {
+        values[row] = value;
+        markPresent(row);
+    }
+
+    @Override
+    public double getAsDouble(int row) {
+        return values[row];
+    }
+
+    @Override
+    public double sum(int rowCount) {
+        long sum = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (!isNull(row)) {
+                sum += values[row];
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public double min(int rowCount) {
+        long min = Long.MAX_VALUE;
+        boolean found = false;
+        for (int row = 0; row < rowCount; row++) {
+            if (!isNull(row)) {
+                min = Math.min(min, values[row]);
+                found = true;
+            }
+        }
+        return found ? min : Double.NaN;
+    }
+
+    @Override
+    public double max(int rowCount) {
+        long max = Long.MIN_VALUE;
+        boolean found = false;
+        for (int row = 0; row < rowCount; row++) {
+            if (!isNull(row)) {
+                max = Math.max(max, values[row]);
+                found = true;
+            }
+        }
+        return found ? max : Double.NaN;
+    }
+
+    @Override
+    int capacity() {
+        return values.length;
+    }
+
+    @Override
+    void grow(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+}
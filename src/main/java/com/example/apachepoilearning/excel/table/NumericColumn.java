@@ -0,0 +1,23 @@
+package com.example.apachepoilearning.excel.table;
+
+/**
+ * 숫자 값을 가진 열 (DoubleColumn, LongColumn, DateColumn)
+ * 집계 메서드는 null인 행을 건너뜁니다. 값이 하나도 없으면 min/max는 NaN입니다.
+ */
+public abstract class NumericColumn extends Column {
+
+    NumericColumn(String name, ColumnType type, int capacity) {
+        super(name, type, capacity);
+    }
+
+    /**
+     * @return row 행의 값을 double로 변환한 값 (null 여부는 isNull로 확인)
+     */
+    public abstract double getAsDouble(int row);
+
+    public abstract double sum(int rowCount);
+
+    public abstract double min(int rowCount);
+
+    public abstract double max(int rowCount);
+}
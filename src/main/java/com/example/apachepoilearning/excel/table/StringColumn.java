@@ -0,0 +1,78 @@
+package com.example.apachepoilearning.excel.table;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 문자열을 사전 인코딩(dictionary encoding)하여 저장하는 열
+ * 서로 다른 문자열은 사전에 한 번만 저장하고, 행에는 사전 코드(int)만 저장합니다.
+ * 카테고리처럼 반복되는 값이 많은 열은 메모리를 크게 줄일 수 있고, group-by는 코드로 바로 집계합니다.
+ */
+public class StringColumn extends Column {
+
+    private int[] codes;
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> index = new HashMap<>();
+
+    StringColumn(String name, int capacity) {
+        super(name, ColumnType.STRING, capacity);
+        this.codes = new int[capacity];
+    }
+
+    /**
+     * 문자열의 사전 코드를 반환합니다. 처음 보는 문자열이면 사전에 추가합니다.
+     */
+    public int encode(String value) {
+        Integer code = index.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(value);
+            index.put(value, code);
+        }
+        return code;
+    }
+
+    public void set(int row, String value) {
+        setCode(row, encode(value));
+    }
+
+    /**
+     * encode()로 얻은 사전 코드를 저장합니다. 같은 값이 반복될 때 문자열 조회 없이 저장할 수 있습니다.
+     */
+    public void setCode(int row, int code) {
+        codes[row] = code;
+        markPresent(row);
+    }
+
+    public int getCode(int row) {
+        return codes[row];
+    }
+
+    /**
+     * @return row 행의 문자열 (null이면 null)
+     */
+    public String get(int row) {
+        return isNull(row) ? null : dictionary.get(codes[row]);
+    }
+
+    public int dictionarySize() {
+        return dictionary.size();
+    }
+
+    public String decode(int code) {
+        return dictionary.get(code);
+    }
+
+    @Override
+    int capacity() {
+        return codes.length;
+    }
+
+    @Override
+    void grow(int capacity) {
+        codes = Arrays.copyOf(codes, capacity);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.apachepoilearning.metrics;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 기록된 바이트 수를 세는 출력 스트림
+ * close()는 감싼 스트림을 닫지 않습니다. (응답 스트림은 서블릿 컨테이너가 닫습니다)
+ */
+public class CountingOutputStream extends FilterOutputStream {
+
+    private long count;
+
+    public CountingOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        count += len;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
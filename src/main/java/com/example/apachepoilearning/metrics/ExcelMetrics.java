@@ -0,0 +1,170 @@
+package com.example.apachepoilearning.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 엑셀 업로드/다운로드 경로의 Micrometer 지표
+ * /actuator/prometheus 로 노출됩니다.
+ *
+ * 셀 단위 경로(SheetHandler)에서는 지표를 직접 갱신하지 않습니다.
+ * SheetHandler가 일반 필드로 센 행/셀 수를 시트 파싱이 끝난 뒤 한 번에 반영하므로 셀당 추가 비용이 없습니다.
+ * 공유 문자열 조회 수도 MeteredSharedStrings가 세어 두었다가 테이블을 닫을 때 한 번에 반영합니다.
+ */
+@Component
+public class ExcelMetrics {
+
+    private final Timer uploadOpenTimer;
+    private final Timer uploadParseTimer;
+    private final Timer uploadPersistTimer;
+    private final Counter rowsParsed;
+    private final Counter cellsParsed;
+    private final Counter sharedStringLookups;
+    private final Counter rowsPersisted;
+
+    private final MeterRegistry registry;
+
+    // 현재 사용 중인 임시 파일 크기와 그 최대값 (업로드 스테이징 파일, 메모리 매핑 공유 문자열)
+    private final AtomicLong tempFileBytes = new AtomicLong();
+    private final AtomicLong peakTempFileBytes = new AtomicLong();
+
+    // 메모리 예산(MemoryBudget) 전체 크기와 현재 예약된 크기
+    private final AtomicLong memoryBudgetBytes = new AtomicLong();
+    private final AtomicLong memoryReservedBytes = new AtomicLong();
+    private final Timer memoryWaitTimer;
+
+    public ExcelMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.uploadOpenTimer = Timer.builder("excel.upload.open")
+                .description("OPCPackage.open 소요 시간")
+                .register(registry);
+        this.uploadParseTimer = Timer.builder("excel.upload.parse")
+                .description("시트 하나의 SAX 파싱 소요 시간")
+                .register(registry);
+        this.uploadPersistTimer = Timer.builder("excel.upload.persist")
+                .description("청크 하나의 저장(배치 INSERT + 커밋) 소요 시간")
+                .register(registry);
+        this.rowsParsed = Counter.builder("excel.upload.rows.parsed").baseUnit("rows").register(registry);
+        this.cellsParsed = Counter.builder("excel.upload.cells.parsed").baseUnit("cells").register(registry);
+        this.sharedStringLookups = Counter.builder("excel.upload.shared-strings.lookups")
+                .description("공유 문자열 테이블에서 실제로 조회한 문자열 수 (공유 문자열 셀 수가 아님)")
+                .register(registry);
+        this.rowsPersisted = Counter.builder("excel.upload.rows.persisted").baseUnit("rows").register(registry);
+        Gauge.builder("excel.tempfiles.bytes", tempFileBytes, AtomicLong::get)
+                .description("사용 중인 임시 파일 크기")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("excel.tempfiles.peak.bytes", peakTempFileBytes, AtomicLong::get)
+                .description("임시 파일 크기의 최대값")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("excel.memory.budget.bytes", memoryBudgetBytes, AtomicLong::get)
+                .description("업로드/다운로드가 나누어 쓰는 힙 예산")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("excel.memory.reserved.bytes", memoryReservedBytes, AtomicLong::get)
+                .description("처리 중인 요청이 예약한 힙 예산")
+                .baseUnit("bytes")
+                .register(registry);
+        this.memoryWaitTimer = Timer.builder("excel.memory.wait")
+                .description("힙 예산을 예약하기까지 기다린 시간")
+                .register(registry);
+    }
+
+    public void recordOpen(long nanos) {
+        uploadOpenTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 시트 하나의 파싱이 끝난 뒤 처리 건수와 소요 시간을 반영합니다.
+     */
+    public void recordSheetParsed(long rows, long cells, long nanos) {
+        uploadParseTimer.record(nanos, TimeUnit.NANOSECONDS);
+        rowsParsed.increment(rows);
+        cellsParsed.increment(cells);
+    }
+
+    /**
+     * 공유 문자열 테이블을 닫을 때 그동안 조회한 횟수를 반영합니다.
+     */
+    public void recordSharedStringLookups(long lookups) {
+        sharedStringLookups.increment(lookups);
+    }
+
+    public void recordPersist(long rows, long nanos) {
+        uploadPersistTimer.record(nanos, TimeUnit.NANOSECONDS);
+        rowsPersisted.increment(rows);
+    }
+
+    /**
+     * @param mode 다운로드 방식 (xssf, sxssf 등)
+     * @return 워크북(시트 데이터) 생성 소요 시간 타이머
+     */
+    public Timer downloadBuildTimer(String mode) {
+        return Timer.builder("excel.download.build").tag("mode", mode).register(registry);
+    }
+
+    /**
+     * @param mode 다운로드 방식 (xssf, sxssf 등)
+     * @return 워크북 직렬화(출력 스트림 쓰기) 소요 시간 타이머
+     */
+    public Timer downloadWriteTimer(String mode) {
+        return Timer.builder("excel.download.write").tag("mode", mode).register(registry);
+    }
+
+    /**
+     * @param mode 다운로드 방식 (xssf, sxssf 등)
+     * @return 다운로드 파일 크기 분포
+     */
+    public DistributionSummary downloadBytes(String mode) {
+        return DistributionSummary.builder("excel.download.bytes").tag("mode", mode).baseUnit("bytes").register(registry);
+    }
+
+    /**
+     * 임시 파일이 생성되었음을 기록합니다.
+     */
+    public void tempFileAllocated(long bytes) {
+        long current = tempFileBytes.addAndGet(bytes);
+        peakTempFileBytes.accumulateAndGet(current, Math::max);
+    }
+
+    /**
+     * 임시 파일이 삭제되었음을 기록합니다.
+     */
+    public void tempFileReleased(long bytes) {
+        tempFileBytes.addAndGet(-bytes);
+    }
+
+    /**
+     * 메모리 예산 전체 크기를 기록합니다.
+     */
+    public void memoryBudget(long bytes) {
+        memoryBudgetBytes.set(bytes);
+    }
+
+    /**
+     * @param result 예약 결과 (admitted: 예약함, downgraded: 예산이 부족하여 스트리밍 방식으로 바꿈, rejected: 기다리다 거절됨)
+     */
+    public void memoryAdmission(String result) {
+        Counter.builder("excel.memory.admissions").tag("result", result).register(registry).increment();
+    }
+
+    public void recordMemoryWait(long nanos) {
+        memoryWaitTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void memoryReserved(long bytes) {
+        memoryReservedBytes.addAndGet(bytes);
+    }
+
+    public void memoryReleased(long bytes) {
+        memoryReservedBytes.addAndGet(-bytes);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.apachepoilearning.domain.download.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ExportSnapshotCache의 동시 생성, 제거 시점의 파일 보존, TTL 만료, 생성 실패 전달을 확인합니다.
+ */
+class ExportSnapshotCacheTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private ExportSnapshotCache cache;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        executor.shutdownNow();
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    @Test
+    void rendersOnceForConcurrentRequests() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            cache = newCache(DataSize.ofMegabytes(1), Duration.ofMinutes(10));
+            AtomicInteger renders = new AtomicInteger();
+            CountDownLatch release = new CountDownLatch(1);
+            ExportRenderer renderer = out -> {
+                renders.incrementAndGet();
+                await(release);
+                out.write(new byte[]{1, 2, 3});
+            };
+
+            List<Future<ExportSnapshot>> requests = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                requests.add(executor.submit(() -> cache.get("report", "v1", renderer)));
+            }
+            // 모든 요청이 생성 중인 스냅샷을 기다리게 합니다.
+            Thread.sleep(200);
+            release.countDown();
+
+            ExportSnapshot first = requests.get(0).get();
+            for (Future<ExportSnapshot> request : requests) {
+                assertSame(first, request.get());
+            }
+            assertEquals(1, renders.get());
+            assertEquals(3, first.size());
+            for (Future<ExportSnapshot> request : requests) {
+                cache.release(request.get());
+            }
+            assertTrue(Files.exists(first.file()));
+        });
+    }
+
+    @Test
+    void keepsEvictedFileUntilReleased() throws IOException {
+        cache = newCache(DataSize.ofBytes(10), Duration.ofMinutes(10));
+        ExportSnapshot held = cache.get("first", "v1", out -> out.write(new byte[8]));
+
+        // 크기 상한을 넘으므로 가장 오래 사용되지 않은 first가 캐시에서 제거됩니다.
+        ExportSnapshot second = cache.get("second", "v1", out -> out.write(new byte[8]));
+        cache.release(second);
+        assertEquals(8, cache.getTotalBytes());
+        // 아직 읽는 요청이 있으므로 파일은 남아 있습니다.
+        assertTrue(Files.exists(held.file()));
+
+        cache.release(held);
+        assertFalse(Files.exists(held.file()));
+        assertTrue(Files.exists(second.file()));
+
+        // 제거된 보고서는 다시 생성됩니다.
+        AtomicInteger renders = new AtomicInteger();
+        ExportSnapshot again = cache.get("first", "v1", out -> {
+            renders.incrementAndGet();
+            out.write(new byte[8]);
+        });
+        cache.release(again);
+        assertEquals(1, renders.get());
+        assertNotEquals(held.file(), again.file());
+    }
+
+    @Test
+    void rerendersExpiredSnapshot() throws Exception {
+        cache = newCache(DataSize.ofMegabytes(1), Duration.ofMillis(1));
+        AtomicInteger renders = new AtomicInteger();
+        ExportRenderer renderer = out -> out.write(renders.incrementAndGet());
+
+        ExportSnapshot expired = cache.get("report", "v1", renderer);
+        cache.release(expired);
+        Thread.sleep(20);
+
+        ExportSnapshot fresh = cache.get("report", "v1", renderer);
+        cache.release(fresh);
+        assertEquals(2, renders.get());
+        assertNotEquals(expired.etag(), fresh.etag());
+        // 만료된 스냅샷은 읽는 요청이 없으므로 조회할 때 바로 삭제됩니다.
+        assertFalse(Files.exists(expired.file()));
+        assertEquals(1, cache.getTotalBytes());
+    }
+
+    @Test
+    void propagatesErrorToWaitingRequests() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            cache = newCache(DataSize.ofMegabytes(1), Duration.ofMinutes(10));
+            CountDownLatch rendering = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            OutOfMemoryError error = new OutOfMemoryError("Java heap space");
+
+            Future<?> first = executor.submit(() -> cache.get("report", "v1", out -> {
+                rendering.countDown();
+                await(release);
+                throw error;
+            }));
+            rendering.await();
+            // 생성 중인 키를 요청하면 첫 번째 요청의 결과를 기다립니다.
+            Future<?> second = executor.submit(() -> cache.get("report", "v1", out -> out.write(1)));
+            Thread.sleep(200);
+            release.countDown();
+
+            assertSame(error, assertThrows(ExecutionException.class, first::get).getCause());
+            // Error로 끝나더라도 기다리던 요청은 같은 Error를 받고 바로 끝납니다.
+            assertSame(error, assertThrows(ExecutionException.class, () -> second.get(10, TimeUnit.SECONDS)).getCause());
+        });
+    }
+
+    private ExportSnapshotCache newCache(DataSize maxSize, Duration ttl) throws IOException {
+        Path dir = Files.createTempDirectory("snapshot-cache-test");
+        dir.toFile().deleteOnExit();
+        return new ExportSnapshotCache(dir, maxSize, ttl);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
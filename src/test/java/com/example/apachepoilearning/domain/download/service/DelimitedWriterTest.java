@@ -0,0 +1,217 @@
+package com.example.apachepoilearning.domain.download.service;
+
+import com.example.apachepoilearning.domain.upload.service.DelimitedScanner;
+import com.example.apachepoilearning.domain.upload.service.RowConsumer;
+import com.example.apachepoilearning.domain.upload.service.SheetHandler;
+import com.example.apachepoilearning.excel.DelimitedFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DelimitedWriter로 쓴 CSV/TSV를 DelimitedScanner로 다시 읽어 같은 값이 나오는지 확인합니다.
+ */
+class DelimitedWriterTest {
+
+    private static final String[] SPECIAL_VALUES = {
+            "쉼표, 있음", "탭\t있음", "큰따옴표 \"인용\" 있음", "\"", "줄\n바꿈", "캐리지\r리턴", "윈도우\r\n줄바꿈",
+            "끝에 줄바꿈\n", "이모지 😀 와 한글", "007", "1.50", " 앞뒤 공백 "
+    };
+
+    @Test
+    void roundTripsQuotedFields() throws Exception {
+        for (DelimitedFormat format : DelimitedFormat.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            DelimitedWriter writer = new DelimitedWriter(out, format, SPECIAL_VALUES.length + 1, false);
+            for (String value : SPECIAL_VALUES) {
+                writer.startRow();
+                writer.text(0, 0, value);
+                writer.number(1, 0, 25L);
+                writer.number(2, 0, -3.5);
+                writer.bool(3, 0, true);
+                writer.text(5, 0, value);
+                writer.endRow();
+            }
+            writer.finish();
+
+            List<Map<Integer, String>> rows = scan(new ByteArrayInputStream(out.toByteArray()), format);
+            assertEquals(SPECIAL_VALUES.length, rows.size());
+            for (int i = 0; i < SPECIAL_VALUES.length; i++) {
+                // 숫자는 숫자 셀로, 건너뛴 열(4)은 빈 필드로 읽힙니다.
+                assertEquals(Map.of(0, SPECIAL_VALUES[i], 1, "#25.0", 2, "#-3.5", 3, "true", 5, SPECIAL_VALUES[i]), rows.get(i),
+                        format + " " + i + "번째 행");
+            }
+        }
+    }
+
+    @Test
+    void skipsByteOrderMark() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DelimitedWriter writer = new DelimitedWriter(out, DelimitedFormat.CSV, 1, true);
+        writer.writeBom();
+        writer.startRow();
+        writer.headerCell(0, "이메일");
+        writer.headerCell(1, "나이");
+        writer.endRow();
+        writer.finish();
+
+        byte[] bytes = out.toByteArray();
+        assertEquals((byte) 0xEF, bytes[0]);
+        assertEquals("이메일,나이\r\n", new String(bytes, 3, bytes.length - 3, StandardCharsets.UTF_8));
+        assertEquals(List.of(Map.of(0, "이메일", 1, "나이")), scan(new ByteArrayInputStream(bytes), DelimitedFormat.CSV));
+    }
+
+    @Test
+    void roundTripsThroughGzip() throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(compressed);
+        DelimitedWriter writer = new DelimitedWriter(gzip, DelimitedFormat.TSV, 1, false);
+        writer.writeBom();
+        for (int i = 0; i < 10_000; i++) {
+            writer.startRow();
+            writer.text(0, 0, "user" + i + "@example.com");
+            writer.number(1, 0, i);
+            writer.endRow();
+        }
+        writer.finish();
+        gzip.finish();
+
+        List<Map<Integer, String>> rows = scan(new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray())), DelimitedFormat.TSV);
+        assertEquals(10_000, rows.size());
+        assertEquals(Map.of(0, "user9999@example.com", 1, "#9999.0"), rows.get(9_999));
+    }
+
+    @Test
+    void growsBufferForFieldsLongerThanBuffer() throws Exception {
+        // 스캐너의 읽기 버퍼(64KB)보다 긴 필드: 감싼 필드와 감싸지 않은 필드
+        String quoted = "가\"나,\r\n".repeat(40_000);
+        String plain = "abcdefgh".repeat(20_000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DelimitedWriter writer = new DelimitedWriter(out, DelimitedFormat.CSV, 2, false);
+        writer.startRow();
+        writer.text(0, 0, quoted);
+        writer.text(1, 0, plain);
+        writer.number(2, 0, 1L);
+        writer.endRow();
+        writer.startRow();
+        writer.text(0, 0, "다음 행");
+        writer.endRow();
+        writer.finish();
+
+        List<Map<Integer, String>> expected = List.of(Map.of(0, quoted, 1, plain, 2, "#1.0"), Map.of(0, "다음 행"));
+        assertEquals(expected, scan(new ByteArrayInputStream(out.toByteArray()), DelimitedFormat.CSV));
+        // 한 번에 몇 바이트씩만 읽히는 스트림에서도 같습니다.
+        assertEquals(expected, scan(new TrickleInputStream(out.toByteArray(), 5), DelimitedFormat.CSV));
+    }
+
+    @Test
+    void escapesFormulaPrefixes() throws Exception {
+        String[] values = {"=1+2", "+821012345678", "-5", "@SUM(A1:A2)", "\t=cmd", "\r=cmd", "a=b", "이름"};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DelimitedWriter writer = new DelimitedWriter(out, DelimitedFormat.CSV, 1, true);
+        for (String value : values) {
+            writer.startRow();
+            writer.text(0, 0, value);
+            writer.number(1, 0, -5L);
+            writer.endRow();
+        }
+        writer.finish();
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertEquals("'=1+2,-5\r\n'+821012345678,-5\r\n'-5,-5\r\n'@SUM(A1:A2),-5\r\n'\t=cmd,-5\r\n\"'\r=cmd\",-5\r\na=b,-5\r\n이름,-5\r\n", csv);
+
+        List<Map<Integer, String>> rows = scan(new ByteArrayInputStream(out.toByteArray()), DelimitedFormat.CSV);
+        assertEquals(Map.of(0, "'=1+2", 1, "#-5.0"), rows.get(0));
+        assertEquals(Map.of(0, "'\r=cmd", 1, "#-5.0"), rows.get(5));
+        assertEquals(Map.of(0, "a=b", 1, "#-5.0"), rows.get(6));
+    }
+
+    @Test
+    void rejectsInvalidUtf8() {
+        byte[][] inputs = {
+                {'a', ',', (byte) 0xC3, '\n'},                         // 잘린 2바이트 문자
+                {'a', ',', (byte) 0xE3, (byte) 0x81, ',', 'b', '\n'},  // 잘린 3바이트 문자
+                {'"', (byte) 0x80, '"', '\n'},                         // 연속 바이트로 시작
+        };
+        for (byte[] input : inputs) {
+            IOException e = assertThrows(IOException.class, () -> scan(new ByteArrayInputStream(input), DelimitedFormat.CSV));
+            assertTrue(e.getMessage().contains("UTF-8"), e.getMessage());
+        }
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        byte[] unterminated = "이름,나이\r\n\"김철수,30\r\n박영희,25\r\n".getBytes(StandardCharsets.UTF_8);
+        IOException e = assertThrows(IOException.class, () -> scan(new ByteArrayInputStream(unterminated), DelimitedFormat.CSV));
+        assertTrue(e.getMessage().startsWith("2번째 행"), e.getMessage());
+        assertTrue(e.getMessage().contains("닫히지 않았습니다"), e.getMessage());
+
+        byte[] trailing = "\"김철수\"x,30\n".getBytes(StandardCharsets.UTF_8);
+        e = assertThrows(IOException.class, () -> scan(new ByteArrayInputStream(trailing), DelimitedFormat.CSV));
+        assertTrue(e.getMessage().contains("닫는 큰따옴표 뒤에"), e.getMessage());
+    }
+
+    /**
+     * 행마다 열 인덱스별 값을 기록합니다. 숫자 셀은 "#" 뒤에 값을 붙입니다.
+     */
+    private static List<Map<Integer, String>> scan(InputStream input, DelimitedFormat format) throws IOException {
+        List<Map<Integer, String>> rows = new ArrayList<>();
+        RowConsumer recorder = new RowConsumer() {
+            private Map<Integer, String> row;
+
+            @Override
+            public void startRow(int rowIndex) {
+                row = new TreeMap<>();
+            }
+
+            @Override
+            public void numericCell(int columnIndex, double value) {
+                row.put(columnIndex, "#" + value);
+            }
+
+            @Override
+            public void inlineStringCell(int columnIndex, CharSequence value) {
+                row.put(columnIndex, value.toString());
+            }
+
+            @Override
+            public void endRow(int rowIndex) {
+                rows.add(row);
+            }
+        };
+        DelimitedScanner.forCurrentThread().scan(input, format, new SheetHandler(recorder));
+        return rows;
+    }
+
+    /**
+     * read 한 번에 최대 chunk 바이트만 돌려주는 스트림
+     */
+    private static final class TrickleInputStream extends ByteArrayInputStream {
+
+        private final int chunk;
+
+        TrickleInputStream(byte[] bytes, int chunk) {
+            super(bytes);
+            this.chunk = chunk;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, chunk));
+        }
+    }
+}
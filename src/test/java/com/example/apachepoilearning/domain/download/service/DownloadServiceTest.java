@@ -0,0 +1,157 @@
+package com.example.apachepoilearning.domain.download.service;
+
+import com.example.apachepoilearning.domain.memory.MemoryBudget;
+import com.example.apachepoilearning.domain.memory.MemoryEstimator;
+import com.example.apachepoilearning.entity.User;
+import com.example.apachepoilearning.metrics.ExcelMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * writeXlsxFast가 시트 XML을 직접 써서 만든 파일과 writeXlsxParallel이 시트를 동시에 만들어 조립한 파일을 XSSFWorkbook으로 다시 열어,
+ * 객체 모델로 만든 파일(downloadXlsx)과 셀 값, 스타일, 병합 영역, 시트 순서가 같은지 확인합니다.
+ */
+class DownloadServiceTest {
+
+    private static final List<String> SHEET_NAMES = List.of("User List", "Statistics Summary", "Daily Data", "Cell Practice");
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final DownloadService downloadService = newDownloadService(executor);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void fastOutputMatchesObjectModel() throws Exception {
+        List<User> users = users();
+        ByteArrayOutputStream fast = new ByteArrayOutputStream();
+        downloadService.writeXlsxFast(users, fast);
+        assertMatchesObjectModel(fast.toByteArray(), users);
+    }
+
+    @Test
+    void parallelOutputMatchesObjectModel() throws Exception {
+        List<User> users = users();
+        ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+        downloadService.writeXlsxParallel(users, parallel);
+        // 예제 시트는 별도의 워크북에서 인라인 문자열로 만들어 합치므로, 시트 순서, 스타일 인덱스, 병합 영역이 유지되는지 확인합니다.
+        assertMatchesObjectModel(parallel.toByteArray(), users);
+    }
+
+    @Test
+    void writesUserCells() throws Exception {
+        ByteArrayOutputStream fast = new ByteArrayOutputStream();
+        downloadService.writeXlsxFast(users(), fast);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(fast.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("User List");
+            assertEquals(users().size(), sheet.getLastRowNum());
+
+            Row header = sheet.getRow(0);
+            assertEquals(List.of("ID", "이름", "이메일", "나이"),
+                    List.of(text(header, 0), text(header, 1), text(header, 2), text(header, 3)));
+            // 헤더 셀은 기본 스타일입니다.
+            assertEquals(0, header.getCell(0).getCellStyle().getIndex());
+
+            Row first = sheet.getRow(1);
+            assertEquals(1, first.getCell(0).getNumericCellValue());
+            assertEquals("김철수", text(first, 1));
+            assertEquals("kim@example.com", text(first, 2));
+            assertEquals(25, first.getCell(3).getNumericCellValue());
+
+            // XML 특수 문자와 null 값
+            Row special = sheet.getRow(2);
+            assertEquals("<태그> & \"따옴표\" '", text(special, 1));
+            assertNull(special.getCell(2));
+        }
+    }
+
+    /**
+     * 파일을 XSSFWorkbook으로 다시 열어 downloadXlsx로 만든 파일과 시트 순서, 셀 값, 스타일, 병합 영역을 비교합니다.
+     */
+    private void assertMatchesObjectModel(byte[] file, List<User> users) throws Exception {
+        try (XSSFWorkbook actual = new XSSFWorkbook(new ByteArrayInputStream(file));
+             XSSFWorkbook expected = new XSSFWorkbook(new ByteArrayInputStream(downloadService.downloadXlsx(users)))) {
+            assertEquals(SHEET_NAMES, sheetNames(actual));
+            assertEquals(SHEET_NAMES, sheetNames(expected));
+
+            // "User List"는 값과 스타일이 모두 같아야 합니다.
+            assertEquals(describe(expected.getSheet("User List"), true), describe(actual.getSheet("User List"), true));
+            // 나머지 시트도 같은 코드가 만들지만, "Daily Data"의 값은 매번 무작위이므로 스타일만 비교합니다.
+            for (String name : SHEET_NAMES.subList(1, SHEET_NAMES.size())) {
+                boolean values = !name.equals("Daily Data");
+                assertEquals(describe(expected.getSheet(name), values), describe(actual.getSheet(name), values), name);
+                assertEquals(expected.getSheet(name).getMergedRegions().toString(), actual.getSheet(name).getMergedRegions().toString(), name);
+            }
+            // 통계 시트의 건수는 표시 형식 없이 씁니다.
+            assertEquals("General", actual.getSheet("Statistics Summary").getRow(1).getCell(1).getCellStyle().getDataFormatString());
+        }
+    }
+
+    private static DownloadService newDownloadService(ExecutorService executor) {
+        ExcelMetrics metrics = new ExcelMetrics(new SimpleMeterRegistry());
+        return new DownloadService(100, metrics, executor,
+                new MemoryBudget(DataSize.ofBytes(0), 0.5, Duration.ofSeconds(30), metrics),
+                new MemoryEstimator(DataSize.ofMegabytes(8), 1024, 64, 4), true, true);
+    }
+
+    private static List<User> users() {
+        List<User> users = new ArrayList<>();
+        users.add(new User(1L, "김철수", "kim@example.com", 25));
+        users.add(new User(2L, "<태그> & \"따옴표\" '", null, 0));
+        users.add(new User(3L, "최수정", "choi@example.com", 32));
+        return users;
+    }
+
+    private static List<String> sheetNames(XSSFWorkbook workbook) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+            names.add(workbook.getSheetName(i));
+        }
+        return names;
+    }
+
+    /**
+     * 시트의 셀마다 위치, 타입, (values가 true이면) 값, 스타일(표시 형식, 굵게, 채우기, 테두리, 정렬)을 한 줄로 나열합니다.
+     */
+    private static List<String> describe(Sheet sheet, boolean values) {
+        List<String> cells = new ArrayList<>();
+        for (Row row : sheet) {
+            for (Cell cell : row) {
+                XSSFCellStyle style = (XSSFCellStyle) cell.getCellStyle();
+                String value = !values ? "" : cell.getCellType() == CellType.NUMERIC
+                        ? Double.toString(cell.getNumericCellValue()) : cell.toString();
+                cells.add(cell.getAddress() + " " + cell.getCellType() + " " + value
+                        + " | " + style.getDataFormatString() + " " + style.getFont().getBold()
+                        + " " + style.getFillPattern() + " " + style.getFillForegroundColor() + " " + style.getBorderBottom()
+                        + " " + style.getAlignment());
+            }
+        }
+        return cells;
+    }
+
+    private static String text(Row row, int column) {
+        return row.getCell(column).getStringCellValue();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.apachepoilearning.domain.memory;
+
+import com.example.apachepoilearning.metrics.ExcelMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * MemoryBudget이 기다리기 시작한 순서대로 예약하고, tryReserve가 기다리는 요청을 앞지르지 않으며,
+ * 예산 전체보다 큰 요청을 예산 전체로 예약하는지 확인합니다.
+ */
+class MemoryBudgetTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    // 기다리기 시작한 요청이 Semaphore의 대기열에 들어갈 때까지 주는 시간
+    private static final long QUEUE_MILLIS = 200;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void reservesInArrivalOrder() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            MemoryBudget budget = newBudget(Duration.ofSeconds(20));
+            MemoryReservation held = budget.reserve(kilobytes(10));
+
+            // 큰 요청이 먼저 기다리기 시작하면, 뒤에 온 작은 요청은 큰 요청이 끝날 때까지 기다립니다.
+            Future<MemoryReservation> large = executor.submit(() -> budget.reserve(kilobytes(10)));
+            Thread.sleep(QUEUE_MILLIS);
+            Future<MemoryReservation> small = executor.submit(() -> budget.reserve(kilobytes(1)));
+            Thread.sleep(QUEUE_MILLIS);
+
+            held.close();
+            MemoryReservation first = large.get(10, TimeUnit.SECONDS);
+            Thread.sleep(QUEUE_MILLIS);
+            assertFalse(small.isDone());
+
+            first.close();
+            small.get(10, TimeUnit.SECONDS).close();
+            assertEquals(kilobytes(10), budget.availableBytes());
+        });
+    }
+
+    @Test
+    void tryReserveDoesNotJumpQueue() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            MemoryBudget budget = newBudget(Duration.ofSeconds(20));
+            MemoryReservation held = budget.reserve(kilobytes(6));
+            Future<MemoryReservation> waiting = executor.submit(() -> budget.reserve(kilobytes(8)));
+            Thread.sleep(QUEUE_MILLIS);
+
+            // 4KB가 남아 있지만, 먼저 기다리는 요청이 있으므로 예약하지 않습니다.
+            assertEquals(kilobytes(4), budget.availableBytes());
+            assertNull(budget.tryReserve(kilobytes(1)));
+
+            held.close();
+            MemoryReservation reserved = waiting.get(10, TimeUnit.SECONDS);
+            // 기다리는 요청이 없으면 남은 예산에서 바로 예약합니다.
+            MemoryReservation immediate = budget.tryReserve(kilobytes(1));
+            assertNotNull(immediate);
+            immediate.close();
+            reserved.close();
+        });
+    }
+
+    @Test
+    void capsRequestLargerThanBudget() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            MemoryBudget budget = newBudget(Duration.ofMillis(100));
+
+            // 예산 전체를 예약하므로 혼자 실행됩니다.
+            MemoryReservation whole = budget.reserve(kilobytes(100));
+            assertEquals(budget.totalBytes(), whole.bytes());
+            assertEquals(0, budget.availableBytes());
+            assertNull(budget.tryReserve(1));
+            whole.close();
+            // close를 여러 번 호출해도 한 번만 반납합니다.
+            whole.close();
+            assertEquals(budget.totalBytes(), budget.availableBytes());
+
+            // 다른 요청이 예산을 쓰고 있으면 maxWait 동안 기다린 뒤 거절합니다.
+            MemoryReservation held = budget.reserve(1);
+            assertThrows(RejectedExecutionException.class, () -> budget.reserve(kilobytes(100)));
+            held.close();
+            budget.reserve(kilobytes(100)).close();
+        });
+    }
+
+    private static MemoryBudget newBudget(Duration maxWait) {
+        return new MemoryBudget(DataSize.ofKilobytes(10), 0.5, maxWait, new ExcelMetrics(new SimpleMeterRegistry()));
+    }
+
+    private static long kilobytes(int count) {
+        return DataSize.ofKilobytes(count).toBytes();
+    }
+}
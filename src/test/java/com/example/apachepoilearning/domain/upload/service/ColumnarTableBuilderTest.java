@@ -0,0 +1,158 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import com.example.apachepoilearning.excel.table.ColumnType;
+import com.example.apachepoilearning.excel.table.ColumnarTable;
+import com.example.apachepoilearning.excel.table.GroupSummary;
+import com.example.apachepoilearning.excel.table.StringColumn;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ColumnarTableBuilder가 셀 이벤트를 열 배열, null 비트맵, 문자열 사전에 올바르게 저장하는지 확인합니다.
+ */
+class ColumnarTableBuilderTest {
+
+    private static final String[] NAMES = {"카테고리", "값", "수량", "날짜"};
+    private static final ColumnType[] TYPES = {ColumnType.STRING, ColumnType.DOUBLE, ColumnType.LONG, ColumnType.DATE};
+
+    @Test
+    void tracksNullsAcrossBitmapWords() {
+        ColumnarTable table = ColumnarTable.of(NAMES, TYPES);
+        ColumnarTableBuilder builder = new ColumnarTableBuilder(new CountingSharedStrings(), table, 1);
+        header(builder);
+        // 초기 용량(1024행)과 비트맵 워드(64행) 경계를 넘도록 2000행을 채우고, 값은 3행마다 하나씩만 넣습니다.
+        int rows = 2_000;
+        for (int i = 0; i < rows; i++) {
+            builder.startRow(i + 1);
+            if (i % 3 == 0) {
+                builder.numericCell(1, i * 0.5);
+                builder.numericCell(2, i);
+            }
+            builder.endRow(i + 1);
+        }
+
+        assertEquals(rows, table.getRowCount());
+        int expectedNulls = rows - (rows + 2) / 3;
+        for (int column = 0; column < NAMES.length; column++) {
+            int nulls = column == 1 || column == 2 ? expectedNulls : rows;
+            assertEquals(nulls, table.column(column).nullCount(rows), NAMES[column]);
+        }
+        for (int i = 0; i < rows; i++) {
+            assertEquals(i % 3 != 0, table.column(1).isNull(i), "행 " + i);
+        }
+        assertEquals(1_998 * 0.5, table.doubleColumn(1).get(1_998));
+        assertEquals(1_998, table.longColumn(2).get(1_998));
+        // 집계는 null 행을 건너뜁니다.
+        assertEquals(0, table.min(2));
+        assertEquals(1_998, table.max(2));
+    }
+
+    @Test
+    void encodesRepeatedStringsOnce() {
+        CountingSharedStrings sst = new CountingSharedStrings("식품", "의류", "가전", "미사용");
+        ColumnarTable table = ColumnarTable.of(NAMES, TYPES);
+        ColumnarTableBuilder builder = new ColumnarTableBuilder(sst, table, 1);
+        header(builder);
+        int[] categories = {0, 1, 0, 2, 1, 0};
+        for (int i = 0; i < categories.length; i++) {
+            builder.startRow(i + 1);
+            builder.sharedStringCell(0, categories[i]);
+            builder.numericCell(1, i + 1);
+            builder.endRow(i + 1);
+        }
+        // 공유 문자열과 같은 내용의 인라인 문자열은 같은 사전 코드가 됩니다.
+        builder.startRow(7);
+        builder.inlineStringCell(0, "의류");
+        builder.numericCell(1, 10);
+        builder.endRow(7);
+
+        StringColumn strings = table.stringColumn(0);
+        assertEquals(3, strings.dictionarySize());
+        // 공유 문자열 인덱스마다 한 번만 조회합니다.
+        assertEquals(3, sst.lookups);
+        assertEquals(strings.getCode(1), strings.getCode(4));
+        assertEquals(strings.getCode(1), strings.getCode(6));
+        assertEquals("가전", strings.get(3));
+
+        List<GroupSummary> groups = table.groupBy(0, 1);
+        assertEquals(List.of(
+                new GroupSummary("식품", 3, 1 + 3 + 6, 1, 6),
+                new GroupSummary("의류", 3, 2 + 5 + 10, 2, 10),
+                new GroupSummary("가전", 1, 4, 4, 4)), groups);
+    }
+
+    @Test
+    void convertsCellsToColumnTypes() {
+        CountingSharedStrings sst = new CountingSharedStrings("2024-01-31", "12.5");
+        ColumnarTable table = ColumnarTable.of(NAMES, TYPES);
+        ColumnarTableBuilder builder = new ColumnarTableBuilder(sst, table, 1);
+        header(builder);
+
+        builder.startRow(1);
+        builder.numericCell(0, 25);                // 숫자 → 문자열 열
+        builder.inlineStringCell(1, "3.5");        // 문자열 → 숫자 열
+        builder.sharedStringCell(2, 1);            // 공유 문자열 → 정수 열
+        builder.sharedStringCell(3, 0);            // 공유 문자열 → 날짜 열
+        builder.numericCell(4, 99);                // 표에 없는 열은 무시
+        builder.endRow(1);
+
+        builder.startRow(2);
+        builder.booleanCell(0, true);
+        builder.booleanCell(2, true);
+        builder.numericCell(3, 45_322.75);         // 날짜 일련번호의 시간 부분은 버림
+        builder.inlineStringCell(1, "");           // 빈 문자열은 null
+        builder.endRow(2);
+
+        assertEquals("25", table.stringColumn(0).get(0));
+        assertEquals(3.5, table.doubleColumn(1).get(0));
+        assertEquals(12, table.longColumn(2).get(0));
+        assertEquals(LocalDate.of(2024, 1, 31), table.dateColumn(3).getDate(0));
+
+        assertEquals("TRUE", table.stringColumn(0).get(1));
+        assertEquals(1, table.longColumn(2).get(1));
+        assertEquals(LocalDate.of(2024, 1, 31), table.dateColumn(3).getDate(1));
+        assertTrue(table.column(1).isNull(1));
+        assertFalse(table.column(2).isNull(1));
+        assertEquals(2, table.getRowCount());
+    }
+
+    /**
+     * 헤더 행(0)은 표에 들어가지 않습니다.
+     */
+    private static void header(ColumnarTableBuilder builder) {
+        builder.startRow(0);
+        for (int i = 0; i < NAMES.length; i++) {
+            builder.inlineStringCell(i, NAMES[i]);
+        }
+        builder.endRow(0);
+    }
+
+    /**
+     * 공유 문자열 조회 횟수를 셉니다.
+     */
+    private static final class CountingSharedStrings extends SharedStringsTable {
+
+        private int lookups;
+
+        CountingSharedStrings(String... values) {
+            for (String value : values) {
+                addSharedStringItem(new XSSFRichTextString(value));
+            }
+        }
+
+        @Override
+        public RichTextString getItemAt(int idx) {
+            lookups++;
+            return super.getItemAt(idx);
+        }
+    }
+}
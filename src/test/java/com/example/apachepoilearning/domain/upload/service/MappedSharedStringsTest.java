@@ -0,0 +1,109 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MappedSharedStrings가 같은 sharedStrings.xml을 읽은 SharedStringsTable과 같은 문자열을 돌려주는지,
+ * 매핑 구간 경계와 LRU 캐시가 조회 결과를 바꾸지 않는지 확인합니다.
+ */
+class MappedSharedStringsTest {
+
+    private static final String SST = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <sst xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" count="12" uniqueCount="9">\
+            <si><t>ASCII</t></si>\
+            <si><t>한글 식품</t></si>\
+            <si><t>Ω é</t></si>\
+            <si><t>😀 𠀀</t></si>\
+            <si><r><rPr><b/></rPr><t>굵게</t></r><r><t xml:space="preserve"> 보통</t></r>\
+            <rPh sb="0" eb="1"><t>ふりがな</t></rPh></si>\
+            <si><t>줄_x000D_바꿈</t></si>\
+            <si><t>_xD83D_ 짝 없음</t></si>\
+            <si><t>_xD83D__xDE00_ 짝</t></si>\
+            <si><t/></si>\
+            </sst>""";
+
+    // 각 항목이 SharedStringsTable에서 조회되는 값
+    private static final List<String> EXPECTED = List.of(
+            "ASCII",
+            "한글 식품",
+            "Ω é",
+            "😀 𠀀",
+            "굵게 보통",
+            "줄\r바꿈",
+            "\uD83D 짝 없음",
+            "😀 짝",
+            "");
+
+    @Test
+    void matchesSharedStringsTable() throws Exception {
+        SharedStringsTable table = new SharedStringsTable();
+        table.readFrom(xml());
+
+        try (MappedSharedStrings mapped = MappedSharedStrings.open(xml(), 16, MappedSharedStrings.SEGMENT_SIZE)) {
+            assertEquals(table.getCount(), mapped.getCount());
+            assertEquals(table.getUniqueCount(), mapped.getUniqueCount());
+            for (int i = 0; i < table.getUniqueCount(); i++) {
+                assertEquals(table.getItemAt(i).getString(), mapped.getString(i));
+                assertEquals(EXPECTED.get(i), mapped.getString(i));
+            }
+        }
+    }
+
+    @Test
+    void readsAcrossSegmentBoundaries() throws Exception {
+        // 구간을 16바이트로 줄여서, 1GB 구간 경계에서 다음 구간으로 건너뛰는 경로를 작은 파일로 확인합니다.
+        try (MappedSharedStrings mapped = MappedSharedStrings.open(xml(), 0, 16)) {
+            assertEquals(EXPECTED.size(), mapped.getUniqueCount());
+            for (int i = 0; i < EXPECTED.size(); i++) {
+                assertEquals(EXPECTED.get(i), mapped.getString(i));
+            }
+            // 건너뛴 만큼 데이터 파일이 문자열 바이트 합보다 큽니다.
+            long bytes = EXPECTED.stream().mapToLong(s -> s.getBytes(StandardCharsets.UTF_8).length).sum();
+            assertTrue(mapped.getFileSize() > bytes + 12L * EXPECTED.size());
+        }
+    }
+
+    @Test
+    void keepsRecentlyUsedStringsInCache() throws Exception {
+        try (MappedSharedStrings mapped = MappedSharedStrings.open(xml(), 2, MappedSharedStrings.SEGMENT_SIZE)) {
+            String first = mapped.getString(1);
+            String second = mapped.getString(2);
+            // 캐시에 있으면 같은 인스턴스를 돌려줍니다.
+            assertSame(first, mapped.getString(1));
+
+            // 1을 최근에 조회했으므로, 3을 넣으면 가장 오래 사용되지 않은 2가 제거됩니다.
+            mapped.getString(3);
+            assertSame(first, mapped.getString(1));
+            String again = mapped.getString(2);
+            assertNotSame(second, again);
+            assertEquals(second, again);
+
+            assertThrows(IllegalArgumentException.class, () -> mapped.getString(EXPECTED.size()));
+        }
+    }
+
+    @Test
+    void opensEmptyTable() throws Exception {
+        try (MappedSharedStrings mapped = MappedSharedStrings.open((InputStream) null, 16, MappedSharedStrings.SEGMENT_SIZE)) {
+            assertEquals(0, mapped.getUniqueCount());
+            assertThrows(IllegalArgumentException.class, () -> mapped.getString(0));
+        }
+    }
+
+    private static InputStream xml() {
+        return new ByteArrayInputStream(SST.getBytes(StandardCharsets.UTF_8));
+    }
+}
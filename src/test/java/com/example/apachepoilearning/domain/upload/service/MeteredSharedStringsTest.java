@@ -0,0 +1,47 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import com.example.apachepoilearning.excel.table.ColumnType;
+import com.example.apachepoilearning.excel.table.ColumnarTable;
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * MeteredSharedStrings가 공유 문자열 셀 수가 아니라 실제 조회 횟수를 세는지 확인합니다.
+ */
+class MeteredSharedStringsTest {
+
+    @Test
+    void countsLookups() {
+        MeteredSharedStrings sst = new MeteredSharedStrings(table("식품", "의류"));
+        assertEquals("의류", MappedSharedStrings.resolve(sst, 1));
+        assertEquals("식품", sst.getItemAt(0).getString());
+        assertEquals(2, sst.getLookupCount());
+        assertEquals(2, sst.getUniqueCount());
+    }
+
+    @Test
+    void skipsLookupsCachedByConsumer() {
+        MeteredSharedStrings sst = new MeteredSharedStrings(table("식품", "의류"));
+        ColumnarTable table = ColumnarTable.of(new String[]{"카테고리"}, new ColumnType[]{ColumnType.STRING});
+        ColumnarTableBuilder builder = new ColumnarTableBuilder(sst, table, 0);
+        // 공유 문자열 셀은 6개지만, ColumnarTableBuilder는 인덱스마다 한 번만 조회합니다.
+        for (int i = 0; i < 6; i++) {
+            builder.startRow(i);
+            builder.sharedStringCell(0, i % 2);
+            builder.endRow(i);
+        }
+        assertEquals(6, table.getRowCount());
+        assertEquals(2, sst.getLookupCount());
+    }
+
+    private static SharedStringsTable table(String... values) {
+        SharedStringsTable table = new SharedStringsTable();
+        for (String value : values) {
+            table.addSharedStringItem(new XSSFRichTextString(value));
+        }
+        return table;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RowHashIndex의 추가, 조회, 확장과 seen 표시를 확인합니다.
+ */
+class RowHashIndexTest {
+
+    @Test
+    void findsEntriesAfterGrowing() {
+        RowHashIndex index = new RowHashIndex(4);
+        for (long i = 1; i <= 10_000; i++) {
+            index.put(key(i), i * 31, i);
+        }
+        assertEquals(10_000, index.size());
+        for (long i = 1; i <= 10_000; i++) {
+            int slot = index.find(key(i));
+            assertTrue(slot >= 0, "키 " + i);
+            assertEquals(i * 31, index.rowHash(slot));
+            assertEquals(i, index.userId(slot));
+        }
+        assertEquals(-1, index.find(key(10_001)));
+    }
+
+    @Test
+    void putReplacesExistingKey() {
+        RowHashIndex index = new RowHashIndex(16);
+        int slot = index.put(key(1), 100, 0);
+        assertEquals(slot, index.put(key(1), 200, 7));
+        assertEquals(1, index.size());
+        assertEquals(200, index.rowHash(slot));
+        assertEquals(7, index.userId(slot));
+    }
+
+    @Test
+    void probesPastCollidingKeys() {
+        // 하위 32비트와 상위 32비트를 섞어도 하위 비트가 모두 0이므로 전부 같은 슬롯에서 시작합니다.
+        RowHashIndex index = new RowHashIndex(16);
+        for (long i = 1; i <= 100; i++) {
+            index.put(i << 20, i, i);
+        }
+        for (long i = 1; i <= 100; i++) {
+            assertEquals(i, index.userId(index.find(i << 20)));
+        }
+        assertEquals(-1, index.find(101L << 20));
+    }
+
+    @Test
+    void reportsUnseenEntriesAcrossGrowth() {
+        RowHashIndex index = new RowHashIndex(4);
+        for (long i = 1; i <= 10; i++) {
+            index.put(key(i), i, i);
+        }
+        // 짝수 키만 이번 업로드에 나타났다고 표시합니다.
+        for (long i = 2; i <= 10; i += 2) {
+            assertTrue(index.markSeen(index.find(key(i))));
+            assertFalse(index.markSeen(index.find(key(i))), "두 번째 표시는 중복");
+        }
+        // 확장 후에도 seen 표시가 유지되어야 합니다.
+        for (long i = 11; i <= 1_000; i++) {
+            index.markSeen(index.put(key(i), i, i));
+        }
+
+        Map<Long, Long> unseen = new HashMap<>();
+        index.forEachUnseen(unseen::put);
+        assertEquals(Map.of(key(1), 1L, key(3), 3L, key(5), 5L, key(7), 7L, key(9), 9L), unseen);
+    }
+
+    /**
+     * 실제 키 해시처럼 비트가 고르게 섞인 값
+     */
+    private static long key(long i) {
+        return i * 0x9E3779B97F4A7C15L;
+    }
+}
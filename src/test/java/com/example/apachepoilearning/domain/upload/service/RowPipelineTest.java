@@ -0,0 +1,182 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * RowPipeline의 순서 보장, 워커와 writer 예외 전달, 종료 조건을 확인합니다.
+ */
+class RowPipelineTest {
+
+    private static final int WORKERS = 4;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(WORKERS + 1);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void deliversRowsInOrder() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            RecordingSink sink = new RecordingSink();
+            // 버퍼가 적고 워커마다 처리 시간이 달라, 완료 순서가 파싱 순서와 달라집니다.
+            RowPipeline<Integer> pipeline = new RowPipeline<>(WORKERS, 16, true, 7, RowPipelineTest::slowValue, sink);
+            pipeline.start(executor);
+            feed(pipeline, 10_000);
+            pipeline.finish();
+
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 1; i < 10_000; i++) {
+                expected.add(i);
+            }
+            assertEquals(expected, sink.values);
+            // 배치마다 마지막 행 인덱스는 배치의 마지막 값과 같습니다. (체크포인트)
+            for (int i = 0; i < sink.batches.size(); i++) {
+                List<Integer> batch = sink.batches.get(i);
+                assertEquals(batch.get(batch.size() - 1), sink.lastRows.get(i));
+            }
+            // 마지막 부분 배치도 저장됩니다. (9999 = 7 × 1428 + 3)
+            assertEquals(3, sink.batches.get(sink.batches.size() - 1).size());
+        });
+    }
+
+    @Test
+    void deliversEveryRowUnordered() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            RecordingSink sink = new RecordingSink();
+            RowPipeline<Integer> pipeline = new RowPipeline<>(WORKERS, 16, false, 10, RowPipelineTest::slowValue, sink);
+            pipeline.start(executor);
+            feed(pipeline, 5_000);
+            pipeline.finish();
+
+            List<Integer> values = new ArrayList<>(sink.values);
+            Collections.sort(values);
+            assertEquals(4_999, values.size());
+            for (int i = 0; i < values.size(); i++) {
+                assertEquals(i + 1, (int) values.get(i));
+            }
+        });
+    }
+
+    @Test
+    void finishesWithoutRows() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            RecordingSink sink = new RecordingSink();
+            RowPipeline<Integer> pipeline = new RowPipeline<>(WORKERS, 16, true, 10, RowPipelineTest::slowValue, sink);
+            pipeline.start(executor);
+            // 헤더 행만 있는 시트
+            feed(pipeline, 1);
+            pipeline.finish();
+            assertEquals(List.of(), sink.batches);
+        });
+    }
+
+    @Test
+    void propagatesWorkerFailure() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            IllegalArgumentException failure = new IllegalArgumentException("변환 실패");
+            RowPipeline<Integer> pipeline = new RowPipeline<>(WORKERS, 16, true, 10, row -> {
+                if (row.rowIndex() == 500) {
+                    throw failure;
+                }
+                return row.rowIndex();
+            }, new RecordingSink());
+            pipeline.start(executor);
+            try {
+                feed(pipeline, 10_000);
+            } catch (IllegalStateException e) {
+                // 실패 이후 파서는 다음 행을 시작할 때 중단됩니다.
+                assertSame(failure, e.getCause());
+            }
+            assertSame(failure, assertThrows(IllegalArgumentException.class, pipeline::finish));
+        });
+    }
+
+    @Test
+    void propagatesSinkFailure() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            IllegalStateException failure = new IllegalStateException("저장 실패");
+            RowPipeline<Integer> pipeline = new RowPipeline<>(WORKERS, 16, true, 10, RowPipelineTest::slowValue, (batch, lastRow) -> {
+                throw failure;
+            });
+            pipeline.start(executor);
+            try {
+                feed(pipeline, 10_000);
+            } catch (IllegalStateException e) {
+                assertSame(failure, e.getCause());
+            }
+            assertSame(failure, assertThrows(IllegalStateException.class, pipeline::finish));
+        });
+    }
+
+    @Test
+    void abortStopsWorkers() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            RowPipeline<Integer> pipeline = new RowPipeline<>(WORKERS, 16, true, 10, RowPipelineTest::slowValue, new RecordingSink());
+            pipeline.start(executor);
+            feed(pipeline, 100);
+            // 파서가 실패하면 endSheet 없이 abort가 호출됩니다.
+            Exception cause = new Exception("파싱 실패");
+            pipeline.abort(cause);
+            assertSame(cause, assertThrows(Exception.class, pipeline::finish));
+        });
+    }
+
+    /**
+     * 0행(헤더)과 열 하나짜리 데이터 행을 SheetHandler처럼 전달합니다.
+     */
+    private static void feed(RowPipeline<Integer> pipeline, int rows) {
+        for (int i = 0; i < rows; i++) {
+            pipeline.startRow(i);
+            pipeline.numericCell(0, i);
+            pipeline.endRow(i);
+        }
+        pipeline.endSheet();
+    }
+
+    /**
+     * 헤더 행은 null, 나머지는 행 인덱스를 반환합니다. 일부 행은 늦게 끝나도록 잠시 멈춥니다.
+     */
+    private static Integer slowValue(RowBuffer row) {
+        if (row.rowIndex() == 0) {
+            return null;
+        }
+        if (row.rowIndex() % 97 == 0) {
+            LockSupport.parkNanos(200_000);
+        }
+        return (int) row.number(0);
+    }
+
+    /**
+     * writer 스레드 하나에서만 호출되므로 동기화하지 않습니다. (finish()가 writer의 종료를 기다린 뒤 읽습니다)
+     */
+    private static final class RecordingSink implements BatchSink<Integer> {
+
+        private final List<Integer> values = new ArrayList<>();
+        private final List<List<Integer>> batches = new ArrayList<>();
+        private final List<Integer> lastRows = new ArrayList<>();
+
+        @Override
+        public void write(List<Integer> batch, int lastRowIndex) {
+            values.addAll(batch);
+            batches.add(new ArrayList<>(batch));
+            lastRows.add(lastRowIndex);
+        }
+    }
+}
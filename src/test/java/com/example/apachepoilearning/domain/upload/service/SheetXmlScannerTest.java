@@ -0,0 +1,307 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SheetXmlScanner가 같은 시트 XML을 SAX(SaxReaders.parse)와 똑같이 읽는지 확인합니다.
+ * 두 방식으로 읽은 SheetHandler 이벤트(행, 셀 값)와 행 해시를 기록하여 비교합니다.
+ */
+class SheetXmlScannerTest {
+
+    private static final String HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\r\n"
+            + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\""
+            + " xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+            + "<dimension ref=\"A1:D4\"/><sheetViews><sheetView workbookViewId=\"0\"/></sheetViews>"
+            + "<sheetFormatPr defaultRowHeight=\"15\"/><cols><col min=\"1\" max=\"1\" width=\"20\" customWidth=\"1\"/></cols>"
+            + "<sheetData>";
+    private static final String FOOTER = "</sheetData>"
+            + "<pageMargins left=\"0.7\" right=\"0.7\" top=\"0.75\" bottom=\"0.75\" header=\"0.3\" footer=\"0.3\"/></worksheet>";
+
+    // 스캐너의 첫 읽기 버퍼 크기 (SheetXmlScanner.BUFFER_SIZE)
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Test
+    void sharedAndInlineStrings() throws Exception {
+        String xml = sheet("<row r=\"1\" spans=\"1:4\">"
+                + "<c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"B1\" t=\"s\"><v>1</v></c>"
+                + "<c r=\"C1\" t=\"inlineStr\"><is><t xml:space=\"preserve\">  앞뒤 공백  </t></is></c>"
+                + "<c r=\"D1\" t=\"inlineStr\"><is><r><rPr><b/></rPr><t>굵게</t></r><r><t xml:space=\"preserve\"> 보통</t></r>"
+                + "<rPh sb=\"0\" eb=\"1\"><t>ルビ</t></rPh></is></c></row>"
+                + "<row r=\"2\"><c r=\"A2\" t=\"s\"><v>2</v></c><c r=\"B2\" t=\"s\"><v>3</v></c>"
+                + "<c r=\"C2\"><v>30</v></c><c r=\"D2\" s=\"1\"><v>45292.5</v></c></row>"
+                + "<row r=\"3\"><c r=\"A3\" t=\"str\"><f>A2&amp;\"!\"</f><v>kim@example.com!</v></c>"
+                + "<c r=\"B3\" t=\"b\"><v>1</v></c><c r=\"C3\" t=\"e\"><v>#DIV/0!</v></c><c r=\"D3\"><v>-1.5E-3</v></c></row>");
+
+        List<String> events = assertSameEvents(xml);
+        assertTrue(events.contains("inline 2 [  앞뒤 공백  ]"));
+        assertTrue(events.contains("inline 3 [굵게 보통]"));
+        assertTrue(events.contains("shared 0 2"));
+        assertTrue(events.contains("inline 0 [kim@example.com!]"));
+        assertTrue(events.contains("error 2 [#DIV/0!]"));
+    }
+
+    @Test
+    void entityAndCharacterReferences() throws Exception {
+        String xml = sheet("<row r=\"1\">"
+                + "<c r=\"A1\" t=\"inlineStr\"><is><t>a &amp; b &lt;c&gt; &quot;d&quot; &apos;e&apos;</t></is></c>"
+                + "<c r=\"B1\" t=\"inlineStr\"><is><t>&#44608;&#xAE40;&#x1F600;&#10;끝</t></is></c>"
+                + "<c r=\"C1\" t=\"str\"><v>1 &lt; 2</v></c>"
+                + "<c r=\"D1\" t=\"inlineStr\"><is><t>줄\r\n바꿈\r끝</t></is></c></row>");
+
+        List<String> events = assertSameEvents(xml);
+        assertTrue(events.contains("inline 0 [a & b <c> \"d\" 'e']"));
+        assertTrue(events.contains("inline 1 [김김😀\n끝]"));
+        assertTrue(events.contains("inline 2 [1 < 2]"));
+        assertTrue(events.contains("inline 3 [줄\n바꿈\n끝]"));
+    }
+
+    @Test
+    void cdataSections() throws Exception {
+        String xml = sheet("<row r=\"1\">"
+                + "<c r=\"A1\" t=\"inlineStr\"><is><t><![CDATA[<b>굵게</b> & &amp;]]></t></is></c>"
+                + "<c r=\"B1\" t=\"inlineStr\"><is><t>앞 <![CDATA[]]]]><![CDATA[>]]> 뒤</t></is></c>"
+                + "<c r=\"C1\"><v><![CDATA[42]]></v></c></row>");
+
+        List<String> events = assertSameEvents(xml);
+        assertTrue(events.contains("inline 0 [<b>굵게</b> & &amp;]"));
+        assertTrue(events.contains("inline 1 [앞 ]]> 뒤]"));
+        assertTrue(events.contains("number 2 42.0"));
+    }
+
+    @Test
+    void selfClosingRowsAndCells() throws Exception {
+        String xml = sheet("<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"B1\" s=\"2\"/><c r=\"C1\"><v>7</v></c></row>"
+                + "<row r=\"2\"/>"
+                + "<row r=\"4\" ht=\"20\" customHeight=\"1\"><c r=\"A4\" t=\"inlineStr\"><is/></c><c r=\"B4\"><v/></c>"
+                + "<c t=\"n\"><v>3</v></c><c><v>4</v></c></row>"
+                + "<row><c r=\"D5\" t=\"inlineStr\"><is><t/></is></c></row>");
+
+        List<String> events = assertSameEvents(xml);
+        assertTrue(events.contains("row 1"));
+        assertTrue(events.contains("end 1"));
+        // r 속성이 없는 셀과 행은 이전 셀, 행의 다음 위치입니다.
+        assertTrue(events.contains("number 2 3.0"));
+        assertTrue(events.contains("number 3 4.0"));
+        assertTrue(events.contains("row 4"));
+        assertTrue(events.contains("inline 3 []"));
+    }
+
+    @Test
+    void emptySheets() throws Exception {
+        assertSameEvents(sheet(""));
+        assertSameEvents(HEADER.replace("<sheetData>", "<sheetData/>") + FOOTER.replace("</sheetData>", ""));
+        assertSameEvents("<?xml version=\"1.0\" encoding=\"UTF-8\"?><worksheet><dimension ref=\"A1\"/></worksheet>");
+    }
+
+    @Test
+    void multiByteCharactersAcrossBufferBoundary() throws Exception {
+        // 2, 3, 4바이트 UTF-8 문자가 64KB 버퍼 경계의 모든 위치에서 나뉘도록 앞부분 길이를 바꿔 가며 확인합니다.
+        String characters = "é가나😀다";
+        for (int padding = 0; padding < 8; padding++) {
+            StringBuilder rows = new StringBuilder();
+            rows.append("<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>").append("x".repeat(padding)).append("</t></is></c></row>");
+            int row = 2;
+            while (rows.length() < BUFFER_SIZE + 4096) {
+                rows.append("<row r=\"").append(row).append("\"><c r=\"A").append(row).append("\" t=\"inlineStr\"><is><t>")
+                        .append(characters).append(row).append(characters).append("</t></is></c>")
+                        .append("<c r=\"B").append(row).append("\" t=\"s\"><v>").append(row % 4).append("</v></c>")
+                        .append("<c r=\"C").append(row).append("\"><v>").append(row * 1.25).append("</v></c></row>");
+                row++;
+            }
+            assertSameEvents(sheet(rows.toString()));
+        }
+
+        // 버퍼보다 긴 문자열 하나 (버퍼를 늘리는 경로)
+        String longText = characters.repeat(BUFFER_SIZE / 5);
+        List<String> events = assertSameEvents(sheet("<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>" + longText
+                + "</t></is></c><c r=\"B1\" t=\"s\"><v>1</v></c></row>"));
+        assertTrue(events.contains("inline 0 [" + longText + "]"));
+    }
+
+    @Test
+    void doctypeFallsBackToSax() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!DOCTYPE worksheet>\n"
+                + HEADER.substring(HEADER.indexOf("<worksheet"))
+                + "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>문서 형식 선언</t></is></c><c r=\"B1\" t=\"s\"><v>0</v></c></row>"
+                + FOOTER;
+
+        List<String> events = assertFallbackEvents(xml.getBytes(StandardCharsets.UTF_8));
+        assertTrue(events.contains("inline 0 [문서 형식 선언]"));
+    }
+
+    @Test
+    void nonUtf8EncodingFallsBackToSax() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n"
+                + HEADER.substring(HEADER.indexOf("<worksheet"))
+                + "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>café</t></is></c><c r=\"B1\"><v>1</v></c></row>"
+                + FOOTER;
+
+        List<String> events = assertFallbackEvents(xml.getBytes(StandardCharsets.ISO_8859_1));
+        assertTrue(events.contains("inline 0 [café]"));
+
+        // UTF-16 문서는 XML 선언을 읽기 전에 BOM으로 확인합니다.
+        byte[] utf16 = xml.replace("ISO-8859-1", "UTF-16").getBytes(StandardCharsets.UTF_16);
+        assertTrue(assertFallbackEvents(utf16).contains("inline 0 [café]"));
+    }
+
+    @Test
+    void scannerIsReusableAfterFallback() throws Exception {
+        byte[] doctype = ("<?xml version=\"1.0\"?><!DOCTYPE worksheet>" + HEADER.substring(HEADER.indexOf("<worksheet")) + FOOTER)
+                .getBytes(StandardCharsets.UTF_8);
+        assertFallbackEvents(doctype);
+        assertSameEvents(sheet("<row r=\"1\"><c r=\"A1\"><v>1</v></c></row>"));
+    }
+
+    // ------------------------- 비교 -------------------------
+
+    private static String sheet(String rows) {
+        return HEADER + rows + FOOTER;
+    }
+
+    /**
+     * SAX와 스캐너로 읽은 이벤트가 같은지 확인합니다. 스캐너는 한 번에 읽는 스트림과 몇 바이트씩만 읽히는 스트림으로 각각 읽습니다.
+     *
+     * @return SAX로 읽은 이벤트
+     */
+    private static List<String> assertSameEvents(String xml) throws Exception {
+        byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+        List<String> expected = parseWithSax(new ByteArrayInputStream(bytes));
+        assertEquals(expected, scan(new ByteArrayInputStream(bytes)));
+        assertEquals(expected, scan(new TrickleInputStream(bytes, 7)));
+        return expected;
+    }
+
+    /**
+     * 스캐너가 처리하지 않는 문서이면 handler를 호출하지 않고 false를 반환하고,
+     * unread()로 이어서 SAX로 읽은 결과가 처음부터 SAX로 읽은 결과와 같은지 확인합니다. (UploadService.parseSheet와 같은 순서)
+     *
+     * @return SAX로 읽은 이벤트
+     */
+    private static List<String> assertFallbackEvents(byte[] xml) throws Exception {
+        List<String> expected = parseWithSax(new ByteArrayInputStream(xml));
+
+        Recorder recorder = new Recorder();
+        SheetHandler handler = new SheetHandler(recorder, null, sharedStrings());
+        SheetXmlScanner scanner = SheetXmlScanner.forCurrentThread();
+        assertFalse(scanner.scan(new TrickleInputStream(xml, 3), handler));
+        assertTrue(recorder.events.isEmpty());
+        SaxReaders.parse(scanner.unread(), handler);
+        assertEquals(expected, recorder.events);
+
+        // 되돌린 스트림은 원래 문서와 같은 바이트입니다.
+        assertFalse(scanner.scan(new ByteArrayInputStream(xml), new SheetHandler(new Recorder())));
+        try (InputStream replay = scanner.unread()) {
+            assertArrayEquals(xml, replay.readAllBytes());
+        }
+        return expected;
+    }
+
+    private static List<String> parseWithSax(InputStream xml) throws Exception {
+        Recorder recorder = new Recorder();
+        SaxReaders.parse(xml, new SheetHandler(recorder, null, sharedStrings()));
+        return recorder.events;
+    }
+
+    private static List<String> scan(InputStream xml) throws Exception {
+        Recorder recorder = new Recorder();
+        assertTrue(SheetXmlScanner.forCurrentThread().scan(xml, new SheetHandler(recorder, null, sharedStrings())));
+        return recorder.events;
+    }
+
+    private static SharedStringsTable sharedStrings() {
+        SharedStringsTable sst = new SharedStringsTable();
+        for (String value : new String[]{"이메일", "이름", "kim@example.com", "김철수"}) {
+            sst.addSharedStringItem(new XSSFRichTextString(value));
+        }
+        return sst;
+    }
+
+    /**
+     * SheetHandler가 전달한 이벤트를 문자열로 기록합니다. 첫 번째 열을 키로 행 해시도 함께 기록합니다.
+     */
+    private static final class Recorder implements RowConsumer {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void startRow(int rowIndex) {
+            events.add("row " + rowIndex);
+        }
+
+        @Override
+        public void numericCell(int columnIndex, double value) {
+            events.add("number " + columnIndex + " " + value);
+        }
+
+        @Override
+        public void sharedStringCell(int columnIndex, int sharedStringIndex) {
+            events.add("shared " + columnIndex + " " + sharedStringIndex);
+        }
+
+        @Override
+        public void inlineStringCell(int columnIndex, CharSequence value) {
+            events.add("inline " + columnIndex + " [" + value + "]");
+        }
+
+        @Override
+        public void booleanCell(int columnIndex, boolean value) {
+            events.add("boolean " + columnIndex + " " + value);
+        }
+
+        @Override
+        public void errorCell(int columnIndex, CharSequence errorCode) {
+            events.add("error " + columnIndex + " [" + errorCode + "]");
+        }
+
+        @Override
+        public int[] rowKeyColumns() {
+            return new int[]{0};
+        }
+
+        @Override
+        public void rowHash(int rowIndex, long keyHash, long rowHash) {
+            events.add("hash " + rowIndex + " " + Long.toHexString(keyHash) + " " + Long.toHexString(rowHash));
+        }
+
+        @Override
+        public void endRow(int rowIndex) {
+            events.add("end " + rowIndex);
+        }
+
+        @Override
+        public void endSheet() {
+            events.add("endSheet");
+        }
+    }
+
+    /**
+     * read 한 번에 최대 chunk 바이트만 돌려주는 스트림 (버퍼를 채우는 경계가 문서의 여러 위치에 오도록)
+     */
+    private static final class TrickleInputStream extends ByteArrayInputStream {
+
+        private final int chunk;
+
+        TrickleInputStream(byte[] bytes, int chunk) {
+            super(bytes);
+            this.chunk = chunk;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, chunk));
+        }
+    }
+}
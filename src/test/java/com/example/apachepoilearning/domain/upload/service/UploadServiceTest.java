@@ -0,0 +1,228 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import com.example.apachepoilearning.domain.memory.MemoryBudget;
+import com.example.apachepoilearning.domain.memory.MemoryEstimator;
+import com.example.apachepoilearning.excel.DelimitedFormat;
+import com.example.apachepoilearning.metrics.ExcelMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * uploadSAXXlsxParallel이 시트 순서대로 결과를 돌려주고, 한 시트가 실패하면 나머지 작업이 끝난 뒤에 반환하는지,
+ * 파싱이 실패하면 공유 문자열 테이블을 닫기 전에 RowPipeline이 멈추는지, CSV/TSV 파일도 inspect로 확인할 수 있는지 확인합니다.
+ */
+class UploadServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final ExcelMetrics metrics = new ExcelMetrics(new SimpleMeterRegistry());
+    private Path dir;
+    private UploadService uploadService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("upload-service-test");
+        uploadService = new UploadService(new UploadStagingService(dir, metrics), metrics, null, executor,
+                1000, DataSize.ofMegabytes(16), 1024, executor, 0, 1024,
+                new UploadPlanner(1000, 10000, 20000, 200000, DataSize.ofMegabytes(5), 100000),
+                true,
+                new MemoryBudget(DataSize.ofBytes(0), 0.5, Duration.ofSeconds(30), metrics),
+                new MemoryEstimator(DataSize.ofMegabytes(8), 1024, 64, 4));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdownNow();
+        try (var files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Test
+    void returnsSheetsInOrder() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            // 첫 번째 시트가 가장 크므로, 나머지 시트의 작업이 먼저 끝납니다.
+            Path file = workbook(20_000, 10, 300, 1);
+
+            List<SheetParseResult<SheetRecorder>> results = uploadService.uploadSAXXlsxParallel(file,
+                    (sheetName, sst) -> new SheetRecorder(new AtomicLong(), false));
+
+            assertEquals(4, results.size());
+            int[] rows = {20_000, 10, 300, 1};
+            for (int i = 0; i < results.size(); i++) {
+                SheetParseResult<SheetRecorder> result = results.get(i);
+                assertEquals(i, result.sheetIndex());
+                assertEquals("Sheet " + i, result.sheetName());
+                // 헤더 행 포함
+                assertEquals(rows[i] + 1, result.rowCount());
+                assertEquals(rows[i], result.consumer().rows);
+                // 각 시트의 첫 데이터 행에는 시트 번호가 들어 있습니다.
+                assertEquals(i * 1_000_000.0, result.consumer().firstValue);
+            }
+        });
+    }
+
+    @Test
+    void waitsForRunningSheetsOnFailure() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            Path file = workbook(10, 20_000, 20_000, 20_000);
+            AtomicLong rowsSeen = new AtomicLong();
+
+            IllegalStateException failure = assertThrows(IllegalStateException.class, () ->
+                    uploadService.uploadSAXXlsxParallel(file, (sheetName, sst) ->
+                            new SheetRecorder(rowsSeen, "Sheet 0".equals(sheetName))));
+            assertEquals("변환 실패", failure.getMessage());
+
+            // 반환된 뒤에는 공유 문자열 테이블과 패키지가 닫혀 있으므로, 더 이상 처리되는 행이 없어야 합니다.
+            long seen = rowsSeen.get();
+            Thread.sleep(200);
+            assertEquals(seen, rowsSeen.get());
+        });
+    }
+
+    @Test
+    void abortsPipelineBeforeClosingSharedStrings() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            Path file = workbook(20_000);
+            AtomicLong rowsMapped = new AtomicLong();
+            IllegalArgumentException failure = new IllegalArgumentException("변환 실패");
+            AtomicReference<RowPipeline<Long>> pipeline = new AtomicReference<>();
+
+            // 워커가 실패하면 파싱 스레드는 다음 행에서 중단되고, 그 자리에서 파이프라인이 멈춥니다.
+            IllegalStateException parseFailure = assertThrows(IllegalStateException.class, () ->
+                    uploadService.uploadSAXXlsx(file, sst -> {
+                        RowPipeline<Long> created = new RowPipeline<>(2, 64, true, 100, row -> {
+                            if (row.rowIndex() == 1_000) {
+                                throw failure;
+                            }
+                            LockSupport.parkNanos(100_000);
+                            return rowsMapped.incrementAndGet();
+                        }, (batch, lastRow) -> {
+                        });
+                        pipeline.set(created);
+                        return created.start(executor);
+                    }));
+            assertSame(failure, parseFailure.getCause());
+
+            // 반환되기 전에 워커와 writer가 멈췄으므로, 닫힌 공유 문자열 테이블을 조회하는 행이 없습니다.
+            long mapped = rowsMapped.get();
+            Thread.sleep(200);
+            assertEquals(mapped, rowsMapped.get());
+            assertSame(failure, assertThrows(IllegalArgumentException.class, () -> pipeline.get().finish()));
+        });
+    }
+
+    @Test
+    void inspectsDelimitedUpload() throws Exception {
+        String csv = "이름,이메일,나이\n홍길동,hong@example.com,30\n\"김, 철수\",kim@example.com,41\n이영희,lee@example.com,25\n";
+        Path plain = Files.createTempFile(dir, "users-", ".csv");
+        Files.writeString(plain, csv);
+
+        // 앞부분 레코드만 읽으며, 범위는 모르지만 텍스트 크기로 행 수를 어림할 수 있습니다.
+        WorkbookInspection workbook = uploadService.inspect(staged(plain), 2);
+        SheetInspection sheet = workbook.firstSheet();
+        assertEquals(1, workbook.sheets().size());
+        assertEquals(0, workbook.sharedStringsSize());
+        assertEquals("csv", sheet.sheetName());
+        assertEquals(-1, sheet.lastRow());
+        assertEquals(Files.size(plain), sheet.xmlSize());
+        assertEquals(3, sheet.columnCount());
+        assertEquals(List.of("이름", "이메일", "나이"), sheet.columns().stream().map(ColumnInspection::header).toList());
+        assertEquals(ColumnInspection.Type.STRING, sheet.columns().get(0).type());
+        assertEquals(ColumnInspection.Type.INTEGER, sheet.columns().get(2).type());
+        assertEquals(3, sheet.sampleRows().size());
+        assertEquals(List.of("김, 철수", "kim@example.com", "41"), sheet.sampleRows().get(2));
+
+        // gzip으로 압축된 파일도 같은 결과이며, 압축을 푼 크기는 모릅니다.
+        Path gzip = Files.createTempFile(dir, "users-", ".csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+            out.write(csv.getBytes(StandardCharsets.UTF_8));
+        }
+        SheetInspection compressed = uploadService.inspect(staged(gzip), 2).firstSheet();
+        assertEquals(-1, compressed.xmlSize());
+        assertEquals(sheet.columns(), compressed.columns());
+        assertEquals(sheet.sampleRows(), compressed.sampleRows());
+    }
+
+    /**
+     * 시트마다 헤더 행과 rows[i]개의 데이터 행을 쓴 XLSX 파일을 만듭니다. (i번째 시트의 값: i × 1,000,000 + 행 번호)
+     */
+    private Path workbook(int... rows) throws Exception {
+        Path file = Files.createTempFile(dir, "sheets-", ".xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            for (int i = 0; i < rows.length; i++) {
+                Sheet sheet = workbook.createSheet("Sheet " + i);
+                sheet.createRow(0).createCell(0).setCellValue("값");
+                for (int r = 1; r <= rows[i]; r++) {
+                    Row row = sheet.createRow(r);
+                    row.createCell(0).setCellValue(i * 1_000_000.0 + r - 1);
+                }
+            }
+            workbook.write(out);
+        }
+        return file;
+    }
+
+    private StagedUpload staged(Path file) throws Exception {
+        return new StagedUpload(file, Files.size(file), null, DelimitedFormat.CSV, metrics);
+    }
+
+    /**
+     * 데이터 행 수와 첫 데이터 행의 값을 기록합니다. fail이면 첫 데이터 행에서 예외를 던지고, 아니면 행마다 잠시 멈춥니다.
+     */
+    private static final class SheetRecorder implements RowConsumer {
+
+        private final AtomicLong rowsSeen;
+        private final boolean fail;
+        private long rows;
+        private double firstValue = Double.NaN;
+
+        SheetRecorder(AtomicLong rowsSeen, boolean fail) {
+            this.rowsSeen = rowsSeen;
+            this.fail = fail;
+        }
+
+        @Override
+        public void numericCell(int columnIndex, double value) {
+            if (fail) {
+                throw new IllegalStateException("변환 실패");
+            }
+            if (rows == 0) {
+                firstValue = value;
+            }
+            rows++;
+            rowsSeen.incrementAndGet();
+            if (rows % 100 == 0) {
+                LockSupport.parkNanos(1_000_000);
+            }
+        }
+    }
+}
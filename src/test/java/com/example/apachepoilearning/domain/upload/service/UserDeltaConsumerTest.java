@@ -0,0 +1,118 @@
+package com.example.apachepoilearning.domain.upload.service;
+
+import com.example.apachepoilearning.entity.UploadRowHash;
+import com.example.apachepoilearning.entity.User;
+import com.example.apachepoilearning.excel.DelimitedFormat;
+import com.example.apachepoilearning.metrics.ExcelMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 변경분 업로드가 이전 색인과 비교해 INSERT, UPDATE, DELETE, 변경 없음, 중복, 키 없음, 변환 실패를 올바르게 집계하는지 확인합니다.
+ */
+class UserDeltaConsumerTest {
+
+    private static final String SOURCE = "daily-users";
+    private static final String HEADER = "ID,이름,이메일,나이\n";
+
+    @Test
+    void insertsEveryRowIntoEmptyIndex() throws Exception {
+        RecordingWriter writer = new RecordingWriter();
+        UserDeltaImportResult result = importDelta(HEADER
+                + ",김철수,kim@example.com,30\n"
+                + ",이영희,lee@example.com,25\n"
+                + ",박민수,park@example.com,40\n", new RowHashIndex(16), writer);
+
+        assertEquals(new UserDeltaImportResult(SOURCE, 3, 3, 0, 0, 0, 0, 0, 0), result);
+        // batchSize(2)마다 청크를 커밋합니다.
+        assertEquals(2, writer.chunks);
+        assertEquals(List.of("kim@example.com", "lee@example.com", "park@example.com"),
+                writer.inserts.stream().map(User::getEmail).toList());
+    }
+
+    @Test
+    void countsChangesAgainstPreviousUpload() throws Exception {
+        RecordingWriter first = new RecordingWriter();
+        importDelta(HEADER
+                + ",김철수,kim@example.com,30\n"
+                + ",이영희,lee@example.com,25\n"
+                + ",박민수,park@example.com,40\n", new RowHashIndex(16), first);
+        RowHashIndex index = new RowHashIndex(16);
+        for (UploadRowHash hash : first.insertHashes) {
+            index.put(hash.getRowKey(), hash.getRowHash(), hash.getUserId());
+        }
+
+        // 박민수는 시트에서 사라졌으므로 DELETE 됩니다.
+        RecordingWriter second = new RecordingWriter();
+        UserDeltaImportResult result = importDelta(HEADER
+                + ",김철수,kim@example.com,30\n"         // 변경 없음
+                + ",이영희,lee@example.com,26\n"         // 나이 변경 → UPDATE
+                + ",최지우,choi@example.com,35\n"        // 새 행 → INSERT
+                + ",김철수2,kim@example.com,31\n"        // 중복 키
+                + ",이메일없음,,20\n"                     // 빈 이메일
+                + ",공백,\"   \",21\n"                   // 공백뿐인 이메일
+                + ",열없음\n"                             // 이메일 열 자체가 없음
+                + ",나이오류,bad@example.com,abc\n",     // 나이를 숫자로 변환할 수 없음
+                index, second);
+
+        assertEquals(new UserDeltaImportResult(SOURCE, 7, 1, 1, 1, 1, 1, 3, 1), result);
+        assertEquals(List.of("choi@example.com"), second.inserts.stream().map(User::getEmail).toList());
+        User updated = second.updates.get(0);
+        assertEquals(first.inserts.get(1).getId(), updated.getId());
+        assertEquals(26, updated.getAge());
+        assertEquals(List.of(first.inserts.get(2).getId()), second.deletedUserIds);
+    }
+
+    private static UserDeltaImportResult importDelta(String csv, RowHashIndex index, RecordingWriter writer) throws Exception {
+        UserDeltaConsumer consumer = new UserDeltaConsumer(null, SOURCE, index, writer, 2, new ImportProgress(),
+                new ExcelMetrics(new SimpleMeterRegistry()));
+        DelimitedScanner.forCurrentThread().scan(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                DelimitedFormat.CSV, new SheetHandler(consumer));
+        consumer.finish();
+        return consumer.result();
+    }
+
+    /**
+     * 저장소 대신 커밋된 청크를 기록하고, INSERT된 사용자에게 순서대로 id를 부여합니다.
+     */
+    private static final class RecordingWriter extends UserChunkWriter {
+
+        private final List<User> inserts = new ArrayList<>();
+        private final List<UploadRowHash> insertHashes = new ArrayList<>();
+        private final List<User> updates = new ArrayList<>();
+        private final List<Long> deletedUserIds = new ArrayList<>();
+        private int chunks;
+        private long nextId = 100;
+
+        RecordingWriter() {
+            super(null, null);
+        }
+
+        @Override
+        public void writeDeltaChunk(List<User> inserts, List<UploadRowHash> insertHashes, List<User> updates,
+                                    List<UploadRowHash> updateHashes) {
+            chunks++;
+            for (int i = 0; i < inserts.size(); i++) {
+                inserts.get(i).setId(nextId++);
+                insertHashes.get(i).setUserId(inserts.get(i).getId());
+            }
+            this.inserts.addAll(inserts);
+            this.insertHashes.addAll(insertHashes);
+            this.updates.addAll(updates);
+        }
+
+        @Override
+        public void deleteDeltaRows(String sourceName, long[] rowKeys, long[] userIds, int count) {
+            for (int i = 0; i < count; i++) {
+                deletedUserIds.add(userIds[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.apachepoilearning.excel;
+
+import com.example.apachepoilearning.entity.User;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ExcelRowMapper가 문자열 셀을 필드 타입으로 변환하고, 변환할 수 없는 값은 예외 없이 알려 주는지 확인합니다.
+ */
+class ExcelRowMapperTest {
+
+    private static final ExcelRowMapper<User> MAPPER = ExcelRowMapper.of(User.class);
+
+    // User의 @ExcelColumn 열: ID(0, 읽지 않음), 이름(1), 이메일(2), 나이(3)
+    private static final int NAME = 1;
+    private static final int AGE = 3;
+
+    @Test
+    void convertsNumericText() {
+        User user = MAPPER.newInstance();
+        assertTrue(MAPPER.setText(user, AGE, " 31 "));
+        assertEquals(31, user.getAge());
+        assertTrue(MAPPER.setString(user, AGE, "42.0"));
+        assertEquals(42, user.getAge());
+        // 빈 문자열은 값이 없는 셀과 같이 필드를 바꾸지 않습니다.
+        assertTrue(MAPPER.setText(user, AGE, "  "));
+        assertEquals(42, user.getAge());
+    }
+
+    @Test
+    void reportsTextThatIsNotANumber() {
+        User user = MAPPER.newInstance();
+        MAPPER.setNumber(user, AGE, 25);
+        assertFalse(MAPPER.setText(user, AGE, "abc"));
+        assertFalse(MAPPER.setString(user, AGE, "스물다섯"));
+        assertEquals(25, user.getAge());
+    }
+
+    @Test
+    void ignoresUnmappedColumns() {
+        User user = MAPPER.newInstance();
+        assertTrue(MAPPER.setText(user, 0, "abc"));
+        assertTrue(MAPPER.setText(user, 9, "abc"));
+        assertNull(user.getId());
+        assertTrue(MAPPER.setText(user, NAME, "김철수"));
+        assertEquals("김철수", user.getName());
+    }
+}